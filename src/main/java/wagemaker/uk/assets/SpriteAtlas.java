@@ -0,0 +1,108 @@
+package wagemaker.uk.assets;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Shared regions of the game's sprite sheet.
+ * 
+ * The sheet is decoded and uploaded once, the first time any sprite is requested,
+ * and every tree, stone and item draws from the same texture through its
+ * {@link TextureRegion}. Entities therefore own no GPU resources, and a batch
+ * drawing many of them never switches textures.
+ * 
+ * Must be used on the rendering thread, like any texture.
+ */
+public final class SpriteAtlas {
+    
+    /** Path of the sprite sheet, relative to the assets directory. */
+    public static final String SHEET_PATH = "sprites/assets.png";
+    
+    private static Texture sheet;
+    private static final Map<SpriteType, TextureRegion> regions = new EnumMap<>(SpriteType.class);
+    
+    private SpriteAtlas() {
+    }
+    
+    /**
+     * Gets the shared region for a sprite, loading the sheet on first use.
+     * @param type The sprite
+     * @return The region; owned by the atlas, never dispose its texture
+     */
+    public static synchronized TextureRegion get(SpriteType type) {
+        if (sheet == null) {
+            load();
+        }
+        return regions.get(type);
+    }
+    
+    /**
+     * Checks whether the sheet is currently loaded.
+     * @return true if the sheet has been loaded and not disposed
+     */
+    public static synchronized boolean isLoaded() {
+        return sheet != null;
+    }
+    
+    /**
+     * Releases the sheet texture. Call from the game's dispose(); a later
+     * {@link #get(SpriteType)} loads it again.
+     */
+    public static synchronized void dispose() {
+        if (sheet != null) {
+            sheet.dispose();
+            sheet = null;
+            regions.clear();
+            System.out.println("[SpriteAtlas] Sprite sheet disposed");
+        }
+    }
+    
+    private static void load() {
+        Pixmap source = new Pixmap(Gdx.files.internal(SHEET_PATH));
+        int width = Math.max(source.getWidth(), requiredWidth());
+        int height = Math.max(source.getHeight(), requiredHeight());
+        if (width == source.getWidth() && height == source.getHeight()) {
+            sheet = new Texture(source);
+        } else {
+            // Some sprites extend past the sheet edge; pad with transparent pixels so
+            // their regions stay in bounds, as the old per-sprite copies did
+            Pixmap padded = new Pixmap(width, height, Pixmap.Format.RGBA8888);
+            padded.drawPixmap(source, 0, 0);
+            sheet = new Texture(padded);
+            padded.dispose();
+        }
+        source.dispose();
+        
+        for (SpriteType type : SpriteType.values()) {
+            regions.put(type, new TextureRegion(sheet, type.getX(), type.getY(), type.getWidth(), type.getHeight()));
+        }
+        System.out.println("[SpriteAtlas] Loaded " + SHEET_PATH + " with " + regions.size() + " sprites");
+    }
+    
+    /**
+     * Gets the sheet width needed to hold every sprite region.
+     */
+    static int requiredWidth() {
+        int width = 0;
+        for (SpriteType type : SpriteType.values()) {
+            width = Math.max(width, type.getX() + type.getWidth());
+        }
+        return width;
+    }
+    
+    /**
+     * Gets the sheet height needed to hold every sprite region.
+     */
+    static int requiredHeight() {
+        int height = 0;
+        for (SpriteType type : SpriteType.values()) {
+            height = Math.max(height, type.getY() + type.getHeight());
+        }
+        return height;
+    }
+}
@@ -0,0 +1,56 @@
+package wagemaker.uk.assets;
+
+/**
+ * Sprites cut from the shared sprite sheet (sprites/assets.png).
+ * Coordinates are in pixels from the top-left corner of the sheet.
+ */
+public enum SpriteType {
+    // Trees (top row, 128px tall)
+    COCONUT_TREE(0, 0, 128, 128),
+    APPLE_TREE(128, 0, 128, 128),
+    BAMBOO_TREE(256, 0, 64, 128),
+    SMALL_TREE(320, 0, 64, 128),
+    BANANA_TREE(384, 0, 128, 128),
+    
+    // Items (64x64 row)
+    APPLE(0, 128, 64, 64),
+    BANANA(64, 128, 64, 64),
+    BAMBOO_STACK(128, 128, 64, 64),
+    BABY_BAMBOO(192, 128, 64, 64),
+    WOOD_STACK(256, 128, 64, 64),
+    PEBBLE(320, 128, 64, 64),
+    BABY_TREE(384, 128, 64, 64),
+    PALM_FIBER(448, 128, 64, 64),
+    
+    // Obstacles
+    CACTUS(0, 192, 64, 128),
+    STONE(64, 192, 128, 128);
+    
+    private final int x;
+    private final int y;
+    private final int width;
+    private final int height;
+    
+    SpriteType(int x, int y, int width, int height) {
+        this.x = x;
+        this.y = y;
+        this.width = width;
+        this.height = height;
+    }
+    
+    public int getX() {
+        return x;
+    }
+    
+    public int getY() {
+        return y;
+    }
+    
+    public int getWidth() {
+        return width;
+    }
+    
+    public int getHeight() {
+        return height;
+    }
+}
@@ -0,0 +1,22 @@
+package wagemaker.uk.biome;
+
+/**
+ * Answers which biome applies at a world coordinate, without any rendering state.
+ * 
+ * Implementations must be deterministic and safe to call from any thread, so a single
+ * instance can be shared by the game client, the server's world generation and the
+ * planting validators.
+ * 
+ * Requirements: 4.1 (coordinate-based), 4.2 (deterministic)
+ */
+public interface BiomeSampler {
+    
+    /**
+     * Determines which biome type applies at a given world position.
+     * 
+     * @param worldX The x-coordinate in world space
+     * @param worldY The y-coordinate in world space
+     * @return The biome type at this position
+     */
+    BiomeType getBiomeAtPosition(float worldX, float worldY);
+}
@@ -0,0 +1,170 @@
+package wagemaker.uk.biome;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounded cache of biome types for tile-aligned positions.
+ *
+ * The world is split into chunks of 16x16 grass tiles. The first lookup inside a chunk
+ * samples all 256 tile corners in one pass and stores them as a byte array, so later
+ * lookups in that chunk are a single array read. Chunks are evicted least recently used
+ * first once the limit is reached, which keeps memory at a few kilobytes however far the
+ * player travels.
+ *
+ * Only positions on the 64 pixel tile grid are cached. Any other position is passed
+ * straight to the underlying sampler, so the answer is always identical to sampling
+ * directly (the server never sees a different biome than the client).
+ *
+ * Safe for concurrent use; lookups are synchronized, which is cheap because in practice
+ * only the render thread uses the cache.
+ *
+ * Requirements: 2.1 (performance), 4.2 (deterministic)
+ */
+public class BiomeTileCache implements BiomeSampler {
+
+    /** Size of a grass tile in pixels. */
+    public static final int TILE_SIZE = 64;
+
+    /** Tiles along each side of a cached chunk. */
+    public static final int CHUNK_TILES = 16;
+
+    /** Default number of chunks kept (16 KB of biome data). */
+    public static final int DEFAULT_MAX_CHUNKS = 64;
+
+    private static final int TILE_SHIFT = 6;
+    private static final int CHUNK_SHIFT = 4;
+    private static final int LOCAL_MASK = CHUNK_TILES - 1;
+    private static final BiomeType[] TYPES = BiomeType.values();
+
+    private final BiomeSampler source;
+    private final int maxChunks;
+    private final LinkedHashMap<Long, byte[]> chunks;
+
+    // Most recently used chunk, checked before the map since lookups come in runs
+    private long lastKey;
+    private byte[] lastChunk;
+    private int chunksFilled;
+
+    /**
+     * Creates a cache with the default chunk limit.
+     * @param source The sampler to fill the cache from
+     */
+    public BiomeTileCache(BiomeSampler source) {
+        this(source, DEFAULT_MAX_CHUNKS);
+    }
+
+    /**
+     * Creates a cache.
+     * @param source The sampler to fill the cache from; must be deterministic
+     * @param maxChunks The most chunks kept before the least recently used is evicted
+     */
+    public BiomeTileCache(BiomeSampler source, int maxChunks) {
+        if (maxChunks <= 0) {
+            throw new IllegalArgumentException("Chunk limit must be positive: " + maxChunks);
+        }
+        this.source = source;
+        this.maxChunks = maxChunks;
+        this.chunks = new LinkedHashMap<Long, byte[]>(maxChunks * 2, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, byte[]> eldest) {
+                if (size() > BiomeTileCache.this.maxChunks) {
+                    if (eldest.getValue() == lastChunk) {
+                        lastChunk = null;
+                    }
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Determines which biome type applies at a given world position, reading the cache
+     * when the position lies on the tile grid.
+     *
+     * @param worldX The x-coordinate in world space
+     * @param worldY The y-coordinate in world space
+     * @return The biome type at this position
+     */
+    @Override
+    public BiomeType getBiomeAtPosition(float worldX, float worldY) {
+        int x = (int) worldX;
+        int y = (int) worldY;
+        if (x != worldX || y != worldY || ((x | y) & (TILE_SIZE - 1)) != 0) {
+            return source.getBiomeAtPosition(worldX, worldY);
+        }
+        return getBiomeAtTile(x >> TILE_SHIFT, y >> TILE_SHIFT);
+    }
+
+    /**
+     * Gets the biome type at a tile's corner.
+     *
+     * @param tileX The tile x index (world x = tileX * 64)
+     * @param tileY The tile y index (world y = tileY * 64)
+     * @return The biome type at the tile
+     */
+    public synchronized BiomeType getBiomeAtTile(int tileX, int tileY) {
+        int chunkX = tileX >> CHUNK_SHIFT;
+        int chunkY = tileY >> CHUNK_SHIFT;
+        long key = ((long) chunkX << 32) | (chunkY & 0xFFFFFFFFL);
+
+        // A run of lookups in one chunk touches the access-ordered map once, at its
+        // start. Nothing else is accessed until the run ends, so the map's order is
+        // still exact least-recently-used order and the chunk in use is never eldest.
+        byte[] chunk = lastChunk;
+        if (chunk == null || key != lastKey) {
+            chunk = chunks.get(key);
+            if (chunk == null) {
+                chunk = fill(chunkX, chunkY);
+                chunks.put(key, chunk);
+            }
+            lastKey = key;
+            lastChunk = chunk;
+        }
+        return TYPES[chunk[(tileY & LOCAL_MASK) * CHUNK_TILES + (tileX & LOCAL_MASK)]];
+    }
+
+    /**
+     * Samples every tile of a chunk, row by row.
+     */
+    private byte[] fill(int chunkX, int chunkY) {
+        byte[] chunk = new byte[CHUNK_TILES * CHUNK_TILES];
+        float originX = (float) (chunkX * CHUNK_TILES * TILE_SIZE);
+        float originY = (float) (chunkY * CHUNK_TILES * TILE_SIZE);
+        for (int row = 0; row < CHUNK_TILES; row++) {
+            float y = originY + row * TILE_SIZE;
+            int offset = row * CHUNK_TILES;
+            for (int column = 0; column < CHUNK_TILES; column++) {
+                chunk[offset + column] = (byte) source.getBiomeAtPosition(originX + column * TILE_SIZE, y).ordinal();
+            }
+        }
+        chunksFilled++;
+        return chunk;
+    }
+
+    /**
+     * Gets the number of chunks currently cached.
+     * @return The cached chunk count (never more than the limit)
+     */
+    public synchronized int getCachedChunkCount() {
+        return chunks.size();
+    }
+
+    /**
+     * Gets how many chunks have been sampled since the cache was created.
+     * Useful for checking the cache is not thrashing.
+     * @return The number of chunk fills
+     */
+    public synchronized int getChunksFilled() {
+        return chunksFilled;
+    }
+
+    /**
+     * Drops every cached chunk.
+     */
+    public synchronized void clear() {
+        chunks.clear();
+        lastChunk = null;
+    }
+}
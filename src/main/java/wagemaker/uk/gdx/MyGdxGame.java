@@ -14,6 +14,7 @@ import com.badlogic.gdx.graphics.OrthographicCamera;
 import com.badlogic.gdx.graphics.Pixmap;
 import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
 import com.badlogic.gdx.utils.viewport.ScreenViewport;
 import com.badlogic.gdx.utils.viewport.Viewport;
@@ -48,12 +49,29 @@ import wagemaker.uk.trees.BananaTree;
 import wagemaker.uk.trees.Cactus;
 import wagemaker.uk.trees.CoconutTree;
 import wagemaker.uk.trees.SmallTree;
+import wagemaker.uk.assets.SpriteAtlas;
 import wagemaker.uk.biome.BiomeManager;
+import wagemaker.uk.biome.BiomeSampler;
+import wagemaker.uk.biome.NoiseBiomeSampler;
 import wagemaker.uk.birds.BirdFormationManager;
 import wagemaker.uk.ui.Compass;
 import wagemaker.uk.ui.GameMenu;
 import wagemaker.uk.ui.HealthBarUI;
 import wagemaker.uk.weather.RainSystem;
+import wagemaker.uk.world.AsyncWorldSaver;
+import wagemaker.uk.world.ChunkDelta;
+import wagemaker.uk.world.ChunkGenerator;
+import wagemaker.uk.world.ChunkLayout;
+import wagemaker.uk.world.ChunkStreamer;
+import wagemaker.uk.world.DestructibleObject;
+import wagemaker.uk.world.EntityWorld;
+import wagemaker.uk.world.IndexedWorldMap;
+import wagemaker.uk.world.LongHashSet;
+import wagemaker.uk.world.SpatialIndex;
+import wagemaker.uk.world.TileKey;
+import wagemaker.uk.world.TileKeyedMap;
+import wagemaker.uk.world.WorldObject;
+import wagemaker.uk.world.WorldObjectType;
 import wagemaker.uk.world.WorldSaveData;
 import wagemaker.uk.world.WorldSaveManager;
 import wagemaker.uk.inventory.InventoryManager;
@@ -173,16 +191,19 @@ public class MyGdxGame extends ApplicationAdapter {
     SpriteBatch batch;
     ShapeRenderer shapeRenderer;
     BiomeManager biomeManager;
+    final BiomeSampler biomeSampler = NoiseBiomeSampler.INSTANCE; // shared with the server's world generation
     Player player;
     InventoryManager inventoryManager;
     wagemaker.uk.ui.InventoryRenderer inventoryRenderer;
     OrthographicCamera camera;
     Viewport viewport;
-    Map<String, SmallTree> trees;
-    Map<String, AppleTree> appleTrees;
-    Map<String, CoconutTree> coconutTrees;
-    Map<String, BambooTree> bambooTrees;
-    Map<String, BananaTree> bananaTrees;
+    SpatialIndex<WorldObject> worldObjects; // trees and stones, fed by their maps
+    EntityWorld entities; // health and position of the same trees and stones in packed arrays, for per-frame passes
+    IndexedWorldMap<SmallTree> trees;
+    IndexedWorldMap<AppleTree> appleTrees;
+    IndexedWorldMap<CoconutTree> coconutTrees;
+    IndexedWorldMap<BambooTree> bambooTrees;
+    IndexedWorldMap<BananaTree> bananaTrees;
     Map<String, Apple> apples;
     Map<String, Banana> bananas;
     Map<String, BambooStack> bambooStacks;
@@ -193,12 +214,29 @@ public class MyGdxGame extends ApplicationAdapter {
     Map<String, PalmFiber> palmFibers;
     Map<String, PlantedBamboo> plantedBamboos;
     Map<String, PlantedTree> plantedTrees;
-    Map<String, Stone> stones;
-    Map<String, Stone> stoneMap;
+    IndexedWorldMap<Stone> stones;
+    TileKeyedMap<Stone> stoneMap;
     Cactus cactus; // Single cactus near spawn
-    Map<String, Boolean> clearedPositions;
+    TileKeyedMap<Boolean> clearedPositions;
+    ChunkStreamer chunkStreamer; // loads and unloads singleplayer trees and stones by chunk
+    ChunkGenerator chunkGenerator; // builds chunk layouts off the render thread
+    AsyncWorldSaver worldSaver; // writes world saves off the render thread
+    private final LongHashSet pendingChunks = new LongHashSet(); // loaded chunks awaiting their layout
+    private int chunkEpoch; // bumped when the world is replaced, to drop layouts still in flight
     PlantingSystem plantingSystem;
     Random random;
+    private final float[] rolledPosition = new float[2]; // output of rollTree/rollStone
+    private final ChunkStreamer.Host chunkHost = new ChunkStreamer.Host() {
+        @Override
+        public void loadChunk(int chunkX, int chunkY, ChunkDelta delta) {
+            loadWorldChunk(chunkX, chunkY, delta);
+        }
+        
+        @Override
+        public ChunkDelta unloadChunk(int chunkX, int chunkY) {
+            return unloadWorldChunk(chunkX, chunkY);
+        }
+    };
     long worldSeed; // World seed for deterministic generation
     GameMenu gameMenu;
     RainSystem rainSystem; // Weather system for localized rain effects
@@ -271,11 +309,13 @@ public class MyGdxGame extends ApplicationAdapter {
         
         batch = new SpriteBatch();
         shapeRenderer = new ShapeRenderer();
-        trees = new HashMap<>();
-        appleTrees = new HashMap<>();
-        coconutTrees = new HashMap<>();
-        bambooTrees = new HashMap<>();
-        bananaTrees = new HashMap<>();
+        worldObjects = new SpatialIndex<>();
+        entities = new EntityWorld();
+        trees = new IndexedWorldMap<>(worldObjects, entities);
+        appleTrees = new IndexedWorldMap<>(worldObjects, entities);
+        coconutTrees = new IndexedWorldMap<>(worldObjects, entities);
+        bambooTrees = new IndexedWorldMap<>(worldObjects, entities);
+        bananaTrees = new IndexedWorldMap<>(worldObjects, entities);
         apples = new HashMap<>();
         bananas = new HashMap<>();
         bambooStacks = new HashMap<>();
@@ -286,11 +326,14 @@ public class MyGdxGame extends ApplicationAdapter {
         palmFibers = new HashMap<>();
         plantedBamboos = new HashMap<>();
         plantedTrees = new HashMap<>();
-        stones = new HashMap<>();
-        stoneMap = new HashMap<>();
-        clearedPositions = new HashMap<>();
+        stones = new IndexedWorldMap<>(worldObjects, entities);
+        stoneMap = new TileKeyedMap<>();
+        clearedPositions = new TileKeyedMap<>();
         remotePlayers = new HashMap<>();
         random = new Random();
+        chunkStreamer = new ChunkStreamer();
+        chunkGenerator = new ChunkGenerator(biomeSampler);
+        worldSaver = new AsyncWorldSaver(this::deferOperation);
         plantingSystem = new PlantingSystem();
         worldSeed = 0; // Will be set by server in multiplayer, or remain 0 for single-player
         
@@ -332,6 +375,7 @@ public class MyGdxGame extends ApplicationAdapter {
         player.setPebbles(pebbles);
         player.setPalmFibers(palmFibers);
         player.setStones(stones);
+        player.setWorldObjects(worldObjects);
         player.setCactus(cactus);
         player.setGameInstance(this);
         player.setClearedPositions(clearedPositions);
@@ -388,6 +432,7 @@ public class MyGdxGame extends ApplicationAdapter {
         // Initialize rain system
         rainSystem = new RainSystem(shapeRenderer);
         rainSystem.initialize();
+        rainSystem.setTreeLocator(this::isPuddleObstacleWithin);
         
         // Initialize dynamic rain manager for random rain events
         dynamicRainManager = new wagemaker.uk.weather.DynamicRainManager(rainSystem.getZoneManager());
@@ -510,31 +555,6 @@ public class MyGdxGame extends ApplicationAdapter {
         // Update dynamic rain manager (handles random rain events)
         dynamicRainManager.update(deltaTime, playerCenterX, playerCenterY);
         
-        // Collect all tree positions for puddle avoidance (120px minimum distance)
-        java.util.List<wagemaker.uk.weather.PuddleRenderer.TreePosition> allTrees = new java.util.ArrayList<>();
-        for (SmallTree tree : trees.values()) {
-            allTrees.add(new wagemaker.uk.weather.PuddleRenderer.TreePosition(tree.getX(), tree.getY()));
-        }
-        for (AppleTree tree : appleTrees.values()) {
-            allTrees.add(new wagemaker.uk.weather.PuddleRenderer.TreePosition(tree.getX(), tree.getY()));
-        }
-        for (CoconutTree tree : coconutTrees.values()) {
-            allTrees.add(new wagemaker.uk.weather.PuddleRenderer.TreePosition(tree.getX(), tree.getY()));
-        }
-        for (BambooTree tree : bambooTrees.values()) {
-            allTrees.add(new wagemaker.uk.weather.PuddleRenderer.TreePosition(tree.getX(), tree.getY()));
-        }
-        for (BananaTree tree : bananaTrees.values()) {
-            allTrees.add(new wagemaker.uk.weather.PuddleRenderer.TreePosition(tree.getX(), tree.getY()));
-        }
-        for (PlantedTree tree : plantedTrees.values()) {
-            allTrees.add(new wagemaker.uk.weather.PuddleRenderer.TreePosition(tree.getX(), tree.getY()));
-        }
-        for (PlantedBamboo bamboo : plantedBamboos.values()) {
-            allTrees.add(new wagemaker.uk.weather.PuddleRenderer.TreePosition(bamboo.getX(), bamboo.getY()));
-        }
-        rainSystem.setTreePositions(allTrees);
-        
         // Update rain system rendering
         rainSystem.update(deltaTime, playerCenterX, playerCenterY, camera);
         
@@ -552,22 +572,8 @@ public class MyGdxGame extends ApplicationAdapter {
             // update player and camera
             player.update(deltaTime);
         
-        // update trees
-        for (SmallTree tree : trees.values()) {
-            tree.update(deltaTime);
-        }
-        for (AppleTree appleTree : appleTrees.values()) {
-            appleTree.update(deltaTime);
-        }
-        for (CoconutTree coconutTree : coconutTrees.values()) {
-            coconutTree.update(deltaTime);
-        }
-        for (BambooTree bambooTree : bambooTrees.values()) {
-            bambooTree.update(deltaTime);
-        }
-        for (BananaTree bananaTree : bananaTrees.values()) {
-            bananaTree.update(deltaTime);
-        }
+        // update trees and stones
+        entities.update(deltaTime);
         
         // update planted bamboos and check for transformations
         List<String> bambooToTransform = new ArrayList<>();
@@ -646,11 +652,6 @@ public class MyGdxGame extends ApplicationAdapter {
             cactus.update(deltaTime);
         }
         
-        // update stones
-        for (Stone stone : stones.values()) {
-            stone.update(deltaTime);
-        }
-        
         // update remote players in multiplayer mode
         if (gameMode != GameMode.SINGLEPLAYER) {
             for (RemotePlayer remotePlayer : remotePlayers.values()) {
@@ -660,6 +661,14 @@ public class MyGdxGame extends ApplicationAdapter {
         }
         
         camera.update();
+        
+        // Load trees and stones by chunk around the camera, unloading far chunks; new chunks
+        // are generated in the background and installed through the deferred queue
+        // Only in singleplayer mode; in multiplayer, server is authoritative and sends all entities
+        if (gameMode == GameMode.SINGLEPLAYER) {
+            chunkStreamer.update(camera.position.x, camera.position.y,
+                                 viewport.getWorldWidth() + 64, viewport.getWorldHeight() + 64, chunkHost);
+        }
 
         Gdx.gl.glClearColor(0.1f, 0.12f, 0.16f, 1);
         Gdx.gl.glClear(GL20.GL_COLOR_BUFFER_BIT);
@@ -694,11 +703,8 @@ public class MyGdxGame extends ApplicationAdapter {
                                           camera.position.x, camera.position.y,
                                           viewport.getWorldWidth(), viewport.getWorldHeight());
         }
-        // draw trees
-        drawTrees();
-        drawCoconutTrees();
-        drawBambooTrees();
-        drawStones();
+        // draw trees and stones that stand behind the player
+        drawWorldObjects(WorldObjectType.Layer.BELOW_PLAYERS);
         drawApples();
         drawBananas();
         drawBambooStacks();
@@ -712,8 +718,7 @@ public class MyGdxGame extends ApplicationAdapter {
         batch.draw(player.getCurrentFrame(), player.getX(), player.getY(), 100, 100);
         // draw remote players at same z-order as local player
         renderRemotePlayers();
-        drawAppleTrees();
-        drawBananaTrees();
+        drawWorldObjects(WorldObjectType.Layer.ABOVE_PLAYERS);
         batch.end();
         
         // Render rain effects after batch.end() but before UI
@@ -797,168 +802,74 @@ public class MyGdxGame extends ApplicationAdapter {
                 // Get appropriate texture for this position based on biome
                 Texture texture = biomeManager.getTextureForPosition(x, y);
                 batch.draw(texture, x, y, 64, 64);
-                
-                // Only generate trees/stones in singleplayer mode
-                // In multiplayer, server is authoritative and sends all entities
-                if (gameMode == GameMode.SINGLEPLAYER) {
-                    generateTreeAt(x, y);
-                    generateStoneAt(x, y);
-                }
             }
         }
     }
     
     /**
-     * Generates a tree at the specified world coordinates using deterministic procedural generation.
+     * Creates a tree and puts it into the map for its type.
      * 
-     * <p><b>DETERMINISTIC BEHAVIOR GUARANTEE:</b></p>
-     * <p>This method ensures that the same world seed and coordinates will ALWAYS produce the same
-     * tree type at the same location across all game sessions and multiplayer clients. This is
-     * critical for multiplayer synchronization.</p>
-     * 
-     * <p><b>Order of Operations (CRITICAL for determinism):</b></p>
-     * <ol>
-     *   <li>Set deterministic random seed based on worldSeed + position</li>
-     *   <li>Check spawn probability (2%) using seeded random</li>
-     *   <li>Validate spawn location (distance checks, view checks)</li>
-     *   <li>Query biome type (deterministic, based on coordinates only)</li>
-     *   <li>Select tree type using seeded random + biome filtering</li>
-     * </ol>
-     * 
-     * <p><b>Randomness Sources:</b></p>
-     * <ul>
-     *   <li>Spawn probability: {@code random.nextFloat() < 0.005f} (seeded)</li>
-     *   <li>Tree type selection: {@code random.nextFloat()} (seeded)</li>
-     *   <li>Biome query: {@code biomeManager.getBiomeAtPosition(x, y)} (deterministic, NO randomness)</li>
-     * </ul>
+     * @return The new tree, or null for types without a map
+     */
+    private DestructibleObject putTree(TreeType type, String key, float x, float y) {
+        switch (type) {
+            case SMALL:
+                SmallTree smallTree = new SmallTree(x, y);
+                trees.put(key, smallTree);
+                return smallTree;
+            case APPLE:
+                AppleTree appleTree = new AppleTree(x, y);
+                appleTrees.put(key, appleTree);
+                return appleTree;
+            case COCONUT:
+                CoconutTree coconutTree = new CoconutTree(x, y);
+                coconutTrees.put(key, coconutTree);
+                return coconutTree;
+            case BAMBOO:
+                BambooTree bambooTree = new BambooTree(x, y);
+                bambooTrees.put(key, bambooTree);
+                return bambooTree;
+            case BANANA:
+                BananaTree bananaTree = new BananaTree(x, y);
+                bananaTrees.put(key, bananaTree);
+                return bananaTree;
+            default:
+                return null;
+        }
+    }
+    
+    /**
+     * Forgets every loaded and unloaded chunk and drops layouts still being generated,
+     * e.g. after the world is replaced.
+     */
+    private void resetChunkStreaming() {
+        chunkStreamer.reset();
+        pendingChunks.clear();
+        chunkEpoch++;
+    }
+    
+    /**
+     * Replays one tree placement of a tile from the world seed, ignoring spacing rules.
+     * The position is left in {@link #rolledPosition}.
      * 
-     * <p><b>Multiplayer Synchronization:</b></p>
-     * <p>All clients use the same worldSeed value synchronized from the server. Combined with
-     * deterministic biome queries and seeded random generation, this ensures all clients see
-     * identical trees at identical positions without requiring per-tree network synchronization.</p>
+     * @return The tree type the placement produces, or null if it produces none
+     */
+    private TreeType rollTree(int x, int y, int attempt) {
+        return ChunkLayout.rollTree(random, worldSeed, biomeSampler, x, y, attempt, rolledPosition);
+    }
+    
+    /**
+     * Replays the stone placement of a tile from the world seed.
+     * The position is left in {@link #rolledPosition}.
      * 
-     * @param x The x-coordinate in world space (must be aligned to 64px grid)
-     * @param y The y-coordinate in world space (must be aligned to 64px grid)
+     * @return true if the tile rolls a stone
      */
-    private void generateTreeAt(int x, int y) {
-        // In multiplayer mode, use deterministic generation based on world seed
-        // This ensures all clients generate the same trees at the same positions
-        // without needing server synchronization for every tree
-        
-        String key = x + "," + y;
-        if (!trees.containsKey(key) && !appleTrees.containsKey(key) && !coconutTrees.containsKey(key) && !bambooTrees.containsKey(key) && !bananaTrees.containsKey(key) && !clearedPositions.containsKey(key)) {
-            // STEP 1: Set deterministic random seed
-            // Combines world seed with position using prime number multipliers to ensure unique,
-            // reproducible seeds for each coordinate pair across all clients
-            random.setSeed(worldSeed + x * 31L + y * 17L);
-            
-            // STEP 2: Check spawn probability (2% chance)
-            // Uses the seeded random to ensure same coordinates always get same spawn decision
-            if (random.nextFloat() < 0.005f) {
-                // STEP 3: Add random offset to break grid pattern (±32px in each direction)
-                // Try multiple times to find a position without overlapping trees
-                float treeX = 0, treeY = 0;
-                boolean validPosition = false;
-                int maxAttempts = 5;
-                
-                for (int attempt = 0; attempt < maxAttempts; attempt++) {
-                    float offsetX = (random.nextFloat() - 0.5f) * 64; // -32 to +32
-                    float offsetY = (random.nextFloat() - 0.5f) * 64; // -32 to +32
-                    treeX = x + offsetX;
-                    treeY = y + offsetY;
-                    
-                    // Check biome type first to determine minimum distance
-                    wagemaker.uk.biome.BiomeType biome = biomeManager.getBiomeAtPosition(treeX, treeY);
-                    float minDistance = (biome == wagemaker.uk.biome.BiomeType.SAND) ? 50f : 192f;
-                    
-                    // Check if any tree is too close (192px for grass, 50px for sand)
-                    if (!isTreeTooClose(treeX, treeY, minDistance)) {
-                        validPosition = true;
-                        break;
-                    }
-                }
-                
-                // If no valid position found after attempts, skip this tree
-                if (!validPosition) {
-                    return;
-                }
-                
-                // STEP 4: Validate spawn location (deterministic checks only)
-                // Don't spawn trees too close to spawn point (within 200px)
-                float distanceFromSpawn = (float) Math.sqrt(treeX * treeX + treeY * treeY);
-                if (distanceFromSpawn < 200) {
-                    return;
-                }
-                
-                // STEP 5: Query biome type again for tree type selection
-                // BiomeManager returns consistent biome types based solely on world coordinates
-                wagemaker.uk.biome.BiomeType biome = biomeManager.getBiomeAtPosition(treeX, treeY);
-                
-                // STEP 6: Generate tree based on biome type
-                // Tree type selection uses the SAME seeded random instance from Step 1
-                if (biome == wagemaker.uk.biome.BiomeType.SAND) {
-                    // Sand biomes: bamboo trees with 30% spawn rate (reduced by 70%)
-                    if (random.nextFloat() < 0.3f) {
-                        bambooTrees.put(key, new BambooTree(treeX, treeY));
-                    }
-                } else {
-                    // Grass biomes: adjusted tree type distribution
-                    // SmallTree: 42.5% (increased by 30% from 32.5%)
-                    // AppleTree: 12.5% (reduced by 50% from 25%)
-                    // CoconutTree: 32.5% (unchanged)
-                    // BananaTree: 12.5% (reduced by 50% from 25%)
-                    float treeType = random.nextFloat();
-                    if (treeType < 0.425f) {
-                        trees.put(key, new SmallTree(treeX, treeY));
-                    } else if (treeType < 0.55f) {
-                        appleTrees.put(key, new AppleTree(treeX, treeY));
-                    } else if (treeType < 0.875f) {
-                        coconutTrees.put(key, new CoconutTree(treeX, treeY));
-                    } else {
-                        bananaTrees.put(key, new BananaTree(treeX, treeY));
-                    }
-                }
-            }
-        }
+    private boolean rollStone(int x, int y) {
+        return ChunkLayout.rollStone(random, worldSeed, x, y, rolledPosition);
     }
     
     private boolean isTreeNearby(int x, int y, int minDistance) {
-        for (SmallTree tree : trees.values()) {
-            float dx = tree.getX() - x;
-            float dy = tree.getY() - y;
-            if (Math.sqrt(dx * dx + dy * dy) < minDistance) {
-                return true;
-            }
-        }
-        for (AppleTree tree : appleTrees.values()) {
-            float dx = tree.getX() - x;
-            float dy = tree.getY() - y;
-            if (Math.sqrt(dx * dx + dy * dy) < minDistance) {
-                return true;
-            }
-        }
-        for (CoconutTree tree : coconutTrees.values()) {
-            float dx = tree.getX() - x;
-            float dy = tree.getY() - y;
-            if (Math.sqrt(dx * dx + dy * dy) < minDistance) {
-                return true;
-            }
-        }
-        for (BambooTree tree : bambooTrees.values()) {
-            float dx = tree.getX() - x;
-            float dy = tree.getY() - y;
-            if (Math.sqrt(dx * dx + dy * dy) < minDistance) {
-                return true;
-            }
-        }
-        for (BananaTree tree : bananaTrees.values()) {
-            float dx = tree.getX() - x;
-            float dy = tree.getY() - y;
-            if (Math.sqrt(dx * dx + dy * dy) < minDistance) {
-                return true;
-            }
-        }
-        return false;
+        return worldObjects.anyWithin(x, y, minDistance, MyGdxGame::isTree);
     }
     
     /**
@@ -971,38 +882,34 @@ public class MyGdxGame extends ApplicationAdapter {
      * @return true if too close to another tree, false otherwise
      */
     private boolean isTreeTooClose(float x, float y, float minDistance) {
-        for (SmallTree tree : trees.values()) {
-            float dx = tree.getX() - x;
-            float dy = tree.getY() - y;
-            if (Math.sqrt(dx * dx + dy * dy) < minDistance) {
-                return true;
-            }
-        }
-        for (AppleTree tree : appleTrees.values()) {
-            float dx = tree.getX() - x;
-            float dy = tree.getY() - y;
-            if (Math.sqrt(dx * dx + dy * dy) < minDistance) {
-                return true;
-            }
-        }
-        for (CoconutTree tree : coconutTrees.values()) {
-            float dx = tree.getX() - x;
-            float dy = tree.getY() - y;
-            if (Math.sqrt(dx * dx + dy * dy) < minDistance) {
-                return true;
-            }
+        return worldObjects.anyWithin(x, y, minDistance, MyGdxGame::isTree);
+    }
+    
+    private static boolean isTree(WorldObject object) {
+        return !(object instanceof Stone);
+    }
+    
+    /**
+     * Checks whether a tree or planted sapling stands within a distance of a position.
+     * Used by the rain system to keep puddles out from under foliage; it runs only
+     * while puddles spawn, so the planted maps (a handful of entries) are scanned directly.
+     */
+    private boolean isPuddleObstacleWithin(float x, float y, float radius) {
+        if (worldObjects.anyWithin(x, y, radius, MyGdxGame::isTree)) {
+            return true;
         }
-        for (BambooTree tree : bambooTrees.values()) {
-            float dx = tree.getX() - x;
-            float dy = tree.getY() - y;
-            if (Math.sqrt(dx * dx + dy * dy) < minDistance) {
+        float radiusSquared = radius * radius;
+        for (PlantedTree planted : plantedTrees.values()) {
+            float dx = planted.getX() - x;
+            float dy = planted.getY() - y;
+            if (dx * dx + dy * dy < radiusSquared) {
                 return true;
             }
         }
-        for (BananaTree tree : bananaTrees.values()) {
-            float dx = tree.getX() - x;
-            float dy = tree.getY() - y;
-            if (Math.sqrt(dx * dx + dy * dy) < minDistance) {
+        for (PlantedBamboo planted : plantedBamboos.values()) {
+            float dx = planted.getX() - x;
+            float dy = planted.getY() - y;
+            if (dx * dx + dy * dy < radiusSquared) {
                 return true;
             }
         }
@@ -1010,78 +917,259 @@ public class MyGdxGame extends ApplicationAdapter {
     }
     
     /**
-     * Generates a stone at the specified world coordinates using deterministic procedural generation.
-     * Stones spawn only on sand biomes with approximately 1 stone per 500x500 pixels.
-     * Ensures minimum 100 pixel distance from trees to avoid overlap.
+     * Installs a chunk layout built by the background generator. Runs on the render
+     * thread through {@link #deferOperation(Runnable)}; layouts for chunks that were
+     * unloaded meanwhile, or for a previous world, are dropped.
      * 
-     * @param x The x-coordinate in world space (aligned to 64px grid)
-     * @param y The y-coordinate in world space (aligned to 64px grid)
+     * <p>The layout only holds seeded candidates. The checks that depend on what is
+     * already in the world happen here, in tile order, as generation always applied
+     * them: tree spacing (192px on grass, 50px on sand), stones 100px from trees and
+     * other stones, and stones 512px from the player.</p>
      */
-    private void generateStoneAt(int x, int y) {
-        String key = x + "," + y;
+    private void installChunkLayout(ChunkLayout layout, int epoch) {
+        long chunk = TileKey.pack(layout.getChunkX(), layout.getChunkY());
+        if (epoch != chunkEpoch || layout.getSeed() != worldSeed || !pendingChunks.remove(chunk)) {
+            return;
+        }
+        for (ChunkLayout.TreeCandidate candidate : layout.getTrees()) {
+            installTree(candidate);
+        }
+        for (ChunkLayout.StoneCandidate candidate : layout.getStones()) {
+            installStone(candidate);
+        }
+    }
+    
+    private void installTree(ChunkLayout.TreeCandidate candidate) {
+        int x = candidate.getTileX();
+        int y = candidate.getTileY();
+        // Probe by tile so existing trees never build a string key
+        if (trees.containsTile(x, y) || appleTrees.containsTile(x, y) || coconutTrees.containsTile(x, y) ||
+            bambooTrees.containsTile(x, y) || bananaTrees.containsTile(x, y) || clearedPositions.containsTile(x, y)) {
+            return;
+        }
         
+        // Take the first placement that is not too close to another tree
+        for (int attempt = 0; attempt < ChunkLayout.MAX_TREE_ATTEMPTS; attempt++) {
+            float treeX = candidate.getX(attempt);
+            float treeY = candidate.getY(attempt);
+            if (isTreeTooClose(treeX, treeY, candidate.getMinDistance(attempt))) {
+                continue;
+            }
+            // Don't spawn trees too close to spawn point (within 200px)
+            TreeType type = candidate.getType(attempt);
+            if (type != null && !ChunkLayout.isNearSpawn(treeX, treeY)) {
+                putTree(type, x + "," + y, treeX, treeY);
+            }
+            return;
+        }
+    }
+    
+    private void installStone(ChunkLayout.StoneCandidate candidate) {
+        int x = candidate.getTileX();
+        int y = candidate.getTileY();
         // Don't spawn stones where they already exist or where positions are cleared
-        if (stones.containsKey(key) || stoneMap.containsKey(key) || clearedPositions.containsKey(key)) {
+        if (stones.containsTile(x, y) || stoneMap.containsTile(x, y) || clearedPositions.containsTile(x, y)) {
             return;
         }
+        float stoneX = candidate.getX();
+        float stoneY = candidate.getY();
         
-        // Set deterministic random seed based on world seed and position
-        random.setSeed(worldSeed + x * 37L + y * 23L);
+        // Don't spawn stones near player (512px minimum distance)
+        float distFromPlayer = (float) Math.sqrt((stoneX - player.getX()) * (stoneX - player.getX()) + (stoneY - player.getY()) * (stoneY - player.getY()));
+        if (distFromPlayer < 512) {
+            return;
+        }
         
-        // Stone spawn probability: consistent for both singleplayer and multiplayer
-        // Single-player: 0.001 (0.1%), Multiplayer: 0.005 (0.5%)
-        float spawnRate = 0.001f;
-        if (random.nextFloat() < spawnRate) {
-            // Add random offset to break grid pattern
-            float offsetX = (random.nextFloat() - 0.5f) * 64; // -32 to +32
-            float offsetY = (random.nextFloat() - 0.5f) * 64; // -32 to +32
-            float stoneX = x + offsetX;
-            float stoneY = y + offsetY;
-            
-            // Only spawn stones on sand biomes
-            wagemaker.uk.biome.BiomeType biome = biomeManager.getBiomeAtPosition(stoneX, stoneY);
-            if (biome != wagemaker.uk.biome.BiomeType.SAND) {
-                return;
+        // Ensure minimum 100 pixel distance from trees
+        if (isTreeTooClose(stoneX, stoneY, 100f)) {
+            return;
+        }
+        
+        // Check if any existing stone is too close (minimum 100 pixels)
+        if (worldObjects.anyWithin(stoneX, stoneY, 100f, object -> object instanceof Stone)) {
+            return;
+        }
+        
+        // Create stone at the calculated position
+        String key = x + "," + y;
+        Stone stone = new Stone(stoneX, stoneY);
+        stones.put(key, stone);
+        stoneMap.put(key, stone);
+    }
+    
+    /**
+     * Creates a chunk's trees and stones. On the first visit the chunk is generated in
+     * the background and installed when ready; afterwards the chunk's record is replayed
+     * from the seed, so revisited chunks look the same whatever neighbours are loaded.
+     */
+    private void loadWorldChunk(int chunkX, int chunkY, ChunkDelta delta) {
+        int baseX = chunkX * ChunkStreamer.CHUNK_SIZE;
+        int baseY = chunkY * ChunkStreamer.CHUNK_SIZE;
+        
+        if (delta == null) {
+            int epoch = chunkEpoch;
+            pendingChunks.add(TileKey.pack(chunkX, chunkY));
+            chunkGenerator.submit(worldSeed, chunkX, chunkY,
+                layout -> deferOperation(() -> installChunkLayout(layout, epoch)));
+            return;
+        }
+        
+        for (int i = 0; i < delta.getTreeSpawnCount(); i++) {
+            short spawn = delta.getTreeSpawn(i);
+            int x = baseX + ChunkDelta.spawnLocalX(spawn) * ChunkStreamer.TILE_SIZE;
+            int y = baseY + ChunkDelta.spawnLocalY(spawn) * ChunkStreamer.TILE_SIZE;
+            if (clearedPositions.containsTile(x, y)) {
+                continue;
             }
-            
-            // Don't spawn stones too close to spawn point (within 200px)
-            float distanceFromSpawn = (float) Math.sqrt(stoneX * stoneX + stoneY * stoneY);
-            if (distanceFromSpawn < 200) {
-                return;
+            TreeType type = rollTree(x, y, ChunkDelta.spawnAttempt(spawn));
+            if (type != null) {
+                DestructibleObject tree = putTree(type, x + "," + y, rolledPosition[0], rolledPosition[1]);
+                if (tree != null) {
+                    tree.setHealth(delta.getTreeHealth(i));
+                }
             }
-            
-            // Don't spawn stones near player (512px minimum distance)
-            float distFromPlayer = (float) Math.sqrt((stoneX - player.getX()) * (stoneX - player.getX()) + (stoneY - player.getY()) * (stoneY - player.getY()));
-            if (distFromPlayer < 512) {
-                return;
+        }
+        for (int i = 0; i < delta.getStoneSpawnCount(); i++) {
+            short spawn = delta.getStoneSpawn(i);
+            int x = baseX + ChunkDelta.spawnLocalX(spawn) * ChunkStreamer.TILE_SIZE;
+            int y = baseY + ChunkDelta.spawnLocalY(spawn) * ChunkStreamer.TILE_SIZE;
+            if (!clearedPositions.containsTile(x, y) && rollStone(x, y)) {
+                String key = x + "," + y;
+                Stone stone = new Stone(rolledPosition[0], rolledPosition[1]);
+                stone.setHealth(delta.getStoneHealth(i));
+                stones.put(key, stone);
+                stoneMap.put(key, stone);
             }
-            
-            // Ensure minimum 100 pixel distance from trees
-            if (isTreeTooClose(stoneX, stoneY, 100f)) {
-                return;
+        }
+        restoreTreesFromSave(delta.getExtraTrees());
+        restoreStonesFromSave(delta.getExtraStones());
+    }
+    
+    /**
+     * Removes a chunk's trees and stones from memory and records them.
+     * Objects the seed reproduces are kept as spawns; anything else is kept as state.
+     */
+    private ChunkDelta unloadWorldChunk(int chunkX, int chunkY) {
+        long chunk = TileKey.pack(chunkX, chunkY);
+        if (pendingChunks.remove(chunk)) {
+            // Still generating; drop the layout and generate again on the next visit
+            return null;
+        }
+        ChunkDelta delta = new ChunkDelta();
+        unloadTrees(trees, TreeType.SMALL, chunk, delta);
+        unloadTrees(appleTrees, TreeType.APPLE, chunk, delta);
+        unloadTrees(coconutTrees, TreeType.COCONUT, chunk, delta);
+        unloadTrees(bambooTrees, TreeType.BAMBOO, chunk, delta);
+        unloadTrees(bananaTrees, TreeType.BANANA, chunk, delta);
+        
+        List<String> keys = new ArrayList<>();
+        for (Map.Entry<String, Stone> entry : stones.entrySet()) {
+            Stone stone = entry.getValue();
+            if (ChunkStreamer.chunkOf(entry.getKey(), stone.getX(), stone.getY()) == chunk) {
+                keys.add(entry.getKey());
             }
-            
-            // Check if any existing stone is too close (minimum 100 pixels)
-            for (Stone existingStone : stones.values()) {
-                float dx = existingStone.getX() - stoneX;
-                float dy = existingStone.getY() - stoneY;
-                if (Math.sqrt(dx * dx + dy * dy) < 100) {
-                    return;
+        }
+        for (String key : keys) {
+            Stone stone = stones.remove(key);
+            stoneMap.remove(key);
+            short spawn = findSpawn(key, null, stone.getX(), stone.getY());
+            if (spawn >= 0) {
+                delta.addStoneSpawn(spawn, stone.getHealth());
+            } else {
+                delta.addExtraStone(new StoneState(key, stone.getX(), stone.getY(), stone.getHealth()));
+            }
+        }
+        return delta;
+    }
+    
+    private void unloadTrees(IndexedWorldMap<? extends DestructibleObject> map, TreeType type,
+                             long chunk, ChunkDelta delta) {
+        List<String> keys = new ArrayList<>();
+        for (Map.Entry<String, ? extends DestructibleObject> entry : map.entrySet()) {
+            DestructibleObject tree = entry.getValue();
+            if (ChunkStreamer.chunkOf(entry.getKey(), tree.getX(), tree.getY()) == chunk) {
+                keys.add(entry.getKey());
+            }
+        }
+        for (String key : keys) {
+            DestructibleObject tree = map.remove(key);
+            short spawn = findSpawn(key, type, tree.getX(), tree.getY());
+            if (spawn >= 0) {
+                delta.addTreeSpawn(spawn, tree.getHealth());
+            } else {
+                delta.addExtraTree(new TreeState(key, type, tree.getX(), tree.getY(), tree.getHealth(), true));
+            }
+        }
+    }
+    
+    /**
+     * Finds the spawn that reproduces an object from the seed.
+     * 
+     * @param key The object's map key
+     * @param type The tree type, or null for a stone
+     * @param x The object's x-coordinate
+     * @param y The object's y-coordinate
+     * @return The packed spawn, or -1 if the object did not come from generation
+     */
+    private short findSpawn(String key, TreeType type, float x, float y) {
+        long tile = TileKey.parse(key);
+        if (tile == TileKey.NONE) {
+            return -1;
+        }
+        int tileX = TileKey.unpackX(tile);
+        int tileY = TileKey.unpackY(tile);
+        if (tileX % ChunkStreamer.TILE_SIZE != 0 || tileY % ChunkStreamer.TILE_SIZE != 0) {
+            return -1;
+        }
+        int localX = Math.floorMod(tileX, ChunkStreamer.CHUNK_SIZE) / ChunkStreamer.TILE_SIZE;
+        int localY = Math.floorMod(tileY, ChunkStreamer.CHUNK_SIZE) / ChunkStreamer.TILE_SIZE;
+        
+        if (type == null) {
+            if (rollStone(tileX, tileY) && rolledPosition[0] == x && rolledPosition[1] == y) {
+                return ChunkDelta.packSpawn(localX, localY, 0);
+            }
+            return -1;
+        }
+        for (int attempt = 0; attempt < ChunkLayout.MAX_TREE_ATTEMPTS; attempt++) {
+            if (rollTree(tileX, tileY, attempt) == type && rolledPosition[0] == x && rolledPosition[1] == y) {
+                return ChunkDelta.packSpawn(localX, localY, attempt);
+            }
+        }
+        return -1;
+    }
+    
+    /**
+     * Adds the trees and stones of unloaded chunks to a world snapshot, replaying spawns
+     * from the seed so a save holds everything explored.
+     */
+    private void collectUnloadedChunks(Map<String, TreeState> treeStates, Map<String, StoneState> stoneStates) {
+        chunkStreamer.forEachUnloaded((chunkX, chunkY, delta) -> {
+            int baseX = chunkX * ChunkStreamer.CHUNK_SIZE;
+            int baseY = chunkY * ChunkStreamer.CHUNK_SIZE;
+            for (int i = 0; i < delta.getTreeSpawnCount(); i++) {
+                short spawn = delta.getTreeSpawn(i);
+                int x = baseX + ChunkDelta.spawnLocalX(spawn) * ChunkStreamer.TILE_SIZE;
+                int y = baseY + ChunkDelta.spawnLocalY(spawn) * ChunkStreamer.TILE_SIZE;
+                TreeType type = rollTree(x, y, ChunkDelta.spawnAttempt(spawn));
+                if (type != null) {
+                    String key = x + "," + y;
+                    treeStates.put(key, new TreeState(key, type, rolledPosition[0], rolledPosition[1],
+                                                      delta.getTreeHealth(i), true));
                 }
             }
-            for (Stone existingStone : stoneMap.values()) {
-                float dx = existingStone.getX() - stoneX;
-                float dy = existingStone.getY() - stoneY;
-                if (Math.sqrt(dx * dx + dy * dy) < 100) {
-                    return;
+            for (int i = 0; i < delta.getStoneSpawnCount(); i++) {
+                short spawn = delta.getStoneSpawn(i);
+                int x = baseX + ChunkDelta.spawnLocalX(spawn) * ChunkStreamer.TILE_SIZE;
+                int y = baseY + ChunkDelta.spawnLocalY(spawn) * ChunkStreamer.TILE_SIZE;
+                if (rollStone(x, y)) {
+                    String key = x + "," + y;
+                    stoneStates.put(key, new StoneState(key, rolledPosition[0], rolledPosition[1],
+                                                        delta.getStoneHealth(i)));
                 }
             }
-            
-            // Create stone at the calculated position
-            Stone stone = new Stone(stoneX, stoneY);
-            stones.put(key, stone);
-            stoneMap.put(key, stone);
-        }
+            treeStates.putAll(delta.getExtraTrees());
+            stoneStates.putAll(delta.getExtraStones());
+        });
     }
     
     private boolean isWithinPlayerView(int x, int y) {
@@ -1106,79 +1194,23 @@ public class MyGdxGame extends ApplicationAdapter {
         return (x >= leftBound && x <= rightBound && y >= bottomBound && y <= topBound);
     }
     
-    private void drawTrees() {
-        float camX = camera.position.x;
-        float camY = camera.position.y;
-        float viewWidth = viewport.getWorldWidth();
-        float viewHeight = viewport.getWorldHeight();
-        
-        for (SmallTree tree : trees.values()) {
-            // only draw trees near camera
-            if (Math.abs(tree.getX() - camX) < viewWidth && 
-                Math.abs(tree.getY() - camY) < viewHeight) {
-                batch.draw(tree.getTexture(), tree.getX(), tree.getY());
-            }
-        }
-    }
-    
-    private void drawAppleTrees() {
-        float camX = camera.position.x;
-        float camY = camera.position.y;
-        float viewWidth = viewport.getWorldWidth();
-        float viewHeight = viewport.getWorldHeight();
-        
-        for (AppleTree appleTree : appleTrees.values()) {
-            // only draw apple trees near camera
-            if (Math.abs(appleTree.getX() - camX) < viewWidth && 
-                Math.abs(appleTree.getY() - camY) < viewHeight) {
-                batch.draw(appleTree.getTexture(), appleTree.getX(), appleTree.getY());
-            }
-        }
-    }
-    
-    private void drawCoconutTrees() {
-        float camX = camera.position.x;
-        float camY = camera.position.y;
-        float viewWidth = viewport.getWorldWidth();
-        float viewHeight = viewport.getWorldHeight();
-        
-        for (CoconutTree coconutTree : coconutTrees.values()) {
-            // only draw coconut trees near camera
-            if (Math.abs(coconutTree.getX() - camX) < viewWidth && 
-                Math.abs(coconutTree.getY() - camY) < viewHeight) {
-                batch.draw(coconutTree.getTexture(), coconutTree.getX(), coconutTree.getY());
-            }
-        }
-    }
-    
-    private void drawBambooTrees() {
-        float camX = camera.position.x;
-        float camY = camera.position.y;
-        float viewWidth = viewport.getWorldWidth();
-        float viewHeight = viewport.getWorldHeight();
-        
-        for (BambooTree bambooTree : bambooTrees.values()) {
-            // only draw bamboo trees near camera
-            if (Math.abs(bambooTree.getX() - camX) < viewWidth && 
-                Math.abs(bambooTree.getY() - camY) < viewHeight) {
-                batch.draw(bambooTree.getTexture(), bambooTree.getX(), bambooTree.getY());
-            }
-        }
-    }
-    
-    private void drawBananaTrees() {
+    private void drawWorldObjects(WorldObjectType.Layer layer) {
         float camX = camera.position.x;
         float camY = camera.position.y;
         float viewWidth = viewport.getWorldWidth();
         float viewHeight = viewport.getWorldHeight();
         
-        for (BananaTree bananaTree : bananaTrees.values()) {
-            // only draw banana trees near camera
-            if (Math.abs(bananaTree.getX() - camX) < viewWidth && 
-                Math.abs(bananaTree.getY() - camY) < viewHeight) {
-                batch.draw(bananaTree.getTexture(), bananaTree.getX(), bananaTree.getY());
-            }
-        }
+        // only draw trees and stones near camera, in one pass over every kind
+        worldObjects.forEachIntersecting(camX - viewWidth, camY - viewHeight, camX + viewWidth, camY + viewHeight, object -> {
+            if (object instanceof DestructibleObject destructible && 
+                destructible.getType().getLayer() == layer &&
+                Math.abs(destructible.getX() - camX) < viewWidth && 
+                Math.abs(destructible.getY() - camY) < viewHeight) {
+                WorldObjectType type = destructible.getType();
+                batch.draw(destructible.getTexture(), destructible.getX(), destructible.getY(),
+                           type.getDrawWidth(), type.getDrawHeight());
+            }
+        });
     }
     
     private void drawApples() {
@@ -1276,7 +1308,7 @@ public class MyGdxGame extends ApplicationAdapter {
         for (PlantedBamboo planted : plantedBamboos.values()) {
             if (Math.abs(planted.getX() - camX) < viewWidth && 
                 Math.abs(planted.getY() - camY) < viewHeight) {
-                Texture texture = planted.getTexture();
+                TextureRegion texture = planted.getTexture();
                 if (texture != null) {
                     batch.draw(texture, planted.getX(), planted.getY(), 64, 64);
                 } else {
@@ -1295,7 +1327,7 @@ public class MyGdxGame extends ApplicationAdapter {
         for (PlantedTree planted : plantedTrees.values()) {
             if (Math.abs(planted.getX() - camX) < viewWidth && 
                 Math.abs(planted.getY() - camY) < viewHeight) {
-                Texture texture = planted.getTexture();
+                TextureRegion texture = planted.getTexture();
                 if (texture != null) {
                     batch.draw(texture, planted.getX(), planted.getY(), 64, 64);
                 } else {
@@ -1320,21 +1352,6 @@ public class MyGdxGame extends ApplicationAdapter {
         }
     }
     
-    private void drawStones() {
-        float camX = camera.position.x;
-        float camY = camera.position.y;
-        float viewWidth = viewport.getWorldWidth();
-        float viewHeight = viewport.getWorldHeight();
-        
-        for (Stone stone : stones.values()) {
-            // only draw stones near camera
-            if (Math.abs(stone.getX() - camX) < viewWidth && 
-                Math.abs(stone.getY() - camY) < viewHeight) {
-                batch.draw(stone.getTexture(), stone.getX(), stone.getY(), 64, 64);
-            }
-        }
-    }
-    
     private void drawPebbles() {
         float camX = camera.position.x;
         float camY = camera.position.y;
@@ -1368,6 +1385,25 @@ public class MyGdxGame extends ApplicationAdapter {
         viewport.update(width, height);
     }
 
+    private void drawHealthBar(DestructibleObject object) {
+        drawHealthBar(object.getType(), object.getX(), object.getY(), object.getHealthPercentage());
+    }
+    
+    private void drawHealthBar(WorldObjectType type, float x, float y, float healthPercentage) {
+        WorldObjectType.Box bar = type.getHealthBar();
+        float barX = x + bar.getX();
+        float barY = y + bar.getY();
+        
+        // Green background
+        shapeRenderer.setColor(0, 1, 0, 1);
+        shapeRenderer.rect(barX, barY, bar.getWidth(), bar.getHeight());
+        
+        // Red overlay based on damage
+        float damagePercent = 1.0f - healthPercentage;
+        shapeRenderer.setColor(1, 0, 0, 1);
+        shapeRenderer.rect(barX, barY, bar.getWidth() * damagePercent, bar.getHeight());
+    }
+    
     private void drawHealthBars() {
         shapeRenderer.setProjectionMatrix(camera.combined);
         shapeRenderer.begin(ShapeRenderer.ShapeType.Filled);
@@ -1387,135 +1423,12 @@ public class MyGdxGame extends ApplicationAdapter {
             }
         }
         
-        // Draw small tree health bars
-        for (SmallTree tree : trees.values()) {
-            if (tree.shouldShowHealthBar()) {
-                float barWidth = 32;
-                float barHeight = 4;
-                float barX = tree.getX() + 16;
-                float barY = tree.getY() + 134;
-                
-                // Green background
-                shapeRenderer.setColor(0, 1, 0, 1);
-                shapeRenderer.rect(barX, barY, barWidth, barHeight);
-                
-                // Red overlay based on damage
-                float damagePercent = 1.0f - tree.getHealthPercentage();
-                shapeRenderer.setColor(1, 0, 0, 1);
-                shapeRenderer.rect(barX, barY, barWidth * damagePercent, barHeight);
-            }
-        }
-        
-        // Draw apple tree health bars
-        for (AppleTree appleTree : appleTrees.values()) {
-            if (appleTree.shouldShowHealthBar()) {
-                float barWidth = 64; // half of apple tree width
-                float barHeight = 6;
-                float barX = appleTree.getX() + 32; // center above tree
-                float barY = appleTree.getY() + 134; // above tree
-                
-                // Green background
-                shapeRenderer.setColor(0, 1, 0, 1);
-                shapeRenderer.rect(barX, barY, barWidth, barHeight);
-                
-                // Red overlay based on damage
-                float damagePercent = 1.0f - appleTree.getHealthPercentage();
-                shapeRenderer.setColor(1, 0, 0, 1);
-                shapeRenderer.rect(barX, barY, barWidth * damagePercent, barHeight);
-            }
-        }
-        
-        // Draw coconut tree health bars
-        for (CoconutTree coconutTree : coconutTrees.values()) {
-            if (coconutTree.shouldShowHealthBar()) {
-                float barWidth = 64;
-                float barHeight = 6;
-                float barX = coconutTree.getX() + 32;
-                float barY = coconutTree.getY() + 134;
-                
-                // Green background
-                shapeRenderer.setColor(0, 1, 0, 1);
-                shapeRenderer.rect(barX, barY, barWidth, barHeight);
-                
-                // Red overlay based on damage
-                float damagePercent = 1.0f - coconutTree.getHealthPercentage();
-                shapeRenderer.setColor(1, 0, 0, 1);
-                shapeRenderer.rect(barX, barY, barWidth * damagePercent, barHeight);
-            }
-        }
-        
-        // Draw bamboo tree health bars
-        for (BambooTree bambooTree : bambooTrees.values()) {
-            if (bambooTree.shouldShowHealthBar()) {
-                float barWidth = 32;
-                float barHeight = 4;
-                float barX = bambooTree.getX() + 16;
-                float barY = bambooTree.getY() + 134;
-                
-                // Green background
-                shapeRenderer.setColor(0, 1, 0, 1);
-                shapeRenderer.rect(barX, barY, barWidth, barHeight);
-                
-                // Red overlay based on damage
-                float damagePercent = 1.0f - bambooTree.getHealthPercentage();
-                shapeRenderer.setColor(1, 0, 0, 1);
-                shapeRenderer.rect(barX, barY, barWidth * damagePercent, barHeight);
-            }
-        }
-        
-        // Draw banana tree health bars
-        for (BananaTree bananaTree : bananaTrees.values()) {
-            if (bananaTree.shouldShowHealthBar()) {
-                float barWidth = 64;
-                float barHeight = 6;
-                float barX = bananaTree.getX() + 32;
-                float barY = bananaTree.getY() + 134;
-                
-                // Green background
-                shapeRenderer.setColor(0, 1, 0, 1);
-                shapeRenderer.rect(barX, barY, barWidth, barHeight);
-                
-                // Red overlay based on damage
-                float damagePercent = 1.0f - bananaTree.getHealthPercentage();
-                shapeRenderer.setColor(1, 0, 0, 1);
-                shapeRenderer.rect(barX, barY, barWidth * damagePercent, barHeight);
-            }
-        }
+        // Draw tree and stone health bars
+        entities.forEachDamaged(this::drawHealthBar);
         
         // Draw cactus health bar
         if (cactus != null && cactus.shouldShowHealthBar()) {
-            float barWidth = 32;
-            float barHeight = 4;
-            float barX = cactus.getX() + 16;
-            float barY = cactus.getY() + 134;
-            
-            // Green background
-            shapeRenderer.setColor(0, 1, 0, 1);
-            shapeRenderer.rect(barX, barY, barWidth, barHeight);
-            
-            // Red overlay based on damage
-            float damagePercent = 1.0f - cactus.getHealthPercentage();
-            shapeRenderer.setColor(1, 0, 0, 1);
-            shapeRenderer.rect(barX, barY, barWidth * damagePercent, barHeight);
-        }
-        
-        // Draw stone health bars
-        for (Stone stone : stones.values()) {
-            if (stone.shouldShowHealthBar()) {
-                float barWidth = 32;
-                float barHeight = 4;
-                float barX = stone.getX() + 16;
-                float barY = stone.getY() + 70;  // Position above stone sprite
-                
-                // Green background
-                shapeRenderer.setColor(0, 1, 0, 1);
-                shapeRenderer.rect(barX, barY, barWidth, barHeight);
-                
-                // Red overlay based on damage
-                float damagePercent = 1.0f - stone.getHealthPercentage();
-                shapeRenderer.setColor(1, 0, 0, 1);
-                shapeRenderer.rect(barX, barY, barWidth * damagePercent, barHeight);
-            }
+            drawHealthBar(cactus);
         }
         
         shapeRenderer.end();
@@ -2045,6 +1958,9 @@ public class MyGdxGame extends ApplicationAdapter {
             // Clear cleared positions map
             clearedPositions.clear();
             
+            // Forget chunk records; the server sends every entity in multiplayer
+            resetChunkStreaming();
+            
             long duration = System.currentTimeMillis() - startTime;
             System.out.println("Local world cleared successfully in " + duration + "ms");
             System.out.println("Cleared planted trees and bamboos to prevent singleplayer items in multiplayer");
@@ -2810,6 +2726,7 @@ public class MyGdxGame extends ApplicationAdapter {
         
         // Reset world seed to 0 for singleplayer
         worldSeed = 0;
+        resetChunkStreaming();
         
         // Clear rain zones (dynamic rain manager will handle rain events)
         if (rainSystem != null) {
@@ -2933,7 +2850,9 @@ public class MyGdxGame extends ApplicationAdapter {
      * @return WorldState containing complete current game state
      */
     public WorldState extractCurrentWorldState() {
-        WorldState worldState = new WorldState(worldSeed);
+        // Every collection is replaced below, so skip the seed constructor's spawn generation
+        WorldState worldState = new WorldState();
+        worldState.setWorldSeed(worldSeed);
         
         // Extract tree states
         Map<String, TreeState> treeStates = new HashMap<>();
@@ -3008,6 +2927,10 @@ public class MyGdxGame extends ApplicationAdapter {
             treeStates.put(entry.getKey(), treeState);
         }
         
+        // Add trees and stones of chunks unloaded around the player
+        Map<String, StoneState> stoneStates = new HashMap<>();
+        collectUnloadedChunks(treeStates, stoneStates);
+        
         worldState.setTrees(treeStates);
         
         // Extract item states
@@ -3042,7 +2965,6 @@ public class MyGdxGame extends ApplicationAdapter {
         worldState.setItems(itemStates);
         
         // Extract stone states
-        Map<String, StoneState> stoneStates = new HashMap<>();
         for (Map.Entry<String, Stone> entry : stones.entrySet()) {
             Stone stone = entry.getValue();
             StoneState stoneState = new StoneState(
@@ -3295,6 +3217,9 @@ public class MyGdxGame extends ApplicationAdapter {
             // Clear cleared positions
             clearedPositions.clear();
             
+            // Forget chunk records of the old world
+            resetChunkStreaming();
+            
             System.out.println("Existing world state cleaned up successfully");
             
         } catch (Exception e) {
@@ -3739,8 +3664,11 @@ public class MyGdxGame extends ApplicationAdapter {
      * This method ensures that world saves don't interfere with the existing
      * player position save functionality.
      * 
+     * The world is snapshotted on the render thread and written in the background;
+     * a notification reports progress and the outcome.
+     * 
      * @param saveName The name to save the world as
-     * @return true if the save was successful, false otherwise
+     * @return true if the save was queued, false otherwise
      */
     public boolean saveWorldPreservingPlayerPosition(String saveName) {
         if (saveName == null || saveName.trim().isEmpty()) {
@@ -3752,29 +3680,12 @@ public class MyGdxGame extends ApplicationAdapter {
             // Extract current world state
             WorldState currentState = extractCurrentWorldState();
             
-            // Create save data from world state
-            WorldSaveData saveData = new WorldSaveData();
-            saveData.setSaveName(saveName);
-            saveData.setWorldSeed(currentState.getWorldSeed());
-            saveData.setTrees(currentState.getTrees());
-            saveData.setItems(currentState.getItems());
-            saveData.setClearedPositions(currentState.getClearedPositions());
-            saveData.setRainZones(currentState.getRainZones());
-            saveData.setSaveTimestamp(System.currentTimeMillis());
-            
-            // Set game mode
-            String gameMode = this.gameMode == GameMode.SINGLEPLAYER ? "singleplayer" : "multiplayer";
-            saveData.setGameMode(gameMode);
-            
             // Include current player position in world save (for world restoration)
             // but don't interfere with the separate player position save system
-            if (player != null) {
-                saveData.setPlayerX(player.getX());
-                saveData.setPlayerY(player.getY());
-                saveData.setPlayerHealth(player.getHealth());
-            }
+            float playerX = player != null ? player.getX() : 0;
+            float playerY = player != null ? player.getY() : 0;
+            float playerHealth = player != null ? player.getHealth() : 0;
             
-            // Save the world using WorldSaveManager
             // Determine if we're in multiplayer mode for saving
             boolean isMultiplayer = (this.gameMode != GameMode.SINGLEPLAYER);
             
@@ -3784,34 +3695,51 @@ public class MyGdxGame extends ApplicationAdapter {
                 currentInventory = inventoryManager.getCurrentInventory();
             }
             
-            boolean saveSuccess = WorldSaveManager.saveWorld(
+            WorldSaveData saveData = WorldSaveManager.createSaveData(
                 saveName, 
                 currentState, 
-                saveData.getPlayerX(), 
-                saveData.getPlayerY(), 
-                saveData.getPlayerHealth(),
+                playerX, 
+                playerY, 
+                playerHealth,
                 currentInventory,
-                isMultiplayer
+                isMultiplayer,
+                null,
+                true // freshly extracted, nothing else holds it
             );
             
-            if (saveSuccess) {
-                System.out.println("World saved successfully: " + saveName);
-                displayNotification("World saved: " + saveName);
-                
-                // Also save current player position using existing system
-                // This maintains the separation between world saves and player position saves
-                if (gameMenu != null) {
-                    gameMenu.savePlayerPosition();
-                    System.out.println("Player position saved separately using existing system");
-                }
-                
-                return true;
-            } else {
+            if (saveData == null) {
                 System.err.println("Failed to save world: " + saveName);
                 displayNotification("Failed to save world: " + saveName);
                 return false;
             }
             
+            return saveWorldInBackground(saveData, isMultiplayer, new AsyncWorldSaver.Listener() {
+                @Override
+                public void onSaveProgress(String name, float progress) {
+                    if (progress < 1.0f) {
+                        displayNotification("Saving world: " + name + " (" + Math.round(progress * 100) + "%)");
+                    }
+                }
+                
+                @Override
+                public void onSaveComplete(String name, boolean success) {
+                    if (success) {
+                        System.out.println("World saved successfully: " + name);
+                        displayNotification("World saved: " + name);
+                        
+                        // Also save current player position using existing system
+                        // This maintains the separation between world saves and player position saves
+                        if (gameMenu != null) {
+                            gameMenu.savePlayerPosition();
+                            System.out.println("Player position saved separately using existing system");
+                        }
+                    } else {
+                        System.err.println("Failed to save world: " + name);
+                        displayNotification("Failed to save world: " + name);
+                    }
+                }
+            });
+            
         } catch (Exception e) {
             System.err.println("Error saving world: " + e.getMessage());
             e.printStackTrace();
@@ -3820,6 +3748,20 @@ public class MyGdxGame extends ApplicationAdapter {
         }
     }
     
+    /**
+     * Writes a world save on the background saver thread.
+     * Listener callbacks run on the render thread.
+     * 
+     * @param saveData The save snapshot; must not be modified after this call
+     * @param isMultiplayer true if this is a multiplayer save, false for singleplayer
+     * @param listener Receives progress and completion (can be null)
+     * @return true if the save was queued
+     */
+    public boolean saveWorldInBackground(WorldSaveData saveData, boolean isMultiplayer,
+                                         AsyncWorldSaver.Listener listener) {
+        return worldSaver.submit(saveData, isMultiplayer, listener);
+    }
+    
     /**
      * Queues a player join to be processed on the main thread.
      * This is necessary because RemotePlayer creation involves OpenGL operations.
@@ -4066,7 +4008,7 @@ public class MyGdxGame extends ApplicationAdapter {
             // Create planted bamboo if it doesn't exist
             if (!plantedBamboos.containsKey(plantedBambooId)) {
                 PlantedBamboo plantedBamboo = new PlantedBamboo(x, y);
-                Texture texture = plantedBamboo.getTexture();
+                TextureRegion texture = plantedBamboo.getTexture();
                 System.out.println("  - PlantedBamboo created, texture is: " + (texture != null ? "valid" : "NULL"));
                 
                 plantedBamboos.put(plantedBambooId, plantedBamboo);
@@ -4131,7 +4073,7 @@ public class MyGdxGame extends ApplicationAdapter {
             // Create planted tree if it doesn't exist
             if (!plantedTrees.containsKey(plantedTreeId)) {
                 PlantedTree plantedTree = new PlantedTree(x, y);
-                Texture texture = plantedTree.getTexture();
+                TextureRegion texture = plantedTree.getTexture();
                 System.out.println("  - PlantedTree created, texture is: " + (texture != null ? "valid" : "NULL"));
                 
                 plantedTrees.put(plantedTreeId, plantedTree);
@@ -4322,6 +4264,16 @@ public class MyGdxGame extends ApplicationAdapter {
             biomeManager.dispose();
         }
         
+        // Stop background chunk generation
+        if (chunkGenerator != null) {
+            chunkGenerator.shutdown();
+        }
+        
+        // Let saves that are still being written reach the disk
+        if (worldSaver != null && !worldSaver.shutdown(10000)) {
+            System.err.println("Timed out waiting for world saves to finish");
+        }
+        
         for (SmallTree tree : trees.values()) {
             tree.dispose();
         }
@@ -4410,8 +4362,7 @@ public class MyGdxGame extends ApplicationAdapter {
             respawnManager.disposeIndicators();
         }
         
-        // Dispose shared textures
-        PlantedBamboo.disposeSharedTexture();
-        PlantedTree.disposeSharedTexture();
+        // Dispose the shared sprite sheet
+        SpriteAtlas.dispose();
     }
 }
@@ -1,7 +1,8 @@
 package wagemaker.uk.items;
 
-import com.badlogic.gdx.graphics.Pixmap;
-import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import wagemaker.uk.assets.SpriteAtlas;
+import wagemaker.uk.assets.SpriteType;
 
 /**
  * BabyTree item that can be dropped when a SmallTree is destroyed.
@@ -10,30 +11,15 @@ import com.badlogic.gdx.graphics.Texture;
  */
 public class BabyTree {
     private float x, y;
-    private Texture texture;
+    private TextureRegion texture;
 
     public BabyTree(float x, float y) {
         this.x = x;
         this.y = y;
-        createTexture();
+        texture = SpriteAtlas.get(SpriteType.BABY_TREE);
     }
 
-    private void createTexture() {
-        Texture spriteSheet = new Texture("sprites/assets.png");
-        Pixmap pixmap = new Pixmap(64, 64, Pixmap.Format.RGBA8888);
-        spriteSheet.getTextureData().prepare();
-        Pixmap sheetPixmap = spriteSheet.getTextureData().consumePixmap();
-        
-        // BabyTree coordinates: 384 from left, 128 from top, 64x64 size
-        pixmap.drawPixmap(sheetPixmap, 0, 0, 384, 128, 64, 64);
-        
-        texture = new Texture(pixmap);
-        pixmap.dispose();
-        sheetPixmap.dispose();
-        spriteSheet.dispose();
-    }
-
-    public Texture getTexture() {
+    public TextureRegion getTexture() {
         return texture;
     }
 
@@ -46,8 +32,6 @@ public class BabyTree {
     }
 
     public void dispose() {
-        if (texture != null) {
-            texture.dispose();
-        }
+        // The sprite is shared through SpriteAtlas; nothing to free per instance
     }
 }
@@ -1,7 +1,8 @@
 package wagemaker.uk.items;
 
-import com.badlogic.gdx.graphics.Pixmap;
-import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import wagemaker.uk.assets.SpriteAtlas;
+import wagemaker.uk.assets.SpriteType;
 
 /**
  * PalmFiber item that is dropped when a CoconutTree is destroyed.
@@ -10,30 +11,15 @@ import com.badlogic.gdx.graphics.Texture;
  */
 public class PalmFiber {
     private float x, y;
-    private Texture texture;
+    private TextureRegion texture;
 
     public PalmFiber(float x, float y) {
         this.x = x;
         this.y = y;
-        createTexture();
+        texture = SpriteAtlas.get(SpriteType.PALM_FIBER);
     }
 
-    private void createTexture() {
-        Texture spriteSheet = new Texture("sprites/assets.png");
-        Pixmap pixmap = new Pixmap(64, 64, Pixmap.Format.RGBA8888);
-        spriteSheet.getTextureData().prepare();
-        Pixmap sheetPixmap = spriteSheet.getTextureData().consumePixmap();
-        
-        // PalmFiber coordinates: 448 from left, 128 from top, 64x64 size
-        pixmap.drawPixmap(sheetPixmap, 0, 0, 448, 128, 64, 64);
-        
-        texture = new Texture(pixmap);
-        pixmap.dispose();
-        sheetPixmap.dispose();
-        spriteSheet.dispose();
-    }
-
-    public Texture getTexture() {
+    public TextureRegion getTexture() {
         return texture;
     }
 
@@ -46,8 +32,6 @@ public class PalmFiber {
     }
 
     public void dispose() {
-        if (texture != null) {
-            texture.dispose();
-        }
+        // The sprite is shared through SpriteAtlas; nothing to free per instance
     }
 }
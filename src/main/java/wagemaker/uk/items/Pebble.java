@@ -1,41 +1,26 @@
 package wagemaker.uk.items;
 
-import com.badlogic.gdx.graphics.Pixmap;
-import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import wagemaker.uk.assets.SpriteAtlas;
+import wagemaker.uk.assets.SpriteType;
 
 /**
  * Pebble item that is collected when a Stone is destroyed.
  * Follows the WoodStack pattern for collectible items.
  * 
- * Sprite coordinates in assets.png: 448, 0, 64, 64 (TBD - placeholder coordinates)
+ * Sprite: {@link wagemaker.uk.assets.SpriteType#PEBBLE}
  */
 public class Pebble {
     private float x, y;
-    private Texture texture;
+    private TextureRegion texture;
 
     public Pebble(float x, float y) {
         this.x = x;
         this.y = y;
-        createTexture();
+        texture = SpriteAtlas.get(SpriteType.PEBBLE);
     }
 
-    private void createTexture() {
-        Texture spriteSheet = new Texture("sprites/assets.png");
-        Pixmap pixmap = new Pixmap(64, 64, Pixmap.Format.RGBA8888);
-        spriteSheet.getTextureData().prepare();
-        Pixmap sheetPixmap = spriteSheet.getTextureData().consumePixmap();
-        
-        // TODO: Update sprite coordinates when final pebble sprite is added to assets.png
-        // Current placeholder coordinates: 448, 0, 64, 64
-        pixmap.drawPixmap(sheetPixmap, 0, 0, 320, 128, 64, 64);
-        
-        texture = new Texture(pixmap);
-        pixmap.dispose();
-        sheetPixmap.dispose();
-        spriteSheet.dispose();
-    }
-
-    public Texture getTexture() {
+    public TextureRegion getTexture() {
         return texture;
     }
 
@@ -48,8 +33,6 @@ public class Pebble {
     }
 
     public void dispose() {
-        if (texture != null) {
-            texture.dispose();
-        }
+        // The sprite is shared through SpriteAtlas; nothing to free per instance
     }
 }
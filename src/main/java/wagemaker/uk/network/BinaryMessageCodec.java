@@ -0,0 +1,449 @@
+package wagemaker.uk.network;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.StreamCorruptedException;
+import java.util.UUID;
+
+/**
+ * Hand-written binary encodings for the frequent, fixed-shape message types.
+ *
+ * Each body starts with the common NetworkMessage header (sender ID and
+ * timestamp) followed by the message fields in declaration order. Floats are
+ * written as raw 4-byte IEEE values and enums as a single ordinal byte.
+ * Identifiers are packed by shape: canonical UUIDs become 16 bytes, "x,y" grid
+ * keys become two zig-zag varints, and well-known IDs such as "server" become a
+ * single tag byte.
+ *
+ * Message types without a binary encoding here (world snapshots, inventories,
+ * respawn state) are sent by {@link MessageCodec} using Java serialization.
+ */
+public final class BinaryMessageCodec {
+
+    private static final int ID_NULL = 0;
+    private static final int ID_UUID = 1;
+    private static final int ID_GRID = 2;
+    private static final int ID_STRING = 3;
+    private static final int ID_WELL_KNOWN = 4;
+
+    /** IDs common enough to be sent as a single index byte. */
+    private static final String[] WELL_KNOWN_IDS = { "server" };
+
+    private static final Direction[] DIRECTIONS = Direction.values();
+    private static final TreeType[] TREE_TYPES = TreeType.values();
+    private static final ItemType[] ITEM_TYPES = ItemType.values();
+
+    private BinaryMessageCodec() {
+    }
+
+    /**
+     * Checks whether a message type has a binary encoding.
+     * @param type The message type
+     * @return true if {@link #write} and {@link #read} support the type
+     */
+    public static boolean supports(MessageType type) {
+        switch (type) {
+            case PLAYER_MOVEMENT:
+            case PLAYER_JOIN:
+            case PLAYER_LEAVE:
+            case HEARTBEAT:
+            case PING:
+            case PONG:
+            case POSITION_CORRECTION:
+            case ATTACK_ACTION:
+            case PLAYER_HEALTH_UPDATE:
+            case PLAYER_HUNGER_UPDATE:
+            case TREE_HEALTH_UPDATE:
+            case TREE_DESTROYED:
+            case TREE_CREATED:
+            case STONE_HEALTH_UPDATE:
+            case STONE_DESTROYED:
+            case STONE_CREATED:
+            case ITEM_SPAWN:
+            case ITEM_PICKUP:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Writes the binary body of a message (without frame header or type tag).
+     * @param message The message to write; its type must be supported
+     * @param out The destination
+     * @throws IOException if writing fails
+     */
+    public static void write(NetworkMessage message, DataOutput out) throws IOException {
+        writeId(out, message.getSenderId());
+        out.writeLong(message.getTimestamp());
+
+        switch (message.getType()) {
+            case PLAYER_MOVEMENT: {
+                PlayerMovementMessage m = (PlayerMovementMessage) message;
+                out.writeFloat(m.getX());
+                out.writeFloat(m.getY());
+                writeEnum(out, m.getDirection());
+                out.writeBoolean(m.isMoving());
+                break;
+            }
+            case PLAYER_JOIN: {
+                PlayerJoinMessage m = (PlayerJoinMessage) message;
+                writeId(out, m.getPlayerId());
+                writeString(out, m.getPlayerName());
+                out.writeFloat(m.getX());
+                out.writeFloat(m.getY());
+                break;
+            }
+            case PLAYER_LEAVE: {
+                PlayerLeaveMessage m = (PlayerLeaveMessage) message;
+                writeId(out, m.getPlayerId());
+                writeString(out, m.getPlayerName());
+                break;
+            }
+            case HEARTBEAT:
+            case PING:
+                break;
+            case PONG:
+                out.writeLong(((PongMessage) message).getPingTimestamp());
+                break;
+            case POSITION_CORRECTION: {
+                PositionCorrectionMessage m = (PositionCorrectionMessage) message;
+                writeId(out, m.getPlayerId());
+                out.writeFloat(m.getCorrectedX());
+                out.writeFloat(m.getCorrectedY());
+                writeEnum(out, m.getCorrectedDirection());
+                writeString(out, m.getReason());
+                break;
+            }
+            case ATTACK_ACTION: {
+                AttackActionMessage m = (AttackActionMessage) message;
+                writeId(out, m.getPlayerId());
+                writeId(out, m.getTargetId());
+                out.writeFloat(m.getDamage());
+                break;
+            }
+            case PLAYER_HEALTH_UPDATE: {
+                PlayerHealthUpdateMessage m = (PlayerHealthUpdateMessage) message;
+                writeId(out, m.getPlayerId());
+                out.writeFloat(m.getHealth());
+                break;
+            }
+            case PLAYER_HUNGER_UPDATE: {
+                PlayerHungerUpdateMessage m = (PlayerHungerUpdateMessage) message;
+                writeId(out, m.getPlayerId());
+                out.writeFloat(m.getHunger());
+                break;
+            }
+            case TREE_HEALTH_UPDATE: {
+                TreeHealthUpdateMessage m = (TreeHealthUpdateMessage) message;
+                writeId(out, m.getTreeId());
+                out.writeFloat(m.getHealth());
+                break;
+            }
+            case TREE_DESTROYED: {
+                TreeDestroyedMessage m = (TreeDestroyedMessage) message;
+                writeId(out, m.getTreeId());
+                out.writeFloat(m.getX());
+                out.writeFloat(m.getY());
+                break;
+            }
+            case TREE_CREATED: {
+                TreeCreatedMessage m = (TreeCreatedMessage) message;
+                writeId(out, m.getTreeId());
+                writeEnum(out, m.getTreeType());
+                out.writeFloat(m.getX());
+                out.writeFloat(m.getY());
+                out.writeFloat(m.getHealth());
+                break;
+            }
+            case STONE_HEALTH_UPDATE: {
+                StoneHealthUpdateMessage m = (StoneHealthUpdateMessage) message;
+                writeId(out, m.getStoneId());
+                out.writeFloat(m.getHealth());
+                break;
+            }
+            case STONE_DESTROYED: {
+                StoneDestroyedMessage m = (StoneDestroyedMessage) message;
+                writeId(out, m.getStoneId());
+                out.writeFloat(m.getX());
+                out.writeFloat(m.getY());
+                break;
+            }
+            case STONE_CREATED: {
+                StoneCreatedMessage m = (StoneCreatedMessage) message;
+                writeId(out, m.getStoneId());
+                out.writeFloat(m.getX());
+                out.writeFloat(m.getY());
+                out.writeFloat(m.getHealth());
+                break;
+            }
+            case ITEM_SPAWN: {
+                ItemSpawnMessage m = (ItemSpawnMessage) message;
+                writeId(out, m.getItemId());
+                writeEnum(out, m.getItemType());
+                out.writeFloat(m.getX());
+                out.writeFloat(m.getY());
+                break;
+            }
+            case ITEM_PICKUP: {
+                ItemPickupMessage m = (ItemPickupMessage) message;
+                writeId(out, m.getItemId());
+                writeId(out, m.getPlayerId());
+                break;
+            }
+            default:
+                throw new IllegalArgumentException("No binary encoding for " + message.getType());
+        }
+    }
+
+    /**
+     * Reads a binary message body written by {@link #write}.
+     * @param type The message type from the frame's type tag
+     * @param in The source
+     * @return The decoded message
+     * @throws IOException if the body is truncated or malformed
+     */
+    public static NetworkMessage read(MessageType type, DataInput in) throws IOException {
+        String senderId = readId(in);
+        long timestamp = in.readLong();
+
+        NetworkMessage message;
+        switch (type) {
+            case PLAYER_MOVEMENT:
+                message = new PlayerMovementMessage(senderId, in.readFloat(), in.readFloat(),
+                    readEnum(in, DIRECTIONS), in.readBoolean());
+                break;
+            case PLAYER_JOIN:
+                message = new PlayerJoinMessage(readId(in), readString(in), in.readFloat(), in.readFloat());
+                break;
+            case PLAYER_LEAVE:
+                message = new PlayerLeaveMessage(readId(in), readString(in));
+                break;
+            case HEARTBEAT:
+                message = new HeartbeatMessage(senderId);
+                break;
+            case PING:
+                message = new PingMessage(senderId);
+                break;
+            case PONG:
+                message = new PongMessage(senderId, in.readLong());
+                break;
+            case POSITION_CORRECTION:
+                message = new PositionCorrectionMessage(senderId, readId(in), in.readFloat(), in.readFloat(),
+                    readEnum(in, DIRECTIONS), readString(in));
+                break;
+            case ATTACK_ACTION:
+                message = new AttackActionMessage(senderId, readId(in), readId(in), in.readFloat());
+                break;
+            case PLAYER_HEALTH_UPDATE:
+                message = new PlayerHealthUpdateMessage(senderId, readId(in), in.readFloat());
+                break;
+            case PLAYER_HUNGER_UPDATE:
+                message = new PlayerHungerUpdateMessage(senderId, readId(in), in.readFloat());
+                break;
+            case TREE_HEALTH_UPDATE:
+                message = new TreeHealthUpdateMessage(senderId, readId(in), in.readFloat());
+                break;
+            case TREE_DESTROYED:
+                message = new TreeDestroyedMessage(senderId, readId(in), in.readFloat(), in.readFloat());
+                break;
+            case TREE_CREATED:
+                message = new TreeCreatedMessage(senderId, readId(in), readEnum(in, TREE_TYPES),
+                    in.readFloat(), in.readFloat(), in.readFloat());
+                break;
+            case STONE_HEALTH_UPDATE:
+                message = new StoneHealthUpdateMessage(senderId, readId(in), in.readFloat());
+                break;
+            case STONE_DESTROYED:
+                message = new StoneDestroyedMessage(senderId, readId(in), in.readFloat(), in.readFloat());
+                break;
+            case STONE_CREATED:
+                message = new StoneCreatedMessage(senderId, readId(in), in.readFloat(), in.readFloat(), in.readFloat());
+                break;
+            case ITEM_SPAWN:
+                message = new ItemSpawnMessage(senderId, readId(in), readEnum(in, ITEM_TYPES),
+                    in.readFloat(), in.readFloat());
+                break;
+            case ITEM_PICKUP:
+                message = new ItemPickupMessage(senderId, readId(in), readId(in));
+                break;
+            default:
+                throw new StreamCorruptedException("No binary encoding for " + type);
+        }
+
+        // Constructors stamp the local time and may derive the sender; restore the originals
+        message.setSenderId(senderId);
+        message.timestamp = timestamp;
+        return message;
+    }
+
+    /**
+     * Writes an identifier using the most compact form that round-trips exactly.
+     */
+    static void writeId(DataOutput out, String id) throws IOException {
+        if (id == null) {
+            out.writeByte(ID_NULL);
+            return;
+        }
+
+        for (int i = 0; i < WELL_KNOWN_IDS.length; i++) {
+            if (WELL_KNOWN_IDS[i].equals(id)) {
+                out.writeByte(ID_WELL_KNOWN);
+                out.writeByte(i);
+                return;
+            }
+        }
+
+        if (isCanonicalUuid(id)) {
+            UUID uuid = UUID.fromString(id);
+            out.writeByte(ID_UUID);
+            out.writeLong(uuid.getMostSignificantBits());
+            out.writeLong(uuid.getLeastSignificantBits());
+            return;
+        }
+
+        int comma = id.indexOf(',');
+        if (comma > 0 && isCanonicalInt(id, 0, comma) && isCanonicalInt(id, comma + 1, id.length())) {
+            out.writeByte(ID_GRID);
+            writeVarInt(out, zigZag(Integer.parseInt(id, 0, comma, 10)));
+            writeVarInt(out, zigZag(Integer.parseInt(id, comma + 1, id.length(), 10)));
+            return;
+        }
+
+        out.writeByte(ID_STRING);
+        out.writeUTF(id);
+    }
+
+    /**
+     * Reads an identifier written by {@link #writeId}.
+     */
+    static String readId(DataInput in) throws IOException {
+        int tag = in.readUnsignedByte();
+        switch (tag) {
+            case ID_NULL:
+                return null;
+            case ID_UUID:
+                return new UUID(in.readLong(), in.readLong()).toString();
+            case ID_GRID:
+                return unZigZag(readVarInt(in)) + "," + unZigZag(readVarInt(in));
+            case ID_STRING:
+                return in.readUTF();
+            case ID_WELL_KNOWN: {
+                int index = in.readUnsignedByte();
+                if (index >= WELL_KNOWN_IDS.length) {
+                    throw new StreamCorruptedException("Unknown well-known ID index: " + index);
+                }
+                return WELL_KNOWN_IDS[index];
+            }
+            default:
+                throw new StreamCorruptedException("Unknown ID tag: " + tag);
+        }
+    }
+
+    private static void writeString(DataOutput out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static String readString(DataInput in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    private static void writeEnum(DataOutput out, Enum<?> value) throws IOException {
+        // 0 encodes null, so ordinals are shifted by one
+        out.writeByte(value == null ? 0 : value.ordinal() + 1);
+    }
+
+    private static <E extends Enum<E>> E readEnum(DataInput in, E[] values) throws IOException {
+        int ordinal = in.readUnsignedByte();
+        if (ordinal == 0) {
+            return null;
+        }
+        if (ordinal > values.length) {
+            throw new StreamCorruptedException("Invalid enum ordinal: " + (ordinal - 1));
+        }
+        return values[ordinal - 1];
+    }
+
+    private static void writeVarInt(DataOutput out, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    private static int readVarInt(DataInput in) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new StreamCorruptedException("Malformed varint");
+    }
+
+    private static int zigZag(int value) {
+        return (value << 1) ^ (value >> 31);
+    }
+
+    private static int unZigZag(int value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    /**
+     * Checks for the lowercase 8-4-4-4-12 form produced by UUID.toString().
+     */
+    private static boolean isCanonicalUuid(String id) {
+        if (id.length() != 36) {
+            return false;
+        }
+        for (int i = 0; i < 36; i++) {
+            char c = id.charAt(i);
+            if (i == 8 || i == 13 || i == 18 || i == 23) {
+                if (c != '-') {
+                    return false;
+                }
+            } else if (!((c >= '0' && c <= '9') || (c >= 'a' && c <= 'f'))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Checks that a substring is an int exactly as Integer.toString would print it.
+     */
+    private static boolean isCanonicalInt(String s, int start, int end) {
+        int length = end - start;
+        if (length == 0 || length > 11) {
+            return false;
+        }
+        int i = start;
+        if (s.charAt(i) == '-') {
+            i++;
+            if (i == end || s.charAt(i) == '0') {
+                return false;
+            }
+        } else if (s.charAt(i) == '0' && length > 1) {
+            return false;
+        }
+        for (; i < end; i++) {
+            char c = s.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+        }
+        try {
+            Integer.parseInt(s, start, end, 10);
+            return true;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,199 @@
+package wagemaker.uk.network;
+
+import wagemaker.uk.world.LongHashSet;
+import wagemaker.uk.world.TileKey;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Tracks which world cells have been generated and which cell each player is in.
+ *
+ * Every player has a square window of cells around it that must exist on the
+ * server. When a player crosses a cell boundary only the cells that entered the
+ * window are considered, and a cell is handed to the generator the first time
+ * any player's window reaches it, never again. Moving within a cell costs one
+ * map lookup.
+ *
+ * Not thread-safe; the server uses it from the tick thread only.
+ */
+public class ChunkResidencyTracker {
+
+    /** Size of a generation cell in pixels (same as a grass tile). */
+    public static final int CELL_SIZE = 64;
+
+    /** Cells generated in each direction around a player (960 pixels). */
+    public static final int WINDOW_RADIUS = 15;
+
+    /**
+     * Receives each cell that needs generating.
+     */
+    public interface CellGenerator {
+        /**
+         * Generates the content of a cell.
+         * @param cellX The cell x index (world x = cellX * cellSize)
+         * @param cellY The cell y index (world y = cellY * cellSize)
+         */
+        void generate(int cellX, int cellY);
+    }
+
+    /**
+     * The cell a player occupies, updated in place as the player moves.
+     */
+    private static final class PlayerCell {
+        long cell;
+
+        PlayerCell(long cell) {
+            this.cell = cell;
+        }
+    }
+
+    private final int cellSize;
+    private final int radius;
+    private final Map<String, PlayerCell> playerCells;
+    private final LongHashSet generatedCells;
+
+    /**
+     * Creates a tracker with the default cell size and window radius.
+     */
+    public ChunkResidencyTracker() {
+        this(CELL_SIZE, WINDOW_RADIUS);
+    }
+
+    /**
+     * Creates a tracker.
+     * @param cellSize Cell size in pixels
+     * @param radius Cells in each direction around a player that must be generated
+     */
+    public ChunkResidencyTracker(int cellSize, int radius) {
+        this.cellSize = cellSize;
+        this.radius = radius;
+        this.playerCells = new HashMap<>();
+        this.generatedCells = new LongHashSet();
+    }
+
+    /**
+     * Records a player's position and generates the cells that entered its window.
+     * @param playerId The player ID
+     * @param x The player's world x coordinate
+     * @param y The player's world y coordinate
+     * @param generator Called once for every cell that has never been generated
+     * @return true if the player entered a different cell (or was not tracked yet)
+     */
+    public boolean updatePlayer(String playerId, float x, float y, CellGenerator generator) {
+        int cellX = toCell(x);
+        int cellY = toCell(y);
+        long cell = pack(cellX, cellY);
+
+        PlayerCell tracked = playerCells.get(playerId);
+        boolean moved = tracked != null;
+        long previous = moved ? tracked.cell : TileKey.NONE;
+        if (moved && previous == cell) {
+            return false;
+        }
+        if (moved) {
+            tracked.cell = cell;
+        } else {
+            playerCells.put(playerId, new PlayerCell(cell));
+        }
+
+        int minX = cellX - radius;
+        int maxX = cellX + radius;
+        int minY = cellY - radius;
+        int maxY = cellY + radius;
+
+        // Window the player was covering before; empty for a new player
+        int oldMinX = 1, oldMaxX = 0, oldMinY = 1, oldMaxY = 0;
+        if (moved) {
+            oldMinX = unpackX(previous) - radius;
+            oldMaxX = unpackX(previous) + radius;
+            oldMinY = unpackY(previous) - radius;
+            oldMaxY = unpackY(previous) + radius;
+        }
+
+        for (int cx = minX; cx <= maxX; cx++) {
+            if (cx < oldMinX || cx > oldMaxX) {
+                generateColumn(cx, minY, maxY, generator);
+            } else {
+                // Only the rows outside the old window are new in this column
+                generateColumn(cx, minY, Math.min(maxY, oldMinY - 1), generator);
+                generateColumn(cx, Math.max(minY, oldMaxY + 1), maxY, generator);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Generates the not yet generated cells of one column.
+     */
+    private void generateColumn(int cellX, int fromY, int toY, CellGenerator generator) {
+        for (int cellY = fromY; cellY <= toY; cellY++) {
+            if (generatedCells.add(pack(cellX, cellY))) {
+                generator.generate(cellX, cellY);
+            }
+        }
+    }
+
+    /**
+     * Stops tracking a player. Cells it generated stay generated.
+     * @param playerId The player ID
+     */
+    public void removePlayer(String playerId) {
+        playerCells.remove(playerId);
+    }
+
+    /**
+     * Checks whether a cell has been generated.
+     * @param cellX The cell x index
+     * @param cellY The cell y index
+     * @return true if the cell has been handed to a generator
+     */
+    public boolean isGenerated(int cellX, int cellY) {
+        return generatedCells.contains(pack(cellX, cellY));
+    }
+
+    /**
+     * Gets the number of cells generated so far.
+     * @return The generated cell count
+     */
+    public int getGeneratedCellCount() {
+        return generatedCells.size();
+    }
+
+    /**
+     * Forgets all players and generated cells, e.g. after the world is replaced.
+     */
+    public void reset() {
+        playerCells.clear();
+        generatedCells.clear();
+    }
+
+    /**
+     * Gets the cell size in pixels.
+     * @return The cell size
+     */
+    public int getCellSize() {
+        return cellSize;
+    }
+
+    /**
+     * Converts a world coordinate to a cell index.
+     * @param coordinate The world coordinate
+     * @return The index of the cell containing it
+     */
+    public int toCell(float coordinate) {
+        return TileKey.toCell(coordinate, cellSize);
+    }
+
+    static long pack(int cellX, int cellY) {
+        return TileKey.pack(cellX, cellY);
+    }
+
+    static int unpackX(long cell) {
+        return TileKey.unpackX(cell);
+    }
+
+    static int unpackY(long cell) {
+        return TileKey.unpackY(cell);
+    }
+}
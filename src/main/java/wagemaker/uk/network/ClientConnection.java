@@ -1,25 +1,31 @@
 package wagemaker.uk.network;
 
-import java.io.ByteArrayOutputStream;
-import java.io.EOFException;
 import java.io.IOException;
-import java.io.ObjectInputStream;
-import java.io.ObjectOutputStream;
-import java.net.Socket;
-import java.net.SocketException;
+import java.nio.ByteBuffer;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import wagemaker.uk.server.ServerConfig;
 
 /**
- * ClientConnection manages an individual client's connection to the server.
- * It handles message receiving, sending, heartbeat tracking, and timeout detection.
+ * ClientConnection manages an individual client's session on the server.
+ * It handles message processing, sending, heartbeat tracking, and timeout detection.
+ * Socket I/O is performed by a {@link ClientTransport}, which invokes the callbacks
+ * below from a single thread per connection (an NIO event loop or a virtual thread).
+ * Outgoing messages are encoded into a bounded {@link OutboundQueue} that the
+ * transport drains in batches, so sending never blocks on the client's socket.
+ * Commands that touch the world are not applied on the transport's thread but
+ * submitted to the server's {@link ServerTickLoop}, which runs every handler
+ * below {@link #handleMessage} and all world-facing session events.
  */
-public class ClientConnection implements Runnable {
+public class ClientConnection {
     private static final long HEARTBEAT_INTERVAL = 5000; // 5 seconds
     private static final long CLIENT_TIMEOUT = 15000; // 15 seconds
     private static final int MESSAGE_RATE_LIMIT = 100; // messages per second
-    private static final int MAX_MESSAGE_SIZE = 65536; // 64KB max message size
     private static final float MAX_SPEED = 500.0f; // pixels per second
     private static final float UPDATE_RATE = 20.0f; // updates per second
     private static final float MAX_DISTANCE_PER_UPDATE = MAX_SPEED / UPDATE_RATE * 2; // ~50 pixels with buffer
@@ -30,17 +36,19 @@ public class ClientConnection implements Runnable {
     private static final int MAX_GHOST_TREE_ATTACKS = 10; // Maximum ghost tree attacks before disconnect
     private static final long INVENTORY_SYNC_INTERVAL = 10000; // 10 seconds
     
-    private Socket socket;
-    private ObjectInputStream input;
-    private ObjectOutputStream output;
+    private final ClientTransport connection;
+    private final OutboundQueue outboundQueue;
+    private final ServerConfig.OverflowPolicy overflowPolicy;
+    private final AtomicLong droppedMessages;
     private String clientId;
     private PlayerState playerState;
     private GameServer server;
-    private Thread receiveThread;
     private long lastHeartbeat;
     private long lastMessageTime;
     private int messageCount;
-    private boolean running;
+    private volatile boolean running;
+    private volatile boolean handshakeComplete;
+    private final AtomicBoolean cleanedUp;
     private Map<String, Long> playerAttackCooldowns;
     private Map<String, Integer> ghostTreeAttempts;
     private boolean isFirstPositionUpdate = true;
@@ -48,16 +56,16 @@ public class ClientConnection implements Runnable {
     
     /**
      * Creates a new ClientConnection.
-     * @param socket The client's socket
+     * @param connection The transport for the client's socket
      * @param clientId The unique client identifier
      * @param server The game server instance
-     * @throws IOException if streams cannot be created
      */
-    public ClientConnection(Socket socket, String clientId, GameServer server) throws IOException {
-        this.socket = socket;
+    public ClientConnection(ClientTransport connection, String clientId, GameServer server) {
+        this.connection = connection;
         this.clientId = clientId;
         this.server = server;
         this.running = true;
+        this.cleanedUp = new AtomicBoolean(false);
         this.lastHeartbeat = System.currentTimeMillis();
         this.lastMessageTime = System.currentTimeMillis();
         this.messageCount = 0;
@@ -65,10 +73,12 @@ public class ClientConnection implements Runnable {
         this.ghostTreeAttempts = new HashMap<>();
         this.lastInventorySync = System.currentTimeMillis();
         
-        // Create output stream first (important for ObjectStream protocol)
-        this.output = new ObjectOutputStream(socket.getOutputStream());
-        this.output.flush();
-        this.input = new ObjectInputStream(socket.getInputStream());
+        ServerConfig config = server.getConfig();
+        this.outboundQueue = new OutboundQueue(config.getOutboundQueueLimit(), config.isOutboundCoalesce());
+        this.overflowPolicy = config.getOutboundOverflow();
+        this.droppedMessages = new AtomicLong(0);
+        
+        connection.setHandler(this);
         
         // Initialize player state
         this.playerState = new PlayerState();
@@ -82,11 +92,49 @@ public class ClientConnection implements Runnable {
     }
     
     /**
-     * Main run loop for handling client messages.
-     * This method is executed in a thread pool.
+     * Called by the transport once the client's protocol handshake has been read.
+     * Answers with the accepted version and, if supported, starts the session.
+     * @param clientVersion The protocol version offered by the client
      */
-    @Override
-    public void run() {
+    void onHandshake(int clientVersion) {
+        int version = MessageCodec.negotiateVersion(clientVersion);
+        connection.send(MessageCodec.encodeHandshake(version));
+        
+        if (version == 0) {
+            System.out.println("Client " + clientId + " uses unsupported protocol version " + clientVersion);
+            close();
+            return;
+        }
+        
+        server.submitCommand(this::onConnected);
+    }
+    
+    /**
+     * Called by the transport when the client speaks the pre-framing protocol.
+     * Sends a rejection the old client can still display, then closes.
+     */
+    void onLegacyClient() {
+        System.out.println("Client " + clientId + " uses an outdated protocol, rejecting");
+        try {
+            connection.send(MessageCodec.encodeLegacyRejection("Client is out of date, please update"));
+        } catch (IOException e) {
+            // Closing anyway
+        }
+        close();
+    }
+    
+    /**
+     * Starts the session after a successful handshake. Runs on the tick thread, so
+     * the world state snapshot is consistent with every update broadcast after it.
+     * Sends the welcome message, initial world state and planted saplings, then
+     * announces the player.
+     */
+    private void onConnected() {
+        if (!running) {
+            return;
+        }
+        handshakeComplete = true;
+        
         try {
             // Send connection accepted message with client ID and planting range
             int plantingMaxRange = server.getConfig().getPlantingMaxRange();
@@ -103,6 +151,15 @@ public class ClientConnection implements Runnable {
                 snapshot.getClearedPositions(),
                 snapshot.getRainZones()));
             
+            // Planted saplings are not part of the world state message, so replay them as
+            // plant events; the client grows them and reports each transform as usual
+            for (PlantedTreeState planted : snapshot.getPlantedTrees().values()) {
+                sendMessage(new TreePlantMessage("server", planted.getPlantedTreeId(), planted.getX(), planted.getY()));
+            }
+            for (PlantedBambooState planted : snapshot.getPlantedBamboos().values()) {
+                sendMessage(new BambooPlantMessage("server", planted.getPlantedBambooId(), planted.getX(), planted.getY()));
+            }
+            
             // Send respawn state to synchronize pending respawn timers
             server.sendRespawnStateToClient(this);
             
@@ -114,107 +171,154 @@ public class ClientConnection implements Runnable {
                 playerState.getPlayerName(), playerState.getX(), playerState.getY());
             server.broadcastToAllExcept(joinMessage, clientId);
             
-            // Start message receiving loop
-            receiveMessages();
+            // Start receiving nearby movement and world events
+            server.updateInterest(clientId, playerState.getX(), playerState.getY());
             
         } catch (Exception e) {
             System.err.println("Error in client connection " + clientId + ": " + e.getMessage());
-        } finally {
-            cleanup();
+            close();
         }
     }
     
     /**
-     * Receives and processes messages from the client.
+     * Called periodically by the transport to run timeout and sync checks.
+     * @param now The current time in milliseconds
      */
-    private void receiveMessages() {
-        while (running && !socket.isClosed()) {
-            try {
-                // Check for timeout
-                if (System.currentTimeMillis() - lastHeartbeat > CLIENT_TIMEOUT) {
-                    System.out.println("Client " + clientId + " timed out");
-                    logSecurityViolation("Connection timeout");
+    void onTick(long now) {
+        // Check for timeout
+        if (now - lastHeartbeat > CLIENT_TIMEOUT) {
+            System.out.println("Client " + clientId + " timed out");
+            logSecurityViolation("Connection timeout");
+            close();
+            return;
+        }
+        
+        // Check if inventory sync is needed
+        if (now - lastInventorySync >= INVENTORY_SYNC_INTERVAL) {
+            server.submitCommand(this::sendInventorySync);
+            lastInventorySync = now;
+        }
+    }
+    
+    /**
+     * Called by the transport for every complete message received from the client.
+     * Heartbeats and pings are answered here; everything else is queued for the tick loop.
+     * @param message The decoded message
+     */
+    void onMessage(NetworkMessage message) {
+        if (!running) {
+            return;
+        }
+        
+        try {
+            // Check rate limiting
+            long currentTime = System.currentTimeMillis();
+            if (currentTime - lastMessageTime > 1000) {
+                // Reset counter every second
+                messageCount = 0;
+                lastMessageTime = currentTime;
+            }
+            
+            if (messageCount >= MESSAGE_RATE_LIMIT) {
+                System.out.println("Client " + clientId + " exceeded rate limit");
+                logSecurityViolation("Rate limit exceeded: " + messageCount + " messages/sec");
+                close();
+                return;
+            }
+            
+            messageCount++;
+            
+            // Update heartbeat for any message
+            lastHeartbeat = currentTime;
+            
+            switch (message.getType()) {
+                case HEARTBEAT:
+                    // Just update heartbeat timestamp (already done above)
                     break;
-                }
-                
-                // Check if inventory sync is needed
-                long syncTime = System.currentTimeMillis();
-                if (syncTime - lastInventorySync >= INVENTORY_SYNC_INTERVAL) {
-                    sendInventorySync();
-                    lastInventorySync = syncTime;
-                }
-                
-                // Check rate limiting
-                long currentTime = System.currentTimeMillis();
-                if (currentTime - lastMessageTime > 1000) {
-                    // Reset counter every second
-                    messageCount = 0;
-                    lastMessageTime = currentTime;
-                }
-                
-                if (messageCount >= MESSAGE_RATE_LIMIT) {
-                    System.out.println("Client " + clientId + " exceeded rate limit");
-                    logSecurityViolation("Rate limit exceeded: " + messageCount + " messages/sec");
+                    
+                case PING:
+                    handlePing((PingMessage) message);
+                    break;
+                    
+                default:
+                    server.submitCommand(() -> applyCommand(message));
                     break;
-                }
-                
-                // Read message with size validation
-                Object obj = input.readObject();
-                
-                // Validate message type
-                if (!(obj instanceof NetworkMessage)) {
-                    System.err.println("Invalid message type from " + clientId);
-                    logSecurityViolation("Invalid message type: " + obj.getClass().getName());
-                    continue;
-                }
-                
-                NetworkMessage message = (NetworkMessage) obj;
-                
-                // Validate message size (approximate check using serialization)
-                if (!validateMessageSize(message)) {
-                    System.err.println("Message too large from " + clientId);
-                    logSecurityViolation("Message size exceeds limit");
-                    continue;
-                }
-                
-                messageCount++;
-                handleMessage(message);
-                
-            } catch (SocketException e) {
-                // Socket closed, exit gracefully
-                break;
-            } catch (EOFException e) {
-                // Client disconnected
-                System.out.println("Client " + clientId + " disconnected");
-                break;
-            } catch (IOException e) {
-                if (running) {
-                    System.err.println("IO error receiving message from " + clientId + ": " + e.getMessage());
-                }
-                break;
-            } catch (ClassNotFoundException e) {
-                System.err.println("Unknown message type from " + clientId + ": " + e.getMessage());
-                logSecurityViolation("Unknown message class: " + e.getMessage());
-            } catch (Exception e) {
-                System.err.println("Unexpected error from " + clientId + ": " + e.getMessage());
-                logSecurityViolation("Unexpected error: " + e.getMessage());
             }
+            
+        } catch (Exception e) {
+            System.err.println("Unexpected error from " + clientId + ": " + e.getMessage());
+            logSecurityViolation("Unexpected error: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Applies a client command on the tick thread.
+     * @param message The message to apply
+     */
+    private void applyCommand(NetworkMessage message) {
+        if (!running) {
+            return;
+        }
+        
+        try {
+            handleMessage(message);
+        } catch (Exception e) {
+            System.err.println("Unexpected error from " + clientId + ": " + e.getMessage());
+            logSecurityViolation("Unexpected error: " + e.getMessage());
+        }
+        
+        // A handler may have flagged the connection for termination
+        if (!running) {
+            close();
+        }
+    }
+    
+    /**
+     * Called by the transport when a frame could not be decoded into a message.
+     * @param e The decoding failure
+     */
+    void onDecodeError(Exception e) {
+        if (e instanceof ClassNotFoundException) {
+            System.err.println("Unknown message type from " + clientId + ": " + e.getMessage());
+            logSecurityViolation("Unknown message class: " + e.getMessage());
+        } else {
+            System.err.println("Invalid message from " + clientId + ": " + e.getMessage());
+            logSecurityViolation("Invalid message: " + e.getMessage());
         }
     }
     
     /**
-     * Handles an incoming message from the client.
+     * Called by the transport when a frame exceeds MessageCodec.MAX_INBOUND_MESSAGE_SIZE.
+     * The payload is discarded without being deserialized.
+     * @param size The payload size announced by the frame header
+     */
+    void onOversizedMessage(int size) {
+        System.err.println("Message too large from " + clientId);
+        logSecurityViolation("Message size exceeds limit: " + size + " bytes");
+    }
+    
+    /**
+     * Called by the transport when the byte stream violates the framing protocol.
+     * @param reason Description of the violation
+     */
+    void onProtocolError(String reason) {
+        System.err.println("Protocol error from " + clientId + ": " + reason);
+        logSecurityViolation(reason);
+    }
+    
+    /**
+     * Called by the transport after the channel has been closed.
+     */
+    void onDisconnected() {
+        cleanup();
+    }
+    
+    /**
+     * Handles an incoming world command from the client. Called on the tick thread.
      * @param message The message to handle
      */
     private void handleMessage(NetworkMessage message) {
-        // Update heartbeat for any message
-        lastHeartbeat = System.currentTimeMillis();
-        
         switch (message.getType()) {
-            case HEARTBEAT:
-                // Just update heartbeat timestamp (already done above)
-                break;
-                
             case PLAYER_MOVEMENT:
                 handlePlayerMovement((PlayerMovementMessage) message);
                 break;
@@ -227,10 +331,6 @@ public class ClientConnection implements Runnable {
                 handleItemPickup((ItemPickupMessage) message);
                 break;
                 
-            case PING:
-                handlePing((PingMessage) message);
-                break;
-                
             case PLAYER_HEALTH_UPDATE:
                 handlePlayerHealthUpdate((PlayerHealthUpdateMessage) message);
                 break;
@@ -345,11 +445,12 @@ public class ClientConnection implements Runnable {
         // Update player sand area and process queued spawns
         server.getWorldState().updatePlayerSandArea(message.getX(), message.getY());
         
-        // Generate chunks around this player's new position
-        server.generateChunksAroundPlayers();
+        // Generate any cells this player's new position brought into range
+        server.updateChunkResidency(clientId, message.getX(), message.getY());
         
-        // Broadcast to other clients
-        server.broadcastToAllExcept(message, clientId);
+        // Send to the other clients that can see this player
+        server.updateInterest(clientId, message.getX(), message.getY());
+        server.broadcastToInterested(message, message.getX(), message.getY(), clientId);
     }
     
     /**
@@ -1186,27 +1287,105 @@ public class ClientConnection implements Runnable {
     
     /**
      * Sends a message to this client.
+     * The message is framed and added to the outbound queue; the transport writes it
+     * with the rest of the current batch. Messages sent before the protocol
+     * handshake has completed are dropped.
      * @param message The message to send
      */
     public void sendMessage(NetworkMessage message) {
+        if (!handshakeComplete) {
+            // The world state snapshot sent after the handshake covers anything dropped here
+            return;
+        }
+        
+        ByteBuffer frame;
         try {
-            synchronized (output) {
-                output.writeObject(message);
-                output.flush();
-                output.reset(); // Prevent memory leaks from object caching
-            }
+            frame = MessageCodec.encodeFrame(message);
         } catch (IOException e) {
             System.err.println("Error sending message to " + clientId + ": " + e.getMessage());
-            running = false;
+            return;
+        }
+        
+        enqueueFrame(message, frame);
+    }
+    
+    /**
+     * Sends a frame that has already been encoded, typically one shared by every
+     * recipient of a broadcast. The frame's bytes must not be modified afterwards;
+     * this connection queues its own view of them.
+     * @param message The message the frame was encoded from
+     * @param frame The encoded frame
+     */
+    void sendEncoded(NetworkMessage message, ByteBuffer frame) {
+        if (!handshakeComplete) {
+            return;
+        }
+        enqueueFrame(message, frame.duplicate());
+    }
+    
+    /**
+     * Adds a frame to the outbound queue and wakes the writer if needed.
+     * @param message The message the frame was encoded from
+     * @param frame The frame, owned by this connection
+     */
+    private void enqueueFrame(NetworkMessage message, ByteBuffer frame) {
+        switch (outboundQueue.offer(message, frame)) {
+            case QUEUED_FIRST:
+                // Frames queued during a tick go out together when the tick ends
+                if (!server.getTickLoop().deferFlush(this)) {
+                    connection.requestFlush();
+                }
+                break;
+            case QUEUED:
+                // A flush is already pending
+                break;
+            case FULL:
+                handleOutboundOverflow(message);
+                break;
         }
     }
     
+    /**
+     * Applies the configured overflow policy when this client cannot keep up.
+     * @param message The message that did not fit in the outbound queue
+     */
+    private void handleOutboundOverflow(NetworkMessage message) {
+        if (overflowPolicy == ServerConfig.OverflowPolicy.DROP) {
+            long dropped = droppedMessages.incrementAndGet();
+            if (dropped == 1 || dropped % 1000 == 0) {
+                System.err.println("Client " + clientId + " is falling behind, dropped " + dropped + 
+                                 " outbound messages (latest: " + message.getType() + ")");
+            }
+            return;
+        }
+        
+        System.err.println("Client " + clientId + " outbound queue full (" + outboundQueue.size() + 
+                         " messages), disconnecting");
+        close();
+    }
+    
+    /**
+     * Called by the transport's writer to take every queued frame for one batch write.
+     * @param batch The list to append frames to
+     * @return The number of frames drained
+     */
+    int drainOutbound(List<ByteBuffer> batch) {
+        return outboundQueue.drainTo(batch);
+    }
+    
+    /**
+     * Called by the tick loop at the end of a tick to wake the transport's writer.
+     */
+    void flushOutbound() {
+        connection.requestFlush();
+    }
+    
     /**
      * Checks if the client connection is still alive.
      * @return true if the connection is alive, false otherwise
      */
     public boolean isAlive() {
-        return running && !socket.isClosed() && 
+        return running && connection.isOpen() && 
                (System.currentTimeMillis() - lastHeartbeat < CLIENT_TIMEOUT);
     }
     
@@ -1215,6 +1394,7 @@ public class ClientConnection implements Runnable {
      */
     public void close() {
         running = false;
+        connection.close();
         cleanup();
     }
     
@@ -1239,35 +1419,13 @@ public class ClientConnection implements Runnable {
         return Math.round(position);
     }
     
-    /**
-     * Validates the size of a message.
-     * @param message The message to validate
-     * @return true if the message size is acceptable, false otherwise
-     */
-    private boolean validateMessageSize(NetworkMessage message) {
-        try {
-            // Estimate message size using serialization
-            ByteArrayOutputStream baos = new ByteArrayOutputStream();
-            ObjectOutputStream oos = new ObjectOutputStream(baos);
-            oos.writeObject(message);
-            oos.flush();
-            int size = baos.size();
-            oos.close();
-            
-            return size <= MAX_MESSAGE_SIZE;
-        } catch (IOException e) {
-            System.err.println("Error validating message size: " + e.getMessage());
-            return false;
-        }
-    }
-    
     /**
      * Logs a security violation for this client.
      * @param violation Description of the violation
      */
     private void logSecurityViolation(String violation) {
         System.err.println("[SECURITY] Client " + clientId + " - " + violation + 
-                         " from " + socket.getInetAddress());
+                         " from " + connection.getRemoteAddress());
     }
     
     /**
@@ -1401,6 +1559,8 @@ public class ClientConnection implements Runnable {
             return;
         }
         
+        server.getWorldState().addOrUpdatePlantedBamboo(new PlantedBambooState(plantedBambooId, x, y, 0));
+        
         System.out.println("[ClientConnection] Player " + clientId + " planted bamboo at (" + x + ", " + y + ")");
         System.out.println("  - Planted Bamboo ID: " + plantedBambooId);
         System.out.println("  - Broadcasting to all clients...");
@@ -1446,6 +1606,7 @@ public class ClientConnection implements Runnable {
         // This ensures the server knows about the tree when clients try to attack it
         TreeState bambooTree = new TreeState(bambooTreeId, TreeType.BAMBOO, x, y, 100.0f, true);
         server.getWorldState().addOrUpdateTree(bambooTree);
+        server.getWorldState().removePlantedBamboo(plantedBambooId);
         
         System.out.println("[SERVER] Bamboo transformed: " + plantedBambooId + " -> " + bambooTreeId + " at (" + x + ", " + y + ")");
         System.out.println("[SERVER] Added bamboo tree to server world state to prevent ghost tree issues");
@@ -1500,6 +1661,8 @@ public class ClientConnection implements Runnable {
             return;
         }
         
+        server.getWorldState().addOrUpdatePlantedTree(new PlantedTreeState(plantedTreeId, x, y, 0));
+        
         System.out.println("[ClientConnection] Player " + clientId + " planted tree at (" + x + ", " + y + ")");
         System.out.println("  - Planted Tree ID: " + plantedTreeId);
         System.out.println("  - Broadcasting to all clients...");
@@ -1545,6 +1708,7 @@ public class ClientConnection implements Runnable {
         // This ensures the server knows about the tree when clients try to attack it
         TreeState smallTree = new TreeState(smallTreeId, TreeType.SMALL, x, y, 100.0f, true);
         server.getWorldState().addOrUpdateTree(smallTree);
+        server.getWorldState().removePlantedTree(plantedTreeId);
         
         System.out.println("[SERVER] Tree transformed: " + plantedTreeId + " -> " + smallTreeId + " at (" + x + ", " + y + ")");
         System.out.println("[SERVER] Added tree to server world state to prevent ghost tree issues");
@@ -1582,40 +1746,29 @@ public class ClientConnection implements Runnable {
     
     /**
      * Cleans up connection resources.
+     * Safe to call more than once; only the first call has any effect.
      */
     private void cleanup() {
         running = false;
-        
-        // Remove player from world state
-        server.getWorldState().removePlayer(clientId);
-        
-        // Notify other clients
-        PlayerLeaveMessage leaveMsg = new PlayerLeaveMessage(clientId, playerState.getPlayerName());
-        server.broadcastToAllExcept(leaveMsg, clientId);
-        
-        // Close streams and socket
-        try {
-            if (input != null) input.close();
-        } catch (IOException e) {
-            // Ignore
-        }
-        
-        try {
-            if (output != null) output.close();
-        } catch (IOException e) {
-            // Ignore
+        if (!cleanedUp.compareAndSet(false, true)) {
+            return;
         }
         
-        try {
-            if (socket != null && !socket.isClosed()) {
-                socket.close();
-            }
-        } catch (IOException e) {
-            // Ignore
-        }
+        // Close the transport and drop anything still queued
+        connection.close();
+        outboundQueue.clear();
         
         // Remove from server's client list
         server.disconnectClient(clientId);
+        
+        // Remove player from world state and notify other clients on the tick thread
+        server.submitCommand(() -> {
+            server.getWorldState().removePlayer(clientId);
+            server.removeChunkResidency(clientId);
+            server.removeInterest(clientId);
+            PlayerLeaveMessage leaveMsg = new PlayerLeaveMessage(clientId, playerState.getPlayerName());
+            server.broadcastToAllExcept(leaveMsg, clientId);
+        });
     }
     
     /**
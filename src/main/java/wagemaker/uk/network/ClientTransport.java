@@ -0,0 +1,51 @@
+package wagemaker.uk.network;
+
+import java.net.InetAddress;
+import java.nio.ByteBuffer;
+
+/**
+ * Socket transport used by a {@link ClientConnection}.
+ *
+ * Implementations deliver decoded messages and lifecycle events to the attached
+ * ClientConnection and write the frames it queues. Game messages go through the
+ * ClientConnection's {@link OutboundQueue}; {@link #send(ByteBuffer)} is only for
+ * raw protocol bytes such as the handshake. {@link #send(ByteBuffer)},
+ * {@link #requestFlush()} and {@link #close()} must be safe to call from any thread.
+ */
+public interface ClientTransport {
+
+    /**
+     * Attaches the session-level handler that receives decoded messages.
+     * @param handler The client connection handling this transport
+     */
+    void setHandler(ClientConnection handler);
+
+    /**
+     * Writes raw bytes ahead of anything in the outbound queue.
+     * @param frame The bytes to send
+     */
+    void send(ByteBuffer frame);
+
+    /**
+     * Signals that the handler's outbound queue has frames waiting. The transport
+     * drains the whole queue on its writer and sends it as one batch.
+     */
+    void requestFlush();
+
+    /**
+     * Checks whether the transport is still open.
+     * @return true if open
+     */
+    boolean isOpen();
+
+    /**
+     * Gets the remote address of the client.
+     * @return The remote address
+     */
+    InetAddress getRemoteAddress();
+
+    /**
+     * Closes the transport. The handler is notified once via onDisconnected.
+     */
+    void close();
+}
@@ -1,9 +1,12 @@
 package wagemaker.uk.network;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
 import java.io.IOException;
-import java.io.ObjectInputStream;
-import java.io.ObjectOutputStream;
 import java.net.Socket;
+import java.nio.ByteBuffer;
 import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.atomic.AtomicBoolean;
 
@@ -13,12 +16,13 @@ import java.util.concurrent.atomic.AtomicBoolean;
  */
 public class GameClient {
     private Socket socket;
-    private ObjectOutputStream outputStream;
-    private ObjectInputStream inputStream;
+    private DataOutputStream outputStream;
+    private DataInputStream inputStream;
     private Thread receiveThread;
     private String clientId;
     private AtomicBoolean connected;
     private MessageHandler messageHandler;
+    private static final int HANDSHAKE_TIMEOUT_MS = 5000;
     
     // Message throttling for position updates
     private long lastPositionUpdateTime;
@@ -92,13 +96,14 @@ public class GameClient {
         try {
             // Establish socket connection
             socket = new Socket(serverAddress, port);
+            socket.setTcpNoDelay(true);
             
-            // Create output stream first (required for ObjectInputStream handshake)
-            outputStream = new ObjectOutputStream(socket.getOutputStream());
-            outputStream.flush();
+            // Messages are exchanged as length-prefixed frames (see MessageCodec)
+            outputStream = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+            inputStream = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
             
-            // Create input stream
-            inputStream = new ObjectInputStream(socket.getInputStream());
+            // Agree on the wire protocol version before any frames are exchanged
+            performHandshake();
             
             connected.set(true);
             
@@ -129,6 +134,24 @@ public class GameClient {
         }
     }
     
+    /**
+     * Sends this client's protocol version and waits for the server to accept it.
+     * @throws IOException if the server refuses the version or does not answer in time
+     */
+    private void performHandshake() throws IOException {
+        ByteBuffer handshake = MessageCodec.encodeHandshake(MessageCodec.PROTOCOL_VERSION);
+        outputStream.write(handshake.array(), 0, handshake.limit());
+        outputStream.flush();
+        
+        socket.setSoTimeout(HANDSHAKE_TIMEOUT_MS);
+        int serverVersion = MessageCodec.readHandshake(inputStream);
+        socket.setSoTimeout(0);
+        
+        if (serverVersion != MessageCodec.PROTOCOL_VERSION) {
+            throw new IOException("Server does not support protocol version " + MessageCodec.PROTOCOL_VERSION);
+        }
+    }
+    
     /**
      * Disconnects from the game server.
      */
@@ -224,14 +247,8 @@ public class GameClient {
             while (connected.get() && !Thread.currentThread().isInterrupted()) {
                 try {
                     // Read message from server
-                    Object obj = inputStream.readObject();
-                    
-                    if (obj instanceof NetworkMessage) {
-                        NetworkMessage message = (NetworkMessage) obj;
-                        handleIncomingMessage(message);
-                    } else {
-                        System.err.println("Received unknown object type: " + obj.getClass().getName());
-                    }
+                    NetworkMessage message = MessageCodec.readFrame(inputStream, MessageCodec.MAX_FRAME_SIZE);
+                    handleIncomingMessage(message);
                     
                 } catch (IOException e) {
                     if (connected.get()) {
@@ -259,7 +276,7 @@ public class GameClient {
                     NetworkMessage message = sendQueue.poll();
                     
                     if (message != null) {
-                        outputStream.writeObject(message);
+                        MessageCodec.writeFrame(outputStream, message);
                         outputStream.flush();
                     } else {
                         // No messages to send, sleep briefly
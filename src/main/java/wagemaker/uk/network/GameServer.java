@@ -2,30 +2,52 @@ package wagemaker.uk.network;
 
 import java.io.*;
 import java.net.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
 import java.util.*;
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
 import wagemaker.uk.respawn.RespawnManager;
 import wagemaker.uk.respawn.RespawnEntry;
 import wagemaker.uk.respawn.ResourceType;
 import wagemaker.uk.server.ServerConfig;
+import wagemaker.uk.world.LongHashSet;
 
 /**
  * GameServer manages the authoritative game state and handles client connections.
  * It accepts incoming connections, manages client sessions, and synchronizes world state.
+ * Client sockets are serviced by a small pool of non-blocking {@link NioEventLoop}s,
+ * or, when server.virtual-threads is enabled, by one virtual thread per client.
+ * Either way the number of sessions is bounded by maxClients rather than by thread count.
+ * World state is only mutated on the {@link ServerTickLoop}; I/O threads submit
+ * client commands to it and it applies them once per tick. Movement and world
+ * generation events are sent only to players whose view covers them (see
+ * {@link InterestManager}).
  */
 public class GameServer {
     private static final int DEFAULT_PORT = 25565;
     private static final int DEFAULT_MAX_CLIENTS = 20;
-    private static final int THREAD_POOL_SIZE = 10;
+    private static final int EVENT_LOOP_COUNT = Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors()));
+    // Stones never spawn within 512px of a player; cells closer than this (plus the
+    // stone's random offset) are left for a later, farther pass
+    private static final float STONE_DEFER_DISTANCE = 512 + 48;
     
     private int maxClients;
     
-    private ServerSocket serverSocket;
+    private ServerSocketChannel serverChannel;
     private Map<String, ClientConnection> connectedClients;
     private WorldState worldState;
     private RespawnManager respawnManager;
-    private ExecutorService clientThreadPool;
+    private NioEventLoop[] eventLoops;
+    private final AtomicInteger nextEventLoop;
     private Thread acceptThread;
+    private ServerTickLoop tickLoop;
+    private final ChunkResidencyTracker chunkTracker;
+    private final LongHashSet deferredStoneCells;
+    private final InterestManager interestManager;
+    private final InterestManager.Listener interestListener;
+    private boolean virtualThreads;
     private boolean running;
     private int port;
     private ServerConfig config;
@@ -64,7 +86,11 @@ public class GameServer {
         this.port = port;
         this.maxClients = maxClients;
         this.connectedClients = new ConcurrentHashMap<>();
-        this.clientThreadPool = Executors.newFixedThreadPool(THREAD_POOL_SIZE);
+        this.nextEventLoop = new AtomicInteger(0);
+        this.chunkTracker = new ChunkResidencyTracker();
+        this.deferredStoneCells = new LongHashSet();
+        this.interestManager = new InterestManager();
+        this.interestListener = new InterestListener();
         this.running = false;
         
         // Load server configuration
@@ -75,6 +101,29 @@ public class GameServer {
         long seed = (worldSeed == 0) ? System.currentTimeMillis() : worldSeed;
         this.worldState = new WorldState(seed);
         System.out.println("World initialized with seed: " + seed);
+        
+        this.tickLoop = createTickLoop();
+    }
+    
+    /**
+     * Creates the simulation loop and registers the server's periodic systems.
+     * @return A new, not yet started tick loop
+     */
+    private ServerTickLoop createTickLoop() {
+        ServerTickLoop loop = new ServerTickLoop(config.getTickRate());
+        
+        // Respawn timers (only once a respawn manager has been attached)
+        loop.addSystem(deltaTime -> {
+            RespawnManager manager = respawnManager;
+            if (manager != null) {
+                manager.update(deltaTime);
+            }
+        });
+        
+        // Planted tree and bamboo growth
+        loop.addSystem(deltaTime -> worldState.updatePlantedGrowth(deltaTime));
+        
+        return loop;
     }
     
     /**
@@ -96,10 +145,36 @@ public class GameServer {
         }
         
         this.port = port;
-        this.serverSocket = new ServerSocket(port);
+        this.serverChannel = ServerSocketChannel.open();
+        this.serverChannel.socket().setReuseAddress(true);
+        try {
+            this.serverChannel.bind(new InetSocketAddress(port));
+        } catch (IOException e) {
+            serverChannel.close();
+            throw e;
+        }
+        
+        this.virtualThreads = config.isVirtualThreads();
+        if (virtualThreads) {
+            System.out.println("GameServer started on port " + port + " (virtual thread per client)");
+        } else {
+            // Start the I/O event loops that service client sockets
+            this.eventLoops = new NioEventLoop[EVENT_LOOP_COUNT];
+            for (int i = 0; i < eventLoops.length; i++) {
+                eventLoops[i] = new NioEventLoop("ServerIO-" + i);
+                eventLoops[i].start();
+            }
+            System.out.println("GameServer started on port " + port + " (" + eventLoops.length + " I/O threads)");
+        }
         this.running = true;
         
-        System.out.println("GameServer started on port " + port);
+        if (tickLoop.isStarted()) {
+            // A stopped loop cannot be restarted
+            tickLoop = createTickLoop();
+        }
+        tickLoop.start();
+        System.out.println("Simulation running at " + tickLoop.getTickRate() + " ticks per second");
+        
         System.out.println("Server IP: " + getPublicIPv4());
         
         // Start accepting clients in a separate thread
@@ -128,24 +203,24 @@ public class GameServer {
         }
         connectedClients.clear();
         
+        // Apply the disconnects and anything else still queued, then stop simulating
+        tickLoop.stop();
+        
         // Close server socket
         try {
-            if (serverSocket != null && !serverSocket.isClosed()) {
-                serverSocket.close();
+            if (serverChannel != null && serverChannel.isOpen()) {
+                serverChannel.close();
             }
         } catch (IOException e) {
             System.err.println("Error closing server socket: " + e.getMessage());
         }
         
-        // Shutdown thread pool
-        clientThreadPool.shutdown();
-        try {
-            if (!clientThreadPool.awaitTermination(5, TimeUnit.SECONDS)) {
-                clientThreadPool.shutdownNow();
+        // Stop the I/O event loops
+        if (eventLoops != null) {
+            for (NioEventLoop loop : eventLoops) {
+                loop.stop();
             }
-        } catch (InterruptedException e) {
-            clientThreadPool.shutdownNow();
-            Thread.currentThread().interrupt();
+            eventLoops = null;
         }
         
         System.out.println("GameServer stopped");
@@ -159,6 +234,30 @@ public class GameServer {
         return running;
     }
     
+    /**
+     * Blocks until the server has been stopped.
+     * @throws InterruptedException if the calling thread is interrupted
+     */
+    public void awaitShutdown() throws InterruptedException {
+        tickLoop.awaitTermination();
+    }
+    
+    /**
+     * Gets the simulation loop that owns world state mutation.
+     * @return The tick loop
+     */
+    public ServerTickLoop getTickLoop() {
+        return tickLoop;
+    }
+    
+    /**
+     * Queues a command to be applied to the world on the next tick.
+     * @param command The command to apply
+     */
+    public void submitCommand(Runnable command) {
+        tickLoop.submit(command);
+    }
+    
     /**
      * Gets the current world state.
      * @return The authoritative world state
@@ -169,11 +268,12 @@ public class GameServer {
     
     /**
      * Updates the world state with the given update.
+     * The update is applied on the next tick.
      * @param update The world state update to apply
      */
     public void updateWorldState(WorldStateUpdate update) {
         if (update != null) {
-            worldState.applyUpdate(update);
+            submitCommand(() -> worldState.applyUpdate(update));
         }
     }
     
@@ -256,22 +356,25 @@ public class GameServer {
     private void acceptClients() {
         System.out.println("Server accepting connections...");
         
-        while (running && !serverSocket.isClosed()) {
+        while (running && serverChannel.isOpen()) {
             try {
-                Socket clientSocket = serverSocket.accept();
+                SocketChannel clientChannel = serverChannel.accept();
                 
                 // Check if we've reached max clients
                 if (connectedClients.size() >= maxClients) {
                     System.out.println("[SECURITY] Max clients reached (" + maxClients + 
-                                     "), rejecting connection from " + clientSocket.getInetAddress());
-                    sendRejectionMessage(clientSocket, "Server is full");
-                    clientSocket.close();
+                                     "), rejecting connection from " + clientChannel.socket().getInetAddress());
+                    sendRejectionMessage(clientChannel, "Server is full");
+                    clientChannel.close();
                     continue;
                 }
                 
                 // Handle the new client connection
-                handleClientConnection(clientSocket);
+                handleClientConnection(clientChannel);
                 
+            } catch (java.nio.channels.ClosedChannelException e) {
+                // Channel was closed, this is expected when stopping
+                break;
             } catch (SocketException e) {
                 // Socket was closed, this is expected when stopping
                 if (running) {
@@ -289,32 +392,64 @@ public class GameServer {
     
     /**
      * Handles a new client connection.
-     * Creates a ClientConnection and adds it to the connected clients map.
-     * @param clientSocket The socket for the new client
+     * Creates a ClientConnection, adds it to the connected clients map and
+     * hands its channel to one of the event loops (or to a virtual thread).
+     * @param clientChannel The channel for the new client
+     */
+    private void handleClientConnection(SocketChannel clientChannel) {
+        String clientId = UUID.randomUUID().toString();
+        System.out.println("New client connecting: " + clientId + 
+                         " from " + clientChannel.socket().getInetAddress());
+        
+        if (virtualThreads) {
+            handleVirtualThreadConnection(clientChannel, clientId);
+            return;
+        }
+        
+        // Spread connections across event loops round-robin
+        NioEventLoop[] loops = eventLoops;
+        if (loops == null) {
+            try {
+                clientChannel.close();
+            } catch (IOException e) {
+                // Ignore
+            }
+            return;
+        }
+        NioEventLoop loop = loops[Math.floorMod(nextEventLoop.getAndIncrement(), loops.length)];
+        
+        // Create client connection
+        NioConnection connection = new NioConnection(clientChannel, loop);
+        ClientConnection clientConnection = new ClientConnection(connection, clientId, this);
+        
+        connectedClients.put(clientId, clientConnection);
+        
+        // The event loop sends the initial state once the channel is registered
+        loop.register(connection);
+        
+        System.out.println("Client connected: " + clientId + 
+                         " (Total clients: " + connectedClients.size() + ")");
+    }
+    
+    /**
+     * Starts a blocking session for a new client on its own virtual thread.
+     * @param clientChannel The channel for the new client (in blocking mode)
+     * @param clientId The unique client identifier
      */
-    private void handleClientConnection(Socket clientSocket) {
+    private void handleVirtualThreadConnection(SocketChannel clientChannel, String clientId) {
         try {
-            String clientId = UUID.randomUUID().toString();
-            System.out.println("New client connecting: " + clientId + 
-                             " from " + clientSocket.getInetAddress());
-            
-            // Create client connection
-            ClientConnection clientConnection = new ClientConnection(
-                clientSocket, clientId, this
-            );
+            VirtualThreadConnection connection = new VirtualThreadConnection(clientChannel.socket());
+            ClientConnection clientConnection = new ClientConnection(connection, clientId, this);
             
             connectedClients.put(clientId, clientConnection);
-            
-            // Start handling this client in the thread pool
-            clientThreadPool.execute(clientConnection);
+            connection.start();
             
             System.out.println("Client connected: " + clientId + 
                              " (Total clients: " + connectedClients.size() + ")");
-            
         } catch (IOException e) {
-            System.err.println("Error setting up client connection: " + e.getMessage());
+            System.err.println("Error creating client connection: " + e.getMessage());
             try {
-                clientSocket.close();
+                clientChannel.close();
             } catch (IOException ex) {
                 // Ignore
             }
@@ -322,15 +457,22 @@ public class GameServer {
     }
     
     /**
-     * Sends a rejection message to a client and closes the connection.
-     * @param clientSocket The client socket
+     * Sends a rejection message to a client before its connection is closed.
+     * The channel is still in blocking mode, so the bytes are written directly. The
+     * server handshake is sent first so the client can decode the rejection frame.
+     * @param clientChannel The client channel
      * @param reason The reason for rejection
      */
-    private void sendRejectionMessage(Socket clientSocket, String reason) {
+    private void sendRejectionMessage(SocketChannel clientChannel, String reason) {
         try {
-            ObjectOutputStream out = new ObjectOutputStream(clientSocket.getOutputStream());
-            out.writeObject(new ConnectionRejectedMessage("server", reason));
-            out.flush();
+            ByteBuffer handshake = MessageCodec.encodeHandshake(MessageCodec.PROTOCOL_VERSION);
+            while (handshake.hasRemaining()) {
+                clientChannel.write(handshake);
+            }
+            ByteBuffer frame = MessageCodec.encodeFrame(new ConnectionRejectedMessage("server", reason));
+            while (frame.hasRemaining()) {
+                clientChannel.write(frame);
+            }
         } catch (IOException e) {
             System.err.println("Error sending rejection message: " + e.getMessage());
         }
@@ -400,11 +542,17 @@ public class GameServer {
     
     /**
      * Broadcasts a message to all connected clients.
-     * Messages are queued and sent reliably via TCP.
+     * Messages are queued and sent reliably via TCP. The message is encoded once
+     * and the same frame bytes are queued for every recipient.
      * @param message The message to broadcast
      */
     public void broadcastToAll(NetworkMessage message) {
-        if (message == null) {
+        if (message == null || connectedClients.isEmpty()) {
+            return;
+        }
+        
+        ByteBuffer frame = encodeForBroadcast(message);
+        if (frame == null) {
             return;
         }
         
@@ -414,7 +562,7 @@ public class GameServer {
         for (ClientConnection client : connectedClients.values()) {
             try {
                 if (client.isAlive()) {
-                    client.sendMessage(message);
+                    client.sendEncoded(message, frame);
                     successCount++;
                 } else {
                     failedClients.add(client.getClientId());
@@ -444,7 +592,12 @@ public class GameServer {
      * @param excludeClientId The client ID to exclude from the broadcast
      */
     public void broadcastToAllExcept(NetworkMessage message, String excludeClientId) {
-        if (message == null) {
+        if (message == null || connectedClients.isEmpty()) {
+            return;
+        }
+        
+        ByteBuffer frame = encodeForBroadcast(message);
+        if (frame == null) {
             return;
         }
         
@@ -458,7 +611,7 @@ public class GameServer {
             
             try {
                 if (client.isAlive()) {
-                    client.sendMessage(message);
+                    client.sendEncoded(message, frame);
                 } else {
                     failedClients.add(client.getClientId());
                 }
@@ -475,6 +628,75 @@ public class GameServer {
         }
     }
     
+    /**
+     * Sends a message to the clients whose view covers a world position.
+     * Used for high-volume local events (movement, world generation) so their
+     * fan-out depends on how many players are nearby rather than on the total.
+     * Must be called on the tick thread.
+     * @param message The message to send
+     * @param x The world x coordinate the event happened at
+     * @param y The world y coordinate the event happened at
+     * @param excludeClientId A client to skip, or null
+     */
+    public void broadcastToInterested(NetworkMessage message, float x, float y, String excludeClientId) {
+        if (message == null) {
+            return;
+        }
+        
+        Set<String> interested = interestManager.getSubscribers(x, y);
+        if (interested.isEmpty()) {
+            return;
+        }
+        
+        ByteBuffer frame = encodeForBroadcast(message);
+        if (frame == null) {
+            return;
+        }
+        
+        List<String> failedClients = new ArrayList<>();
+        
+        for (String clientId : interested) {
+            if (clientId.equals(excludeClientId)) {
+                continue;
+            }
+            
+            ClientConnection client = connectedClients.get(clientId);
+            if (client == null) {
+                continue;
+            }
+            
+            try {
+                if (client.isAlive()) {
+                    client.sendEncoded(message, frame);
+                } else {
+                    failedClients.add(clientId);
+                }
+            } catch (Exception e) {
+                System.err.println("Error sending to client " + clientId + ": " + e.getMessage());
+                failedClients.add(clientId);
+            }
+        }
+        
+        // Clean up failed clients
+        for (String clientId : failedClients) {
+            disconnectClient(clientId);
+        }
+    }
+    
+    /**
+     * Encodes a broadcast message once for all recipients.
+     * @param message The message to encode
+     * @return The encoded frame, or null if the message could not be encoded
+     */
+    private ByteBuffer encodeForBroadcast(NetworkMessage message) {
+        try {
+            return MessageCodec.encodeFrame(message);
+        } catch (IOException e) {
+            System.err.println("Error encoding broadcast " + message.getType() + ": " + e.getMessage());
+            return null;
+        }
+    }
+    
     /**
      * Broadcasts a resource respawn event to all connected clients.
      * Called by the respawn manager when a resource respawns.
@@ -521,8 +743,7 @@ public class GameServer {
     
     /**
      * Generates chunks around all players.
-     * Called when players move to ensure trees/stones exist in their vicinity.
-     * Only generates entities that don't already exist.
+     * Only cells that have never been generated are visited.
      */
     public void generateChunksAroundPlayers() {
         if (worldState == null) {
@@ -534,60 +755,230 @@ public class GameServer {
             return;
         }
         
-        // Generate chunks around each player
         for (PlayerState player : players.values()) {
-            generateChunksAroundPosition(player.getX(), player.getY());
+            updateChunkResidency(player.getPlayerId(), player.getX(), player.getY());
         }
     }
     
     /**
-     * Generates chunks around a specific position.
-     * Creates trees and stones in a grid pattern around the position.
-     * 
-     * @param centerX The center X coordinate
-     * @param centerY The center Y coordinate
+     * Records a player's position and generates the cells that entered its
+     * surroundings. Called on the tick thread when a player moves; does nothing
+     * more than a lookup unless the player crossed into a new cell.
+     * @param playerId The player ID
+     * @param x The player's x coordinate
+     * @param y The player's y coordinate
      */
-    private void generateChunksAroundPosition(float centerX, float centerY) {
-        // Generate in a 3x3 chunk area around player (approximately 1920x1920 pixels)
-        int chunkSize = 64; // Same as grass tile size
-        int chunksRadius = 15; // Generate 15 chunks in each direction (960 pixels)
+    public void updateChunkResidency(String playerId, float x, float y) {
+        boolean crossed = chunkTracker.updatePlayer(playerId, x, y,
+            (cellX, cellY) -> generateCell(cellX, cellY, x, y));
         
-        int startX = ((int)centerX / chunkSize - chunksRadius) * chunkSize;
-        int startY = ((int)centerY / chunkSize - chunksRadius) * chunkSize;
-        int endX = ((int)centerX / chunkSize + chunksRadius) * chunkSize;
-        int endY = ((int)centerY / chunkSize + chunksRadius) * chunkSize;
+        if (crossed && !deferredStoneCells.isEmpty()) {
+            retryDeferredStones();
+        }
+    }
+    
+    /**
+     * Stops tracking a player's surroundings. Called on the tick thread when a player leaves.
+     * @param playerId The player ID
+     */
+    public void removeChunkResidency(String playerId) {
+        chunkTracker.removePlayer(playerId);
+    }
+    
+    /**
+     * Generates the tree and stone of a single cell and broadcasts them.
+     * Stones may not spawn close to any player, so a cell that is too close has
+     * its stone deferred until a player crosses a cell boundary while every
+     * player is far enough away.
+     * @param cellX The cell x index
+     * @param cellY The cell y index
+     * @param playerX The x coordinate of the player whose window reached the cell
+     * @param playerY The y coordinate of the player whose window reached the cell
+     */
+    private void generateCell(int cellX, int cellY, float playerX, float playerY) {
+        int cellSize = chunkTracker.getCellSize();
+        int x = cellX * cellSize;
+        int y = cellY * cellSize;
         
-        for (int x = startX; x <= endX; x += chunkSize) {
-            for (int y = startY; y <= endY; y += chunkSize) {
-                // Generate tree at this position (if it should exist)
-                TreeState tree = worldState.generateTreeAt(x, y);
+        // Generate tree at this position (if it should exist)
+        TreeState tree = worldState.generateTreeAt(x, y);
+        if (tree != null && tree.isExists()) {
+            // Broadcast new tree to all clients (only if it exists)
+            TreeCreatedMessage message = new TreeCreatedMessage(
+                "server",
+                tree.getTreeId(),
+                tree.getType(),
+                tree.getX(),
+                tree.getY(),
+                tree.getHealth()
+            );
+            broadcastToInterested(message, x, y, null);
+        }
+        
+        if (isNearAnyPlayer(x, y)) {
+            deferredStoneCells.add(ChunkResidencyTracker.pack(cellX, cellY));
+        } else {
+            generateStone(x, y, playerX, playerY);
+        }
+    }
+    
+    /**
+     * Generates stones for deferred cells that are now far enough from every player.
+     */
+    private void retryDeferredStones() {
+        int cellSize = chunkTracker.getCellSize();
+        deferredStoneCells.removeIf(cell -> {
+            int x = ChunkResidencyTracker.unpackX(cell) * cellSize;
+            int y = ChunkResidencyTracker.unpackY(cell) * cellSize;
+            PlayerState nearest = findNearestPlayer(x, y);
+            if (nearest == null || isNearPlayer(x, y, nearest.getX(), nearest.getY())) {
+                return false;
+            }
+            generateStone(x, y, nearest.getX(), nearest.getY());
+            return true;
+        });
+    }
+    
+    /**
+     * Checks whether a stone generated in the cell at (x, y) could fall inside any
+     * player's stone clearance.
+     */
+    private boolean isNearAnyPlayer(int x, int y) {
+        PlayerState nearest = findNearestPlayer(x, y);
+        return nearest != null && isNearPlayer(x, y, nearest.getX(), nearest.getY());
+    }
+    
+    /**
+     * Finds the player closest to a position.
+     * @return The nearest player, or null if no players are connected
+     */
+    private PlayerState findNearestPlayer(int x, int y) {
+        PlayerState nearest = null;
+        float nearestDistance = Float.MAX_VALUE;
+        for (PlayerState player : worldState.getPlayers().values()) {
+            float dx = x - player.getX();
+            float dy = y - player.getY();
+            float distance = dx * dx + dy * dy;
+            if (distance < nearestDistance) {
+                nearest = player;
+                nearestDistance = distance;
+            }
+        }
+        return nearest;
+    }
+    
+    /**
+     * Checks whether a stone generated in the cell at (x, y) could fall inside the
+     * player's stone clearance, once its random offset is applied.
+     */
+    private boolean isNearPlayer(int x, int y, float playerX, float playerY) {
+        float dx = x - playerX;
+        float dy = y - playerY;
+        return dx * dx + dy * dy < STONE_DEFER_DISTANCE * STONE_DEFER_DISTANCE;
+    }
+    
+    /**
+     * Generates the stone of a cell (if it should exist) and broadcasts it.
+     */
+    private void generateStone(int x, int y, float playerX, float playerY) {
+        StoneState stone = worldState.generateStoneAt(x, y, playerX, playerY);
+        if (stone != null && stone.getHealth() > 0) {
+            // Broadcast new stone to all clients (only if not destroyed)
+            StoneCreatedMessage message = new StoneCreatedMessage(
+                "server",
+                stone.getStoneId(),
+                stone.getX(),
+                stone.getY(),
+                stone.getHealth()
+            );
+            broadcastToInterested(message, x, y, null);
+        }
+    }
+    
+    /**
+     * Records a player's position for interest management. Called on the tick
+     * thread when a player joins or moves.
+     * @param playerId The player ID
+     * @param x The player's x coordinate
+     * @param y The player's y coordinate
+     */
+    public void updateInterest(String playerId, float x, float y) {
+        interestManager.update(playerId, x, y, interestListener);
+    }
+    
+    /**
+     * Stops interest tracking for a player. Called on the tick thread when a player leaves.
+     * @param playerId The player ID
+     */
+    public void removeInterest(String playerId) {
+        interestManager.remove(playerId);
+    }
+    
+    /**
+     * Sends the generated trees and stones of one interest cell to a client
+     * whose view has just moved over it.
+     * @param client The client
+     * @param cellX The interest cell x index
+     * @param cellY The interest cell y index
+     */
+    private void sendCellContents(ClientConnection client, int cellX, int cellY) {
+        int step = chunkTracker.getCellSize();
+        int startX = cellX * interestManager.getCellSize();
+        int startY = cellY * interestManager.getCellSize();
+        
+        for (int x = startX; x < startX + interestManager.getCellSize(); x += step) {
+            for (int y = startY; y < startY + interestManager.getCellSize(); y += step) {
+                TreeState tree = worldState.getTreeAt(x, y);
                 if (tree != null && tree.isExists()) {
-                    // Broadcast new tree to all clients (only if it exists)
-                    TreeCreatedMessage message = new TreeCreatedMessage(
-                        "server",
-                        tree.getTreeId(),
-                        tree.getType(),
-                        tree.getX(),
-                        tree.getY(),
-                        tree.getHealth()
-                    );
-                    broadcastToAll(message);
+                    client.sendMessage(new TreeCreatedMessage("server", tree.getTreeId(), tree.getType(),
+                        tree.getX(), tree.getY(), tree.getHealth()));
                 }
                 
-                // Generate stone at this position (if it should exist)
-                StoneState stone = worldState.generateStoneAt(x, y, centerX, centerY);
+                StoneState stone = worldState.getStoneAt(x, y);
                 if (stone != null && stone.getHealth() > 0) {
-                    // Broadcast new stone to all clients (only if not destroyed)
-                    StoneCreatedMessage message = new StoneCreatedMessage(
-                        "server",
-                        stone.getStoneId(),
-                        stone.getX(),
-                        stone.getY(),
-                        stone.getHealth()
-                    );
-                    broadcastToAll(message);
+                    client.sendMessage(new StoneCreatedMessage("server", stone.getStoneId(),
+                        stone.getX(), stone.getY(), stone.getHealth()));
                 }
             }
         }
     }
+    
+    /**
+     * Sends a player's current position to an observer.
+     * @param observerId The observing client
+     * @param playerId The player whose position is sent
+     * @param visible false to show the player standing still as it leaves the view
+     */
+    private void sendPlayerPosition(String observerId, String playerId, boolean visible) {
+        ClientConnection observer = connectedClients.get(observerId);
+        PlayerState player = worldState.getPlayers().get(playerId);
+        if (observer == null || player == null) {
+            return;
+        }
+        observer.sendMessage(new PlayerMovementMessage(playerId, player.getX(), player.getY(),
+            player.getDirection(), visible && player.isMoving()));
+    }
+    
+    /**
+     * Turns interest changes into catch-up messages for the affected clients.
+     */
+    private class InterestListener implements InterestManager.Listener {
+        @Override
+        public void onCellSubscribed(String clientId, int cellX, int cellY) {
+            ClientConnection client = connectedClients.get(clientId);
+            if (client != null) {
+                sendCellContents(client, cellX, cellY);
+            }
+        }
+        
+        @Override
+        public void onPlayerVisible(String observerId, String playerId) {
+            sendPlayerPosition(observerId, playerId, true);
+        }
+        
+        @Override
+        public void onPlayerHidden(String observerId, String playerId) {
+            sendPlayerPosition(observerId, playerId, false);
+        }
+    }
 }
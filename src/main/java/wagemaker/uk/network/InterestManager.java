@@ -0,0 +1,281 @@
+package wagemaker.uk.network;
+
+import wagemaker.uk.world.LongObjectHashMap;
+import wagemaker.uk.world.TileKey;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Area-of-interest bookkeeping for the server.
+ *
+ * The world is divided into coarse interest cells. Each player occupies one cell
+ * and subscribes to the square of cells within its view radius. Events that
+ * happen at a position are sent only to the subscribers of that position's cell,
+ * so fan-out depends on how many players are nearby rather than on how many are
+ * connected. The view radius covers the server's chunk generation window, so a
+ * player always sees what is generated around it.
+ *
+ * Cells are keyed by packed {@link TileKey}s in primitive maps, so tracking a move
+ * or looking up the subscribers of an event allocates nothing.
+ *
+ * Not thread-safe; the server uses it from the tick thread only.
+ */
+public class InterestManager {
+
+    /** Size of an interest cell in pixels (8x8 generation cells). */
+    public static final int CELL_SIZE = 512;
+
+    /** Interest cells subscribed in each direction around a player (1024+ pixels). */
+    public static final int VIEW_RADIUS = 2;
+
+    /**
+     * Receives visibility changes caused by players moving between cells.
+     */
+    public interface Listener {
+        /**
+         * A client subscribed to a cell it was not subscribed to before.
+         * Not called for the cells a client subscribes to when it is first added.
+         * @param clientId The subscribing client
+         * @param cellX The interest cell x index
+         * @param cellY The interest cell y index
+         */
+        void onCellSubscribed(String clientId, int cellX, int cellY);
+
+        /**
+         * A player came into an observer's view.
+         * @param observerId The observing client
+         * @param playerId The player that became visible
+         */
+        void onPlayerVisible(String observerId, String playerId);
+
+        /**
+         * A player left an observer's view.
+         * @param observerId The observing client
+         * @param playerId The player that is no longer visible
+         */
+        void onPlayerHidden(String observerId, String playerId);
+    }
+
+    /**
+     * The cell a player occupies, updated in place as the player moves.
+     */
+    private static final class PlayerCell {
+        long cell;
+
+        PlayerCell(long cell) {
+            this.cell = cell;
+        }
+    }
+
+    private final int cellSize;
+    private final int viewRadius;
+    private final Map<String, PlayerCell> playerCells;
+    private final LongObjectHashMap<Set<String>> occupants;
+    private final LongObjectHashMap<Set<String>> subscribers;
+
+    /**
+     * Creates an interest manager with the default cell size and view radius.
+     */
+    public InterestManager() {
+        this(CELL_SIZE, VIEW_RADIUS);
+    }
+
+    /**
+     * Creates an interest manager.
+     * @param cellSize Interest cell size in pixels
+     * @param viewRadius Cells subscribed in each direction around a player
+     */
+    public InterestManager(int cellSize, int viewRadius) {
+        this.cellSize = cellSize;
+        this.viewRadius = viewRadius;
+        this.playerCells = new HashMap<>();
+        this.occupants = new LongObjectHashMap<>();
+        this.subscribers = new LongObjectHashMap<>();
+    }
+
+    /**
+     * Records a player's position, adding the player if it is not tracked yet.
+     * Does nothing beyond a lookup unless the player changed cell.
+     * @param playerId The player (and client) ID
+     * @param x The player's world x coordinate
+     * @param y The player's world y coordinate
+     * @param listener Receives the resulting visibility changes
+     */
+    public void update(String playerId, float x, float y, Listener listener) {
+        int cellX = toCell(x);
+        int cellY = toCell(y);
+        long cell = TileKey.pack(cellX, cellY);
+
+        PlayerCell tracked = playerCells.get(playerId);
+        boolean moved = tracked != null;
+        long previous = moved ? tracked.cell : TileKey.NONE;
+        if (moved && previous == cell) {
+            return;
+        }
+        if (moved) {
+            tracked.cell = cell;
+        } else {
+            playerCells.put(playerId, new PlayerCell(cell));
+        }
+
+        // Observers watching the old and new cell decide who sees the player appear or vanish
+        Set<String> oldObservers = moved ? subscribersOf(previous) : Collections.emptySet();
+        Set<String> newObservers = subscribersOf(cell);
+        for (String observer : newObservers) {
+            if (!observer.equals(playerId) && !oldObservers.contains(observer)) {
+                listener.onPlayerVisible(observer, playerId);
+            }
+        }
+        for (String observer : oldObservers) {
+            if (!observer.equals(playerId) && !newObservers.contains(observer)) {
+                listener.onPlayerHidden(observer, playerId);
+            }
+        }
+
+        if (moved) {
+            removeFrom(occupants, previous, playerId);
+        }
+        addTo(occupants, cell, playerId);
+
+        // Move the player's own subscription window
+        int oldX = moved ? TileKey.unpackX(previous) : 0;
+        int oldY = moved ? TileKey.unpackY(previous) : 0;
+
+        for (int cx = cellX - viewRadius; cx <= cellX + viewRadius; cx++) {
+            for (int cy = cellY - viewRadius; cy <= cellY + viewRadius; cy++) {
+                if (moved && inWindow(cx, cy, oldX, oldY)) {
+                    continue;
+                }
+                long subscribed = TileKey.pack(cx, cy);
+                addTo(subscribers, subscribed, playerId);
+                if (moved) {
+                    listener.onCellSubscribed(playerId, cx, cy);
+                }
+                for (String other : occupantsOf(subscribed)) {
+                    if (!other.equals(playerId)) {
+                        listener.onPlayerVisible(playerId, other);
+                    }
+                }
+            }
+        }
+
+        if (moved) {
+            for (int cx = oldX - viewRadius; cx <= oldX + viewRadius; cx++) {
+                for (int cy = oldY - viewRadius; cy <= oldY + viewRadius; cy++) {
+                    if (inWindow(cx, cy, cellX, cellY)) {
+                        continue;
+                    }
+                    long unsubscribed = TileKey.pack(cx, cy);
+                    removeFrom(subscribers, unsubscribed, playerId);
+                    for (String other : occupantsOf(unsubscribed)) {
+                        if (!other.equals(playerId)) {
+                            listener.onPlayerHidden(playerId, other);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Stops tracking a player. Observers are not notified; the caller announces departures.
+     * @param playerId The player ID
+     */
+    public void remove(String playerId) {
+        PlayerCell tracked = playerCells.remove(playerId);
+        if (tracked == null) {
+            return;
+        }
+        long cell = tracked.cell;
+        removeFrom(occupants, cell, playerId);
+
+        int cellX = TileKey.unpackX(cell);
+        int cellY = TileKey.unpackY(cell);
+        for (int cx = cellX - viewRadius; cx <= cellX + viewRadius; cx++) {
+            for (int cy = cellY - viewRadius; cy <= cellY + viewRadius; cy++) {
+                removeFrom(subscribers, TileKey.pack(cx, cy), playerId);
+            }
+        }
+    }
+
+    /**
+     * Gets the clients whose view covers a world position.
+     * @param x The world x coordinate
+     * @param y The world y coordinate
+     * @return The subscribed client IDs (read-only; do not modify)
+     */
+    public Set<String> getSubscribers(float x, float y) {
+        return subscribersOf(TileKey.pack(toCell(x), toCell(y)));
+    }
+
+    /**
+     * Checks whether a client is tracked.
+     * @param playerId The player ID
+     * @return true if the player has a position
+     */
+    public boolean isTracked(String playerId) {
+        return playerCells.containsKey(playerId);
+    }
+
+    /**
+     * Checks whether a client's view covers a world position.
+     * @param playerId The observing client
+     * @param x The world x coordinate
+     * @param y The world y coordinate
+     * @return true if the client is subscribed to the position's cell
+     */
+    public boolean canSee(String playerId, float x, float y) {
+        return getSubscribers(x, y).contains(playerId);
+    }
+
+    /**
+     * Gets the interest cell size in pixels.
+     * @return The cell size
+     */
+    public int getCellSize() {
+        return cellSize;
+    }
+
+    /**
+     * Converts a world coordinate to an interest cell index.
+     * @param coordinate The world coordinate
+     * @return The index of the cell containing it
+     */
+    public int toCell(float coordinate) {
+        return TileKey.toCell(coordinate, cellSize);
+    }
+
+    private boolean inWindow(int cx, int cy, int centerX, int centerY) {
+        return Math.abs(cx - centerX) <= viewRadius && Math.abs(cy - centerY) <= viewRadius;
+    }
+
+    private Set<String> subscribersOf(long cell) {
+        Set<String> set = subscribers.get(cell);
+        return set != null ? set : Collections.emptySet();
+    }
+
+    private Set<String> occupantsOf(long cell) {
+        Set<String> set = occupants.get(cell);
+        return set != null ? set : Collections.emptySet();
+    }
+
+    private static void addTo(LongObjectHashMap<Set<String>> index, long cell, String playerId) {
+        Set<String> set = index.get(cell);
+        if (set == null) {
+            set = new HashSet<>();
+            index.put(cell, set);
+        }
+        set.add(playerId);
+    }
+
+    private static void removeFrom(LongObjectHashMap<Set<String>> index, long cell, String playerId) {
+        Set<String> set = index.get(cell);
+        if (set != null && set.remove(playerId) && set.isEmpty()) {
+            index.remove(cell);
+        }
+    }
+}
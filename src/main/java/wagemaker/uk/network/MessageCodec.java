@@ -0,0 +1,224 @@
+package wagemaker.uk.network;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.StreamCorruptedException;
+import java.nio.ByteBuffer;
+
+/**
+ * Encodes and decodes network messages as length-prefixed, type-tagged frames.
+ *
+ * Every message on the wire is a 4-byte big-endian payload length followed by
+ * the payload. The first payload byte is a type tag: 0 means the rest of the
+ * payload is a Java-serialized NetworkMessage, any other value is
+ * {@code MessageType.ordinal() + 1} followed by the compact body written by
+ * {@link BinaryMessageCodec}. Framing lets the non-blocking server transport
+ * split the byte stream into messages without blocking on a partial object,
+ * and lets the blocking client read exactly one message at a time.
+ *
+ * Before the first frame the client sends a handshake (magic + protocol
+ * version) and the server answers with the version it accepts, or 0 to refuse.
+ */
+public final class MessageCodec {
+
+    /** Size of the length prefix in bytes. */
+    public static final int LENGTH_PREFIX_SIZE = 4;
+
+    /** Hard upper bound for any frame, regardless of direction (16MB). */
+    public static final int MAX_FRAME_SIZE = 16 * 1024 * 1024;
+
+    /** Largest payload a client may send to the server (64KB); larger frames are skipped unread. */
+    public static final int MAX_INBOUND_MESSAGE_SIZE = 64 * 1024;
+
+    /** Current wire protocol version. */
+    public static final int PROTOCOL_VERSION = 2;
+
+    /** Handshake magic ("WLDR"). Larger than MAX_FRAME_SIZE, so it can never be a frame length. */
+    public static final int HANDSHAKE_MAGIC = 0x574C4452;
+
+    /** Size of a handshake: magic plus a 2-byte version. */
+    public static final int HANDSHAKE_SIZE = 6;
+
+    /** First bytes sent by clients that predate framing (ObjectOutputStream stream header). */
+    public static final int LEGACY_STREAM_MAGIC = 0xACED0005;
+
+    private static final int TAG_SERIALIZED = 0;
+    private static final MessageType[] MESSAGE_TYPES = MessageType.values();
+
+    private MessageCodec() {
+    }
+
+    /**
+     * Serializes a message into its payload bytes (type tag and body, without the length prefix).
+     * @param message The message to serialize
+     * @return The payload bytes
+     * @throws IOException if the message cannot be serialized
+     */
+    public static byte[] encodePayload(NetworkMessage message) throws IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream(64);
+        writePayload(baos, message);
+        return baos.toByteArray();
+    }
+
+    /**
+     * Encodes a message into a complete frame ready to be written to a channel.
+     * The returned buffer is positioned at 0 with its limit at the end of the frame.
+     * @param message The message to encode
+     * @return A buffer holding the length prefix and payload
+     * @throws IOException if the message cannot be serialized
+     */
+    public static ByteBuffer encodeFrame(NetworkMessage message) throws IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream(64);
+        baos.write(0);
+        baos.write(0);
+        baos.write(0);
+        baos.write(0);
+        writePayload(baos, message);
+
+        ByteBuffer frame = ByteBuffer.wrap(baos.toByteArray());
+        frame.putInt(0, frame.limit() - LENGTH_PREFIX_SIZE);
+        return frame;
+    }
+
+    /**
+     * Writes the type tag and body for a message.
+     */
+    private static void writePayload(ByteArrayOutputStream baos, NetworkMessage message) throws IOException {
+        MessageType type = message.getType();
+        if (BinaryMessageCodec.supports(type)) {
+            baos.write(type.ordinal() + 1);
+            BinaryMessageCodec.write(message, new DataOutputStream(baos));
+        } else {
+            baos.write(TAG_SERIALIZED);
+            try (ObjectOutputStream oos = new ObjectOutputStream(baos)) {
+                oos.writeObject(message);
+            }
+        }
+    }
+
+    /**
+     * Decodes a message from payload bytes.
+     * @param data The buffer containing the payload
+     * @param offset The payload start offset
+     * @param length The payload length
+     * @return The decoded message
+     * @throws IOException if the payload is malformed or is not a NetworkMessage
+     * @throws ClassNotFoundException if the payload references an unknown class
+     */
+    public static NetworkMessage decodePayload(byte[] data, int offset, int length)
+            throws IOException, ClassNotFoundException {
+        if (length < 1) {
+            throw new StreamCorruptedException("Empty frame");
+        }
+
+        int tag = data[offset] & 0xFF;
+        ByteArrayInputStream body = new ByteArrayInputStream(data, offset + 1, length - 1);
+
+        if (tag != TAG_SERIALIZED) {
+            if (tag > MESSAGE_TYPES.length || !BinaryMessageCodec.supports(MESSAGE_TYPES[tag - 1])) {
+                throw new StreamCorruptedException("Unknown message tag: " + tag);
+            }
+            NetworkMessage message = BinaryMessageCodec.read(MESSAGE_TYPES[tag - 1], new DataInputStream(body));
+            if (body.available() != 0) {
+                throw new StreamCorruptedException("Trailing bytes in " + message.getType() + " frame");
+            }
+            return message;
+        }
+
+        try (ObjectInputStream ois = new ObjectInputStream(body)) {
+            Object obj = ois.readObject();
+            if (!(obj instanceof NetworkMessage)) {
+                throw new StreamCorruptedException("Invalid message type: " +
+                    (obj == null ? "null" : obj.getClass().getName()));
+            }
+            return (NetworkMessage) obj;
+        }
+    }
+
+    /**
+     * Writes a message as a single frame to a blocking stream.
+     * The caller is responsible for flushing.
+     * @param out The output stream
+     * @param message The message to write
+     * @throws IOException if writing fails
+     */
+    public static void writeFrame(DataOutputStream out, NetworkMessage message) throws IOException {
+        ByteBuffer frame = encodeFrame(message);
+        out.write(frame.array(), 0, frame.limit());
+    }
+
+    /**
+     * Reads a single frame from a blocking stream and decodes it.
+     * @param in The input stream
+     * @param maxFrameSize The largest payload accepted
+     * @return The decoded message
+     * @throws IOException if reading fails or the frame exceeds maxFrameSize
+     * @throws ClassNotFoundException if the payload references an unknown class
+     */
+    public static NetworkMessage readFrame(DataInputStream in, int maxFrameSize)
+            throws IOException, ClassNotFoundException {
+        int length = in.readInt();
+        if (length < 0 || length > maxFrameSize) {
+            throw new StreamCorruptedException("Invalid frame length: " + length +
+                " (max: " + maxFrameSize + ")");
+        }
+        byte[] payload = new byte[length];
+        in.readFully(payload);
+        return decodePayload(payload, 0, length);
+    }
+
+    /**
+     * Chooses the protocol version to use with a client.
+     * @param clientVersion The version offered by the client
+     * @return The accepted version, or 0 if the client is not supported
+     */
+    public static int negotiateVersion(int clientVersion) {
+        return clientVersion == PROTOCOL_VERSION ? PROTOCOL_VERSION : 0;
+    }
+
+    /**
+     * Encodes a handshake announcing a protocol version.
+     * @param version The version to announce (0 to refuse)
+     * @return A buffer holding the handshake bytes
+     */
+    public static ByteBuffer encodeHandshake(int version) {
+        ByteBuffer handshake = ByteBuffer.allocate(HANDSHAKE_SIZE);
+        handshake.putInt(HANDSHAKE_MAGIC);
+        handshake.putShort((short) version);
+        handshake.flip();
+        return handshake;
+    }
+
+    /**
+     * Reads a handshake from a blocking stream.
+     * @param in The input stream
+     * @return The announced protocol version
+     * @throws IOException if the peer did not send a valid handshake
+     */
+    public static int readHandshake(DataInputStream in) throws IOException {
+        int magic = in.readInt();
+        if (magic != HANDSHAKE_MAGIC) {
+            throw new StreamCorruptedException("Invalid handshake: 0x" + Integer.toHexString(magic));
+        }
+        return in.readUnsignedShort();
+    }
+
+    /**
+     * Encodes a rejection that a pre-framing client can read with ObjectInputStream.
+     * @param reason The reason shown to the player
+     * @return The raw bytes to write before closing the connection
+     * @throws IOException if the message cannot be serialized
+     */
+    public static ByteBuffer encodeLegacyRejection(String reason) throws IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream(256);
+        try (ObjectOutputStream oos = new ObjectOutputStream(baos)) {
+            oos.writeObject(new ConnectionRejectedMessage("server", reason));
+        }
+        return ByteBuffer.wrap(baos.toByteArray());
+    }
+}
@@ -0,0 +1,378 @@
+package wagemaker.uk.network;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Non-blocking transport for a single client socket.
+ *
+ * Owns the per-connection read buffer (which accumulates bytes until a full
+ * length-prefixed frame is available) and the frames of the batch currently
+ * being written. All channel I/O happens on the owning {@link NioEventLoop};
+ * {@link #send(ByteBuffer)}, {@link #requestFlush()} and {@link #close()} are
+ * safe to call from any thread.
+ */
+public class NioConnection implements ClientTransport {
+    private static final int INITIAL_READ_BUFFER_SIZE = 8192;
+    private static final int MAX_GATHER_BUFFERS = 256;
+
+    private final SocketChannel channel;
+    private final NioEventLoop loop;
+    private final InetAddress remoteAddress;
+    private final Queue<ByteBuffer> writeQueue;
+    private final List<ByteBuffer> pendingWrites;
+    private final AtomicBoolean flushScheduled;
+    private final AtomicBoolean closed;
+    private final Runnable flushTask;
+    private ByteBuffer readBuffer;
+    private volatile SelectionKey key;
+    private ClientConnection handler;
+    private boolean handshakeRead;
+    private int discardRemaining;
+
+    /**
+     * Creates a new connection wrapper for an accepted channel.
+     * @param channel The accepted socket channel
+     * @param loop The event loop that will service this connection
+     */
+    public NioConnection(SocketChannel channel, NioEventLoop loop) {
+        this.channel = channel;
+        this.loop = loop;
+        this.remoteAddress = channel.socket().getInetAddress();
+        this.writeQueue = new ConcurrentLinkedQueue<>();
+        this.pendingWrites = new ArrayList<>();
+        this.flushScheduled = new AtomicBoolean(false);
+        this.closed = new AtomicBoolean(false);
+        this.flushTask = this::flush;
+        this.readBuffer = ByteBuffer.allocate(INITIAL_READ_BUFFER_SIZE);
+    }
+
+    @Override
+    public void setHandler(ClientConnection handler) {
+        this.handler = handler;
+    }
+
+    /**
+     * Registers the channel with the loop's selector. Called on the loop thread.
+     * @param selector The selector to register with
+     * @throws IOException if the channel cannot be registered
+     */
+    void register(Selector selector) throws IOException {
+        channel.configureBlocking(false);
+        channel.socket().setTcpNoDelay(true);
+        key = channel.register(selector, SelectionKey.OP_READ, this);
+        flush();
+    }
+
+    @Override
+    public void send(ByteBuffer frame) {
+        if (closed.get()) {
+            return;
+        }
+        writeQueue.offer(frame);
+        if (loop.inEventLoop() && key != null) {
+            // Raw bytes are written straight away so they precede a close()
+            flush();
+        } else {
+            requestFlush();
+        }
+    }
+
+    @Override
+    public void requestFlush() {
+        if (key == null) {
+            // Not registered yet; register() flushes anything queued
+            return;
+        }
+        // Always go through the task queue, even on the loop thread, so every
+        // frame produced while handling this round of reads goes out in one write
+        if (flushScheduled.compareAndSet(false, true)) {
+            loop.execute(flushTask);
+        }
+    }
+
+    /**
+     * Writes pending data as one gathering write. Runs on the loop thread.
+     * New frames are only drained from the outbound queue once everything
+     * already taken from it has been written, so a slow client backs up into
+     * its bounded queue rather than into this connection's buffers.
+     */
+    private void flush() {
+        flushScheduled.set(false);
+        if (closed.get() || key == null) {
+            return;
+        }
+
+        try {
+            if (!pendingWrites.isEmpty() && !writePending()) {
+                return;
+            }
+
+            ByteBuffer raw;
+            while ((raw = writeQueue.poll()) != null) {
+                pendingWrites.add(raw);
+            }
+            if (handler != null) {
+                handler.drainOutbound(pendingWrites);
+            }
+            if (pendingWrites.isEmpty() || writePending()) {
+                key.interestOps(key.interestOps() & ~SelectionKey.OP_WRITE);
+            }
+        } catch (IOException e) {
+            if (handler != null) {
+                System.err.println("Error sending message to " + handler.getClientId() + ": " + e.getMessage());
+            }
+            close();
+        }
+    }
+
+    /**
+     * Writes as much of pendingWrites as the socket accepts.
+     * @return true if everything was written, false if the socket buffer filled up
+     * @throws IOException if the write fails
+     */
+    private boolean writePending() throws IOException {
+        ByteBuffer[] buffers = pendingWrites.toArray(new ByteBuffer[0]);
+        int first = 0;
+        while (first < buffers.length) {
+            long written = channel.write(buffers, first, Math.min(buffers.length - first, MAX_GATHER_BUFFERS));
+            while (first < buffers.length && !buffers[first].hasRemaining()) {
+                first++;
+            }
+            if (written == 0 && first < buffers.length) {
+                break;
+            }
+        }
+
+        pendingWrites.clear();
+        if (first == buffers.length) {
+            return true;
+        }
+
+        // Socket buffer is full, keep the rest and wait for OP_WRITE
+        for (int i = first; i < buffers.length; i++) {
+            pendingWrites.add(buffers[i]);
+        }
+        key.interestOps(key.interestOps() | SelectionKey.OP_WRITE);
+        return false;
+    }
+
+    /**
+     * Called when the selector reports the channel as writable.
+     */
+    void onWritable() {
+        flush();
+    }
+
+    /**
+     * Called when the selector reports the channel as readable.
+     * Reads available bytes and dispatches every complete frame.
+     */
+    void onReadable() {
+        int bytesRead;
+        try {
+            bytesRead = channel.read(readBuffer);
+        } catch (IOException e) {
+            close();
+            return;
+        }
+
+        if (bytesRead < 0) {
+            // Client disconnected
+            if (handler != null) {
+                System.out.println("Client " + handler.getClientId() + " disconnected");
+            }
+            close();
+            return;
+        }
+
+        readBuffer.flip();
+        int pendingFrameSize = 0;
+
+        if (!handshakeRead) {
+            if (!readHandshake()) {
+                readBuffer.compact();
+                return;
+            }
+            if (closed.get()) {
+                return;
+            }
+        }
+
+        while (true) {
+            // Skip the rest of an oversized payload without buffering it
+            if (discardRemaining > 0) {
+                int skipped = Math.min(discardRemaining, readBuffer.remaining());
+                readBuffer.position(readBuffer.position() + skipped);
+                discardRemaining -= skipped;
+                if (discardRemaining > 0) {
+                    break;
+                }
+            }
+            if (readBuffer.remaining() < MessageCodec.LENGTH_PREFIX_SIZE) {
+                break;
+            }
+
+            int length = readBuffer.getInt(readBuffer.position());
+            if (length < 0 || length > MessageCodec.MAX_FRAME_SIZE) {
+                if (handler != null) {
+                    handler.onProtocolError("Invalid frame length: " + length);
+                }
+                close();
+                return;
+            }
+            if (length > MessageCodec.MAX_INBOUND_MESSAGE_SIZE) {
+                // Enforced on the header, before any payload is read or deserialized
+                if (handler != null) {
+                    handler.onOversizedMessage(length);
+                }
+                readBuffer.position(readBuffer.position() + MessageCodec.LENGTH_PREFIX_SIZE);
+                discardRemaining = length;
+                continue;
+            }
+
+            int frameSize = MessageCodec.LENGTH_PREFIX_SIZE + length;
+            if (readBuffer.remaining() < frameSize) {
+                pendingFrameSize = frameSize;
+                break;
+            }
+
+            int payloadStart = readBuffer.position() + MessageCodec.LENGTH_PREFIX_SIZE;
+            readBuffer.position(payloadStart + length);
+            dispatchFrame(readBuffer.array(), readBuffer.arrayOffset() + payloadStart, length);
+
+            if (closed.get()) {
+                return;
+            }
+        }
+
+        readBuffer.compact();
+
+        // Grow the buffer if the next frame does not fit
+        if (pendingFrameSize > readBuffer.capacity()) {
+            ByteBuffer larger = ByteBuffer.allocate(pendingFrameSize);
+            readBuffer.flip();
+            larger.put(readBuffer);
+            readBuffer = larger;
+        }
+    }
+
+    /**
+     * Consumes the client's handshake from the read buffer, if fully received.
+     * @return true once the handshake has been handled
+     */
+    private boolean readHandshake() {
+        if (readBuffer.remaining() < MessageCodec.LENGTH_PREFIX_SIZE) {
+            return false;
+        }
+
+        int magic = readBuffer.getInt(readBuffer.position());
+        if (magic == MessageCodec.LEGACY_STREAM_MAGIC) {
+            handshakeRead = true;
+            if (handler != null) {
+                handler.onLegacyClient();
+            }
+            close();
+            return true;
+        }
+        if (magic != MessageCodec.HANDSHAKE_MAGIC) {
+            handshakeRead = true;
+            if (handler != null) {
+                handler.onProtocolError("Invalid handshake: 0x" + Integer.toHexString(magic));
+            }
+            close();
+            return true;
+        }
+        if (readBuffer.remaining() < MessageCodec.HANDSHAKE_SIZE) {
+            return false;
+        }
+
+        readBuffer.getInt();
+        int version = readBuffer.getShort() & 0xFFFF;
+        handshakeRead = true;
+        if (handler != null) {
+            handler.onHandshake(version);
+        }
+        return true;
+    }
+
+    /**
+     * Decodes a single frame and hands the message to the handler.
+     */
+    private void dispatchFrame(byte[] data, int offset, int length) {
+        if (handler == null) {
+            return;
+        }
+        NetworkMessage message;
+        try {
+            message = MessageCodec.decodePayload(data, offset, length);
+        } catch (IOException | ClassNotFoundException e) {
+            handler.onDecodeError(e);
+            return;
+        }
+        handler.onMessage(message);
+    }
+
+    /**
+     * Called periodically on the loop thread.
+     * @param now The current time in milliseconds
+     */
+    void onTick(long now) {
+        if (handler != null && !closed.get()) {
+            handler.onTick(now);
+        }
+    }
+
+    @Override
+    public boolean isOpen() {
+        return !closed.get() && channel.isOpen();
+    }
+
+    @Override
+    public InetAddress getRemoteAddress() {
+        return remoteAddress;
+    }
+
+    @Override
+    public void close() {
+        if (!closed.compareAndSet(false, true)) {
+            return;
+        }
+
+        try {
+            channel.close();
+        } catch (IOException e) {
+            // Ignore
+        }
+        writeQueue.clear();
+
+        if (loop.inEventLoop()) {
+            finishClose();
+        } else {
+            loop.execute(this::finishClose);
+        }
+    }
+
+    /**
+     * Completes the close on the loop thread.
+     */
+    private void finishClose() {
+        pendingWrites.clear();
+        if (key != null) {
+            key.cancel();
+        }
+        loop.deregister(this);
+        if (handler != null) {
+            handler.onDisconnected();
+        }
+    }
+}
@@ -0,0 +1,213 @@
+package wagemaker.uk.network;
+
+import java.io.IOException;
+import java.nio.channels.CancelledKeyException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * A single-threaded selector loop that services a subset of client connections.
+ *
+ * Each loop owns one Selector. All reads, writes and per-connection housekeeping
+ * (timeouts, periodic syncs) for the connections registered on it happen on the
+ * loop thread, so a handful of loops can serve hundreds of sessions.
+ * Other threads interact with the loop only through {@link #execute(Runnable)}.
+ */
+public class NioEventLoop implements Runnable {
+    private static final long SELECT_TIMEOUT_MS = 250;
+    private static final long TICK_INTERVAL_MS = 1000;
+
+    private final String name;
+    private final Selector selector;
+    private final Queue<Runnable> tasks;
+    private final List<NioConnection> connections;
+    private volatile boolean running;
+    private Thread thread;
+    private long lastTickTime;
+
+    /**
+     * Creates a new event loop.
+     * @param name The name of the loop thread
+     * @throws IOException if the selector cannot be opened
+     */
+    public NioEventLoop(String name) throws IOException {
+        this.name = name;
+        this.selector = Selector.open();
+        this.tasks = new ConcurrentLinkedQueue<>();
+        this.connections = new ArrayList<>();
+        this.running = false;
+    }
+
+    /**
+     * Starts the loop thread.
+     */
+    public void start() {
+        running = true;
+        lastTickTime = System.currentTimeMillis();
+        thread = new Thread(this, name);
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Stops the loop and closes every connection registered on it.
+     */
+    public void stop() {
+        running = false;
+        selector.wakeup();
+        if (thread != null && Thread.currentThread() != thread) {
+            try {
+                thread.join(5000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Checks whether the caller is running on this loop's thread.
+     * @return true if called from the loop thread
+     */
+    public boolean inEventLoop() {
+        return Thread.currentThread() == thread;
+    }
+
+    /**
+     * Schedules a task to run on the loop thread and wakes the selector.
+     * @param task The task to run
+     */
+    public void execute(Runnable task) {
+        tasks.offer(task);
+        selector.wakeup();
+    }
+
+    /**
+     * Registers a connection with this loop. Registration happens on the loop thread.
+     * @param connection The connection to register
+     */
+    public void register(NioConnection connection) {
+        execute(() -> {
+            try {
+                connection.register(selector);
+                connections.add(connection);
+            } catch (IOException e) {
+                System.err.println("[" + name + "] Failed to register connection: " + e.getMessage());
+                connection.close();
+            }
+        });
+    }
+
+    /**
+     * Removes a connection from the loop's bookkeeping. Called on the loop thread.
+     * @param connection The connection to remove
+     */
+    void deregister(NioConnection connection) {
+        connections.remove(connection);
+    }
+
+    /**
+     * Gets the number of connections currently served by this loop.
+     * Only accurate when called from the loop thread.
+     * @return The connection count
+     */
+    public int getConnectionCount() {
+        return connections.size();
+    }
+
+    @Override
+    public void run() {
+        while (running) {
+            try {
+                selector.select(SELECT_TIMEOUT_MS);
+                runTasks();
+                processSelectedKeys();
+
+                long now = System.currentTimeMillis();
+                if (now - lastTickTime >= TICK_INTERVAL_MS) {
+                    lastTickTime = now;
+                    tickConnections(now);
+                }
+            } catch (IOException e) {
+                System.err.println("[" + name + "] Selector error: " + e.getMessage());
+            } catch (Exception e) {
+                System.err.println("[" + name + "] Unexpected error in event loop: " + e.getMessage());
+                e.printStackTrace();
+            }
+        }
+
+        shutdown();
+    }
+
+    /**
+     * Runs all tasks queued by other threads.
+     */
+    private void runTasks() {
+        Runnable task;
+        while ((task = tasks.poll()) != null) {
+            try {
+                task.run();
+            } catch (Exception e) {
+                System.err.println("[" + name + "] Error running task: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Dispatches ready keys to their connections.
+     */
+    private void processSelectedKeys() {
+        Iterator<SelectionKey> iterator = selector.selectedKeys().iterator();
+        while (iterator.hasNext()) {
+            SelectionKey key = iterator.next();
+            iterator.remove();
+
+            NioConnection connection = (NioConnection) key.attachment();
+            try {
+                if (!key.isValid()) {
+                    connection.close();
+                    continue;
+                }
+                if (key.isReadable()) {
+                    connection.onReadable();
+                }
+                if (key.isValid() && key.isWritable()) {
+                    connection.onWritable();
+                }
+            } catch (CancelledKeyException e) {
+                connection.close();
+            }
+        }
+    }
+
+    /**
+     * Gives every connection a chance to run periodic checks.
+     * @param now The current time in milliseconds
+     */
+    private void tickConnections(long now) {
+        // Copy since a tick may close (and deregister) a connection
+        for (NioConnection connection : new ArrayList<>(connections)) {
+            connection.onTick(now);
+        }
+    }
+
+    /**
+     * Closes all connections and the selector when the loop exits.
+     */
+    private void shutdown() {
+        runTasks();
+        for (NioConnection connection : new ArrayList<>(connections)) {
+            connection.close();
+        }
+        connections.clear();
+        try {
+            selector.close();
+        } catch (IOException e) {
+            // Ignore
+        }
+    }
+}
@@ -0,0 +1,211 @@
+package wagemaker.uk.network;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bounded queue of encoded frames waiting to be written to one client.
+ *
+ * Any thread may offer frames; the connection's writer drains everything
+ * pending in one batch. When coalescing is enabled, state updates that fully
+ * replace an earlier one (the newest position of a player, the latest health of
+ * a tree) supersede any copy still waiting in the queue: the old frame is
+ * skipped and the new one is appended, so ordering relative to other messages
+ * follows the newest update.
+ */
+public class OutboundQueue {
+
+    /**
+     * Result of offering a frame to the queue.
+     */
+    public enum OfferResult {
+        /** Queued; the queue was empty so the writer must be woken. */
+        QUEUED_FIRST,
+        /** Queued behind frames the writer has already been told about. */
+        QUEUED,
+        /** Rejected because the queue is full. */
+        FULL
+    }
+
+    /** How many superseded entries may accumulate before they are compacted away. */
+    private static final int COMPACT_FACTOR = 2;
+
+    private final int limit;
+    private final boolean coalesce;
+    private final ReentrantLock lock;
+    private final ArrayDeque<Entry> entries;
+    private final Map<String, Entry> latestByKey;
+    private int liveCount;
+    private long coalescedCount;
+
+    /**
+     * A queued frame, possibly superseded by a newer one with the same key.
+     */
+    private static final class Entry {
+        final ByteBuffer frame;
+        final String key;
+        boolean superseded;
+
+        Entry(ByteBuffer frame, String key) {
+            this.frame = frame;
+            this.key = key;
+        }
+    }
+
+    /**
+     * Creates a new outbound queue.
+     * @param limit Maximum number of frames waiting to be written
+     * @param coalesce Whether superseded state updates are dropped from the queue
+     */
+    public OutboundQueue(int limit, boolean coalesce) {
+        this.limit = limit;
+        this.coalesce = coalesce;
+        this.lock = new ReentrantLock();
+        this.entries = new ArrayDeque<>();
+        this.latestByKey = new HashMap<>();
+    }
+
+    /**
+     * Queues an encoded frame.
+     * @param message The message the frame was encoded from (used for coalescing)
+     * @param frame The frame to write; the queue takes ownership of its position
+     * @return Whether the frame was queued and whether the writer needs waking
+     */
+    public OfferResult offer(NetworkMessage message, ByteBuffer frame) {
+        String key = coalesce ? coalesceKey(message) : null;
+
+        lock.lock();
+        try {
+            Entry previous = key != null ? latestByKey.get(key) : null;
+            if (previous == null && liveCount >= limit) {
+                return OfferResult.FULL;
+            }
+
+            if (previous != null) {
+                previous.superseded = true;
+                liveCount--;
+                coalescedCount++;
+            }
+
+            boolean wasEmpty = liveCount == 0;
+            Entry entry = new Entry(frame, key);
+            entries.addLast(entry);
+            liveCount++;
+            if (key != null) {
+                latestByKey.put(key, entry);
+            }
+
+            if (entries.size() > limit * COMPACT_FACTOR) {
+                compact();
+            }
+            return wasEmpty ? OfferResult.QUEUED_FIRST : OfferResult.QUEUED;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Moves every pending frame into the given list, in order.
+     * @param batch The list to append to
+     * @return The number of frames drained
+     */
+    public int drainTo(List<ByteBuffer> batch) {
+        lock.lock();
+        try {
+            int drained = 0;
+            Entry entry;
+            while ((entry = entries.pollFirst()) != null) {
+                if (entry.superseded) {
+                    continue;
+                }
+                batch.add(entry.frame);
+                drained++;
+            }
+            latestByKey.clear();
+            liveCount = 0;
+            return drained;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Discards all pending frames.
+     */
+    public void clear() {
+        lock.lock();
+        try {
+            entries.clear();
+            latestByKey.clear();
+            liveCount = 0;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Gets the number of frames waiting to be written.
+     * @return The pending frame count
+     */
+    public int size() {
+        lock.lock();
+        try {
+            return liveCount;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Gets how many frames have been dropped because a newer update replaced them.
+     * @return The coalesced frame count
+     */
+    public long getCoalescedCount() {
+        lock.lock();
+        try {
+            return coalescedCount;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Removes superseded entries. Called with the lock held.
+     */
+    private void compact() {
+        Iterator<Entry> iterator = entries.iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().superseded) {
+                iterator.remove();
+            }
+        }
+    }
+
+    /**
+     * Gets the key under which a message replaces earlier ones, or null if every
+     * copy of the message must be delivered.
+     * @param message The message
+     * @return The coalescing key, or null
+     */
+    static String coalesceKey(NetworkMessage message) {
+        switch (message.getType()) {
+            case PLAYER_MOVEMENT:
+                return "move:" + message.getSenderId();
+            case PLAYER_HEALTH_UPDATE:
+                return "health:" + ((PlayerHealthUpdateMessage) message).getPlayerId();
+            case PLAYER_HUNGER_UPDATE:
+                return "hunger:" + ((PlayerHungerUpdateMessage) message).getPlayerId();
+            case TREE_HEALTH_UPDATE:
+                return "tree:" + ((TreeHealthUpdateMessage) message).getTreeId();
+            case STONE_HEALTH_UPDATE:
+                return "stone:" + ((StoneHealthUpdateMessage) message).getStoneId();
+            default:
+                return null;
+        }
+    }
+}
@@ -0,0 +1,289 @@
+package wagemaker.uk.network;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Fixed-rate simulation loop that owns all mutation of the server's WorldState.
+ *
+ * I/O threads never touch the world directly; they submit client commands to a
+ * lock-free queue. Once per tick the loop applies every queued command in
+ * arrival order (so each client's commands keep their order), advances the
+ * periodic {@link TickSystem}s, and then wakes the writer of every client that
+ * received messages during the tick, so each client gets one batched write per
+ * tick instead of one per message.
+ */
+public class ServerTickLoop implements Runnable {
+
+    /**
+     * A periodic server system advanced once per tick.
+     */
+    public interface TickSystem {
+        /**
+         * Advances the system.
+         * @param deltaTime Seconds since the previous tick
+         */
+        void update(float deltaTime);
+    }
+
+    /** Ticks the loop may fall behind before it stops catching up and resynchronizes. */
+    private static final int MAX_CATCH_UP_TICKS = 5;
+
+    private final int tickRate;
+    private final long tickIntervalNanos;
+    private final Queue<Runnable> commands;
+    private final List<TickSystem> systems;
+    private final Set<ClientConnection> pendingFlushes;
+    private final CountDownLatch terminated;
+    private volatile boolean running;
+    private volatile long tickCount;
+    private volatile long lastTickNanos;
+    private volatile long overrunCount;
+    private Thread thread;
+
+    /**
+     * Creates a new tick loop.
+     * @param tickRate Ticks per second
+     */
+    public ServerTickLoop(int tickRate) {
+        if (tickRate < 1) {
+            throw new IllegalArgumentException("Tick rate must be at least 1");
+        }
+        this.tickRate = tickRate;
+        this.tickIntervalNanos = TimeUnit.SECONDS.toNanos(1) / tickRate;
+        this.commands = new ConcurrentLinkedQueue<>();
+        this.systems = new CopyOnWriteArrayList<>();
+        this.pendingFlushes = new LinkedHashSet<>();
+        this.terminated = new CountDownLatch(1);
+        this.running = false;
+    }
+
+    /**
+     * Starts the loop thread.
+     */
+    public void start() {
+        running = true;
+        thread = new Thread(this, "ServerTick");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Stops the loop. Commands still queued are applied before the thread exits.
+     */
+    public void stop() {
+        running = false;
+        if (thread != null && Thread.currentThread() != thread) {
+            LockSupport.unpark(thread);
+            try {
+                thread.join(5000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (!thread.isAlive()) {
+                // Catch commands that raced with the final drain
+                runCommands();
+            }
+        }
+    }
+
+    /**
+     * Blocks until the loop has stopped.
+     * @throws InterruptedException if the calling thread is interrupted
+     */
+    public void awaitTermination() throws InterruptedException {
+        terminated.await();
+    }
+
+    /**
+     * Checks whether the loop is running.
+     * @return true if the loop is running
+     */
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Checks whether the loop has ever been started.
+     * @return true once {@link #start()} has been called
+     */
+    public boolean isStarted() {
+        return thread != null;
+    }
+
+    /**
+     * Checks whether the caller is running on the tick thread.
+     * @return true if called from the tick thread
+     */
+    public boolean inTickThread() {
+        return Thread.currentThread() == thread;
+    }
+
+    /**
+     * Queues a command to be applied on the next tick. Commands submitted from the
+     * tick thread itself, or while the loop is not running, are applied immediately.
+     * @param command The command to apply
+     */
+    public void submit(Runnable command) {
+        if (!running || inTickThread()) {
+            runCommand(command);
+            return;
+        }
+        commands.offer(command);
+    }
+
+    /**
+     * Adds a periodic system. Systems run in the order they were added.
+     * @param system The system to advance each tick
+     */
+    public void addSystem(TickSystem system) {
+        systems.add(system);
+    }
+
+    /**
+     * Defers waking a client's writer until the end of the current tick.
+     * @param client The client that has frames waiting
+     * @return true if the flush was deferred, false if the caller is not on the
+     *         tick thread and must wake the writer itself
+     */
+    boolean deferFlush(ClientConnection client) {
+        if (!inTickThread()) {
+            return false;
+        }
+        pendingFlushes.add(client);
+        return true;
+    }
+
+    @Override
+    public void run() {
+        long lastTime = System.nanoTime();
+        long nextTick = lastTime;
+
+        try {
+            while (running) {
+                long now = System.nanoTime();
+                tick((now - lastTime) / 1_000_000_000f);
+                lastTime = now;
+                tickCount++;
+
+                long end = System.nanoTime();
+                lastTickNanos = end - now;
+                nextTick += tickIntervalNanos;
+
+                if (end - nextTick > tickIntervalNanos * MAX_CATCH_UP_TICKS) {
+                    // Too far behind to catch up; start a fresh schedule from now
+                    long overruns = ++overrunCount;
+                    if (overruns == 1 || overruns % 100 == 0) {
+                        System.err.println("[ServerTickLoop] Tick loop is falling behind (last tick: " +
+                                         (lastTickNanos / 1_000_000) + "ms, overruns: " + overruns + ")");
+                    }
+                    nextTick = end;
+                }
+
+                long sleep;
+                while (running && (sleep = nextTick - System.nanoTime()) > 0) {
+                    LockSupport.parkNanos(this, sleep);
+                }
+            }
+
+            // Apply anything submitted while stopping
+            runCommands();
+            flushPending();
+        } finally {
+            terminated.countDown();
+        }
+    }
+
+    /**
+     * Runs one tick: commands, then systems, then outbound flushes.
+     * @param deltaTime Seconds since the previous tick
+     */
+    private void tick(float deltaTime) {
+        runCommands();
+
+        for (TickSystem system : systems) {
+            try {
+                system.update(deltaTime);
+            } catch (Exception e) {
+                System.err.println("[ServerTickLoop] Error in tick system: " + e.getMessage());
+                e.printStackTrace();
+            }
+        }
+
+        flushPending();
+    }
+
+    /**
+     * Applies every queued command in arrival order.
+     */
+    private void runCommands() {
+        Runnable command;
+        while ((command = commands.poll()) != null) {
+            runCommand(command);
+        }
+    }
+
+    /**
+     * Applies a single command, isolating the loop from its failures.
+     */
+    private void runCommand(Runnable command) {
+        try {
+            command.run();
+        } catch (Exception e) {
+            System.err.println("[ServerTickLoop] Error applying command: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Wakes the writer of every client that received frames during the tick.
+     */
+    private void flushPending() {
+        if (pendingFlushes.isEmpty()) {
+            return;
+        }
+        for (ClientConnection client : pendingFlushes) {
+            client.flushOutbound();
+        }
+        pendingFlushes.clear();
+    }
+
+    /**
+     * Gets the configured tick rate.
+     * @return Ticks per second
+     */
+    public int getTickRate() {
+        return tickRate;
+    }
+
+    /**
+     * Gets the number of ticks run so far.
+     * @return The tick count
+     */
+    public long getTickCount() {
+        return tickCount;
+    }
+
+    /**
+     * Gets how long the most recent tick took to run.
+     * @return The duration in nanoseconds
+     */
+    public long getLastTickNanos() {
+        return lastTickNanos;
+    }
+
+    /**
+     * Gets how many times the loop fell too far behind and skipped ahead.
+     * @return The overrun count
+     */
+    public long getOverrunCount() {
+        return overrunCount;
+    }
+}
@@ -0,0 +1,212 @@
+package wagemaker.uk.network;
+
+import wagemaker.uk.world.LongObjectHashMap;
+import wagemaker.uk.world.TileKey;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * Uniform grid index over positioned world entities.
+ *
+ * Each entry is bucketed by the cell containing its position. A radius query
+ * visits only the cells overlapping the search circle and compares squared
+ * distances, so its cost depends on how crowded the neighbourhood is rather than
+ * on how many entities the world holds. With the default cell size every query
+ * used by world generation touches at most a 3x3 block of cells.
+ *
+ * Entries are keyed by the same ID as the owning map. Positions are captured when
+ * an entry is put; moving an entity requires putting it again.
+ *
+ * Cells are looked up by packed {@link TileKey}, so queries never box a key. Not
+ * thread-safe: like WorldState's tile mirrors, it is only touched by the thread
+ * that mutates the world (the server tick thread).
+ *
+ * @param <T> The indexed entity type
+ */
+public class SpatialGrid<T> {
+
+    /** Default cell size in pixels (covers the largest tree spacing radius). */
+    public static final int DEFAULT_CELL_SIZE = 256;
+
+    /**
+     * An indexed entity with the position it was indexed at.
+     */
+    private static final class Entry<T> {
+        final long cell;
+        final float x;
+        final float y;
+        final T value;
+
+        Entry(long cell, float x, float y, T value) {
+            this.cell = cell;
+            this.x = x;
+            this.y = y;
+            this.value = value;
+        }
+    }
+
+    private final int cellSize;
+    private final LongObjectHashMap<Map<String, Entry<T>>> cells;
+    private final Map<String, Entry<T>> entries;
+
+    /**
+     * Creates a grid with the default cell size.
+     */
+    public SpatialGrid() {
+        this(DEFAULT_CELL_SIZE);
+    }
+
+    /**
+     * Creates a grid.
+     * @param cellSize Cell size in pixels
+     */
+    public SpatialGrid(int cellSize) {
+        if (cellSize <= 0) {
+            throw new IllegalArgumentException("Cell size must be positive: " + cellSize);
+        }
+        this.cellSize = cellSize;
+        this.cells = new LongObjectHashMap<>();
+        this.entries = new HashMap<>();
+    }
+
+    /**
+     * Adds an entity or moves it to a new position.
+     * @param id The entity ID
+     * @param x The entity's world x coordinate
+     * @param y The entity's world y coordinate
+     * @param value The entity
+     */
+    public void put(String id, float x, float y, T value) {
+        long cell = TileKey.pack(toCell(x), toCell(y));
+        Entry<T> entry = new Entry<>(cell, x, y, value);
+        Entry<T> previous = entries.put(id, entry);
+        if (previous != null && previous.cell != cell) {
+            removeFromCell(previous.cell, id);
+        }
+        Map<String, Entry<T>> bucket = cells.get(cell);
+        if (bucket == null) {
+            bucket = new HashMap<>();
+            cells.put(cell, bucket);
+        }
+        bucket.put(id, entry);
+    }
+
+    /**
+     * Removes an entity.
+     * @param id The entity ID
+     */
+    public void remove(String id) {
+        Entry<T> entry = entries.remove(id);
+        if (entry != null) {
+            removeFromCell(entry.cell, id);
+        }
+    }
+
+    /**
+     * Removes every entity.
+     */
+    public void clear() {
+        entries.clear();
+        cells.clear();
+    }
+
+    /**
+     * Gets the number of indexed entities.
+     * @return The entity count
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Checks whether any entity lies strictly within a distance of a position.
+     * @param x The world x coordinate
+     * @param y The world y coordinate
+     * @param radius The search radius in pixels
+     * @param filter Only entities accepted by the filter count
+     * @return true if a matching entity is closer than the radius
+     */
+    public boolean anyWithin(float x, float y, float radius, Predicate<? super T> filter) {
+        float radiusSquared = radius * radius;
+        int minX = toCell(x - radius);
+        int maxX = toCell(x + radius);
+        int minY = toCell(y - radius);
+        int maxY = toCell(y + radius);
+
+        for (int cx = minX; cx <= maxX; cx++) {
+            for (int cy = minY; cy <= maxY; cy++) {
+                Map<String, Entry<T>> bucket = cells.get(TileKey.pack(cx, cy));
+                if (bucket == null) {
+                    continue;
+                }
+                for (Entry<T> entry : bucket.values()) {
+                    float dx = entry.x - x;
+                    float dy = entry.y - y;
+                    if (dx * dx + dy * dy < radiusSquared && filter.test(entry.value)) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Collects the entities that lie strictly within a distance of a position.
+     * @param x The world x coordinate
+     * @param y The world y coordinate
+     * @param radius The search radius in pixels
+     * @return The matching entities, in no particular order
+     */
+    public List<T> findWithin(float x, float y, float radius) {
+        List<T> result = new ArrayList<>();
+        float radiusSquared = radius * radius;
+        int minX = toCell(x - radius);
+        int maxX = toCell(x + radius);
+        int minY = toCell(y - radius);
+        int maxY = toCell(y + radius);
+
+        for (int cx = minX; cx <= maxX; cx++) {
+            for (int cy = minY; cy <= maxY; cy++) {
+                Map<String, Entry<T>> bucket = cells.get(TileKey.pack(cx, cy));
+                if (bucket == null) {
+                    continue;
+                }
+                for (Entry<T> entry : bucket.values()) {
+                    float dx = entry.x - x;
+                    float dy = entry.y - y;
+                    if (dx * dx + dy * dy < radiusSquared) {
+                        result.add(entry.value);
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Gets the cell size in pixels.
+     * @return The cell size
+     */
+    public int getCellSize() {
+        return cellSize;
+    }
+
+    private int toCell(float coordinate) {
+        return TileKey.toCell(coordinate, cellSize);
+    }
+
+    private void removeFromCell(long cell, String id) {
+        Map<String, Entry<T>> bucket = cells.get(cell);
+        if (bucket != null) {
+            bucket.remove(id);
+            if (bucket.isEmpty()) {
+                cells.remove(cell);
+            }
+        }
+    }
+}
@@ -0,0 +1,268 @@
+package wagemaker.uk.network;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.StreamCorruptedException;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.net.SocketException;
+import java.net.SocketTimeoutException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Blocking transport that runs a client's receive loop on a virtual thread.
+ *
+ * This is the simpler alternative to {@link NioConnection}: each session reads
+ * with plain blocking socket calls, but because the reader is a virtual thread a
+ * parked read does not hold a platform thread. A second virtual thread drains the
+ * ClientConnection's outbound queue into one buffered write and one flush per
+ * batch, so a slow peer only ever blocks its own writer. Writes are guarded by a
+ * {@link ReentrantLock} rather than a synchronized block so a writer blocked on a
+ * slow socket does not pin its carrier thread.
+ */
+public class VirtualThreadConnection implements ClientTransport {
+    private static final int READ_TIMEOUT_MS = 15000; // matches ClientConnection's client timeout
+    private static final int INITIAL_PAYLOAD_BUFFER_SIZE = 1024;
+    private static final int WRITE_BUFFER_SIZE = 65536;
+
+    private final Socket socket;
+    private final InetAddress remoteAddress;
+    private final ReentrantLock writeLock;
+    private final AtomicBoolean closed;
+    private final Semaphore flushSignal;
+    private final DataInputStream input;
+    private final OutputStream output;
+    private ClientConnection handler;
+    private byte[] payloadBuffer;
+
+    /**
+     * Creates a new blocking connection for an accepted socket.
+     * @param socket The accepted client socket
+     * @throws IOException if the socket streams cannot be opened
+     */
+    public VirtualThreadConnection(Socket socket) throws IOException {
+        this.socket = socket;
+        this.remoteAddress = socket.getInetAddress();
+        this.writeLock = new ReentrantLock();
+        this.closed = new AtomicBoolean(false);
+        this.flushSignal = new Semaphore(0);
+        this.payloadBuffer = new byte[INITIAL_PAYLOAD_BUFFER_SIZE];
+
+        socket.setTcpNoDelay(true);
+        socket.setSoTimeout(READ_TIMEOUT_MS);
+        this.output = new BufferedOutputStream(socket.getOutputStream(), WRITE_BUFFER_SIZE);
+        this.input = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+    }
+
+    @Override
+    public void setHandler(ClientConnection handler) {
+        this.handler = handler;
+    }
+
+    /**
+     * Starts the receive and write loops on virtual threads.
+     */
+    public void start() {
+        String name = "Client-" + (handler != null ? handler.getClientId() : remoteAddress);
+        Thread.ofVirtual().name(name + "-write").start(this::writeLoop);
+        Thread.ofVirtual().name(name).start(this::run);
+    }
+
+    /**
+     * Write loop. Waits for a flush request, then writes everything queued as one batch.
+     */
+    private void writeLoop() {
+        List<ByteBuffer> batch = new ArrayList<>();
+        while (!closed.get()) {
+            try {
+                flushSignal.acquire();
+            } catch (InterruptedException e) {
+                break;
+            }
+            flushSignal.drainPermits();
+            if (closed.get() || handler == null) {
+                break;
+            }
+
+            handler.drainOutbound(batch);
+            if (batch.isEmpty()) {
+                continue;
+            }
+
+            writeLock.lock();
+            try {
+                for (ByteBuffer frame : batch) {
+                    output.write(frame.array(), frame.arrayOffset() + frame.position(), frame.remaining());
+                }
+                output.flush();
+            } catch (IOException e) {
+                System.err.println("Error sending message to " + handler.getClientId() + ": " + e.getMessage());
+                close();
+            } finally {
+                writeLock.unlock();
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Receive loop. Reads the handshake, then reads frames until the socket closes.
+     */
+    private void run() {
+        if (!readHandshake()) {
+            close();
+            return;
+        }
+
+        while (!closed.get()) {
+            // Timeout and periodic sync checks run between reads, as before
+            handler.onTick(System.currentTimeMillis());
+            if (closed.get()) {
+                break;
+            }
+
+            try {
+                readFrame();
+            } catch (SocketTimeoutException e) {
+                // No data for the whole client timeout window
+                handler.onTick(System.currentTimeMillis());
+                break;
+            } catch (EOFException e) {
+                // Client disconnected
+                System.out.println("Client " + handler.getClientId() + " disconnected");
+                break;
+            } catch (StreamCorruptedException e) {
+                // Framing is lost, the stream cannot be resynchronised
+                handler.onProtocolError(e.getMessage());
+                break;
+            } catch (SocketException e) {
+                // Socket closed, exit gracefully
+                break;
+            } catch (IOException e) {
+                if (!closed.get()) {
+                    System.err.println("IO error receiving message from " + handler.getClientId() + ": " + e.getMessage());
+                }
+                break;
+            }
+        }
+
+        close();
+    }
+
+    /**
+     * Reads one frame and dispatches it. The size limit is checked against the
+     * length prefix, so oversized payloads are skipped without being buffered
+     * or deserialized.
+     * @throws IOException if reading fails or the framing is invalid
+     */
+    private void readFrame() throws IOException {
+        int length = input.readInt();
+        if (length < 0 || length > MessageCodec.MAX_FRAME_SIZE) {
+            throw new StreamCorruptedException("Invalid frame length: " + length);
+        }
+        if (length > MessageCodec.MAX_INBOUND_MESSAGE_SIZE) {
+            handler.onOversizedMessage(length);
+            input.skipNBytes(length);
+            return;
+        }
+
+        // Reuse one payload buffer for the life of the connection
+        if (payloadBuffer.length < length) {
+            payloadBuffer = new byte[Math.max(length, payloadBuffer.length * 2)];
+        }
+        input.readFully(payloadBuffer, 0, length);
+
+        NetworkMessage message;
+        try {
+            message = MessageCodec.decodePayload(payloadBuffer, 0, length);
+        } catch (IOException | ClassNotFoundException e) {
+            handler.onDecodeError(e);
+            return;
+        }
+        handler.onMessage(message);
+    }
+
+    /**
+     * Reads the client's handshake and hands it to the handler.
+     * @return true if the session should continue
+     */
+    private boolean readHandshake() {
+        try {
+            int magic = input.readInt();
+            if (magic == MessageCodec.LEGACY_STREAM_MAGIC) {
+                handler.onLegacyClient();
+                return false;
+            }
+            if (magic != MessageCodec.HANDSHAKE_MAGIC) {
+                handler.onProtocolError("Invalid handshake: 0x" + Integer.toHexString(magic));
+                return false;
+            }
+            handler.onHandshake(input.readUnsignedShort());
+            return !closed.get();
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    @Override
+    public void send(ByteBuffer frame) {
+        if (closed.get()) {
+            return;
+        }
+
+        writeLock.lock();
+        try {
+            output.write(frame.array(), frame.arrayOffset() + frame.position(), frame.remaining());
+            output.flush();
+        } catch (IOException e) {
+            if (handler != null) {
+                System.err.println("Error sending message to " + handler.getClientId() + ": " + e.getMessage());
+            }
+            close();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public void requestFlush() {
+        flushSignal.release();
+    }
+
+    @Override
+    public boolean isOpen() {
+        return !closed.get() && !socket.isClosed();
+    }
+
+    @Override
+    public InetAddress getRemoteAddress() {
+        return remoteAddress;
+    }
+
+    @Override
+    public void close() {
+        if (!closed.compareAndSet(false, true)) {
+            return;
+        }
+
+        try {
+            socket.close();
+        } catch (IOException e) {
+            // Ignore
+        }
+        flushSignal.release();
+
+        if (handler != null) {
+            handler.onDisconnected();
+        }
+    }
+}
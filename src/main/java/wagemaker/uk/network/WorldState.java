@@ -1,9 +1,17 @@
 package wagemaker.uk.network;
 
+import wagemaker.uk.biome.BiomeSampler;
+import wagemaker.uk.biome.BiomeType;
+import wagemaker.uk.biome.NoiseBiomeSampler;
 import wagemaker.uk.weather.RainConfig;
 import wagemaker.uk.weather.RainZone;
+import wagemaker.uk.world.LongHashSet;
+import wagemaker.uk.world.LongObjectHashMap;
+import wagemaker.uk.world.TileKey;
 import wagemaker.uk.world.WorldSaveData;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -20,6 +28,9 @@ import java.util.concurrent.ConcurrentHashMap;
 public class WorldState implements Serializable {
     private static final long serialVersionUID = 1L;
     
+    /** Shared headless sampler used for all biome queries during generation. */
+    private static final BiomeSampler BIOMES = NoiseBiomeSampler.INSTANCE;
+    
     private long worldSeed;
     private Map<String, PlayerState> players;
     private Map<String, TreeState> trees;
@@ -35,6 +46,18 @@ public class WorldState implements Serializable {
     private int currentPlayerSandAreaX;
     private int currentPlayerSandAreaY;
     
+    // Proximity indexes over the entity maps, kept in step by the mutators below
+    private transient SpatialGrid<TreeState> treeGrid;
+    private transient SpatialGrid<StoneState> stoneGrid;
+    private transient SpatialGrid<ItemState> itemGrid;
+    
+    // Tile-keyed mirrors of the "x,y" keyed trees, stones and cleared positions, so
+    // generation probes never build a string key. Touched only by the thread that
+    // mutates the world (the server tick thread).
+    private transient LongObjectHashMap<TreeState> treeTiles;
+    private transient LongObjectHashMap<StoneState> stoneTiles;
+    private transient LongHashSet clearedTiles;
+    
     public WorldState() {
         this.players = new ConcurrentHashMap<>();
         this.trees = new ConcurrentHashMap<>();
@@ -49,6 +72,12 @@ public class WorldState implements Serializable {
         this.queuedBambooSpawns = new ConcurrentHashMap<>();
         this.currentPlayerSandAreaX = Integer.MAX_VALUE;
         this.currentPlayerSandAreaY = Integer.MAX_VALUE;
+        this.treeGrid = new SpatialGrid<>();
+        this.stoneGrid = new SpatialGrid<>();
+        this.itemGrid = new SpatialGrid<>();
+        this.treeTiles = new LongObjectHashMap<>();
+        this.stoneTiles = new LongObjectHashMap<>();
+        this.clearedTiles = new LongHashSet();
     }
     
     public WorldState(long worldSeed) {
@@ -90,24 +119,6 @@ public class WorldState implements Serializable {
     private void generateInitialTrees() {
         java.util.Random random = new java.util.Random();
         
-        // Create a temporary BiomeManager for biome queries during initial generation
-        // This ensures server-side tree generation respects biome boundaries
-        wagemaker.uk.biome.BiomeManager biomeManager = null;
-        boolean useBiomeAwareness = true;
-        
-        try {
-            biomeManager = new wagemaker.uk.biome.BiomeManager();
-            biomeManager.initialize();
-            System.out.println("BiomeManager initialized successfully in WorldState (thread: " + Thread.currentThread().getName() + ")");
-        } catch (Exception e) {
-            // BiomeManager initialization failed (likely due to OpenGL context issues on background thread)
-            // Fall back to generating trees without biome awareness
-            System.err.println("BiomeManager initialization failed in WorldState, generating trees without biome awareness: " + e.getMessage());
-            e.printStackTrace();
-            useBiomeAwareness = false;
-            biomeManager = null;
-        }
-        
         // Generate trees in a 5000x5000 area around spawn (-2500 to +2500)
         // This gives players plenty of trees to explore
         int minX = -2500;
@@ -127,7 +138,7 @@ public class WorldState implements Serializable {
                 if (random.nextFloat() < 0.02f) {
                     // STEP 3: Validate spawn location
                     // Check if any tree is within 256px distance
-                    if (isTreeNearby(x, y, 256)) {
+                    if (isTreeTooClose(x, y, 256)) {
                         continue;
                     }
                     
@@ -144,11 +155,8 @@ public class WorldState implements Serializable {
                         treeY = y + offsetY;
                         
                         // Check biome type first to determine minimum distance
-                        wagemaker.uk.biome.BiomeType biomeCheck = null;
-                        if (useBiomeAwareness && biomeManager != null) {
-                            biomeCheck = biomeManager.getBiomeAtPosition(treeX, treeY);
-                        }
-                        float minDistance = (biomeCheck == wagemaker.uk.biome.BiomeType.SAND) ? 50f : 192f;
+                        BiomeType biomeCheck = BIOMES.getBiomeAtPosition(treeX, treeY);
+                        float minDistance = (biomeCheck == BiomeType.SAND) ? 50f : 192f;
                         
                         // Check if any tree is too close (192px for grass, 50px for sand)
                         if (!isTreeTooClose(treeX, treeY, minDistance)) {
@@ -172,47 +180,30 @@ public class WorldState implements Serializable {
                     // This ensures server generates the same biome-specific trees as clients
                     TreeType treeType = null;
                     
-                    if (useBiomeAwareness && biomeManager != null) {
-                        wagemaker.uk.biome.BiomeType biome = biomeManager.getBiomeAtPosition(treeX, treeY);
-                        
-                        // STEP 5: Generate tree based on biome type (SAME LOGIC AS CLIENT)
-                        if (biome == wagemaker.uk.biome.BiomeType.SAND) {
-                            // Sand biomes: bamboo trees with 30% spawn rate (reduced by 70%)
-                            if (random.nextFloat() < 0.3f) {
-                                treeType = TreeType.BAMBOO;
-                            }
-                        } else {
-                            // Grass biomes: adjusted tree type distribution
-                            // SmallTree: 42.5% (increased by 30% from 32.5%)
-                            // AppleTree: 12.5% (reduced by 50% from 25%)
-                            // CoconutTree: 32.5% (unchanged)
-                            // BananaTree: 12.5% (reduced by 50% from 25%)
-                            float treeTypeRoll = random.nextFloat();
-                            
-                            if (treeTypeRoll < 0.425f) {
-                                treeType = TreeType.SMALL;
-                            } else if (treeTypeRoll < 0.55f) {
-                                treeType = TreeType.APPLE;
-                            } else if (treeTypeRoll < 0.875f) {
-                                treeType = TreeType.COCONUT;
-                            } else {
-                                treeType = TreeType.BANANA;
-                            }
+                    BiomeType biome = BIOMES.getBiomeAtPosition(treeX, treeY);
+                    
+                    // STEP 5: Generate tree based on biome type (SAME LOGIC AS CLIENT)
+                    if (biome == BiomeType.SAND) {
+                        // Sand biomes: bamboo trees with 30% spawn rate (reduced by 70%)
+                        if (random.nextFloat() < 0.3f) {
+                            treeType = TreeType.BAMBOO;
                         }
                     } else {
-                        // Fallback: generate trees without biome awareness (all types equally)
+                        // Grass biomes: adjusted tree type distribution
+                        // SmallTree: 42.5% (increased by 30% from 32.5%)
+                        // AppleTree: 12.5% (reduced by 50% from 25%)
+                        // CoconutTree: 32.5% (unchanged)
+                        // BananaTree: 12.5% (reduced by 50% from 25%)
                         float treeTypeRoll = random.nextFloat();
                         
-                        if (treeTypeRoll < 0.2f) {
+                        if (treeTypeRoll < 0.425f) {
                             treeType = TreeType.SMALL;
-                        } else if (treeTypeRoll < 0.4f) {
+                        } else if (treeTypeRoll < 0.55f) {
                             treeType = TreeType.APPLE;
-                        } else if (treeTypeRoll < 0.6f) {
+                        } else if (treeTypeRoll < 0.875f) {
                             treeType = TreeType.COCONUT;
-                        } else if (treeTypeRoll < 0.8f) {
-                            treeType = TreeType.BANANA;
                         } else {
-                            treeType = TreeType.BAMBOO;
+                            treeType = TreeType.BANANA;
                         }
                     }
                     
@@ -223,41 +214,12 @@ public class WorldState implements Serializable {
                     
                     // Create tree state with full health and randomized position
                     TreeState tree = new TreeState(key, treeType, treeX, treeY, 100.0f, true);
-                    this.trees.put(key, tree);
+                    putTree(key, tree);
                 }
             }
         }
         
-        // Clean up temporary BiomeManager
-        if (biomeManager != null) {
-            biomeManager.dispose();
-        }
-        
-        if (useBiomeAwareness) {
-            System.out.println("Generated " + trees.size() + " initial biome-specific trees for world seed: " + worldSeed);
-        } else {
-            System.out.println("Generated " + trees.size() + " initial trees (without biome awareness) for world seed: " + worldSeed);
-        }
-    }
-    
-    /**
-     * Checks if there's a tree nearby within the specified distance.
-     */
-    private boolean isTreeNearby(int x, int y, int minDistance) {
-        for (TreeState tree : trees.values()) {
-            if (!tree.isExists()) {
-                continue;
-            }
-            
-            float dx = tree.getX() - x;
-            float dy = tree.getY() - y;
-            float distance = (float) Math.sqrt(dx * dx + dy * dy);
-            
-            if (distance < minDistance) {
-                return true;
-            }
-        }
-        return false;
+        System.out.println("Generated " + trees.size() + " initial biome-specific trees for world seed: " + worldSeed);
     }
     
     /**
@@ -270,20 +232,47 @@ public class WorldState implements Serializable {
      * @return true if too close to another tree, false otherwise
      */
     private boolean isTreeTooClose(float x, float y, float minDistance) {
-        for (TreeState tree : trees.values()) {
-            if (!tree.isExists()) {
-                continue;
-            }
-            
-            float dx = tree.getX() - x;
-            float dy = tree.getY() - y;
-            float distance = (float) Math.sqrt(dx * dx + dy * dy);
-            
-            if (distance < minDistance) {
-                return true;
-            }
-        }
-        return false;
+        return treeGrid.anyWithin(x, y, minDistance, TreeState::isExists);
+    }
+    
+    /**
+     * Gets the standing trees within a distance of a position.
+     * 
+     * @param x The x-coordinate to search around
+     * @param y The y-coordinate to search around
+     * @param radius The search radius in pixels
+     * @return The trees closer than the radius
+     */
+    public List<TreeState> getTreesNear(float x, float y, float radius) {
+        List<TreeState> result = treeGrid.findWithin(x, y, radius);
+        result.removeIf(tree -> !tree.isExists());
+        return result;
+    }
+    
+    /**
+     * Gets the stones within a distance of a position.
+     * 
+     * @param x The x-coordinate to search around
+     * @param y The y-coordinate to search around
+     * @param radius The search radius in pixels
+     * @return The stones closer than the radius
+     */
+    public List<StoneState> getStonesNear(float x, float y, float radius) {
+        return stoneGrid.findWithin(x, y, radius);
+    }
+    
+    /**
+     * Gets the uncollected items within a distance of a position.
+     * 
+     * @param x The x-coordinate to search around
+     * @param y The y-coordinate to search around
+     * @param radius The search radius in pixels
+     * @return The items closer than the radius
+     */
+    public List<ItemState> getItemsNear(float x, float y, float radius) {
+        List<ItemState> result = itemGrid.findWithin(x, y, radius);
+        result.removeIf(ItemState::isCollected);
+        return result;
     }
     
     /**
@@ -295,11 +284,12 @@ public class WorldState implements Serializable {
      * @return The generated TreeState, or null if no tree should exist at this position
      */
     public TreeState generateTreeAt(int x, int y) {
-        String key = x + "," + y;
+        long tile = TileKey.pack(x, y);
         
         // Check if tree already exists or was cleared
-        if (trees.containsKey(key) || clearedPositions.contains(key)) {
-            return trees.get(key);
+        TreeState existing = treeTiles.get(tile);
+        if (existing != null || clearedTiles.contains(tile)) {
+            return existing;
         }
         
         // Use deterministic random seed (same as client-side generation)
@@ -321,12 +311,8 @@ public class WorldState implements Serializable {
                 treeY = y + offsetY;
                 
                 // Check biome type first to determine minimum distance
-                wagemaker.uk.biome.BiomeManager tempBiomeManager = new wagemaker.uk.biome.BiomeManager();
-                tempBiomeManager.initialize();
-                wagemaker.uk.biome.BiomeType biomeCheck = tempBiomeManager.getBiomeAtPosition(treeX, treeY);
-                tempBiomeManager.dispose();
-                
-                float minDistance = (biomeCheck == wagemaker.uk.biome.BiomeType.SAND) ? 50f : 192f;
+                BiomeType biomeCheck = BIOMES.getBiomeAtPosition(treeX, treeY);
+                float minDistance = (biomeCheck == BiomeType.SAND) ? 50f : 192f;
                 
                 // Check if any tree is too close (192px for grass, 50px for sand)
                 if (!isTreeTooClose(treeX, treeY, minDistance)) {
@@ -347,51 +333,30 @@ public class WorldState implements Serializable {
                 return null;
             }
             
-            // Determine tree type using biome-aware logic (if available)
+            // Determine tree type using biome-aware logic (same as client)
             TreeType treeType = null;
+            BiomeType biome = BIOMES.getBiomeAtPosition(treeX, treeY);
             
-            // Try to use biome manager for tree type determination
-            try {
-                wagemaker.uk.biome.BiomeManager biomeManager = new wagemaker.uk.biome.BiomeManager();
-                biomeManager.initialize();
-                wagemaker.uk.biome.BiomeType biome = biomeManager.getBiomeAtPosition(treeX, treeY);
-                biomeManager.dispose();
-                
-                if (biome == wagemaker.uk.biome.BiomeType.SAND) {
-                    // Sand biomes: bamboo trees with 30% spawn rate (reduced by 70%)
-                    if (random.nextFloat() < 0.3f) {
-                        treeType = TreeType.BAMBOO;
-                    }
-                } else {
-                    // Grass biomes: adjusted tree type distribution
-                    // SmallTree: 42.5% (increased by 30% from 32.5%)
-                    // AppleTree: 12.5% (reduced by 50% from 25%)
-                    // CoconutTree: 32.5% (unchanged)
-                    // BananaTree: 12.5% (reduced by 50% from 25%)
-                    float treeTypeRoll = random.nextFloat();
-                    if (treeTypeRoll < 0.425f) {
-                        treeType = TreeType.SMALL;
-                    } else if (treeTypeRoll < 0.55f) {
-                        treeType = TreeType.APPLE;
-                    } else if (treeTypeRoll < 0.875f) {
-                        treeType = TreeType.COCONUT;
-                    } else {
-                        treeType = TreeType.BANANA;
-                    }
+            if (biome == BiomeType.SAND) {
+                // Sand biomes: bamboo trees with 30% spawn rate (reduced by 70%)
+                if (random.nextFloat() < 0.3f) {
+                    treeType = TreeType.BAMBOO;
                 }
-            } catch (Exception e) {
-                // Fallback: generate without biome awareness
+            } else {
+                // Grass biomes: adjusted tree type distribution
+                // SmallTree: 42.5% (increased by 30% from 32.5%)
+                // AppleTree: 12.5% (reduced by 50% from 25%)
+                // CoconutTree: 32.5% (unchanged)
+                // BananaTree: 12.5% (reduced by 50% from 25%)
                 float treeTypeRoll = random.nextFloat();
-                if (treeTypeRoll < 0.2f) {
+                if (treeTypeRoll < 0.425f) {
                     treeType = TreeType.SMALL;
-                } else if (treeTypeRoll < 0.4f) {
+                } else if (treeTypeRoll < 0.55f) {
                     treeType = TreeType.APPLE;
-                } else if (treeTypeRoll < 0.6f) {
+                } else if (treeTypeRoll < 0.875f) {
                     treeType = TreeType.COCONUT;
-                } else if (treeTypeRoll < 0.8f) {
-                    treeType = TreeType.BANANA;
                 } else {
-                    treeType = TreeType.BAMBOO;
+                    treeType = TreeType.BANANA;
                 }
             }
             
@@ -401,8 +366,9 @@ public class WorldState implements Serializable {
             }
             
             // Create and store the tree with randomized position
+            String key = TileKey.format(tile);
             TreeState tree = new TreeState(key, treeType, treeX, treeY, 100.0f, true);
-            this.trees.put(key, tree);
+            putTree(key, tree);
             return tree;
         }
         
@@ -418,11 +384,12 @@ public class WorldState implements Serializable {
      * @return The generated StoneState, or null if no stone should exist at this position
      */
     public StoneState generateStoneAt(int x, int y, float playerX, float playerY) {
-        String key = x + "," + y;
+        long tile = TileKey.pack(x, y);
         
         // Check if stone already exists or was cleared
-        if (stones.containsKey(key) || clearedPositions.contains(key)) {
-            return stones.get(key);
+        StoneState existing = stoneTiles.get(tile);
+        if (existing != null || clearedTiles.contains(tile)) {
+            return existing;
         }
         
         // Use deterministic random seed (same as client-side generation)
@@ -444,16 +411,7 @@ public class WorldState implements Serializable {
             }
             
             // Only spawn stones on sand biomes
-            try {
-                wagemaker.uk.biome.BiomeManager biomeManager = new wagemaker.uk.biome.BiomeManager();
-                biomeManager.initialize();
-                wagemaker.uk.biome.BiomeType biome = biomeManager.getBiomeAtPosition(stoneX, stoneY);
-                biomeManager.dispose();
-                
-                if (biome != wagemaker.uk.biome.BiomeType.SAND) {
-                    return null;
-                }
-            } catch (Exception e) {
+            if (BIOMES.getBiomeAtPosition(stoneX, stoneY) != BiomeType.SAND) {
                 return null;
             }
             
@@ -464,8 +422,9 @@ public class WorldState implements Serializable {
             }
             
             // Create and store the stone
+            String key = TileKey.format(tile);
             StoneState stone = new StoneState(key, stoneX, stoneY, 50.0f);
-            this.stones.put(key, stone);
+            putStone(key, stone);
             return stone;
         }
         
@@ -563,6 +522,7 @@ public class WorldState implements Serializable {
         
         // Copy cleared positions
         snapshot.clearedPositions.addAll(this.clearedPositions);
+        snapshot.rebuildClearedTiles();
         
         // Deep copy rain zones
         if (this.rainZones != null) {
@@ -581,6 +541,7 @@ public class WorldState implements Serializable {
         }
         
         snapshot.lastUpdateTimestamp = this.lastUpdateTimestamp;
+        snapshot.rebuildSpatialIndex();
         
         return snapshot;
     }
@@ -651,10 +612,10 @@ public class WorldState implements Serializable {
                 TreeState tree = entry.getValue();
                 if (!tree.isExists()) {
                     // Tree was destroyed, remove it
-                    this.trees.remove(entry.getKey());
-                    this.clearedPositions.add(entry.getKey());
+                    dropTree(entry.getKey());
+                    markCleared(entry.getKey());
                 } else {
-                    this.trees.put(entry.getKey(), tree);
+                    putTree(entry.getKey(), tree);
                 }
             }
         }
@@ -665,9 +626,9 @@ public class WorldState implements Serializable {
                 ItemState item = entry.getValue();
                 if (item.isCollected()) {
                     // Item was collected, remove it
-                    this.items.remove(entry.getKey());
+                    dropItem(entry.getKey());
                 } else {
-                    this.items.put(entry.getKey(), item);
+                    putItem(entry.getKey(), item);
                 }
             }
         }
@@ -699,6 +660,27 @@ public class WorldState implements Serializable {
     
     public void setTrees(Map<String, TreeState> trees) {
         this.trees = trees;
+        rebuildSpatialIndex();
+    }
+    
+    /**
+     * Gets the tree generated on a tile, standing or destroyed, without building a key.
+     * @param x The tile x-coordinate
+     * @param y The tile y-coordinate
+     * @return The tree, or null if the tile has none
+     */
+    public TreeState getTreeAt(int x, int y) {
+        return treeTiles.get(TileKey.pack(x, y));
+    }
+    
+    /**
+     * Gets the stone generated on a tile without building a key.
+     * @param x The tile x-coordinate
+     * @param y The tile y-coordinate
+     * @return The stone, or null if the tile has none
+     */
+    public StoneState getStoneAt(int x, int y) {
+        return stoneTiles.get(TileKey.pack(x, y));
     }
     
     public Map<String, StoneState> getStones() {
@@ -707,6 +689,7 @@ public class WorldState implements Serializable {
     
     public void setStones(Map<String, StoneState> stones) {
         this.stones = stones;
+        rebuildSpatialIndex();
     }
     
     public Map<String, ItemState> getItems() {
@@ -715,6 +698,7 @@ public class WorldState implements Serializable {
     
     public void setItems(Map<String, ItemState> items) {
         this.items = items;
+        rebuildSpatialIndex();
     }
     
     public Set<String> getClearedPositions() {
@@ -723,6 +707,7 @@ public class WorldState implements Serializable {
     
     public void setClearedPositions(Set<String> clearedPositions) {
         this.clearedPositions = clearedPositions;
+        rebuildClearedTiles();
     }
     
     public long getLastUpdateTimestamp() {
@@ -783,7 +768,7 @@ public class WorldState implements Serializable {
      */
     public void addOrUpdateTree(TreeState tree) {
         if (tree != null) {
-            this.trees.put(tree.getTreeId(), tree);
+            putTree(tree.getTreeId(), tree);
             this.lastUpdateTimestamp = System.currentTimeMillis();
         }
     }
@@ -795,7 +780,8 @@ public class WorldState implements Serializable {
         TreeState tree = this.trees.get(treeId);
         if (tree != null) {
             tree.setExists(false);
-            this.clearedPositions.add(treeId);
+            indexTree(treeId, tree);
+            markCleared(treeId);
             this.lastUpdateTimestamp = System.currentTimeMillis();
         }
     }
@@ -805,7 +791,7 @@ public class WorldState implements Serializable {
      */
     public void addOrUpdateStone(StoneState stone) {
         if (stone != null) {
-            this.stones.put(stone.getStoneId(), stone);
+            putStone(stone.getStoneId(), stone);
             this.lastUpdateTimestamp = System.currentTimeMillis();
         }
     }
@@ -815,10 +801,10 @@ public class WorldState implements Serializable {
      */
     public void removeStone(String stoneId) {
         System.out.println("[WorldState] removeStone called for: " + stoneId);
-        StoneState stone = this.stones.remove(stoneId);
+        StoneState stone = dropStone(stoneId);
         if (stone != null) {
             // Add to cleared positions to prevent immediate regeneration
-            clearedPositions.add(stoneId);
+            markCleared(stoneId);
             System.out.println("[WorldState] Stone removed and position cleared: " + stoneId);
             
             int stoneAreaX = (int)stone.getX() / 512;
@@ -835,7 +821,7 @@ public class WorldState implements Serializable {
      */
     public void addOrUpdateItem(ItemState item) {
         if (item != null) {
-            this.items.put(item.getItemId(), item);
+            putItem(item.getItemId(), item);
             this.lastUpdateTimestamp = System.currentTimeMillis();
         }
     }
@@ -844,10 +830,61 @@ public class WorldState implements Serializable {
      * Removes an item from the world state (marks it as collected).
      */
     public void removeItem(String itemId) {
-        this.items.remove(itemId);
+        dropItem(itemId);
+        this.lastUpdateTimestamp = System.currentTimeMillis();
+    }
+    
+    /**
+     * Adds or updates a planted tree (sapling) in the world state.
+     */
+    public void addOrUpdatePlantedTree(PlantedTreeState plantedTree) {
+        if (plantedTree != null) {
+            this.plantedTrees.put(plantedTree.getPlantedTreeId(), plantedTree);
+            this.lastUpdateTimestamp = System.currentTimeMillis();
+        }
+    }
+    
+    /**
+     * Removes a planted tree from the world state (it has matured).
+     */
+    public void removePlantedTree(String plantedTreeId) {
+        this.plantedTrees.remove(plantedTreeId);
         this.lastUpdateTimestamp = System.currentTimeMillis();
     }
     
+    /**
+     * Adds or updates a planted bamboo in the world state.
+     */
+    public void addOrUpdatePlantedBamboo(PlantedBambooState plantedBamboo) {
+        if (plantedBamboo != null) {
+            this.plantedBamboos.put(plantedBamboo.getPlantedBambooId(), plantedBamboo);
+            this.lastUpdateTimestamp = System.currentTimeMillis();
+        }
+    }
+    
+    /**
+     * Removes a planted bamboo from the world state (it has matured).
+     */
+    public void removePlantedBamboo(String plantedBambooId) {
+        this.plantedBamboos.remove(plantedBambooId);
+        this.lastUpdateTimestamp = System.currentTimeMillis();
+    }
+    
+    /**
+     * Advances the growth timers of all planted trees and bamboos.
+     * Maturing is still reported by the planting client, so this only keeps the
+     * authoritative timers current for snapshots and saves.
+     * @param deltaTime Seconds elapsed since the last update
+     */
+    public void updatePlantedGrowth(float deltaTime) {
+        for (PlantedTreeState plantedTree : plantedTrees.values()) {
+            plantedTree.setGrowthTimer(plantedTree.getGrowthTimer() + deltaTime);
+        }
+        for (PlantedBambooState plantedBamboo : plantedBamboos.values()) {
+            plantedBamboo.setGrowthTimer(plantedBamboo.getGrowthTimer() + deltaTime);
+        }
+    }
+    
     // World Save/Load Methods
     
     /**
@@ -920,7 +957,35 @@ public class WorldState implements Serializable {
             }
         }
         
-        return new WorldSaveData(
+        Map<String, PlantedTreeState> plantedTreesCopy = new HashMap<>();
+        if (this.plantedTrees != null) {
+            for (Map.Entry<String, PlantedTreeState> entry : this.plantedTrees.entrySet()) {
+                PlantedTreeState original = entry.getValue();
+                PlantedTreeState copy = new PlantedTreeState(
+                    original.getPlantedTreeId(),
+                    original.getX(),
+                    original.getY(),
+                    original.getGrowthTimer()
+                );
+                plantedTreesCopy.put(entry.getKey(), copy);
+            }
+        }
+        
+        Map<String, PlantedBambooState> plantedBamboosCopy = new HashMap<>();
+        if (this.plantedBamboos != null) {
+            for (Map.Entry<String, PlantedBambooState> entry : this.plantedBamboos.entrySet()) {
+                PlantedBambooState original = entry.getValue();
+                PlantedBambooState copy = new PlantedBambooState(
+                    original.getPlantedBambooId(),
+                    original.getX(),
+                    original.getY(),
+                    original.getGrowthTimer()
+                );
+                plantedBamboosCopy.put(entry.getKey(), copy);
+            }
+        }
+        
+        WorldSaveData saveData = new WorldSaveData(
             this.worldSeed,
             treesCopy,
             stonesCopy,
@@ -933,6 +998,9 @@ public class WorldState implements Serializable {
             saveName,
             gameMode
         );
+        saveData.setPlantedTrees(plantedTreesCopy);
+        saveData.setPlantedBamboos(plantedBamboosCopy);
+        return saveData;
     }
     
     /**
@@ -1131,7 +1199,7 @@ public class WorldState implements Serializable {
                         original.getHealth(),
                         original.isExists()
                     );
-                    this.trees.put(entry.getKey(), copy);
+                    putTree(entry.getKey(), copy);
                 }
             }
             
@@ -1146,7 +1214,7 @@ public class WorldState implements Serializable {
                         original.getY(),
                         original.getHealth()
                     );
-                    this.stones.put(entry.getKey(), copy);
+                    putStone(entry.getKey(), copy);
                 }
             }
             
@@ -1162,7 +1230,7 @@ public class WorldState implements Serializable {
                         original.getY(),
                         original.isCollected()
                     );
-                    this.items.put(entry.getKey(), copy);
+                    putItem(entry.getKey(), copy);
                 }
             }
             
@@ -1201,6 +1269,7 @@ public class WorldState implements Serializable {
             if (saveData.getClearedPositions() != null) {
                 this.clearedPositions.addAll(saveData.getClearedPositions());
             }
+            rebuildClearedTiles();
             
             // Restore rain zones with deep copy
             this.rainZones.clear();
@@ -1246,6 +1315,13 @@ public class WorldState implements Serializable {
      */
     private void cleanupExistingState() {
         // Clear all collections
+        treeGrid.clear();
+        stoneGrid.clear();
+        itemGrid.clear();
+        treeTiles.clear();
+        stoneTiles.clear();
+        clearedTiles.clear();
+        
         if (this.trees != null) {
             this.trees.clear();
         } else {
@@ -1418,10 +1494,12 @@ public class WorldState implements Serializable {
             this.worldSeed = rollbackState.worldSeed;
             this.trees = new ConcurrentHashMap<>(rollbackState.trees);
             this.items = new ConcurrentHashMap<>(rollbackState.items);
+            rebuildSpatialIndex();
             this.plantedTrees = new ConcurrentHashMap<>(rollbackState.plantedTrees);
             this.plantedBamboos = new ConcurrentHashMap<>(rollbackState.plantedBamboos);
             this.clearedPositions = ConcurrentHashMap.newKeySet();
             this.clearedPositions.addAll(rollbackState.clearedPositions);
+            rebuildClearedTiles();
             this.rainZones = new ArrayList<>(rollbackState.rainZones);
             this.lastUpdateTimestamp = rollbackState.lastUpdateTimestamp;
             
@@ -1440,6 +1518,156 @@ public class WorldState implements Serializable {
         }
     }
     
+    /**
+     * Stores a tree and indexes its position.
+     */
+    private void putTree(String key, TreeState tree) {
+        trees.put(key, tree);
+        indexTree(key, tree);
+    }
+    
+    /**
+     * Indexes a stored tree. The tile mirror holds every tree in the map, destroyed
+     * ones included; the proximity grid only holds standing trees.
+     */
+    private void indexTree(String key, TreeState tree) {
+        if (tree.isExists()) {
+            treeGrid.put(key, tree.getX(), tree.getY(), tree);
+        } else {
+            treeGrid.remove(key);
+        }
+        putTile(treeTiles, key, tree);
+    }
+    
+    /**
+     * Removes a tree and its index entry.
+     */
+    private TreeState dropTree(String key) {
+        treeGrid.remove(key);
+        removeTile(treeTiles, key);
+        return trees.remove(key);
+    }
+    
+    /**
+     * Stores a stone and indexes its position.
+     */
+    private void putStone(String key, StoneState stone) {
+        stones.put(key, stone);
+        stoneGrid.put(key, stone.getX(), stone.getY(), stone);
+        putTile(stoneTiles, key, stone);
+    }
+    
+    /**
+     * Removes a stone and its index entry.
+     */
+    private StoneState dropStone(String key) {
+        stoneGrid.remove(key);
+        removeTile(stoneTiles, key);
+        return stones.remove(key);
+    }
+    
+    /**
+     * Stores an item and indexes its position.
+     */
+    private void putItem(String key, ItemState item) {
+        items.put(key, item);
+        itemGrid.put(key, item.getX(), item.getY(), item);
+    }
+    
+    /**
+     * Removes an item and its index entry.
+     */
+    private ItemState dropItem(String key) {
+        itemGrid.remove(key);
+        return items.remove(key);
+    }
+    
+    /**
+     * Records a position as cleared so generation never refills it.
+     */
+    private void markCleared(String key) {
+        clearedPositions.add(key);
+        long tile = TileKey.parse(key);
+        if (tile != TileKey.NONE) {
+            clearedTiles.add(tile);
+        }
+    }
+    
+    /**
+     * Mirrors an "x,y" keyed entity into a tile map. Other keys are not generated
+     * on the tile grid and are left out.
+     */
+    private static <V> void putTile(LongObjectHashMap<V> tiles, String key, V value) {
+        long tile = TileKey.parse(key);
+        if (tile != TileKey.NONE) {
+            tiles.put(tile, value);
+        }
+    }
+    
+    private static void removeTile(LongObjectHashMap<?> tiles, String key) {
+        long tile = TileKey.parse(key);
+        if (tile != TileKey.NONE) {
+            tiles.remove(tile);
+        }
+    }
+    
+    /**
+     * Rebuilds the cleared tile mirror after the cleared position set is replaced.
+     */
+    private void rebuildClearedTiles() {
+        clearedTiles.clear();
+        if (clearedPositions != null) {
+            for (String key : clearedPositions) {
+                long tile = TileKey.parse(key);
+                if (tile != TileKey.NONE) {
+                    clearedTiles.add(tile);
+                }
+            }
+        }
+    }
+    
+    /**
+     * Rebuilds the proximity indexes and tile mirrors from the entity maps.
+     * Called whenever a map is replaced wholesale rather than through the mutators.
+     */
+    private void rebuildSpatialIndex() {
+        treeGrid.clear();
+        stoneGrid.clear();
+        itemGrid.clear();
+        treeTiles.clear();
+        stoneTiles.clear();
+        if (trees != null) {
+            for (Map.Entry<String, TreeState> entry : trees.entrySet()) {
+                indexTree(entry.getKey(), entry.getValue());
+            }
+        }
+        if (stones != null) {
+            for (Map.Entry<String, StoneState> entry : stones.entrySet()) {
+                StoneState stone = entry.getValue();
+                putTile(stoneTiles, entry.getKey(), stone);
+                stoneGrid.put(entry.getKey(), stone.getX(), stone.getY(), stone);
+            }
+        }
+        if (items != null) {
+            for (Map.Entry<String, ItemState> entry : items.entrySet()) {
+                ItemState item = entry.getValue();
+                itemGrid.put(entry.getKey(), item.getX(), item.getY(), item);
+            }
+        }
+    }
+    
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        this.treeGrid = new SpatialGrid<>();
+        this.stoneGrid = new SpatialGrid<>();
+        this.itemGrid = new SpatialGrid<>();
+        this.treeTiles = new LongObjectHashMap<>();
+        this.stoneTiles = new LongObjectHashMap<>();
+        this.clearedTiles = new LongHashSet();
+        rebuildSpatialIndex();
+        rebuildClearedTiles();
+    }
+    
     public void updatePlayerSandArea(float playerX, float playerY) {
         queuedStoneSpawns.entrySet().removeIf(entry -> {
             StoneState stone = entry.getValue();
@@ -1448,7 +1676,7 @@ public class WorldState implements Serializable {
             float distance = (float) Math.sqrt(dx * dx + dy * dy);
             
             if (distance > 1024) {
-                this.stones.put(entry.getKey(), stone);
+                putStone(entry.getKey(), stone);
                 return true;
             }
             return false;
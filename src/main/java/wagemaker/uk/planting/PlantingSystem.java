@@ -1,6 +1,6 @@
 package wagemaker.uk.planting;
 
-import wagemaker.uk.biome.BiomeManager;
+import wagemaker.uk.biome.BiomeSampler;
 import wagemaker.uk.biome.BiomeType;
 import wagemaker.uk.inventory.InventoryManager;
 import wagemaker.uk.player.Player;
@@ -32,13 +32,13 @@ public class PlantingSystem {
      * @param targetX The target x-coordinate for planting
      * @param targetY The target y-coordinate for planting
      * @param inventoryManager The inventory manager for checking and deducting items
-     * @param biomeManager The biome manager for tile type checking
+     * @param biomeSampler The biome sampler for tile type checking
      * @param plantedBamboos Map of existing planted bamboos
      * @param bambooTrees Map of existing bamboo trees
      * @return PlantedBamboo instance on success, null on failure
      */
     public PlantedBamboo attemptPlant(float targetX, float targetY, InventoryManager inventoryManager,
-                                      BiomeManager biomeManager,
+                                      BiomeSampler biomeSampler,
                                       Map<String, PlantedBamboo> plantedBamboos,
                                       Map<String, BambooTree> bambooTrees) {
         
@@ -57,7 +57,7 @@ public class PlantingSystem {
         float tileY = snapToTileGrid(targetY);
         
         // Validation 2: Check if player is standing on sand tile
-        if (!isValidPlantingLocation(tileX, tileY, biomeManager, plantedBamboos, bambooTrees)) {
+        if (!isValidPlantingLocation(tileX, tileY, biomeSampler, plantedBamboos, bambooTrees)) {
             return null; // Invalid location (not sand or occupied)
         }
         
@@ -81,22 +81,22 @@ public class PlantingSystem {
      * 
      * @param x The x-coordinate (tile-aligned)
      * @param y The y-coordinate (tile-aligned)
-     * @param biomeManager The biome manager for tile type checking
+     * @param biomeSampler The biome sampler for tile type checking
      * @param plantedBamboos Map of existing planted bamboos
      * @param bambooTrees Map of existing bamboo trees
      * @return true if tile is valid for planting, false otherwise
      */
-    private boolean isValidPlantingLocation(float x, float y, BiomeManager biomeManager,
+    private boolean isValidPlantingLocation(float x, float y, BiomeSampler biomeSampler,
                                            Map<String, PlantedBamboo> plantedBamboos,
                                            Map<String, BambooTree> bambooTrees) {
         
-        // Check if biome manager is available
-        if (biomeManager == null) {
+        // Check if biome sampler is available
+        if (biomeSampler == null) {
             return false;
         }
         
         // Check if tile is sand
-        BiomeType biomeType = biomeManager.getBiomeAtPosition(x, y);
+        BiomeType biomeType = biomeSampler.getBiomeAtPosition(x, y);
         if (biomeType != BiomeType.SAND) {
             return false; // Not on sand tile
         }
@@ -136,15 +136,15 @@ public class PlantingSystem {
      * 
      * @param x The x-coordinate (tile-aligned)
      * @param y The y-coordinate (tile-aligned)
-     * @param biomeManager The biome manager for tile type checking
+     * @param biomeSampler The biome sampler for tile type checking
      * @return true if tile is grass biome, false otherwise
      */
-    public boolean canPlantTree(float x, float y, BiomeManager biomeManager) {
-        if (biomeManager == null) {
+    public boolean canPlantTree(float x, float y, BiomeSampler biomeSampler) {
+        if (biomeSampler == null) {
             return false;
         }
         
-        BiomeType biomeType = biomeManager.getBiomeAtPosition(x, y);
+        BiomeType biomeType = biomeSampler.getBiomeAtPosition(x, y);
         return biomeType == BiomeType.GRASS; // Trees plant on grass, bamboo on sand
     }
     
@@ -33,6 +33,8 @@ import wagemaker.uk.targeting.TargetIndicatorRenderer;
 import wagemaker.uk.targeting.TargetingMode;
 import wagemaker.uk.targeting.TargetingCallback;
 import wagemaker.uk.targeting.PlantingTargetValidator;
+import wagemaker.uk.world.SpatialIndex;
+import wagemaker.uk.world.WorldObject;
 import java.util.Map;
 import java.util.Random;
 
@@ -83,6 +85,7 @@ public class Player {
     private Map<String, PalmFiber> palmFibers;
     private Random random = new Random();
     private Map<String, Stone> stones;
+    private SpatialIndex<WorldObject> worldObjects; // Trees and stones by location
     private Cactus cactus; // Single cactus reference
     private Object gameInstance; // Reference to MyGdxGame for cactus respawning
     private Map<String, Boolean> clearedPositions;
@@ -180,6 +183,11 @@ public class Player {
         this.stones = stones;
     }
     
+    public void setWorldObjects(SpatialIndex<WorldObject> worldObjects) {
+        this.worldObjects = worldObjects;
+        updateTargetingValidator();
+    }
+    
     public void setCactus(Cactus cactus) {
         this.cactus = cactus;
     }
@@ -236,6 +244,7 @@ public class Player {
                 coconutTrees != null && bananaTrees != null) {
                 validator.setTreeMaps(plantedTrees, trees, appleTrees, coconutTrees, bananaTrees);
             }
+            validator.setWorldObjects(worldObjects);
             
             targetingSystem.setValidator(validator);
         }
@@ -610,6 +619,15 @@ public class Player {
     }
 
     private boolean wouldCollide(float newX, float newY) {
+        // Only the trees and stones near the new position can collide
+        if (worldObjects != null) {
+            if (worldObjects.anyIntersecting(newX, newY, newX + 64, newY + 64,
+                    object -> object.collidesWith(newX, newY, 64, 64))) {
+                return true;
+            }
+            return cactus != null && cactus.collidesWith(newX, newY, 64, 64);
+        }
+        
         // Check collision with regular trees
         if (trees != null) {
             for (SmallTree tree : trees.values()) {
@@ -1,6 +1,7 @@
 package wagemaker.uk.server;
 
 import wagemaker.uk.network.GameServer;
+import wagemaker.uk.world.WorldSaveManager;
 
 import java.io.IOException;
 
@@ -9,13 +10,17 @@ import java.io.IOException;
  * It can be launched from the command line to host a server without a game client.
  * 
  * Usage: java -jar woodlanders-server.jar [--port PORT]
+ * 
+ * When a world name is configured, the world is loaded from the multiplayer saves at
+ * startup, autosaved while running and saved once more on shutdown.
  */
 public class DedicatedServerLauncher {
     private static final int DEFAULT_PORT = 25565;
+    private static final long SHUTDOWN_SAVE_TIMEOUT_MILLIS = 30000;
     
     /**
      * Main entry point for the dedicated server.
-     * @param args Command-line arguments (--port PORT, --config CONFIG_FILE)
+     * @param args Command-line arguments (--port PORT, --config CONFIG_FILE, --world NAME)
      */
     public static void main(String[] args) {
         System.out.println("===========================================");
@@ -56,6 +61,15 @@ public class DedicatedServerLauncher {
             worldSeed = config.getWorldSeed();
         }
         
+        // Override world name from command line if specified
+        String worldName = parseWorldName(args);
+        if (worldName != null) {
+            System.out.println("World name overridden by command line: " +
+                             (worldName.isEmpty() ? "(none, saving disabled)" : worldName));
+        } else {
+            worldName = config.getWorldName();
+        }
+        
         // Override debug mode from command line if specified
         boolean debug = parseDebug(args) || config.isDebug();
         
@@ -66,11 +80,21 @@ public class DedicatedServerLauncher {
         GameServer server = new GameServer(port, maxClients, worldSeed);
         server.setMaxClients(maxClients);
         
+        // Load the saved world and schedule autosaves before the simulation starts
+        ServerWorldPersistence persistence = null;
+        if (!worldName.isEmpty()) {
+            persistence = new ServerWorldPersistence(server, worldName, config.getAutosaveInterval());
+            if (persistence.loadWorld()) {
+                logger.logInfo("Loaded world '" + worldName + "'");
+            }
+            persistence.start();
+        }
+        
         // Create and start server monitor
         ServerMonitor monitor = new ServerMonitor(server, logger);
         
         // Setup shutdown hook for graceful termination
-        setupShutdownHook(server, logger, monitor);
+        setupShutdownHook(server, logger, monitor, persistence);
         
         try {
             server.start();
@@ -89,14 +113,11 @@ public class DedicatedServerLauncher {
             
             logger.logInfo("Server started successfully");
             
-            // Keep server running
-            while (server.isRunning()) {
-                try {
-                    Thread.sleep(100);
-                } catch (InterruptedException e) {
-                    logger.logInfo("Server interrupted, shutting down...");
-                    break;
-                }
+            // The simulation runs on the server's tick loop; wait for it to stop
+            try {
+                server.awaitShutdown();
+            } catch (InterruptedException e) {
+                logger.logInfo("Server interrupted, shutting down...");
             }
             
         } catch (IOException e) {
@@ -168,8 +189,10 @@ public class DedicatedServerLauncher {
      * @param server The GameServer instance to shutdown
      * @param logger The ServerLogger instance to close
      * @param monitor The ServerMonitor instance to stop
+     * @param persistence The world persistence to flush, or null if the world is not saved
      */
-    private static void setupShutdownHook(GameServer server, ServerLogger logger, ServerMonitor monitor) {
+    private static void setupShutdownHook(GameServer server, ServerLogger logger, ServerMonitor monitor,
+                                          ServerWorldPersistence persistence) {
         Runtime.getRuntime().addShutdownHook(new Thread(() -> {
             System.out.println();
             System.out.println("===========================================");
@@ -188,6 +211,15 @@ public class DedicatedServerLauncher {
                 server.stop();
             }
             
+            // Save the world once the tick loop has stopped changing it
+            if (persistence != null) {
+                if (persistence.flush(SHUTDOWN_SAVE_TIMEOUT_MILLIS)) {
+                    logger.logInfo("World '" + persistence.getSaveName() + "' saved");
+                } else {
+                    logger.logWarning("World '" + persistence.getSaveName() + "' may not have been saved");
+                }
+            }
+            
             logger.logInfo("Server stopped successfully");
             
             // Close logger
@@ -252,6 +284,32 @@ public class DedicatedServerLauncher {
         return -1;
     }
     
+    /**
+     * Parses the world name from command-line arguments.
+     * Supports --world NAME format; an empty name disables saving.
+     * @param args Command-line arguments
+     * @return The world name, "" to disable saving, or null if not specified or invalid
+     */
+    private static String parseWorldName(String[] args) {
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("--world")) {
+                if (i + 1 < args.length) {
+                    String worldName = args[i + 1].trim();
+                    if (worldName.isEmpty()) {
+                        return worldName;
+                    }
+                    if (!WorldSaveManager.isValidSaveName(worldName)) {
+                        System.err.println("Invalid world name: " + args[i + 1]);
+                        System.err.println("Using config value.");
+                        return null;
+                    }
+                    return worldName;
+                }
+            }
+        }
+        return null;
+    }
+    
     /**
      * Parses the debug flag from command-line arguments.
      * Supports --debug format.
@@ -277,6 +335,8 @@ public class DedicatedServerLauncher {
         System.out.println("  --port, -p PORT       Specify the server port (default: 25565)");
         System.out.println("  --max-clients NUMBER  Specify maximum concurrent clients (default: 20)");
         System.out.println("  --seed NUMBER         Specify world seed (default: 0 for random)");
+        System.out.println("  --world NAME          Specify the saved world to load and autosave (default: server-world,");
+        System.out.println("                        \"\" to disable saving); a saved world keeps its own seed");
         System.out.println("  --debug               Enable debug logging");
         System.out.println("  --config, -c FILE     Specify the configuration file (default: server.properties)");
         System.out.println("  --help, -h            Display this help message");
@@ -286,6 +346,8 @@ public class DedicatedServerLauncher {
         System.out.println("  java -jar woodlanders-server.jar --port 30000");
         System.out.println("  java -jar woodlanders-server.jar --port 25565 --max-clients 50");
         System.out.println("  java -jar woodlanders-server.jar --seed 123456789 --debug");
+        System.out.println("  java -jar woodlanders-server.jar --world island --seed 123456789  (seed used if 'island' is new)");
+        System.out.println("  java -jar woodlanders-server.jar --world \"\"");
         System.out.println("  java -jar woodlanders-server.jar --config custom.properties");
     }
 }
@@ -3,6 +3,8 @@ package wagemaker.uk.server;
 import java.io.*;
 import java.util.Properties;
 
+import wagemaker.uk.world.WorldSaveManager;
+
 /**
  * ServerConfig manages server configuration loaded from a properties file.
  * It provides default values and validates configuration parameters.
@@ -10,6 +12,16 @@ import java.util.Properties;
 public class ServerConfig {
     private static final String DEFAULT_CONFIG_FILE = "server.properties";
     
+    /**
+     * What to do when a client's outbound queue is full.
+     */
+    public enum OverflowPolicy {
+        /** Disconnect the client; it reconnects and receives a fresh world state. */
+        DISCONNECT,
+        /** Drop new messages until the client catches up. */
+        DROP
+    }
+    
     // Default values
     private static final int DEFAULT_PORT = 25565;
     private static final int DEFAULT_MAX_CLIENTS = 20;
@@ -18,6 +30,13 @@ public class ServerConfig {
     private static final int DEFAULT_CLIENT_TIMEOUT = 15;
     private static final int DEFAULT_RATE_LIMIT = 100;
     private static final boolean DEFAULT_DEBUG = false;
+    private static final boolean DEFAULT_VIRTUAL_THREADS = false;
+    private static final int DEFAULT_OUTBOUND_QUEUE_LIMIT = 2048;
+    private static final boolean DEFAULT_OUTBOUND_COALESCE = true;
+    private static final OverflowPolicy DEFAULT_OUTBOUND_OVERFLOW = OverflowPolicy.DISCONNECT;
+    private static final int DEFAULT_TICK_RATE = 20;
+    private static final String DEFAULT_WORLD_NAME = "server-world";
+    private static final int DEFAULT_AUTOSAVE_INTERVAL = 300;
     
     // Planting range configuration
     private static final int DEFAULT_PLANTING_RANGE = 512;
@@ -32,6 +51,13 @@ public class ServerConfig {
     private int clientTimeout;
     private int rateLimit;
     private boolean debug;
+    private boolean virtualThreads;
+    private int outboundQueueLimit;
+    private boolean outboundCoalesce;
+    private OverflowPolicy outboundOverflow;
+    private int tickRate;
+    private String worldName;
+    private int autosaveInterval;
     private int plantingMaxRange;
     
     /**
@@ -45,6 +71,13 @@ public class ServerConfig {
         this.clientTimeout = DEFAULT_CLIENT_TIMEOUT;
         this.rateLimit = DEFAULT_RATE_LIMIT;
         this.debug = DEFAULT_DEBUG;
+        this.virtualThreads = DEFAULT_VIRTUAL_THREADS;
+        this.outboundQueueLimit = DEFAULT_OUTBOUND_QUEUE_LIMIT;
+        this.outboundCoalesce = DEFAULT_OUTBOUND_COALESCE;
+        this.outboundOverflow = DEFAULT_OUTBOUND_OVERFLOW;
+        this.tickRate = DEFAULT_TICK_RATE;
+        this.worldName = DEFAULT_WORLD_NAME;
+        this.autosaveInterval = DEFAULT_AUTOSAVE_INTERVAL;
         this.plantingMaxRange = DEFAULT_PLANTING_RANGE;
     }
     
@@ -86,6 +119,13 @@ public class ServerConfig {
             config.clientTimeout = parseIntProperty(props, "server.client-timeout", DEFAULT_CLIENT_TIMEOUT, 5, 300);
             config.rateLimit = parseIntProperty(props, "server.rate-limit", DEFAULT_RATE_LIMIT, 10, 10000);
             config.debug = parseBooleanProperty(props, "server.debug", DEFAULT_DEBUG);
+            config.virtualThreads = parseBooleanProperty(props, "server.virtual-threads", DEFAULT_VIRTUAL_THREADS);
+            config.outboundQueueLimit = parseIntProperty(props, "server.outbound-queue-limit", DEFAULT_OUTBOUND_QUEUE_LIMIT, 64, 65536);
+            config.outboundCoalesce = parseBooleanProperty(props, "server.outbound-coalesce", DEFAULT_OUTBOUND_COALESCE);
+            config.outboundOverflow = parseOverflowPolicy(props, "server.outbound-overflow", DEFAULT_OUTBOUND_OVERFLOW);
+            config.tickRate = parseIntProperty(props, "server.tick-rate", DEFAULT_TICK_RATE, 1, 120);
+            config.worldName = parseWorldNameProperty(props, "world.name", DEFAULT_WORLD_NAME);
+            config.autosaveInterval = parseIntProperty(props, "world.autosave-interval", DEFAULT_AUTOSAVE_INTERVAL, 0, 86400);
             config.plantingMaxRange = parseIntProperty(props, "planting.max.range", DEFAULT_PLANTING_RANGE, MIN_PLANTING_RANGE, MAX_PLANTING_RANGE);
             
             System.out.println("Configuration loaded from: " + configFile);
@@ -140,6 +180,40 @@ public class ServerConfig {
             writer.write("# Default: false\n");
             writer.write("server.debug=" + DEFAULT_DEBUG + "\n");
             writer.write("\n");
+            writer.write("# Run each client session on a virtual thread (true/false)\n");
+            writer.write("# false uses a few non-blocking I/O threads shared by all clients\n");
+            writer.write("# Default: false\n");
+            writer.write("server.virtual-threads=" + DEFAULT_VIRTUAL_THREADS + "\n");
+            writer.write("\n");
+            writer.write("# Maximum messages waiting to be sent to one client (64-65536)\n");
+            writer.write("# Default: 2048\n");
+            writer.write("server.outbound-queue-limit=" + DEFAULT_OUTBOUND_QUEUE_LIMIT + "\n");
+            writer.write("\n");
+            writer.write("# Replace queued position/health updates with newer ones for slow clients (true/false)\n");
+            writer.write("# Default: true\n");
+            writer.write("server.outbound-coalesce=" + DEFAULT_OUTBOUND_COALESCE + "\n");
+            writer.write("\n");
+            writer.write("# What to do when a client's outbound queue is full (disconnect/drop)\n");
+            writer.write("# disconnect: the client reconnects and receives a fresh world state\n");
+            writer.write("# drop: new messages are discarded until the client catches up\n");
+            writer.write("# Default: disconnect\n");
+            writer.write("server.outbound-overflow=" + DEFAULT_OUTBOUND_OVERFLOW.name().toLowerCase() + "\n");
+            writer.write("\n");
+            writer.write("# World simulation ticks per second (1-120)\n");
+            writer.write("# Client commands are applied and updates are sent once per tick\n");
+            writer.write("# Default: 20\n");
+            writer.write("server.tick-rate=" + DEFAULT_TICK_RATE + "\n");
+            writer.write("\n");
+            writer.write("# Name of the saved world to load at startup and save to\n");
+            writer.write("# Stored with the multiplayer world saves; leave empty to never save the world\n");
+            writer.write("# Default: " + DEFAULT_WORLD_NAME + "\n");
+            writer.write("world.name=" + DEFAULT_WORLD_NAME + "\n");
+            writer.write("\n");
+            writer.write("# Seconds between automatic world saves (0-86400)\n");
+            writer.write("# The world is also saved when the server shuts down; 0 saves only then\n");
+            writer.write("# Default: " + DEFAULT_AUTOSAVE_INTERVAL + "\n");
+            writer.write("world.autosave-interval=" + DEFAULT_AUTOSAVE_INTERVAL + "\n");
+            writer.write("\n");
             writer.write("# Planting Range Configuration (in pixels)\n");
             writer.write("# Maximum distance a player can plant from their position\n");
             writer.write("# Default: 512 (8 tiles at 64px per tile)\n");
@@ -221,6 +295,50 @@ public class ServerConfig {
         return Boolean.parseBoolean(value.trim());
     }
     
+    /**
+     * Parses a world save name property. An empty value disables world saving.
+     * @param props The properties object
+     * @param key The property key
+     * @param defaultValue The default value if not found or invalid
+     * @return The save name, or an empty string if saving is disabled
+     */
+    private static String parseWorldNameProperty(Properties props, String key, String defaultValue) {
+        String value = props.getProperty(key);
+        if (value == null) {
+            return defaultValue;
+        }
+        
+        String name = value.trim();
+        if (name.isEmpty() || WorldSaveManager.isValidSaveName(name)) {
+            return name;
+        }
+        System.err.println("Invalid save name for " + key + ": " + value);
+        System.err.println("Using default value: " + defaultValue);
+        return defaultValue;
+    }
+    
+    /**
+     * Parses an outbound overflow policy property.
+     * @param props The properties object
+     * @param key The property key
+     * @param defaultValue The default value if not found or invalid
+     * @return The parsed policy
+     */
+    private static OverflowPolicy parseOverflowPolicy(Properties props, String key, OverflowPolicy defaultValue) {
+        String value = props.getProperty(key);
+        if (value == null) {
+            return defaultValue;
+        }
+        
+        try {
+            return OverflowPolicy.valueOf(value.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            System.err.println("Invalid value for " + key + ": " + value);
+            System.err.println("Using default value: " + defaultValue.name().toLowerCase());
+            return defaultValue;
+        }
+    }
+    
     // Getters
     
     public int getPort() {
@@ -251,6 +369,34 @@ public class ServerConfig {
         return debug;
     }
     
+    public boolean isVirtualThreads() {
+        return virtualThreads;
+    }
+    
+    public int getOutboundQueueLimit() {
+        return outboundQueueLimit;
+    }
+    
+    public boolean isOutboundCoalesce() {
+        return outboundCoalesce;
+    }
+    
+    public OverflowPolicy getOutboundOverflow() {
+        return outboundOverflow;
+    }
+    
+    public int getTickRate() {
+        return tickRate;
+    }
+    
+    public String getWorldName() {
+        return worldName;
+    }
+    
+    public int getAutosaveInterval() {
+        return autosaveInterval;
+    }
+    
     public int getPlantingMaxRange() {
         return plantingMaxRange;
     }
@@ -276,6 +422,12 @@ public class ServerConfig {
         System.out.println("  Client Timeout: " + clientTimeout + "s");
         System.out.println("  Rate Limit: " + rateLimit + " msg/s");
         System.out.println("  Debug Mode: " + debug);
+        System.out.println("  Virtual Threads: " + virtualThreads);
+        System.out.println("  Outbound Queue: " + outboundQueueLimit + " messages (coalesce: " + outboundCoalesce +
+                           ", overflow: " + outboundOverflow.name().toLowerCase() + ")");
+        System.out.println("  Tick Rate: " + tickRate + " Hz");
+        System.out.println("  World Save: " + (worldName.isEmpty() ? "Disabled" : worldName + 
+                           " (autosave: " + (autosaveInterval == 0 ? "on shutdown only" : "every " + autosaveInterval + "s") + ")"));
         System.out.println("  Planting Max Range: " + plantingMaxRange + " pixels (" + (plantingMaxRange / 64) + " tiles)");
     }
 }
@@ -0,0 +1,213 @@
+package wagemaker.uk.server;
+
+import wagemaker.uk.network.GameServer;
+import wagemaker.uk.network.WorldState;
+import wagemaker.uk.respawn.RespawnEntry;
+import wagemaker.uk.respawn.RespawnManager;
+import wagemaker.uk.world.AsyncWorldSaver;
+import wagemaker.uk.world.WorldSaveData;
+import wagemaker.uk.world.WorldSaveManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * ServerWorldPersistence keeps a dedicated server's world on disk.
+ *
+ * At startup the named world is loaded from the multiplayer saves into the server's
+ * authoritative WorldState, so destroyed trees, planted bamboo and dropped items survive
+ * a restart. While running, a tick system takes a snapshot every autosave interval: a
+ * deep copy made on the tick thread, so it is consistent with the simulation. The copy
+ * is written by an {@link AsyncWorldSaver}, so encoding and disk I/O never delay a tick,
+ * and repeat saves only append the changes to the save's journal. {@link #flush} writes
+ * a final save once the tick loop has stopped and waits for it to reach the disk.
+ *
+ * Pending respawn timers are saved from the server's RespawnManager when one is attached;
+ * otherwise the timers loaded at startup are carried over unchanged.
+ *
+ * Every save logs the time taken on the tick thread against the tick budget and the time
+ * the background write took.
+ */
+public class ServerWorldPersistence {
+    private final GameServer server;
+    private final String saveName;
+    private final int autosaveIntervalSeconds;
+    private final AsyncWorldSaver saver;
+
+    // Only touched on the tick thread
+    private float secondsSinceSave;
+
+    // Respawn timers from the save, kept when no respawn manager takes them over
+    private List<RespawnEntry> loadedRespawns;
+
+    /**
+     * Creates persistence for a server's world.
+     * @param server The server whose world is saved
+     * @param saveName The multiplayer save to load and write
+     * @param autosaveIntervalSeconds Seconds between autosaves, or 0 to save only on shutdown
+     */
+    public ServerWorldPersistence(GameServer server, String saveName, int autosaveIntervalSeconds) {
+        if (!WorldSaveManager.isValidSaveName(saveName)) {
+            throw new IllegalArgumentException("Invalid save name: " + saveName);
+        }
+        this.server = server;
+        this.saveName = saveName;
+        this.autosaveIntervalSeconds = autosaveIntervalSeconds;
+        // Callbacks only log, so they run directly on the saver thread
+        this.saver = new AsyncWorldSaver(Runnable::run);
+    }
+
+    /**
+     * Loads the saved world into the server, if it exists.
+     * The saved seed replaces the configured one, with a warning if they differ.
+     * Call before the server starts.
+     * @return true if a saved world was loaded, false if the server starts with a new world
+     */
+    public boolean loadWorld() {
+        if (!WorldSaveManager.saveExists(saveName, true)) {
+            System.out.println("[WorldPersistence] No saved world '" + saveName + "', starting a new world");
+            return false;
+        }
+
+        long start = System.nanoTime();
+        long configuredSeed = server.getWorldState().getWorldSeed();
+        WorldSaveData saveData = WorldSaveManager.loadWorld(saveName, true);
+        if (saveData == null || !server.getWorldState().restoreFromSaveData(saveData)) {
+            System.err.println("[WorldPersistence] Failed to load world '" + saveName + "', starting a new world");
+            return false;
+        }
+
+        if (saveData.getWorldSeed() != configuredSeed) {
+            System.err.println("[WorldPersistence] WARNING: Configured seed " + configuredSeed +
+                             " ignored, world '" + saveName + "' keeps its saved seed " + saveData.getWorldSeed());
+        }
+
+        List<RespawnEntry> respawns = saveData.getPendingRespawns();
+        RespawnManager respawnManager = server.getRespawnManager();
+        if (respawnManager != null && respawns != null) {
+            respawnManager.loadFromSaveData(respawns);
+        } else {
+            loadedRespawns = respawns;
+        }
+
+        System.out.println("[WorldPersistence] Loaded world '" + saveName + "' (seed " + saveData.getWorldSeed() +
+                         ", " + (respawns != null ? respawns.size() : 0) + " respawn timers) in " +
+                         formatMillis(System.nanoTime() - start));
+        return true;
+    }
+
+    /**
+     * Schedules autosaves on the server's tick loop. Call before the server starts.
+     */
+    public void start() {
+        if (autosaveIntervalSeconds <= 0) {
+            System.out.println("[WorldPersistence] Autosave disabled, world '" + saveName + "' is saved on shutdown");
+            return;
+        }
+        server.getTickLoop().addSystem(this::update);
+        System.out.println("[WorldPersistence] Autosaving world '" + saveName + "' every " +
+                         autosaveIntervalSeconds + " seconds");
+    }
+
+    /**
+     * Tick system: saves once the autosave interval has passed.
+     * @param deltaTime Seconds since the previous tick
+     */
+    private void update(float deltaTime) {
+        secondsSinceSave += deltaTime;
+        if (secondsSinceSave < autosaveIntervalSeconds) {
+            return;
+        }
+        secondsSinceSave = 0;
+
+        if (saver.isSaving()) {
+            System.err.println("[WorldPersistence] Previous save of '" + saveName + "' still being written, skipping autosave");
+            return;
+        }
+        save("Autosave");
+    }
+
+    /**
+     * Snapshots the world and queues it to be written.
+     * Must run on the tick thread, or after the tick loop has stopped.
+     * @param reason Describes the save in the log
+     * @return true if the save was queued
+     */
+    private boolean save(String reason) {
+        long start = System.nanoTime();
+        WorldSaveData saveData = createSnapshot();
+        long snapshotNanos = System.nanoTime() - start;
+
+        if (saveData == null) {
+            System.err.println("[WorldPersistence] " + reason + " of '" + saveName + "' failed: invalid world state");
+            return false;
+        }
+
+        int entities = count(saveData.getTrees()) + count(saveData.getStones()) + count(saveData.getItems()) +
+                       count(saveData.getPlantedTrees()) + count(saveData.getPlantedBamboos());
+        float tickBudgetMillis = 1000f / server.getTickLoop().getTickRate();
+        System.out.println("[WorldPersistence] " + reason + ": snapshot of " + entities + " entities took " +
+                         formatMillis(snapshotNanos) + " of the " + String.format("%.1f", tickBudgetMillis) +
+                         " ms tick budget");
+
+        long submitted = System.nanoTime();
+        return saver.submit(saveData, true, (name, success) -> {
+            if (success) {
+                System.out.println("[WorldPersistence] " + reason + " of '" + name + "' written in " +
+                                 formatMillis(System.nanoTime() - submitted) + " off the tick thread");
+            } else {
+                System.err.println("[WorldPersistence] " + reason + " of '" + name + "' failed");
+            }
+        });
+    }
+
+    /**
+     * Copies the server's world and respawn timers into save data.
+     * @return The snapshot, or null if it failed validation
+     */
+    private WorldSaveData createSnapshot() {
+        WorldState worldState = server.getWorldState();
+        WorldSaveData saveData = worldState.createSaveSnapshot(0, 0, 100, saveName, "multiplayer");
+
+        RespawnManager respawnManager = server.getRespawnManager();
+        if (respawnManager != null) {
+            saveData.setPendingRespawns(respawnManager.getSaveData());
+        } else if (loadedRespawns != null) {
+            saveData.setPendingRespawns(new ArrayList<>(loadedRespawns));
+        }
+
+        return saveData.isValid() ? saveData : null;
+    }
+
+    /**
+     * Writes a final save and waits for every queued save to reach the disk.
+     * Call once the server has stopped, e.g. from the shutdown hook.
+     * @param timeoutMillis The longest to wait for the writes
+     * @return true if the world was saved in time
+     */
+    public boolean flush(long timeoutMillis) {
+        boolean queued = save("Shutdown save");
+        boolean finished = saver.shutdown(timeoutMillis);
+        if (!finished) {
+            System.err.println("[WorldPersistence] Timed out waiting for world '" + saveName + "' to be written");
+        }
+        return queued && finished;
+    }
+
+    /**
+     * Gets the name of the save this server uses.
+     * @return The save name
+     */
+    public String getSaveName() {
+        return saveName;
+    }
+
+    private static int count(Map<?, ?> map) {
+        return map != null ? map.size() : 0;
+    }
+
+    private static String formatMillis(long nanos) {
+        return String.format("%.1f ms", nanos / 1_000_000.0);
+    }
+}
@@ -1,8 +1,9 @@
 package wagemaker.uk.targeting;
 
-import wagemaker.uk.biome.BiomeManager;
+import wagemaker.uk.biome.BiomeSampler;
 import wagemaker.uk.biome.BiomeType;
 import wagemaker.uk.inventory.InventoryManager;
+import wagemaker.uk.objects.Stone;
 import wagemaker.uk.planting.PlantedBamboo;
 import wagemaker.uk.planting.PlantedTree;
 import wagemaker.uk.trees.BambooTree;
@@ -10,6 +11,8 @@ import wagemaker.uk.trees.SmallTree;
 import wagemaker.uk.trees.AppleTree;
 import wagemaker.uk.trees.CoconutTree;
 import wagemaker.uk.trees.BananaTree;
+import wagemaker.uk.world.SpatialIndex;
+import wagemaker.uk.world.WorldObject;
 import java.util.Map;
 
 /**
@@ -24,7 +27,7 @@ import java.util.Map;
 public class PlantingTargetValidator implements TargetValidator {
     
     private final InventoryManager inventoryManager;
-    private final BiomeManager biomeManager;
+    private final BiomeSampler biomeSampler;
     private final Map<String, PlantedBamboo> plantedBamboos;
     private final Map<String, BambooTree> bambooTrees;
     private Map<String, PlantedTree> plantedTrees;
@@ -32,21 +35,22 @@ public class PlantingTargetValidator implements TargetValidator {
     private Map<String, AppleTree> appleTrees;
     private Map<String, CoconutTree> coconutTrees;
     private Map<String, BananaTree> bananaTrees;
+    private SpatialIndex<WorldObject> worldObjects;
     
     /**
      * Creates a new PlantingTargetValidator.
      * 
      * @param inventoryManager The inventory manager for checking item availability
-     * @param biomeManager The biome manager for checking tile type
+     * @param biomeSampler The biome sampler for checking tile type
      * @param plantedBamboos Map of existing planted bamboos
      * @param bambooTrees Map of existing bamboo trees
      */
     public PlantingTargetValidator(InventoryManager inventoryManager,
-                                   BiomeManager biomeManager,
+                                   BiomeSampler biomeSampler,
                                    Map<String, PlantedBamboo> plantedBamboos,
                                    Map<String, BambooTree> bambooTrees) {
         this.inventoryManager = inventoryManager;
-        this.biomeManager = biomeManager;
+        this.biomeSampler = biomeSampler;
         this.plantedBamboos = plantedBamboos;
         this.bambooTrees = bambooTrees;
     }
@@ -70,6 +74,16 @@ public class PlantingTargetValidator implements TargetValidator {
         this.bananaTrees = bananaTrees;
     }
     
+    /**
+     * Sets the spatial index of world objects used for tree proximity checks.
+     * When set, only trees near the target are examined instead of every tree map.
+     * 
+     * @param worldObjects The shared index of trees and stones, or null to scan the maps
+     */
+    public void setWorldObjects(SpatialIndex<WorldObject> worldObjects) {
+        this.worldObjects = worldObjects;
+    }
+    
     @Override
     public boolean isValidTarget(float targetX, float targetY) {
         // Validation 1: Check inventory availability
@@ -125,11 +139,11 @@ public class PlantingTargetValidator implements TargetValidator {
      * @return true if tile biome matches item requirements, false otherwise
      */
     private boolean isValidBiome(float targetX, float targetY) {
-        if (biomeManager == null || inventoryManager == null) {
+        if (biomeSampler == null || inventoryManager == null) {
             return false;
         }
         
-        BiomeType biomeType = biomeManager.getBiomeAtPosition(targetX, targetY);
+        BiomeType biomeType = biomeSampler.getBiomeAtPosition(targetX, targetY);
         int selectedSlot = inventoryManager.getSelectedSlot();
         
         // Baby bamboo requires sand biome (slot 2)
@@ -191,6 +205,15 @@ public class PlantingTargetValidator implements TargetValidator {
     private boolean isTreeNearLocation(float tileX, float tileY) {
         final float PROXIMITY_THRESHOLD = 32.0f; // Half a tile size
         
+        if (worldObjects != null) {
+            return worldObjects.anyIntersecting(
+                tileX - PROXIMITY_THRESHOLD, tileY - PROXIMITY_THRESHOLD,
+                tileX + PROXIMITY_THRESHOLD, tileY + PROXIMITY_THRESHOLD,
+                object -> !(object instanceof Stone) &&
+                          Math.abs(object.getX() - tileX) < PROXIMITY_THRESHOLD &&
+                          Math.abs(object.getY() - tileY) < PROXIMITY_THRESHOLD);
+        }
+        
         // Check small trees
         if (smallTrees != null) {
             for (SmallTree tree : smallTrees.values()) {
@@ -1312,20 +1312,32 @@ public class GameMenu implements LanguageChangeListener, FontChangeListener {
                 }
             }
             
-            boolean success = WorldSaveManager.saveWorld(
+            // Snapshot now, write the file in the background
+            WorldSaveData saveData = WorldSaveManager.createSaveData(
                 saveName, 
                 currentWorldState,
                 saveX, 
                 saveY, 
                 saveHealth,
                 currentInventory,
-                isMultiplayer
+                isMultiplayer,
+                null,
+                true // freshly extracted, nothing else holds it
             );
             
-            if (success) {
-                // World saved successfully - no confirmation dialog needed, just continue
-                System.out.println("World '" + saveName + "' saved successfully");
-            } else {
+            boolean queued = saveData != null && gameInstance.saveWorldInBackground(
+                saveData, isMultiplayer, (name, success) -> {
+                    if (success) {
+                        // World saved successfully - no confirmation dialog needed, just continue
+                        System.out.println("World '" + name + "' saved successfully");
+                    } else {
+                        showError(loc.getText("messages.save_failed"), 
+                                 loc.getText("error_dialog.save_error"));
+                        System.err.println("World save failed for: " + name);
+                    }
+                });
+            
+            if (!queued) {
                 showError(loc.getText("messages.save_failed"), 
                          loc.getText("error_dialog.save_error"));
                 System.err.println("World save failed for: " + saveName);
@@ -6,7 +6,10 @@ import com.badlogic.gdx.graphics.Pixmap;
 import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.BitmapFont;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
+import wagemaker.uk.assets.SpriteAtlas;
+import wagemaker.uk.assets.SpriteType;
 import wagemaker.uk.inventory.Inventory;
 
 /**
@@ -14,15 +17,15 @@ import wagemaker.uk.inventory.Inventory;
  * Displays item icons and counts for all collected items.
  */
 public class InventoryRenderer {
-    // Textures for item icons
-    private Texture appleIcon;
-    private Texture bananaIcon;
-    private Texture babyBambooIcon;
-    private Texture bambooStackIcon;
-    private Texture babyTreeIcon;
-    private Texture woodStackIcon;
-    private Texture pebbleIcon;
-    private Texture palmFiberIcon;
+    // Item icons (shared sprite sheet regions, owned by SpriteAtlas)
+    private TextureRegion appleIcon;
+    private TextureRegion bananaIcon;
+    private TextureRegion babyBambooIcon;
+    private TextureRegion bambooStackIcon;
+    private TextureRegion babyTreeIcon;
+    private TextureRegion woodStackIcon;
+    private TextureRegion pebbleIcon;
+    private TextureRegion palmFiberIcon;
     
     // Background and UI elements
     private Texture woodenBackground;
@@ -61,52 +64,18 @@ public class InventoryRenderer {
     }
     
     /**
-     * Load item icon textures from the sprite sheet.
-     * Uses the same extraction method as the item classes.
+     * Load item icons from the shared sprite atlas.
+     * Uses the same sprites as the item classes.
      */
     private void loadItemIcons() {
-        // Load apple icon (0, 128, 64x64)
-        appleIcon = extractIconFromSpriteSheet(0, 128, 64, 64);
-        
-        // Load banana icon (64, 128, 64x64)
-        bananaIcon = extractIconFromSpriteSheet(64, 128, 64, 64);
-        
-        // Load baby bamboo icon (192, 128, 64x64)
-        babyBambooIcon = extractIconFromSpriteSheet(192, 128, 64, 64);
-        
-        // Load bamboo stack icon (128, 128, 64x64)
-        bambooStackIcon = extractIconFromSpriteSheet(128, 128, 64, 64);
-        
-        // Load baby tree icon (384, 128, 64x64)
-        babyTreeIcon = extractIconFromSpriteSheet(384, 128, 64, 64);
-        
-        // Load wood stack icon (256, 128, 64x64)
-        woodStackIcon = extractIconFromSpriteSheet(256, 128, 64, 64);
-        
-        // Load pebble icon (320, 128, 64x64)
-        pebbleIcon = extractIconFromSpriteSheet(320, 128, 64, 64);
-        
-        // Load palm fiber icon (448, 128, 64x64)
-        palmFiberIcon = extractIconFromSpriteSheet(448, 128, 64, 64);
-    }
-    
-    /**
-     * Extract an icon from the sprite sheet at the specified coordinates.
-     */
-    private Texture extractIconFromSpriteSheet(int srcX, int srcY, int width, int height) {
-        Texture spriteSheet = new Texture("sprites/assets.png");
-        Pixmap pixmap = new Pixmap(width, height, Pixmap.Format.RGBA8888);
-        spriteSheet.getTextureData().prepare();
-        Pixmap sheetPixmap = spriteSheet.getTextureData().consumePixmap();
-        
-        pixmap.drawPixmap(sheetPixmap, 0, 0, srcX, srcY, width, height);
-        
-        Texture icon = new Texture(pixmap);
-        pixmap.dispose();
-        sheetPixmap.dispose();
-        spriteSheet.dispose();
-        
-        return icon;
+        appleIcon = SpriteAtlas.get(SpriteType.APPLE);
+        bananaIcon = SpriteAtlas.get(SpriteType.BANANA);
+        babyBambooIcon = SpriteAtlas.get(SpriteType.BABY_BAMBOO);
+        bambooStackIcon = SpriteAtlas.get(SpriteType.BAMBOO_STACK);
+        babyTreeIcon = SpriteAtlas.get(SpriteType.BABY_TREE);
+        woodStackIcon = SpriteAtlas.get(SpriteType.WOOD_STACK);
+        pebbleIcon = SpriteAtlas.get(SpriteType.PEBBLE);
+        palmFiberIcon = SpriteAtlas.get(SpriteType.PALM_FIBER);
     }
     
     /**
@@ -208,7 +177,7 @@ public class InventoryRenderer {
      * @param y The Y position of the slot
      * @param isSelected Whether this slot is currently selected
      */
-    private void renderSlot(SpriteBatch batch, Texture icon, int count, float x, float y, boolean isSelected) {
+    private void renderSlot(SpriteBatch batch, TextureRegion icon, int count, float x, float y, boolean isSelected) {
         // Draw selection highlight if this slot is selected
         if (isSelected) {
             // Get the current projection matrix from the batch before ending it
@@ -258,16 +227,9 @@ public class InventoryRenderer {
     
     /**
      * Dispose of all textures and resources.
+     * Item icons belong to the SpriteAtlas and are not disposed here.
      */
     public void dispose() {
-        if (appleIcon != null) appleIcon.dispose();
-        if (bananaIcon != null) bananaIcon.dispose();
-        if (babyBambooIcon != null) babyBambooIcon.dispose();
-        if (bambooStackIcon != null) bambooStackIcon.dispose();
-        if (babyTreeIcon != null) babyTreeIcon.dispose();
-        if (woodStackIcon != null) woodStackIcon.dispose();
-        if (pebbleIcon != null) pebbleIcon.dispose();
-        if (palmFiberIcon != null) palmFiberIcon.dispose();
         if (woodenBackground != null) woodenBackground.dispose();
         if (slotBorder != null) slotBorder.dispose();
         if (countFont != null) countFont.dispose();
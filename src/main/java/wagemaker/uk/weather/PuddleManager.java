@@ -13,16 +13,15 @@ import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
  * over 5 seconds after rain stops.
  * 
  * <h3>Tree Avoidance:</h3>
- * To prevent puddles from appearing under tree foliage, call
- * {@link #setTreePositions(java.util.List)} before puddles spawn.
+ * To prevent puddles from appearing under tree foliage, register a
+ * {@link PuddleRenderer.TreeLocator} once with {@link #setTreeLocator}.
+ * It is queried only while puddles spawn, so nothing is collected per frame.
  * 
  * <pre>{@code
- * // Example usage in game loop:
- * List<PuddleRenderer.TreePosition> trees = new ArrayList<>();
- * for (SmallTree tree : gameTrees.values()) {
- *     trees.add(new PuddleRenderer.TreePosition(tree.getX(), tree.getY()));
- * }
- * puddleManager.setTreePositions(trees);
+ * // Example setup:
+ * puddleManager.setTreeLocator((x, y, radius) ->
+ *     spatialIndex.anyWithin(x, y, radius, object -> object instanceof SmallTree));
+ * // Game loop:
  * puddleManager.update(deltaTime, isRaining, intensity, camera);
  * }</pre>
  */
@@ -59,14 +58,13 @@ public class PuddleManager {
     }
     
     /**
-     * Sets the tree positions for puddle avoidance.
+     * Sets the tree lookup for puddle avoidance.
      * Puddles will not spawn within MIN_TREE_DISTANCE of any tree.
-     * Should be called before update() to ensure trees are avoided.
      * 
-     * @param trees List of tree positions to avoid
+     * @param treeLocator The tree lookup, or null to ignore trees
      */
-    public void setTreePositions(java.util.List<PuddleRenderer.TreePosition> trees) {
-        puddleRenderer.setTreePositions(trees);
+    public void setTreeLocator(PuddleRenderer.TreeLocator treeLocator) {
+        puddleRenderer.setTreeLocator(treeLocator);
     }
     
     /**
@@ -19,7 +19,7 @@ public class PuddleRenderer {
     private List<WaterPuddle> puddlePool;
     private ShapeRenderer shapeRenderer;
     private Random random;
-    private List<TreePosition> treePositions;
+    private TreeLocator treeLocator;
     
     /**
      * Creates a new PuddleRenderer with the specified ShapeRenderer.
@@ -30,7 +30,6 @@ public class PuddleRenderer {
         this.shapeRenderer = shapeRenderer;
         this.random = new Random();
         this.puddlePool = new ArrayList<>();
-        this.treePositions = new ArrayList<>();
     }
     
     /**
@@ -277,16 +276,13 @@ public class PuddleRenderer {
     }
     
     /**
-     * Updates the list of tree positions for puddle avoidance.
-     * Should be called before spawning puddles to ensure trees are avoided.
+     * Sets the lookup used to keep puddles away from trees.
+     * It is only queried while puddles spawn, for candidate positions inside the viewport.
      * 
-     * @param trees List of tree positions to avoid
+     * @param treeLocator The tree lookup, or null to ignore trees
      */
-    public void setTreePositions(List<TreePosition> trees) {
-        this.treePositions.clear();
-        if (trees != null) {
-            this.treePositions.addAll(trees);
-        }
+    public void setTreeLocator(TreeLocator treeLocator) {
+        this.treeLocator = treeLocator;
     }
     
     /**
@@ -315,21 +311,11 @@ public class PuddleRenderer {
         }
         
         // Check distance from trees (avoid puddles under tree foliage)
-        float minTreeDistanceSquared = PuddleConfig.MIN_TREE_DISTANCE * PuddleConfig.MIN_TREE_DISTANCE;
-        
-        for (TreePosition tree : treePositions) {
-            // Calculate distance from puddle to tree center
-            // Trees are typically 64x128, so center is at x+32, y+64
-            float treeCenterX = tree.x + 32;
-            float treeCenterY = tree.y + 64;
-            
-            float dx = treeCenterX - x;
-            float dy = treeCenterY - y;
-            float distanceSquared = dx * dx + dy * dy;
-            
-            if (distanceSquared < minTreeDistanceSquared) {
-                return false; // Too close to tree
-            }
+        // Trees are typically 64x128, so a tree's center is at x+32, y+64; the
+        // puddle is too close if a tree position lies within range of (x-32, y-64)
+        if (treeLocator != null && 
+            treeLocator.anyTreeWithin(x - 32, y - 64, PuddleConfig.MIN_TREE_DISTANCE)) {
+            return false; // Too close to tree
         }
         
         return true; // Adequate spacing
@@ -368,15 +354,19 @@ public class PuddleRenderer {
     }
     
     /**
-     * Simple class to hold tree position data for puddle avoidance.
+     * Answers whether a tree stands near a position, for puddle avoidance.
+     * Implementations should query an index kept up to date as trees change
+     * rather than collecting tree positions up front.
      */
-    public static class TreePosition {
-        public final float x;
-        public final float y;
-        
-        public TreePosition(float x, float y) {
-            this.x = x;
-            this.y = y;
-        }
+    public interface TreeLocator {
+        /**
+         * Checks whether any tree position lies strictly within a distance of a point.
+         * 
+         * @param x The world x coordinate
+         * @param y The world y coordinate
+         * @param radius The search radius in pixels
+         * @return true if a tree position is closer than the radius
+         */
+        boolean anyTreeWithin(float x, float y, float radius);
     }
 }
@@ -161,14 +161,14 @@ public class RainSystem {
     }
     
     /**
-     * Sets tree positions for puddle avoidance.
+     * Sets the tree lookup for puddle avoidance.
      * Puddles will not spawn within MIN_TREE_DISTANCE (120px) of any tree.
-     * This should be called before update() each frame to ensure puddles avoid trees.
+     * Set it once; it is queried only when puddles spawn.
      * 
-     * @param trees List of tree positions to avoid
+     * @param treeLocator The tree lookup, or null to ignore trees
      */
-    public void setTreePositions(List<PuddleRenderer.TreePosition> trees) {
-        puddleManager.setTreePositions(trees);
+    public void setTreeLocator(PuddleRenderer.TreeLocator treeLocator) {
+        puddleManager.setTreeLocator(treeLocator);
     }
     
     /**
@@ -0,0 +1,125 @@
+package wagemaker.uk.world;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Writes world saves on a background I/O thread.
+ *
+ * The caller builds the save data on the thread that owns the world (data that shares
+ * nothing with it, see {@link WorldSaveManager#createSaveData}) and hands it over; the
+ * submitted data must not be modified afterwards. Encoding, the temporary file or
+ * journal append and the final rename all happen on a single daemon thread, so saving
+ * a large world never stalls a frame.
+ * Saves run one at a time, in the order they were submitted.
+ *
+ * Progress and completion are reported through the callback executor given to the
+ * constructor; the game passes its deferred-operation queue so listeners run on the
+ * render thread.
+ */
+public class AsyncWorldSaver {
+
+    /**
+     * Receives the progress and outcome of a background save.
+     */
+    public interface Listener {
+        /**
+         * Part of the save has been written.
+         * @param saveName The save being written
+         * @param progress Fraction written so far, from 0 to 1
+         */
+        default void onSaveProgress(String saveName, float progress) {
+        }
+
+        /**
+         * The save has finished.
+         * @param saveName The save that was written
+         * @param success true if the save is safely on disk
+         */
+        void onSaveComplete(String saveName, boolean success);
+    }
+
+    private final ExecutorService executor;
+    private final Executor callbackExecutor;
+    private final AtomicInteger pendingSaves;
+
+    /**
+     * Creates a saver.
+     * @param callbackExecutor Runs listener callbacks, e.g. the game's deferred-operation queue
+     */
+    public AsyncWorldSaver(Executor callbackExecutor) {
+        this.callbackExecutor = callbackExecutor;
+        this.pendingSaves = new AtomicInteger();
+        this.executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "WorldSaver");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Queues a save to be written in the background.
+     *
+     * @param saveData The snapshot to write; must not be modified after this call
+     * @param isMultiplayer true if this is a multiplayer save, false for singleplayer
+     * @param listener Receives progress and completion (can be null)
+     * @return true if the save was queued, false if the saver has been shut down
+     */
+    public boolean submit(WorldSaveData saveData, boolean isMultiplayer, Listener listener) {
+        String saveName = saveData.getSaveName();
+        pendingSaves.incrementAndGet();
+        try {
+            executor.execute(() -> {
+                boolean success = false;
+                try {
+                    success = WorldSaveManager.writeSaveData(saveData, isMultiplayer, listener == null ? null :
+                        progress -> callbackExecutor.execute(
+                            () -> listener.onSaveProgress(saveName, (float) progress)));
+                } catch (Exception e) {
+                    System.err.println("Background save of " + saveName + " failed: " + e.getMessage());
+                } finally {
+                    pendingSaves.decrementAndGet();
+                }
+                if (listener != null) {
+                    boolean result = success;
+                    callbackExecutor.execute(() -> listener.onSaveComplete(saveName, result));
+                }
+            });
+            return true;
+        } catch (RejectedExecutionException e) {
+            pendingSaves.decrementAndGet();
+            System.err.println("World saver is shut down, save not queued: " + saveName);
+            return false;
+        }
+    }
+
+    /**
+     * Checks whether any save is queued or being written.
+     * @return true while saves are outstanding
+     */
+    public boolean isSaving() {
+        return pendingSaves.get() > 0;
+    }
+
+    /**
+     * Stops accepting saves and waits for queued saves to reach the disk.
+     * Completion callbacks of saves finished here may never run if the callback
+     * executor has already stopped (e.g. during game shutdown).
+     *
+     * @param timeoutMillis The longest to wait
+     * @return true if every queued save finished in time
+     */
+    public boolean shutdown(long timeoutMillis) {
+        executor.shutdown();
+        try {
+            return executor.awaitTermination(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
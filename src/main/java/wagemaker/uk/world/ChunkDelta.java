@@ -0,0 +1,176 @@
+package wagemaker.uk.world;
+
+import wagemaker.uk.network.StoneState;
+import wagemaker.uk.network.TreeState;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Compact record of an unloaded client chunk.
+ * 
+ * Generated trees and stones are not stored as objects. Each is recorded as a
+ * spawn: the tile it was generated from and the placement attempt that
+ * succeeded, packed into a short, plus its current health. Replaying the world
+ * seed for that tile and attempt gives back the same kind at the same position,
+ * whatever neighbours happen to be loaded at the time. Objects that did not
+ * come from generation, such as trees grown from saplings or entries restored
+ * from a save, are kept as {@link TreeState}s and {@link StoneState}s.
+ * 
+ * Destroyed objects are not recorded; their tiles stay in the cleared positions.
+ */
+public class ChunkDelta {
+    
+    private static final int INITIAL_CAPACITY = 4;
+    
+    private short[] treeSpawns;
+    private float[] treeHealth;
+    private int treeCount;
+    private short[] stoneSpawns;
+    private float[] stoneHealth;
+    private int stoneCount;
+    private Map<String, TreeState> extraTrees;
+    private Map<String, StoneState> extraStones;
+    
+    /**
+     * Creates an empty record.
+     */
+    public ChunkDelta() {
+        this.treeSpawns = new short[INITIAL_CAPACITY];
+        this.treeHealth = new float[INITIAL_CAPACITY];
+        this.stoneSpawns = new short[INITIAL_CAPACITY];
+        this.stoneHealth = new float[INITIAL_CAPACITY];
+    }
+    
+    /**
+     * Packs a spawn.
+     * @param localX The tile column within the chunk (0 to CHUNK_TILES - 1)
+     * @param localY The tile row within the chunk (0 to CHUNK_TILES - 1)
+     * @param attempt The placement attempt that succeeded (0 to 127)
+     * @return The packed spawn
+     */
+    public static short packSpawn(int localX, int localY, int attempt) {
+        return (short) ((attempt << 8) | (localY << 4) | localX);
+    }
+    
+    /**
+     * Gets the tile column of a packed spawn.
+     * @param spawn The packed spawn
+     * @return The tile column within the chunk
+     */
+    public static int spawnLocalX(short spawn) {
+        return spawn & 0xF;
+    }
+    
+    /**
+     * Gets the tile row of a packed spawn.
+     * @param spawn The packed spawn
+     * @return The tile row within the chunk
+     */
+    public static int spawnLocalY(short spawn) {
+        return (spawn >> 4) & 0xF;
+    }
+    
+    /**
+     * Gets the placement attempt of a packed spawn.
+     * @param spawn The packed spawn
+     * @return The attempt that succeeded
+     */
+    public static int spawnAttempt(short spawn) {
+        return (spawn >> 8) & 0x7F;
+    }
+    
+    /**
+     * Records a generated tree.
+     * @param spawn The packed spawn
+     * @param health The tree's current health
+     */
+    public void addTreeSpawn(short spawn, float health) {
+        if (treeCount == treeSpawns.length) {
+            treeSpawns = Arrays.copyOf(treeSpawns, treeCount * 2);
+            treeHealth = Arrays.copyOf(treeHealth, treeCount * 2);
+        }
+        treeSpawns[treeCount] = spawn;
+        treeHealth[treeCount] = health;
+        treeCount++;
+    }
+    
+    /**
+     * Records a generated stone.
+     * @param spawn The packed spawn
+     * @param health The stone's current health
+     */
+    public void addStoneSpawn(short spawn, float health) {
+        if (stoneCount == stoneSpawns.length) {
+            stoneSpawns = Arrays.copyOf(stoneSpawns, stoneCount * 2);
+            stoneHealth = Arrays.copyOf(stoneHealth, stoneCount * 2);
+        }
+        stoneSpawns[stoneCount] = spawn;
+        stoneHealth[stoneCount] = health;
+        stoneCount++;
+    }
+    
+    /**
+     * Records a tree that cannot be replayed from the seed.
+     * @param tree The tree's state
+     */
+    public void addExtraTree(TreeState tree) {
+        if (extraTrees == null) {
+            extraTrees = new HashMap<>();
+        }
+        extraTrees.put(tree.getTreeId(), tree);
+    }
+    
+    /**
+     * Records a stone that cannot be replayed from the seed.
+     * @param stone The stone's state
+     */
+    public void addExtraStone(StoneState stone) {
+        if (extraStones == null) {
+            extraStones = new HashMap<>();
+        }
+        extraStones.put(stone.getStoneId(), stone);
+    }
+    
+    public int getTreeSpawnCount() {
+        return treeCount;
+    }
+    
+    public short getTreeSpawn(int index) {
+        return treeSpawns[index];
+    }
+    
+    public float getTreeHealth(int index) {
+        return treeHealth[index];
+    }
+    
+    public int getStoneSpawnCount() {
+        return stoneCount;
+    }
+    
+    public short getStoneSpawn(int index) {
+        return stoneSpawns[index];
+    }
+    
+    public float getStoneHealth(int index) {
+        return stoneHealth[index];
+    }
+    
+    public Map<String, TreeState> getExtraTrees() {
+        return extraTrees != null ? extraTrees : Collections.emptyMap();
+    }
+    
+    public Map<String, StoneState> getExtraStones() {
+        return extraStones != null ? extraStones : Collections.emptyMap();
+    }
+    
+    /**
+     * Checks whether the chunk held nothing when it was unloaded.
+     * @return true if no objects are recorded
+     */
+    public boolean isEmpty() {
+        return treeCount == 0 && stoneCount == 0 && extraTrees == null && extraStones == null;
+    }
+}
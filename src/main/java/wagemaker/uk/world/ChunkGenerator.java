@@ -0,0 +1,80 @@
+package wagemaker.uk.world;
+
+import wagemaker.uk.biome.BiomeSampler;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Builds {@link ChunkLayout}s on background threads.
+ * 
+ * Generation only touches the seed, the chunk coordinates and the biome sampler, so
+ * it never competes with rendering. Finished layouts are handed to a callback on the
+ * worker thread; the game client forwards them to its render thread queue and
+ * installs them there.
+ */
+public class ChunkGenerator {
+    
+    /** Worker threads used by default. */
+    public static final int DEFAULT_THREADS = 2;
+    
+    private final BiomeSampler sampler;
+    private final ExecutorService workers;
+    
+    /**
+     * Creates a generator with the default number of worker threads.
+     * @param sampler The thread-safe biome sampler
+     */
+    public ChunkGenerator(BiomeSampler sampler) {
+        this(sampler, DEFAULT_THREADS);
+    }
+    
+    /**
+     * Creates a generator.
+     * @param sampler The thread-safe biome sampler
+     * @param threads Worker thread count
+     */
+    public ChunkGenerator(BiomeSampler sampler, int threads) {
+        this.sampler = sampler;
+        AtomicInteger threadNumber = new AtomicInteger(1);
+        this.workers = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "ChunkGenerator-" + threadNumber.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+    
+    /**
+     * Queues a chunk for generation.
+     * @param seed The world seed
+     * @param chunkX The chunk x index
+     * @param chunkY The chunk y index
+     * @param onReady Receives the finished layout, on a worker thread
+     * @return false if the generator has been shut down
+     */
+    public boolean submit(long seed, int chunkX, int chunkY, Consumer<ChunkLayout> onReady) {
+        try {
+            workers.execute(() -> {
+                try {
+                    onReady.accept(ChunkLayout.generate(seed, chunkX, chunkY, sampler));
+                } catch (Exception e) {
+                    System.err.println("Error generating chunk (" + chunkX + ", " + chunkY + "): " + e.getMessage());
+                    e.printStackTrace();
+                }
+            });
+            return true;
+        } catch (RejectedExecutionException e) {
+            return false;
+        }
+    }
+    
+    /**
+     * Stops the worker threads. Queued chunks are dropped.
+     */
+    public void shutdown() {
+        workers.shutdownNow();
+    }
+}
@@ -0,0 +1,278 @@
+package wagemaker.uk.world;
+
+import wagemaker.uk.biome.BiomeSampler;
+import wagemaker.uk.biome.BiomeType;
+import wagemaker.uk.network.TreeType;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Tree and stone layout of one chunk, derived from the world seed and chunk coordinates alone.
+ * 
+ * <p>Every 64px tile seeds a random with the world seed and its own coordinates, so the
+ * same seed always rolls the same candidates at the same tiles on every machine:</p>
+ * <ul>
+ *   <li>Trees: a 0.5% spawn roll, then up to {@link #MAX_TREE_ATTEMPTS} placements offset
+ *       by up to 32px. The type comes from the biome at the placement: bamboo (30%) on sand,
+ *       small, apple, coconut or banana trees on grass.</li>
+ *   <li>Stones: a 0.1% spawn roll and one placement, kept only on sand.</li>
+ * </ul>
+ * 
+ * <p>The layout holds candidates, not decisions. Rules that depend on what is already in
+ * the world (tree spacing, stones near trees, stones near the player) are applied by
+ * whoever installs the layout, in tile order. Pure data with no textures, so it can be
+ * built on any thread.</p>
+ */
+public class ChunkLayout {
+    
+    /** Placements tried per tree before the tile is given up. */
+    public static final int MAX_TREE_ATTEMPTS = 5;
+    
+    /** Nothing spawns closer than this to the world origin (the spawn point). */
+    public static final float SPAWN_CLEARANCE = 200f;
+    
+    private static final float TREE_SPAWN_RATE = 0.005f;
+    private static final float STONE_SPAWN_RATE = 0.001f;
+    
+    /**
+     * A tile that rolled a tree, with every placement it may use.
+     */
+    public static final class TreeCandidate {
+        private final int tileX;
+        private final int tileY;
+        private final float[] xs = new float[MAX_TREE_ATTEMPTS];
+        private final float[] ys = new float[MAX_TREE_ATTEMPTS];
+        private final TreeType[] types = new TreeType[MAX_TREE_ATTEMPTS];
+        private final float[] minDistances = new float[MAX_TREE_ATTEMPTS];
+        
+        TreeCandidate(int tileX, int tileY) {
+            this.tileX = tileX;
+            this.tileY = tileY;
+        }
+        
+        public int getTileX() {
+            return tileX;
+        }
+        
+        public int getTileY() {
+            return tileY;
+        }
+        
+        public float getX(int attempt) {
+            return xs[attempt];
+        }
+        
+        public float getY(int attempt) {
+            return ys[attempt];
+        }
+        
+        /**
+         * Gets the type a placement produces.
+         * @param attempt The placement attempt
+         * @return The tree type, or null if the placement grows nothing
+         */
+        public TreeType getType(int attempt) {
+            return types[attempt];
+        }
+        
+        /**
+         * Gets how far a placement must be from other trees (192px on grass, 50px on sand).
+         * @param attempt The placement attempt
+         * @return The minimum distance in pixels
+         */
+        public float getMinDistance(int attempt) {
+            return minDistances[attempt];
+        }
+    }
+    
+    /**
+     * A tile that rolled a stone on sand, away from the spawn point.
+     */
+    public static final class StoneCandidate {
+        private final int tileX;
+        private final int tileY;
+        private final float x;
+        private final float y;
+        
+        StoneCandidate(int tileX, int tileY, float x, float y) {
+            this.tileX = tileX;
+            this.tileY = tileY;
+            this.x = x;
+            this.y = y;
+        }
+        
+        public int getTileX() {
+            return tileX;
+        }
+        
+        public int getTileY() {
+            return tileY;
+        }
+        
+        public float getX() {
+            return x;
+        }
+        
+        public float getY() {
+            return y;
+        }
+    }
+    
+    private final long seed;
+    private final int chunkX;
+    private final int chunkY;
+    private final List<TreeCandidate> trees;
+    private final List<StoneCandidate> stones;
+    
+    private ChunkLayout(long seed, int chunkX, int chunkY,
+                        List<TreeCandidate> trees, List<StoneCandidate> stones) {
+        this.seed = seed;
+        this.chunkX = chunkX;
+        this.chunkY = chunkY;
+        this.trees = trees;
+        this.stones = stones;
+    }
+    
+    /**
+     * Rolls every tile of a chunk.
+     * @param seed The world seed
+     * @param chunkX The chunk x index
+     * @param chunkY The chunk y index
+     * @param sampler The biome sampler (must be thread-safe when called off the render thread)
+     * @return The chunk's candidates in tile order (columns, then rows)
+     */
+    public static ChunkLayout generate(long seed, int chunkX, int chunkY, BiomeSampler sampler) {
+        Random random = new Random();
+        float[] position = new float[2];
+        List<TreeCandidate> trees = new ArrayList<>();
+        List<StoneCandidate> stones = new ArrayList<>();
+        
+        int baseX = chunkX * ChunkStreamer.CHUNK_SIZE;
+        int baseY = chunkY * ChunkStreamer.CHUNK_SIZE;
+        for (int x = baseX; x < baseX + ChunkStreamer.CHUNK_SIZE; x += ChunkStreamer.TILE_SIZE) {
+            for (int y = baseY; y < baseY + ChunkStreamer.CHUNK_SIZE; y += ChunkStreamer.TILE_SIZE) {
+                random.setSeed(seed + x * 31L + y * 17L);
+                if (random.nextFloat() < TREE_SPAWN_RATE) {
+                    TreeCandidate candidate = new TreeCandidate(x, y);
+                    for (int attempt = 0; attempt < MAX_TREE_ATTEMPTS; attempt++) {
+                        candidate.types[attempt] = rollTree(random, seed, sampler, x, y, attempt, position);
+                        candidate.xs[attempt] = position[0];
+                        candidate.ys[attempt] = position[1];
+                        BiomeType biome = sampler.getBiomeAtPosition(position[0], position[1]);
+                        candidate.minDistances[attempt] = biome == BiomeType.SAND ? 50f : 192f;
+                    }
+                    trees.add(candidate);
+                }
+                
+                if (rollStone(random, seed, x, y, position) &&
+                    sampler.getBiomeAtPosition(position[0], position[1]) == BiomeType.SAND &&
+                    !isNearSpawn(position[0], position[1])) {
+                    stones.add(new StoneCandidate(x, y, position[0], position[1]));
+                }
+            }
+        }
+        return new ChunkLayout(seed, chunkX, chunkY, trees, stones);
+    }
+    
+    /**
+     * Rolls one tree placement of a tile, ignoring spacing rules.
+     * @param random The random to reseed
+     * @param seed The world seed
+     * @param sampler The biome sampler
+     * @param x The tile x-coordinate
+     * @param y The tile y-coordinate
+     * @param attempt The placement attempt (0 to MAX_TREE_ATTEMPTS - 1)
+     * @param position Receives the placement
+     * @return The tree type, or null if the tile rolls no tree or the placement grows nothing
+     */
+    public static TreeType rollTree(Random random, long seed, BiomeSampler sampler,
+                                    int x, int y, int attempt, float[] position) {
+        random.setSeed(seed + x * 31L + y * 17L);
+        if (random.nextFloat() >= TREE_SPAWN_RATE) {
+            return null;
+        }
+        // Random offset of up to 32px breaks the grid pattern; every attempt draws a new one
+        float treeX = 0, treeY = 0;
+        for (int i = 0; i <= attempt; i++) {
+            float offsetX = (random.nextFloat() - 0.5f) * 64;
+            float offsetY = (random.nextFloat() - 0.5f) * 64;
+            treeX = x + offsetX;
+            treeY = y + offsetY;
+        }
+        position[0] = treeX;
+        position[1] = treeY;
+        return pickTreeType(random, sampler.getBiomeAtPosition(treeX, treeY));
+    }
+    
+    /**
+     * Rolls the stone placement of a tile, ignoring biome and spacing rules.
+     * @param random The random to reseed
+     * @param seed The world seed
+     * @param x The tile x-coordinate
+     * @param y The tile y-coordinate
+     * @param position Receives the placement
+     * @return true if the tile rolls a stone
+     */
+    public static boolean rollStone(Random random, long seed, int x, int y, float[] position) {
+        random.setSeed(seed + x * 37L + y * 23L);
+        if (random.nextFloat() >= STONE_SPAWN_RATE) {
+            return false;
+        }
+        float offsetX = (random.nextFloat() - 0.5f) * 64; // -32 to +32
+        float offsetY = (random.nextFloat() - 0.5f) * 64; // -32 to +32
+        position[0] = x + offsetX;
+        position[1] = y + offsetY;
+        return true;
+    }
+    
+    /**
+     * Checks whether a position is inside the clearing around the spawn point.
+     * @param x The world x-coordinate
+     * @param y The world y-coordinate
+     * @return true if nothing may spawn there
+     */
+    public static boolean isNearSpawn(float x, float y) {
+        return (float) Math.sqrt(x * x + y * y) < SPAWN_CLEARANCE;
+    }
+    
+    private static TreeType pickTreeType(Random random, BiomeType biome) {
+        if (biome == BiomeType.SAND) {
+            // Sand biomes: bamboo trees with 30% spawn rate
+            return random.nextFloat() < 0.3f ? TreeType.BAMBOO : null;
+        }
+        // Grass biomes: small 42.5%, apple 12.5%, coconut 32.5%, banana 12.5%
+        float treeType = random.nextFloat();
+        if (treeType < 0.425f) {
+            return TreeType.SMALL;
+        } else if (treeType < 0.55f) {
+            return TreeType.APPLE;
+        } else if (treeType < 0.875f) {
+            return TreeType.COCONUT;
+        } else {
+            return TreeType.BANANA;
+        }
+    }
+    
+    public long getSeed() {
+        return seed;
+    }
+    
+    public int getChunkX() {
+        return chunkX;
+    }
+    
+    public int getChunkY() {
+        return chunkY;
+    }
+    
+    public List<TreeCandidate> getTrees() {
+        return Collections.unmodifiableList(trees);
+    }
+    
+    public List<StoneCandidate> getStones() {
+        return Collections.unmodifiableList(stones);
+    }
+}
@@ -0,0 +1,211 @@
+package wagemaker.uk.world;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Decides which world chunks the client keeps in memory.
+ * 
+ * The world is split into square chunks of {@link #CHUNK_TILES} x {@link #CHUNK_TILES}
+ * grass tiles. Every chunk overlapping the area around the camera is loaded.
+ * Loaded chunks more than {@link #UNLOAD_MARGIN} chunks outside that area are
+ * unloaded, and the {@link ChunkDelta} the host returns for them is handed back
+ * when they load again. The margin keeps a player walking along a chunk border
+ * from loading and unloading the same chunks over and over. A chunk loaded for
+ * the first time gets a null delta and is generated from the seed.
+ * 
+ * Moving within the same window of chunks costs a few comparisons.
+ * Not thread-safe; the client uses it from the render thread.
+ */
+public class ChunkStreamer {
+    
+    /** Size of a grass tile in pixels. */
+    public static final int TILE_SIZE = 64;
+    
+    /** Tiles along each side of a chunk. */
+    public static final int CHUNK_TILES = 16;
+    
+    /** Size of a chunk in pixels (1024). */
+    public static final int CHUNK_SIZE = TILE_SIZE * CHUNK_TILES;
+    
+    /** Chunks kept beyond the load area in each direction before unloading. */
+    public static final int UNLOAD_MARGIN = 2;
+    
+    /**
+     * Materializes and evicts chunk content.
+     */
+    public interface Host {
+        /**
+         * Creates the content of a chunk.
+         * @param chunkX The chunk x index (world x = chunkX * CHUNK_SIZE)
+         * @param chunkY The chunk y index (world y = chunkY * CHUNK_SIZE)
+         * @param delta The record returned when the chunk was unloaded, or null on the first visit
+         */
+        void loadChunk(int chunkX, int chunkY, ChunkDelta delta);
+        
+        /**
+         * Removes the content of a chunk from memory.
+         * @param chunkX The chunk x index
+         * @param chunkY The chunk y index
+         * @return A record of what the chunk held, used to restore it later, or null if
+         *         the chunk never finished loading and should be generated again next time
+         */
+        ChunkDelta unloadChunk(int chunkX, int chunkY);
+    }
+    
+    /**
+     * Receives the record of each unloaded chunk.
+     */
+    public interface DeltaConsumer {
+        void accept(int chunkX, int chunkY, ChunkDelta delta);
+    }
+    
+    private final int unloadMargin;
+    private final LongHashSet loadedChunks;
+    private final LongObjectHashMap<ChunkDelta> unloadedChunks;
+    
+    // Current load window in chunk indices; empty until the first update
+    private int minX = 1, maxX = 0, minY = 1, maxY = 0;
+    
+    /**
+     * Creates a streamer with the default unload margin.
+     */
+    public ChunkStreamer() {
+        this(UNLOAD_MARGIN);
+    }
+    
+    /**
+     * Creates a streamer.
+     * @param unloadMargin Chunks kept beyond the load area in each direction
+     */
+    public ChunkStreamer(int unloadMargin) {
+        this.unloadMargin = unloadMargin;
+        this.loadedChunks = new LongHashSet();
+        this.unloadedChunks = new LongObjectHashMap<>();
+    }
+    
+    /**
+     * Loads the chunks around a position and unloads chunks far from it.
+     * @param x The world x coordinate (usually the camera)
+     * @param y The world y coordinate
+     * @param reachX Horizontal distance from the position that must be loaded
+     * @param reachY Vertical distance from the position that must be loaded
+     * @param host Creates and removes chunk content
+     * @return true if the load window changed
+     */
+    public boolean update(float x, float y, float reachX, float reachY, Host host) {
+        int newMinX = toChunk(x - reachX);
+        int newMaxX = toChunk(x + reachX);
+        int newMinY = toChunk(y - reachY);
+        int newMaxY = toChunk(y + reachY);
+        if (newMinX == minX && newMaxX == maxX && newMinY == minY && newMaxY == maxY) {
+            return false;
+        }
+        minX = newMinX;
+        maxX = newMaxX;
+        minY = newMinY;
+        maxY = newMaxY;
+        
+        for (int cx = minX; cx <= maxX; cx++) {
+            for (int cy = minY; cy <= maxY; cy++) {
+                long chunk = TileKey.pack(cx, cy);
+                if (loadedChunks.add(chunk)) {
+                    host.loadChunk(cx, cy, unloadedChunks.remove(chunk));
+                }
+            }
+        }
+        
+        List<Long> far = new ArrayList<>();
+        loadedChunks.forEach(chunk -> {
+            int cx = TileKey.unpackX(chunk);
+            int cy = TileKey.unpackY(chunk);
+            if (cx < minX - unloadMargin || cx > maxX + unloadMargin ||
+                cy < minY - unloadMargin || cy > maxY + unloadMargin) {
+                far.add(chunk);
+            }
+        });
+        for (long chunk : far) {
+            loadedChunks.remove(chunk);
+            ChunkDelta delta = host.unloadChunk(TileKey.unpackX(chunk), TileKey.unpackY(chunk));
+            // Empty records are kept too, so a revisit replays instead of generating again
+            if (delta != null) {
+                unloadedChunks.put(chunk, delta);
+            }
+        }
+        return true;
+    }
+    
+    /**
+     * Visits the record of every unloaded chunk, e.g. to include them in a save.
+     * @param consumer Receives each chunk and its record
+     */
+    public void forEachUnloaded(DeltaConsumer consumer) {
+        unloadedChunks.forEach((chunk, delta) ->
+            consumer.accept(TileKey.unpackX(chunk), TileKey.unpackY(chunk), delta));
+    }
+    
+    /**
+     * Checks whether a chunk is loaded.
+     * @param chunkX The chunk x index
+     * @param chunkY The chunk y index
+     * @return true if the chunk's content is in memory
+     */
+    public boolean isLoaded(int chunkX, int chunkY) {
+        return loadedChunks.contains(TileKey.pack(chunkX, chunkY));
+    }
+    
+    /**
+     * Gets the number of loaded chunks.
+     * @return The loaded chunk count
+     */
+    public int getLoadedChunkCount() {
+        return loadedChunks.size();
+    }
+    
+    /**
+     * Gets the number of chunks held as records.
+     * @return The unloaded chunk count
+     */
+    public int getUnloadedChunkCount() {
+        return unloadedChunks.size();
+    }
+    
+    /**
+     * Forgets every loaded and unloaded chunk, e.g. after the world is replaced.
+     * Objects already in memory stay there; they are not part of any chunk until it loads.
+     */
+    public void reset() {
+        loadedChunks.clear();
+        unloadedChunks.clear();
+        minX = 1;
+        maxX = 0;
+        minY = 1;
+        maxY = 0;
+    }
+    
+    /**
+     * Converts a world coordinate to a chunk index.
+     * @param coordinate The world coordinate
+     * @return The index of the chunk containing it
+     */
+    public static int toChunk(float coordinate) {
+        return TileKey.toCell(coordinate, CHUNK_SIZE);
+    }
+    
+    /**
+     * Finds the chunk an object belongs to. Objects keyed by their generation tile
+     * belong to that tile's chunk, since the chunk generated them; anything else
+     * belongs to the chunk containing its position.
+     * @param key The object's map key
+     * @param x The object's x-coordinate
+     * @param y The object's y-coordinate
+     * @return The packed chunk index ({@link TileKey#pack})
+     */
+    public static long chunkOf(String key, float x, float y) {
+        long tile = TileKey.parse(key);
+        if (tile != TileKey.NONE) {
+            return TileKey.pack(toChunk(TileKey.unpackX(tile)), toChunk(TileKey.unpackY(tile)));
+        }
+        return TileKey.pack(toChunk(x), toChunk(y));
+    }
+}
@@ -0,0 +1,165 @@
+package wagemaker.uk.world;
+
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import wagemaker.uk.assets.SpriteAtlas;
+
+/**
+ * A tree, cactus or stone that players attack until it is destroyed.
+ * 
+ * Instances carry only their position, health and time since the last attack;
+ * sprite, collision box, attack range and health rules come from the shared
+ * {@link WorldObjectType}. Health regenerates slowly once the object has not
+ * been attacked for {@link WorldObjectType#REGEN_DELAY} seconds.
+ * 
+ * While the object is stored in an {@link EntityWorld}, its health and timer live
+ * in the world's arrays at the object's slot and the fields below are stale.
+ */
+public abstract class DestructibleObject implements WorldObject {
+    private final WorldObjectType type;
+    private final float x, y;
+    private float health;
+    private float timeSinceLastAttack = 0;
+    
+    // Set by the EntityWorld that stores this object
+    EntityWorld world;
+    int slot = -1;
+    
+    protected DestructibleObject(WorldObjectType type, float x, float y) {
+        this.type = type;
+        this.x = x;
+        this.y = y;
+        this.health = type.getMaxHealth();
+    }
+    
+    public WorldObjectType getType() {
+        return type;
+    }
+    
+    /**
+     * Gets the sprite shared by every object of this type.
+     * @return The region in the shared sprite sheet
+     */
+    public TextureRegion getTexture() {
+        return SpriteAtlas.get(type.getSprite());
+    }
+    
+    public float getX() {
+        return x;
+    }
+    
+    public float getY() {
+        return y;
+    }
+    
+    public boolean collidesWith(float playerX, float playerY, float playerWidth, float playerHeight) {
+        return type.collides(x, y, playerX, playerY, playerWidth, playerHeight);
+    }
+    
+    /**
+     * Checks if a player is close enough to attack this object.
+     * @param playerX The player's x-coordinate
+     * @param playerY The player's y-coordinate
+     * @return true if the player is within the type's attack range
+     */
+    public boolean isInAttackRange(float playerX, float playerY) {
+        return type.getAttackRange().contains(x, y, playerX, playerY);
+    }
+    
+    /**
+     * Attacks the object, reducing its health by the type's damage per hit.
+     * @return true if the object is destroyed (health <= 0), false otherwise
+     */
+    public boolean attack() {
+        float remaining = getHealth() - type.getDamagePerHit();
+        storeHealth(remaining);
+        storeTimeSinceLastAttack(0);
+        return remaining <= 0;
+    }
+    
+    /**
+     * Regenerates health once the object has been left alone long enough.
+     * @param deltaTime Seconds since the last update
+     */
+    public void update(float deltaTime) {
+        if (world != null) {
+            world.regenerate(slot, deltaTime);
+            return;
+        }
+        float maxHealth = type.getMaxHealth();
+        if (health < maxHealth) {
+            timeSinceLastAttack += deltaTime;
+            if (timeSinceLastAttack >= WorldObjectType.REGEN_DELAY) {
+                health = Math.min(maxHealth, health + deltaTime);
+            }
+        }
+    }
+    
+    /**
+     * @return true if health bar should be displayed (object is damaged)
+     */
+    public boolean shouldShowHealthBar() {
+        return getHealth() < type.getMaxHealth();
+    }
+    
+    /**
+     * @return health as a percentage (0.0 to 1.0)
+     */
+    public float getHealthPercentage() {
+        return Math.min(1.0f, getHealth() / type.getMaxHealth());
+    }
+    
+    public float getHealth() {
+        return world != null ? world.getHealth(slot) : health;
+    }
+    
+    public void setHealth(float health) {
+        storeHealth(Math.max(0, Math.min(type.getMaxHealth(), health)));
+    }
+    
+    /**
+     * @return seconds since the object was last attacked, while it is damaged
+     */
+    public float getTimeSinceLastAttack() {
+        return world != null ? world.getTimeSinceLastAttack(slot) : timeSinceLastAttack;
+    }
+    
+    private void storeHealth(float value) {
+        if (world != null) {
+            world.setHealth(slot, value);
+        } else {
+            health = value;
+        }
+    }
+    
+    private void storeTimeSinceLastAttack(float value) {
+        if (world != null) {
+            world.setTimeSinceLastAttack(slot, value);
+        } else {
+            timeSinceLastAttack = value;
+        }
+    }
+    
+    /**
+     * Hands the health state over to a world slot.
+     */
+    void attach(EntityWorld world, int slot) {
+        this.world = world;
+        this.slot = slot;
+    }
+    
+    /**
+     * Takes the health state back from the world the object is leaving.
+     */
+    void detach(float health, float timeSinceLastAttack) {
+        this.health = health;
+        this.timeSinceLastAttack = timeSinceLastAttack;
+        this.world = null;
+        this.slot = -1;
+    }
+    
+    /**
+     * Kept for callers that dispose entities; instances own no resources.
+     */
+    public void dispose() {
+    }
+}
@@ -0,0 +1,211 @@
+package wagemaker.uk.world;
+
+import java.util.Arrays;
+
+/**
+ * Struct-of-arrays store for the destructible trees and stones in the loaded world.
+ * 
+ * Each stored object owns one slot, the same index into every component array:
+ * position and type (read by the health bar pass) and health and time since the last
+ * attack (read and written by the regeneration pass). Each per-frame pass is a single
+ * loop over the arrays it needs, whatever map or kind the objects belong to. The slot
+ * is kept on the object itself, so adding and removing allocate nothing; removal moves
+ * the last slot into the hole, so the arrays stay packed and the order is not stable.
+ * 
+ * While stored, an object reads and writes its health through its slot, so Player and
+ * the network handlers keep using the object's methods. Removing the object copies the
+ * values back. Culling for drawing stays with the {@link SpatialIndex}. Planted trees
+ * and bamboo are not destructible and keep their own growth loops.
+ * 
+ * The entity maps feed this store through {@link IndexedWorldMap}. Not thread-safe;
+ * use it from the render thread like the maps.
+ */
+public class EntityWorld {
+    
+    private static final int INITIAL_CAPACITY = 256;
+    
+    /**
+     * Receives each damaged object from {@link #forEachDamaged}.
+     */
+    public interface DamagedVisitor {
+        /**
+         * @param type The object's type, which says where its health bar goes
+         * @param x The object's x-coordinate
+         * @param y The object's y-coordinate
+         * @param healthPercentage Health as a fraction of the maximum (0.0 to 1.0)
+         */
+        void accept(WorldObjectType type, float x, float y, float healthPercentage);
+    }
+    
+    private DestructibleObject[] objects;
+    private int count;
+    
+    // Position component
+    private WorldObjectType[] types;
+    private float[] xs;
+    private float[] ys;
+    
+    // Health component
+    private float[] health;
+    private float[] maxHealth;
+    private float[] timeSinceLastAttack;
+    
+    /**
+     * Creates an empty world.
+     */
+    public EntityWorld() {
+        this.objects = new DestructibleObject[INITIAL_CAPACITY];
+        this.types = new WorldObjectType[INITIAL_CAPACITY];
+        this.xs = new float[INITIAL_CAPACITY];
+        this.ys = new float[INITIAL_CAPACITY];
+        this.health = new float[INITIAL_CAPACITY];
+        this.maxHealth = new float[INITIAL_CAPACITY];
+        this.timeSinceLastAttack = new float[INITIAL_CAPACITY];
+    }
+    
+    /**
+     * Adds an object. Adding an object that is already present does nothing; an
+     * object stored in another world is moved to this one.
+     * @param object The object
+     */
+    public void add(DestructibleObject object) {
+        if (object.world == this) {
+            return;
+        }
+        if (object.world != null) {
+            object.world.remove(object);
+        }
+        if (count == objects.length) {
+            grow();
+        }
+        int slot = count++;
+        WorldObjectType type = object.getType();
+        objects[slot] = object;
+        types[slot] = type;
+        xs[slot] = object.getX();
+        ys[slot] = object.getY();
+        health[slot] = object.getHealth();
+        maxHealth[slot] = type.getMaxHealth();
+        timeSinceLastAttack[slot] = object.getTimeSinceLastAttack();
+        object.attach(this, slot);
+    }
+    
+    /**
+     * Removes an object.
+     * @param object The object
+     * @return true if the object was present
+     */
+    public boolean remove(DestructibleObject object) {
+        if (object.world != this) {
+            return false;
+        }
+        int slot = object.slot;
+        object.detach(health[slot], timeSinceLastAttack[slot]);
+    
+        int last = --count;
+        if (slot != last) {
+            objects[slot] = objects[last];
+            types[slot] = types[last];
+            xs[slot] = xs[last];
+            ys[slot] = ys[last];
+            health[slot] = health[last];
+            maxHealth[slot] = maxHealth[last];
+            timeSinceLastAttack[slot] = timeSinceLastAttack[last];
+            objects[slot].slot = slot;
+        }
+        objects[last] = null;
+        types[last] = null;
+        return true;
+    }
+    
+    /**
+     * Checks whether an object is present.
+     * @param object The object
+     * @return true if present
+     */
+    public boolean contains(DestructibleObject object) {
+        return object.world == this;
+    }
+    
+    /**
+     * Gets the number of objects.
+     * @return The object count
+     */
+    public int size() {
+        return count;
+    }
+    
+    /**
+     * Removes every object.
+     */
+    public void clear() {
+        for (int i = 0; i < count; i++) {
+            objects[i].detach(health[i], timeSinceLastAttack[i]);
+        }
+        Arrays.fill(objects, 0, count, null);
+        Arrays.fill(types, 0, count, null);
+        count = 0;
+    }
+    
+    /**
+     * Health system: advances every object's regeneration.
+     * @param deltaTime Seconds since the last update
+     */
+    public void update(float deltaTime) {
+        for (int i = 0; i < count; i++) {
+            regenerate(i, deltaTime);
+        }
+    }
+    
+    /**
+     * Visits every object that is currently damaged and should show a health bar.
+     * @param visitor Receives each damaged object's type, position and health
+     */
+    public void forEachDamaged(DamagedVisitor visitor) {
+        for (int i = 0; i < count; i++) {
+            if (health[i] < maxHealth[i]) {
+                visitor.accept(types[i], xs[i], ys[i], Math.min(1.0f, health[i] / maxHealth[i]));
+            }
+        }
+    }
+    
+    /**
+     * Advances the regeneration of one slot, the same rule as
+     * {@link DestructibleObject#update} for an object outside any world.
+     */
+    void regenerate(int slot, float deltaTime) {
+        if (health[slot] < maxHealth[slot]) {
+            timeSinceLastAttack[slot] += deltaTime;
+            if (timeSinceLastAttack[slot] >= WorldObjectType.REGEN_DELAY) {
+                health[slot] = Math.min(maxHealth[slot], health[slot] + deltaTime);
+            }
+        }
+    }
+    
+    float getHealth(int slot) {
+        return health[slot];
+    }
+    
+    float getTimeSinceLastAttack(int slot) {
+        return timeSinceLastAttack[slot];
+    }
+    
+    void setHealth(int slot, float value) {
+        health[slot] = value;
+    }
+    
+    void setTimeSinceLastAttack(int slot, float value) {
+        timeSinceLastAttack[slot] = value;
+    }
+    
+    private void grow() {
+        int capacity = objects.length * 2;
+        objects = Arrays.copyOf(objects, capacity);
+        types = Arrays.copyOf(types, capacity);
+        xs = Arrays.copyOf(xs, capacity);
+        ys = Arrays.copyOf(ys, capacity);
+        health = Arrays.copyOf(health, capacity);
+        maxHealth = Arrays.copyOf(maxHealth, capacity);
+        timeSinceLastAttack = Arrays.copyOf(timeSinceLastAttack, capacity);
+    }
+}
@@ -0,0 +1,74 @@
+package wagemaker.uk.world;
+
+/**
+ * Entity map that keeps a shared {@link SpatialIndex} in step with its contents.
+ * 
+ * Every object put into the map is indexed with a bounding box large enough for
+ * any tree or stone sprite, and removed from the index when it leaves the map.
+ * Destructible objects are also added to the {@link EntityWorld}, if one is
+ * given. Callers keep using plain map operations, and tile lookups come from
+ * {@link TileKeyedMap}.
+ * 
+ * @param <V> The world object type
+ */
+public class IndexedWorldMap<V extends WorldObject> extends TileKeyedMap<V> {
+    private static final long serialVersionUID = 1L;
+    
+    // Bounding box relative to the anchor; covers every tree and stone collision box
+    private static final float BOUNDS_LEFT = 0;
+    private static final float BOUNDS_BOTTOM = -32;
+    private static final float BOUNDS_RIGHT = 128;
+    private static final float BOUNDS_TOP = 128;
+    
+    private final transient SpatialIndex<WorldObject> index;
+    private final transient EntityWorld entities;
+    
+    /**
+     * Creates an empty map feeding the given index.
+     * @param index The index shared by all world object maps
+     */
+    public IndexedWorldMap(SpatialIndex<WorldObject> index) {
+        this(index, null);
+    }
+    
+    /**
+     * Creates an empty map feeding the given index and entity world.
+     * @param index The index shared by all world object maps
+     * @param entities The entity world shared by all world object maps, or null
+     */
+    public IndexedWorldMap(SpatialIndex<WorldObject> index, EntityWorld entities) {
+        this.index = index;
+        this.entities = entities;
+    }
+    
+    /**
+     * Gets the index this map feeds.
+     * @return The shared spatial index
+     */
+    public SpatialIndex<WorldObject> getIndex() {
+        return index;
+    }
+    
+    @Override
+    protected void entryChanged(String key, V previous, V current) {
+        super.entryChanged(key, previous, current);
+        if (previous == current) {
+            return;
+        }
+        if (previous != null) {
+            index.remove(previous);
+            if (entities != null && previous instanceof DestructibleObject object) {
+                entities.remove(object);
+            }
+        }
+        if (current != null) {
+            float x = current.getX();
+            float y = current.getY();
+            index.insert(current, x, y,
+                x + BOUNDS_LEFT, y + BOUNDS_BOTTOM, x + BOUNDS_RIGHT, y + BOUNDS_TOP);
+            if (entities != null && current instanceof DestructibleObject object) {
+                entities.add(object);
+            }
+        }
+    }
+}
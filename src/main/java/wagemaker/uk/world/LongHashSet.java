@@ -0,0 +1,90 @@
+package wagemaker.uk.world;
+
+import java.util.function.LongConsumer;
+import java.util.function.LongPredicate;
+
+/**
+ * Open-addressing hash set of primitive long keys, such as {@link TileKey}s.
+ * Lookups neither box nor allocate. Not thread-safe.
+ */
+public class LongHashSet {
+    
+    private static final Object PRESENT = Boolean.TRUE;
+    
+    private final LongObjectHashMap<Object> map;
+    
+    /**
+     * Creates an empty set.
+     */
+    public LongHashSet() {
+        this.map = new LongObjectHashMap<>();
+    }
+    
+    /**
+     * Adds a key.
+     * @param key The key
+     * @return true if the key was not already present
+     */
+    public boolean add(long key) {
+        return map.put(key, PRESENT) == null;
+    }
+    
+    /**
+     * Checks whether a key is present.
+     * @param key The key
+     * @return true if present
+     */
+    public boolean contains(long key) {
+        return map.containsKey(key);
+    }
+    
+    /**
+     * Removes a key.
+     * @param key The key
+     * @return true if the key was present
+     */
+    public boolean remove(long key) {
+        return map.remove(key) != null;
+    }
+    
+    /**
+     * Gets the number of keys.
+     * @return The key count
+     */
+    public int size() {
+        return map.size();
+    }
+    
+    /**
+     * Checks whether the set is empty.
+     * @return true if there are no keys
+     */
+    public boolean isEmpty() {
+        return map.isEmpty();
+    }
+    
+    /**
+     * Removes every key.
+     */
+    public void clear() {
+        map.clear();
+    }
+    
+    /**
+     * Removes every key the filter accepts. Each key is tested exactly once.
+     * The filter must not modify the set.
+     * @param filter Returns true for keys to remove
+     * @return true if any key was removed
+     */
+    public boolean removeIf(LongPredicate filter) {
+        return map.removeIf((key, value) -> filter.test(key));
+    }
+    
+    /**
+     * Visits every key. The consumer must not modify the set.
+     * @param consumer Receives each key
+     */
+    public void forEach(LongConsumer consumer) {
+        map.forEach((key, value) -> consumer.accept(key));
+    }
+}
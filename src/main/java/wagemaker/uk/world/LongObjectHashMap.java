@@ -0,0 +1,250 @@
+package wagemaker.uk.world;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing hash map from primitive long keys to objects.
+ * 
+ * Keys are stored unboxed with linear probing, so lookups neither allocate nor
+ * chase entry objects. Intended for {@link TileKey} keyed world data. Null values
+ * are not allowed. Not thread-safe.
+ * 
+ * @param <V> The value type
+ */
+public class LongObjectHashMap<V> {
+    
+    private static final int DEFAULT_CAPACITY = 16;
+    private static final float LOAD_FACTOR = 0.6f;
+    
+    /**
+     * Receives each entry of the map.
+     */
+    public interface EntryConsumer<V> {
+        void accept(long key, V value);
+    }
+    
+    /**
+     * Decides whether an entry of the map is removed.
+     */
+    public interface EntryPredicate<V> {
+        boolean test(long key, V value);
+    }
+    
+    private long[] keys;
+    private Object[] values;
+    private int size;
+    private int mask;
+    private int resizeAt;
+    
+    /**
+     * Creates an empty map.
+     */
+    public LongObjectHashMap() {
+        this(DEFAULT_CAPACITY);
+    }
+    
+    /**
+     * Creates an empty map sized for a number of entries.
+     * @param expectedSize Entries the map should hold before growing
+     */
+    public LongObjectHashMap(int expectedSize) {
+        allocate(tableSizeFor(expectedSize));
+    }
+    
+    /**
+     * Gets the value for a key.
+     * @param key The key
+     * @return The value, or null if absent
+     */
+    @SuppressWarnings("unchecked")
+    public V get(long key) {
+        Object[] vals = values;
+        long[] ks = keys;
+        int m = ks.length - 1;
+        for (int i = slot(key, m); vals[i] != null; i = (i + 1) & m) {
+            if (ks[i] == key) {
+                return (V) vals[i];
+            }
+        }
+        return null;
+    }
+    
+    /**
+     * Checks whether a key is present.
+     * @param key The key
+     * @return true if the map holds a value for the key
+     */
+    public boolean containsKey(long key) {
+        return get(key) != null;
+    }
+    
+    /**
+     * Associates a value with a key.
+     * @param key The key
+     * @param value The value (not null)
+     * @return The previous value, or null
+     */
+    @SuppressWarnings("unchecked")
+    public V put(long key, V value) {
+        if (value == null) {
+            throw new NullPointerException("Null values are not supported");
+        }
+        int i = slot(key, mask);
+        while (values[i] != null) {
+            if (keys[i] == key) {
+                V previous = (V) values[i];
+                values[i] = value;
+                return previous;
+            }
+            i = (i + 1) & mask;
+        }
+        keys[i] = key;
+        values[i] = value;
+        if (++size >= resizeAt) {
+            rehash(keys.length * 2);
+        }
+        return null;
+    }
+    
+    /**
+     * Removes a key.
+     * @param key The key
+     * @return The removed value, or null if absent
+     */
+    @SuppressWarnings("unchecked")
+    public V remove(long key) {
+        int i = slot(key, mask);
+        while (values[i] != null) {
+            if (keys[i] == key) {
+                V previous = (V) values[i];
+                deleteAt(i);
+                return previous;
+            }
+            i = (i + 1) & mask;
+        }
+        return null;
+    }
+    
+    /**
+     * Gets the number of entries.
+     * @return The entry count
+     */
+    public int size() {
+        return size;
+    }
+    
+    /**
+     * Checks whether the map is empty.
+     * @return true if there are no entries
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+    
+    /**
+     * Removes every entry, keeping the current capacity.
+     */
+    public void clear() {
+        Arrays.fill(values, null);
+        size = 0;
+    }
+    
+    /**
+     * Visits every entry. The consumer must not modify the map.
+     * @param consumer Receives each key and value
+     */
+    @SuppressWarnings("unchecked")
+    public void forEach(EntryConsumer<? super V> consumer) {
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] != null) {
+                consumer.accept(keys[i], (V) values[i]);
+            }
+        }
+    }
+    
+    /**
+     * Removes every entry the filter accepts. Each entry is tested exactly once.
+     * The filter must not modify the map.
+     * @param filter Returns true for entries to remove
+     * @return true if any entry was removed
+     */
+    @SuppressWarnings("unchecked")
+    public boolean removeIf(EntryPredicate<? super V> filter) {
+        if (size == 0) {
+            return false;
+        }
+        // Start just after an empty slot so no probe run wraps past the start; removals
+        // then only shift not-yet-tested entries back into the slot being tested
+        int start = 0;
+        while (values[start] != null) {
+            start++;
+        }
+        boolean removed = false;
+        for (int n = 1; n <= values.length; n++) {
+            int i = (start + n) & mask;
+            while (values[i] != null && filter.test(keys[i], (V) values[i])) {
+                deleteAt(i);
+                removed = true;
+            }
+        }
+        return removed;
+    }
+    
+    /**
+     * Removes the entry in a slot and shifts later entries of the same probe run back,
+     * so lookups never need tombstones.
+     */
+    private void deleteAt(int hole) {
+        values[hole] = null;
+        size--;
+        int i = hole;
+        while (true) {
+            i = (i + 1) & mask;
+            if (values[i] == null) {
+                return;
+            }
+            int home = slot(keys[i], mask);
+            // Move the entry if its home slot is not cyclically within (hole, i]
+            boolean reachable = hole <= i ? (hole < home && home <= i) : (hole < home || home <= i);
+            if (!reachable) {
+                keys[hole] = keys[i];
+                values[hole] = values[i];
+                values[i] = null;
+                hole = i;
+            }
+        }
+    }
+    
+    private void rehash(int capacity) {
+        long[] oldKeys = keys;
+        Object[] oldValues = values;
+        allocate(capacity);
+        for (int i = 0; i < oldValues.length; i++) {
+            if (oldValues[i] != null) {
+                int j = slot(oldKeys[i], mask);
+                while (values[j] != null) {
+                    j = (j + 1) & mask;
+                }
+                keys[j] = oldKeys[i];
+                values[j] = oldValues[i];
+            }
+        }
+    }
+    
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new Object[capacity];
+        mask = capacity - 1;
+        resizeAt = Math.max(1, (int) (capacity * LOAD_FACTOR));
+    }
+    
+    private static int slot(long key, int mask) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+    
+    private static int tableSizeFor(int expectedSize) {
+        int needed = (int) Math.ceil(Math.max(expectedSize, 1) / LOAD_FACTOR) + 1;
+        return Math.max(DEFAULT_CAPACITY, Integer.highestOneBit(needed - 1) << 1);
+    }
+}
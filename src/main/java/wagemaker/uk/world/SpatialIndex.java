@@ -0,0 +1,251 @@
+package wagemaker.uk.world;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Chunked grid over world objects and their bounding boxes.
+ * 
+ * Each object is stored in every chunk its bounding box overlaps, so a query only
+ * visits the chunks covering its own area. Collision, proximity and culling checks
+ * therefore cost the same whether the explored world holds a hundred objects or a
+ * hundred thousand.
+ * 
+ * Chunks are looked up by packed {@link TileKey}, so queries never box a key.
+ * Objects are keyed by identity and their anchor point must lie inside their
+ * bounding box. Not thread-safe; the client uses it from the render thread, like
+ * the entity maps it indexes.
+ * 
+ * @param <T> The indexed object type
+ */
+public class SpatialIndex<T> {
+    
+    /** Default chunk size in pixels (4x4 grass tiles). */
+    public static final int DEFAULT_CHUNK_SIZE = 256;
+    
+    /**
+     * An indexed object with its anchor point and bounding box.
+     */
+    private static final class Entry<T> {
+        final T object;
+        final float x, y;
+        final float minX, minY, maxX, maxY;
+        
+        Entry(T object, float x, float y, float minX, float minY, float maxX, float maxY) {
+            this.object = object;
+            this.x = x;
+            this.y = y;
+            this.minX = minX;
+            this.minY = minY;
+            this.maxX = maxX;
+            this.maxY = maxY;
+        }
+    }
+    
+    private final int chunkSize;
+    private final LongObjectHashMap<Map<T, Entry<T>>> chunks;
+    private final Map<T, Entry<T>> entries;
+    
+    /**
+     * Creates an index with the default chunk size.
+     */
+    public SpatialIndex() {
+        this(DEFAULT_CHUNK_SIZE);
+    }
+    
+    /**
+     * Creates an index.
+     * @param chunkSize Chunk size in pixels
+     */
+    public SpatialIndex(int chunkSize) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("Chunk size must be positive: " + chunkSize);
+        }
+        this.chunkSize = chunkSize;
+        this.chunks = new LongObjectHashMap<>();
+        this.entries = new IdentityHashMap<>();
+    }
+    
+    /**
+     * Adds an object, or moves it if it is already indexed.
+     * @param object The object
+     * @param x The anchor x-coordinate, used by distance queries
+     * @param y The anchor y-coordinate, used by distance queries
+     * @param minX Left edge of the bounding box
+     * @param minY Bottom edge of the bounding box
+     * @param maxX Right edge of the bounding box
+     * @param maxY Top edge of the bounding box
+     */
+    public void insert(T object, float x, float y, float minX, float minY, float maxX, float maxY) {
+        if (x < minX || x > maxX || y < minY || y > maxY) {
+            throw new IllegalArgumentException("Anchor must lie inside the bounding box");
+        }
+        remove(object);
+        
+        Entry<T> entry = new Entry<>(object, x, y, minX, minY, maxX, maxY);
+        entries.put(object, entry);
+        for (int cx = toChunk(minX); cx <= toChunk(maxX); cx++) {
+            for (int cy = toChunk(minY); cy <= toChunk(maxY); cy++) {
+                long key = TileKey.pack(cx, cy);
+                Map<T, Entry<T>> chunk = chunks.get(key);
+                if (chunk == null) {
+                    chunk = new IdentityHashMap<>();
+                    chunks.put(key, chunk);
+                }
+                chunk.put(object, entry);
+            }
+        }
+    }
+    
+    /**
+     * Removes an object.
+     * @param object The object
+     * @return true if the object was indexed
+     */
+    public boolean remove(T object) {
+        Entry<T> entry = entries.remove(object);
+        if (entry == null) {
+            return false;
+        }
+        for (int cx = toChunk(entry.minX); cx <= toChunk(entry.maxX); cx++) {
+            for (int cy = toChunk(entry.minY); cy <= toChunk(entry.maxY); cy++) {
+                long key = TileKey.pack(cx, cy);
+                Map<T, Entry<T>> chunk = chunks.get(key);
+                if (chunk != null) {
+                    chunk.remove(object);
+                    if (chunk.isEmpty()) {
+                        chunks.remove(key);
+                    }
+                }
+            }
+        }
+        return true;
+    }
+    
+    /**
+     * Checks whether an object is indexed.
+     * @param object The object
+     * @return true if indexed
+     */
+    public boolean contains(T object) {
+        return entries.containsKey(object);
+    }
+    
+    /**
+     * Removes every object.
+     */
+    public void clear() {
+        entries.clear();
+        chunks.clear();
+    }
+    
+    /**
+     * Gets the number of indexed objects.
+     * @return The object count
+     */
+    public int size() {
+        return entries.size();
+    }
+    
+    /**
+     * Checks whether any object's bounding box overlaps an area.
+     * @param minX Left edge of the area
+     * @param minY Bottom edge of the area
+     * @param maxX Right edge of the area
+     * @param maxY Top edge of the area
+     * @param filter Exact test applied to each overlapping object
+     * @return true if an overlapping object passes the filter
+     */
+    public boolean anyIntersecting(float minX, float minY, float maxX, float maxY, Predicate<? super T> filter) {
+        for (int cx = toChunk(minX); cx <= toChunk(maxX); cx++) {
+            for (int cy = toChunk(minY); cy <= toChunk(maxY); cy++) {
+                Map<T, Entry<T>> chunk = chunks.get(TileKey.pack(cx, cy));
+                if (chunk == null) {
+                    continue;
+                }
+                for (Entry<T> entry : chunk.values()) {
+                    if (overlaps(entry, minX, minY, maxX, maxY) && filter.test(entry.object)) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * Visits each object whose bounding box overlaps an area, once.
+     * The visitor must not modify the index.
+     * @param minX Left edge of the area
+     * @param minY Bottom edge of the area
+     * @param maxX Right edge of the area
+     * @param maxY Top edge of the area
+     * @param visitor Receives each overlapping object
+     */
+    public void forEachIntersecting(float minX, float minY, float maxX, float maxY, Consumer<? super T> visitor) {
+        int firstX = toChunk(minX);
+        int firstY = toChunk(minY);
+        for (int cx = firstX; cx <= toChunk(maxX); cx++) {
+            for (int cy = firstY; cy <= toChunk(maxY); cy++) {
+                Map<T, Entry<T>> chunk = chunks.get(TileKey.pack(cx, cy));
+                if (chunk == null) {
+                    continue;
+                }
+                for (Entry<T> entry : chunk.values()) {
+                    // An object spanning several chunks is reported from the first one the query reaches
+                    if (overlaps(entry, minX, minY, maxX, maxY)
+                            && cx == Math.max(firstX, toChunk(entry.minX))
+                            && cy == Math.max(firstY, toChunk(entry.minY))) {
+                        visitor.accept(entry.object);
+                    }
+                }
+            }
+        }
+    }
+    
+    /**
+     * Checks whether any object's anchor lies strictly within a distance of a point.
+     * @param x The point's x-coordinate
+     * @param y The point's y-coordinate
+     * @param radius The distance in pixels
+     * @param filter Only objects accepted by the filter count
+     * @return true if a matching object is closer than the radius
+     */
+    public boolean anyWithin(float x, float y, float radius, Predicate<? super T> filter) {
+        float radiusSquared = radius * radius;
+        for (int cx = toChunk(x - radius); cx <= toChunk(x + radius); cx++) {
+            for (int cy = toChunk(y - radius); cy <= toChunk(y + radius); cy++) {
+                Map<T, Entry<T>> chunk = chunks.get(TileKey.pack(cx, cy));
+                if (chunk == null) {
+                    continue;
+                }
+                for (Entry<T> entry : chunk.values()) {
+                    float dx = entry.x - x;
+                    float dy = entry.y - y;
+                    if (dx * dx + dy * dy < radiusSquared && filter.test(entry.object)) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * Gets the chunk size in pixels.
+     * @return The chunk size
+     */
+    public int getChunkSize() {
+        return chunkSize;
+    }
+    
+    private static boolean overlaps(Entry<?> entry, float minX, float minY, float maxX, float maxY) {
+        return entry.minX <= maxX && entry.maxX >= minX && entry.minY <= maxY && entry.maxY >= minY;
+    }
+    
+    private int toChunk(float coordinate) {
+        return TileKey.toCell(coordinate, chunkSize);
+    }
+}
@@ -0,0 +1,112 @@
+package wagemaker.uk.world;
+
+/**
+ * Packed 64-bit keys for integer world coordinates.
+ * 
+ * Entities generated on the tile grid are identified by "x,y" strings on the wire
+ * and in save files. Inside the game the same position is a single long: the x
+ * coordinate in the high 32 bits and y in the low 32 bits. Packing allocates
+ * nothing, so hot loops can probe by position without building strings.
+ */
+public final class TileKey {
+    
+    /** Returned by {@link #parse(String)} for keys that are not "x,y" coordinates. */
+    public static final long NONE = Long.MIN_VALUE;
+    
+    private TileKey() {
+    }
+    
+    /**
+     * Packs a coordinate pair into a key.
+     * @param x The x-coordinate
+     * @param y The y-coordinate
+     * @return The packed key
+     */
+    public static long pack(int x, int y) {
+        return ((long) x << 32) | (y & 0xFFFFFFFFL);
+    }
+    
+    /**
+     * Extracts the x-coordinate from a key.
+     * @param key The packed key
+     * @return The x-coordinate
+     */
+    public static int unpackX(long key) {
+        return (int) (key >> 32);
+    }
+    
+    /**
+     * Extracts the y-coordinate from a key.
+     * @param key The packed key
+     * @return The y-coordinate
+     */
+    public static int unpackY(long key) {
+        return (int) key;
+    }
+    
+    /**
+     * Converts a world coordinate to the index of the grid cell containing it.
+     * Negative coordinates round down, so every cell covers exactly cellSize pixels.
+     * @param coordinate The world coordinate
+     * @param cellSize The cell size in pixels
+     * @return The cell index
+     */
+    public static int toCell(float coordinate, int cellSize) {
+        return Math.floorDiv((int) Math.floor(coordinate), cellSize);
+    }
+    
+    /**
+     * Formats a key as the "x,y" string used by the protocol and save files.
+     * @param key The packed key
+     * @return The string form
+     */
+    public static String format(long key) {
+        return unpackX(key) + "," + unpackY(key);
+    }
+    
+    /**
+     * Parses an "x,y" string without allocating.
+     * @param key The string key
+     * @return The packed key, or {@link #NONE} if the string is not two integers separated by a comma
+     */
+    public static long parse(String key) {
+        if (key == null) {
+            return NONE;
+        }
+        int comma = key.indexOf(',');
+        if (comma <= 0 || comma == key.length() - 1) {
+            return NONE;
+        }
+        long x = parseInt(key, 0, comma);
+        long y = parseInt(key, comma + 1, key.length());
+        if (x == NONE || y == NONE) {
+            return NONE;
+        }
+        return pack((int) x, (int) y);
+    }
+    
+    /**
+     * Parses a decimal int from part of a string.
+     * @return The value, or {@link #NONE} if the text is not a valid int
+     */
+    private static long parseInt(String text, int start, int end) {
+        boolean negative = text.charAt(start) == '-';
+        int i = negative ? start + 1 : start;
+        if (i == end || end - i > 10) {
+            return NONE;
+        }
+        long value = 0;
+        for (; i < end; i++) {
+            char c = text.charAt(i);
+            if (c < '0' || c > '9') {
+                return NONE;
+            }
+            value = value * 10 + (c - '0');
+        }
+        value = negative ? -value : value;
+        if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) {
+            return NONE;
+        }
+        return value;
+    }
+}
@@ -0,0 +1,181 @@
+package wagemaker.uk.world;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * String-keyed map that mirrors its "x,y" keys into a primitive {@link LongHashSet}.
+ * 
+ * World entities are keyed by "x,y" strings because that is how the server and save
+ * files name them. Per-frame and per-tile code only needs to know whether a tile is
+ * taken, which {@link #containsTile(int, int)} answers without building a string.
+ * Keys that are not coordinates (e.g. player-planted IDs) are stored normally but
+ * not mirrored. The views are read-only so entries cannot be removed behind the
+ * mirror's back.
+ * 
+ * @param <V> The value type
+ */
+public class TileKeyedMap<V> extends HashMap<String, V> {
+    private static final long serialVersionUID = 1L;
+    
+    private final transient LongHashSet tiles = new LongHashSet();
+    
+    /**
+     * Checks whether the map holds an entry keyed by a tile position.
+     * @param x The tile x-coordinate
+     * @param y The tile y-coordinate
+     * @return true if the "x,y" key is present
+     */
+    public boolean containsTile(int x, int y) {
+        return tiles.contains(TileKey.pack(x, y));
+    }
+    
+    @Override
+    public V put(String key, V value) {
+        V previous = super.put(key, value);
+        entryChanged(key, previous, value);
+        return previous;
+    }
+    
+    @Override
+    public void putAll(Map<? extends String, ? extends V> map) {
+        for (Map.Entry<? extends String, ? extends V> entry : map.entrySet()) {
+            put(entry.getKey(), entry.getValue());
+        }
+    }
+    
+    @Override
+    public V putIfAbsent(String key, V value) {
+        V previous = super.putIfAbsent(key, value);
+        if (previous == null) {
+            entryChanged(key, null, value);
+        }
+        return previous;
+    }
+    
+    @Override
+    public V remove(Object key) {
+        V previous = super.remove(key);
+        if (previous != null) {
+            entryChanged((String) key, previous, null);
+        }
+        return previous;
+    }
+    
+    @Override
+    public boolean remove(Object key, Object value) {
+        V previous = get(key);
+        if (super.remove(key, value)) {
+            entryChanged((String) key, previous, null);
+            return true;
+        }
+        return false;
+    }
+    
+    @Override
+    public V replace(String key, V value) {
+        V previous = super.replace(key, value);
+        if (previous != null) {
+            entryChanged(key, previous, value);
+        }
+        return previous;
+    }
+    
+    @Override
+    public boolean replace(String key, V oldValue, V newValue) {
+        if (super.replace(key, oldValue, newValue)) {
+            entryChanged(key, oldValue, newValue);
+            return true;
+        }
+        return false;
+    }
+    
+    @Override
+    public V computeIfAbsent(String key, Function<? super String, ? extends V> mappingFunction) {
+        V previous = get(key);
+        V result = super.computeIfAbsent(key, mappingFunction);
+        entryChanged(key, previous, result);
+        return result;
+    }
+    
+    @Override
+    public V computeIfPresent(String key, BiFunction<? super String, ? super V, ? extends V> remappingFunction) {
+        V previous = get(key);
+        V result = super.computeIfPresent(key, remappingFunction);
+        entryChanged(key, previous, result);
+        return result;
+    }
+    
+    @Override
+    public V compute(String key, BiFunction<? super String, ? super V, ? extends V> remappingFunction) {
+        V previous = get(key);
+        V result = super.compute(key, remappingFunction);
+        entryChanged(key, previous, result);
+        return result;
+    }
+    
+    @Override
+    public V merge(String key, V value, BiFunction<? super V, ? super V, ? extends V> remappingFunction) {
+        V previous = get(key);
+        V result = super.merge(key, value, remappingFunction);
+        entryChanged(key, previous, result);
+        return result;
+    }
+    
+    @Override
+    public void replaceAll(BiFunction<? super String, ? super V, ? extends V> function) {
+        for (String key : super.keySet()) {
+            put(key, function.apply(key, get(key)));
+        }
+    }
+    
+    @Override
+    public void clear() {
+        for (Map.Entry<String, V> entry : super.entrySet()) {
+            entryChanged(entry.getKey(), entry.getValue(), null);
+        }
+        super.clear();
+    }
+    
+    @Override
+    public Set<String> keySet() {
+        return Collections.unmodifiableSet(super.keySet());
+    }
+    
+    @Override
+    public Collection<V> values() {
+        return Collections.unmodifiableCollection(super.values());
+    }
+    
+    @Override
+    public Set<Map.Entry<String, V>> entrySet() {
+        return Collections.unmodifiableSet(super.entrySet());
+    }
+    
+    /**
+     * Called after every change to an entry. Subclasses that keep further indexes
+     * in step with the map override this and call the super method.
+     * @param key The entry key
+     * @param previous The value before the change, or null
+     * @param current The value after the change, or null if the entry was removed
+     */
+    protected void entryChanged(String key, V previous, V current) {
+        if (previous == current) {
+            return;
+        }
+        long tile = TileKey.parse(key);
+        if (tile == TileKey.NONE) {
+            return;
+        }
+        if (current != null) {
+            tiles.add(tile);
+        } else {
+            tiles.remove(tile);
+        }
+    }
+}
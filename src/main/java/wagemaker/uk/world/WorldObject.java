@@ -0,0 +1,30 @@
+package wagemaker.uk.world;
+
+/**
+ * A solid object placed in the world, such as a tree or a stone.
+ * Positions are fixed for the lifetime of the object.
+ */
+public interface WorldObject {
+    
+    /**
+     * Gets the x-coordinate of the object's anchor (bottom-left of its sprite).
+     * @return The world x coordinate
+     */
+    float getX();
+    
+    /**
+     * Gets the y-coordinate of the object's anchor (bottom-left of its sprite).
+     * @return The world y coordinate
+     */
+    float getY();
+    
+    /**
+     * Checks whether a rectangle overlaps the object's collision box.
+     * @param x The rectangle's x-coordinate
+     * @param y The rectangle's y-coordinate
+     * @param width The rectangle's width
+     * @param height The rectangle's height
+     * @return true if the rectangle collides with the object
+     */
+    boolean collidesWith(float x, float y, float width, float height);
+}
@@ -0,0 +1,254 @@
+package wagemaker.uk.world;
+
+import wagemaker.uk.assets.SpriteType;
+
+/**
+ * Immutable description of a kind of destructible world object.
+ * 
+ * Everything that is the same for every tree or stone of a kind (sprite and
+ * draw layer, health, damage taken per hit, collision box, attack range and
+ * health bar placement) lives here, shared by all instances. A
+ * {@link DestructibleObject} holds only its own position, health and
+ * regeneration timer.
+ */
+public final class WorldObjectType {
+    
+    /** Seconds without being attacked before health starts regenerating. */
+    public static final float REGEN_DELAY = 5.0f;
+    
+    /**
+     * Draw pass an object belongs to, relative to the players.
+     */
+    public enum Layer {
+        /** Drawn before players (trunks and low objects players walk in front of). */
+        BELOW_PLAYERS,
+        /** Drawn after players so foliage covers them. */
+        ABOVE_PLAYERS
+    }
+    
+    private final String name;
+    private final SpriteType sprite;
+    private final float drawWidth;
+    private final float drawHeight;
+    private final Layer layer;
+    private final float maxHealth;
+    private final float damagePerHit;
+    private final Box collision;
+    private final AttackRange attackRange;
+    private final Box healthBar;
+    
+    /**
+     * Creates an object type.
+     * @param name Display name used in logs
+     * @param sprite The sprite drawn for every instance
+     * @param drawWidth Width the sprite is drawn at
+     * @param drawHeight Height the sprite is drawn at
+     * @param layer Draw pass the type belongs to
+     * @param maxHealth Health of an undamaged instance
+     * @param damagePerHit Health removed by one attack
+     * @param collision Collision box, relative to the object's position
+     * @param attackRange Where a player must stand to attack an instance
+     * @param healthBar Where the health bar of a damaged instance is drawn, relative to its position
+     */
+    public WorldObjectType(String name, SpriteType sprite, float drawWidth, float drawHeight, Layer layer,
+                           float maxHealth, float damagePerHit, Box collision, AttackRange attackRange,
+                           Box healthBar) {
+        this.name = name;
+        this.sprite = sprite;
+        this.drawWidth = drawWidth;
+        this.drawHeight = drawHeight;
+        this.layer = layer;
+        this.maxHealth = maxHealth;
+        this.damagePerHit = damagePerHit;
+        this.collision = collision;
+        this.attackRange = attackRange;
+        this.healthBar = healthBar;
+    }
+    
+    /**
+     * Checks whether a box overlaps the collision box of an instance.
+     * @param objectX The instance's x-coordinate
+     * @param objectY The instance's y-coordinate
+     * @param x The other box's left edge
+     * @param y The other box's bottom edge
+     * @param width The other box's width
+     * @param height The other box's height
+     * @return true if the boxes overlap
+     */
+    public boolean collides(float objectX, float objectY, float x, float y, float width, float height) {
+        return collision.overlaps(objectX, objectY, x, y, width, height);
+    }
+    
+    public String getName() {
+        return name;
+    }
+    
+    public SpriteType getSprite() {
+        return sprite;
+    }
+    
+    public float getDrawWidth() {
+        return drawWidth;
+    }
+    
+    public float getDrawHeight() {
+        return drawHeight;
+    }
+    
+    public Layer getLayer() {
+        return layer;
+    }
+    
+    public float getMaxHealth() {
+        return maxHealth;
+    }
+    
+    public float getDamagePerHit() {
+        return damagePerHit;
+    }
+    
+    public AttackRange getAttackRange() {
+        return attackRange;
+    }
+    
+    public Box getHealthBar() {
+        return healthBar;
+    }
+    
+    @Override
+    public String toString() {
+        return name;
+    }
+    
+    /**
+     * Axis-aligned box placed relative to an object's position.
+     */
+    public static final class Box {
+        private final float x;
+        private final float y;
+        private final float width;
+        private final float height;
+        
+        /**
+         * Creates a box.
+         * @param x Left edge, relative to the object's position
+         * @param y Bottom edge, relative to the object's position
+         * @param width Box width
+         * @param height Box height
+         */
+        public Box(float x, float y, float width, float height) {
+            this.x = x;
+            this.y = y;
+            this.width = width;
+            this.height = height;
+        }
+        
+        /**
+         * Checks whether another box overlaps this one placed at an object's position.
+         * @param objectX The object's x-coordinate
+         * @param objectY The object's y-coordinate
+         * @param otherX The other box's left edge
+         * @param otherY The other box's bottom edge
+         * @param otherWidth The other box's width
+         * @param otherHeight The other box's height
+         * @return true if the boxes overlap
+         */
+        public boolean overlaps(float objectX, float objectY, float otherX, float otherY,
+                                float otherWidth, float otherHeight) {
+            float boxX = objectX + x;
+            float boxY = objectY + y;
+            return otherX < boxX + width && otherX + otherWidth > boxX &&
+                   otherY < boxY + height && otherY + otherHeight > boxY;
+        }
+        
+        public float getX() {
+            return x;
+        }
+        
+        public float getY() {
+            return y;
+        }
+        
+        public float getWidth() {
+            return width;
+        }
+        
+        public float getHeight() {
+            return height;
+        }
+    }
+    
+    /**
+     * Area around an object's center from which a player can attack it.
+     * Distances are measured from the player's center (its position plus a fixed offset)
+     * to the object's center.
+     */
+    public static final class AttackRange {
+        private final float playerCenterOffset;
+        private final float centerX;
+        private final float centerY;
+        private final float minDx;
+        private final float maxDx;
+        private final float minDy;
+        private final float maxDy;
+        private final float radius;
+        
+        private AttackRange(float playerCenterOffset, float centerX, float centerY,
+                            float minDx, float maxDx, float minDy, float maxDy, float radius) {
+            this.playerCenterOffset = playerCenterOffset;
+            this.centerX = centerX;
+            this.centerY = centerY;
+            this.minDx = minDx;
+            this.maxDx = maxDx;
+            this.minDy = minDy;
+            this.maxDy = maxDy;
+            this.radius = radius;
+        }
+        
+        /**
+         * Creates a rectangular range. The player's offset from the object center
+         * (player minus object) must lie within the bounds, inclusive.
+         * @param playerCenterOffset Offset from the player's position to its center
+         * @param centerX Object center x, relative to its position
+         * @param centerY Object center y, relative to its position
+         * @param minDx Furthest the player may be to the left
+         * @param maxDx Furthest the player may be to the right
+         * @param minDy Furthest the player may be below
+         * @param maxDy Furthest the player may be above
+         * @return The range
+         */
+        public static AttackRange box(float playerCenterOffset, float centerX, float centerY,
+                                      float minDx, float maxDx, float minDy, float maxDy) {
+            return new AttackRange(playerCenterOffset, centerX, centerY, minDx, maxDx, minDy, maxDy, -1);
+        }
+        
+        /**
+         * Creates a circular range.
+         * @param playerCenterOffset Offset from the player's position to its center
+         * @param centerX Object center x, relative to its position
+         * @param centerY Object center y, relative to its position
+         * @param radius Maximum distance between the centers, inclusive
+         * @return The range
+         */
+        public static AttackRange circle(float playerCenterOffset, float centerX, float centerY, float radius) {
+            return new AttackRange(playerCenterOffset, centerX, centerY, 0, 0, 0, 0, radius);
+        }
+        
+        /**
+         * Checks whether a player can attack an object from where it stands.
+         * @param objectX The object's x-coordinate
+         * @param objectY The object's y-coordinate
+         * @param playerX The player's x-coordinate
+         * @param playerY The player's y-coordinate
+         * @return true if the player is in range
+         */
+        public boolean contains(float objectX, float objectY, float playerX, float playerY) {
+            float dx = (playerX + playerCenterOffset) - (objectX + centerX);
+            float dy = (playerY + playerCenterOffset) - (objectY + centerY);
+            if (radius >= 0) {
+                return (float) Math.sqrt(dx * dx + dy * dy) <= radius;
+            }
+            return dx >= minDx && dx <= maxDx && dy >= minDy && dy <= maxDy;
+        }
+    }
+}
@@ -0,0 +1,790 @@
+package wagemaker.uk.world;
+
+import wagemaker.uk.network.ItemState;
+import wagemaker.uk.network.ItemType;
+import wagemaker.uk.network.PlantedBambooState;
+import wagemaker.uk.network.PlantedTreeState;
+import wagemaker.uk.network.StoneState;
+import wagemaker.uk.network.TreeState;
+import wagemaker.uk.network.TreeType;
+import wagemaker.uk.respawn.RespawnEntry;
+import wagemaker.uk.respawn.ResourceType;
+import wagemaker.uk.weather.RainZone;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.OutputStream;
+import java.io.StreamCorruptedException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.IntConsumer;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Reads and writes the body of a world save file.
+ *
+ * Saves since format version 2 use a purpose-built binary layout instead of Java
+ * serialization. After a magic number and the format version come the scalar fields
+ * (seed, player, inventory, metadata), then one section per entity collection:
+ * <pre>
+ *   byte section id, int entry count, byte flags, int raw length, int stored length, stored bytes
+ * </pre>
+ * terminated by a section id of 0. Sections larger than a few hundred bytes are
+ * Deflate compressed when that makes them smaller. Coordinates, health and timers are
+ * raw 4-byte floats and enums a single byte; "x,y" grid keys become two zig-zag
+ * varints. A collection that was null is simply absent, so readers of older files
+ * see null exactly as before.
+ *
+ * Unknown section ids are skipped, which lets later versions add sections without
+ * breaking this reader. Bodies written with Java serialization (format version 1)
+ * are recognised by their stream header and still loaded.
+ */
+public final class WorldSaveCodec {
+
+    /** Marks a binary save body ("WLDB"). */
+    public static final int BODY_MAGIC = 0x574C4442;
+
+    /** First bytes of a Java-serialized body (format version 1). */
+    public static final int SERIALIZED_STREAM_MAGIC = 0xACED0005;
+
+    static final int SECTION_END = 0;
+    static final int SECTION_TREES = 1;
+    static final int SECTION_STONES = 2;
+    static final int SECTION_ITEMS = 3;
+    static final int SECTION_PLANTED_TREES = 4;
+    static final int SECTION_PLANTED_BAMBOOS = 5;
+    static final int SECTION_CLEARED = 6;
+    static final int SECTION_RAIN_ZONES = 7;
+    static final int SECTION_RESPAWNS = 8;
+
+    /** Number of collection sections a save body may contain. */
+    public static final int SECTION_COUNT = 8;
+
+    private static final int FLAG_DEFLATE = 1;
+
+    /** Sections smaller than this are stored as is; compressing them saves nothing. */
+    private static final int MIN_COMPRESS_BYTES = 256;
+
+    /** Upper bound for a single section, so a damaged length cannot exhaust memory (256MB). */
+    private static final int MAX_SECTION_BYTES = 256 * 1024 * 1024;
+
+    /** Largest collection size trusted for pre-sizing. */
+    private static final int MAX_PRESIZE = 1 << 20;
+
+    private static final int KEY_NULL = 0;
+    private static final int KEY_GRID = 1;
+    private static final int KEY_STRING = 2;
+
+    private static final TreeType[] TREE_TYPES = TreeType.values();
+    private static final ItemType[] ITEM_TYPES = ItemType.values();
+    private static final ResourceType[] RESOURCE_TYPES = ResourceType.values();
+
+    private WorldSaveCodec() {
+    }
+
+    /**
+     * Writes a save body in the current format.
+     *
+     * @param out The stream to write to; should be buffered, and is flushed but not closed
+     * @param saveData The data to write
+     * @throws IOException If writing fails
+     */
+    public static void write(OutputStream out, WorldSaveData saveData) throws IOException {
+        write(out, saveData, null);
+    }
+
+    /**
+     * Writes a save body in the current format, reporting progress as sections are written.
+     *
+     * @param out The stream to write to; should be buffered, and is flushed but not closed
+     * @param saveData The data to write
+     * @param onSection Called with the number of sections done, 1 to {@link #SECTION_COUNT}
+     *                  (absent collections count as done); may be null
+     * @throws IOException If writing fails
+     */
+    public static void write(OutputStream out, WorldSaveData saveData, IntConsumer onSection) throws IOException {
+        DataOutputStream data = new DataOutputStream(out);
+        data.writeInt(BODY_MAGIC);
+        data.writeInt(WorldSaveData.SAVE_FORMAT_VERSION);
+
+        data.writeLong(saveData.getWorldSeed());
+        data.writeLong(saveData.getSaveTimestamp());
+        data.writeUTF(saveData.getSaveName());
+        data.writeUTF(saveData.getGameMode());
+        data.writeFloat(saveData.getPlayerX());
+        data.writeFloat(saveData.getPlayerY());
+        data.writeFloat(saveData.getPlayerHealth());
+        data.writeInt(saveData.getAppleCount());
+        data.writeInt(saveData.getBananaCount());
+        data.writeInt(saveData.getBabyBambooCount());
+        data.writeInt(saveData.getBambooStackCount());
+        data.writeInt(saveData.getBabyTreeCount());
+        data.writeInt(saveData.getWoodStackCount());
+        data.writeInt(saveData.getPebbleCount());
+
+        SectionWriter section = new SectionWriter(onSection);
+        try {
+            writeSections(data, saveData, section);
+        } finally {
+            section.close();
+        }
+
+        data.writeByte(SECTION_END);
+        data.flush();
+    }
+
+    /**
+     * Writes one section for every collection that is not null.
+     */
+    private static void writeSections(DataOutputStream data, WorldSaveData saveData,
+                                      SectionWriter section) throws IOException {
+        if (saveData.getTrees() != null) {
+            DataOutputStream s = section.begin();
+            int count = 0;
+            for (Map.Entry<String, TreeState> entry : saveData.getTrees().entrySet()) {
+                writeTree(s, entry.getKey(), entry.getValue());
+                count++;
+            }
+            section.end(data, SECTION_TREES, count);
+        }
+        section.advance();
+
+        if (saveData.getStones() != null) {
+            DataOutputStream s = section.begin();
+            int count = 0;
+            for (Map.Entry<String, StoneState> entry : saveData.getStones().entrySet()) {
+                writeStone(s, entry.getKey(), entry.getValue());
+                count++;
+            }
+            section.end(data, SECTION_STONES, count);
+        }
+        section.advance();
+
+        if (saveData.getItems() != null) {
+            DataOutputStream s = section.begin();
+            int count = 0;
+            for (Map.Entry<String, ItemState> entry : saveData.getItems().entrySet()) {
+                writeItem(s, entry.getKey(), entry.getValue());
+                count++;
+            }
+            section.end(data, SECTION_ITEMS, count);
+        }
+        section.advance();
+
+        if (saveData.getPlantedTrees() != null) {
+            DataOutputStream s = section.begin();
+            int count = 0;
+            for (Map.Entry<String, PlantedTreeState> entry : saveData.getPlantedTrees().entrySet()) {
+                writePlantedTree(s, entry.getKey(), entry.getValue());
+                count++;
+            }
+            section.end(data, SECTION_PLANTED_TREES, count);
+        }
+        section.advance();
+
+        if (saveData.getPlantedBamboos() != null) {
+            DataOutputStream s = section.begin();
+            int count = 0;
+            for (Map.Entry<String, PlantedBambooState> entry : saveData.getPlantedBamboos().entrySet()) {
+                writePlantedBamboo(s, entry.getKey(), entry.getValue());
+                count++;
+            }
+            section.end(data, SECTION_PLANTED_BAMBOOS, count);
+        }
+        section.advance();
+
+        if (saveData.getClearedPositions() != null) {
+            DataOutputStream s = section.begin();
+            int count = 0;
+            for (String position : saveData.getClearedPositions()) {
+                writeKey(s, position);
+                count++;
+            }
+            section.end(data, SECTION_CLEARED, count);
+        }
+        section.advance();
+
+        if (saveData.getRainZones() != null) {
+            DataOutputStream s = section.begin();
+            int count = 0;
+            for (RainZone zone : saveData.getRainZones()) {
+                writeRainZone(s, zone);
+                count++;
+            }
+            section.end(data, SECTION_RAIN_ZONES, count);
+        }
+        section.advance();
+
+        if (saveData.getPendingRespawns() != null) {
+            DataOutputStream s = section.begin();
+            int count = 0;
+            for (RespawnEntry entry : saveData.getPendingRespawns()) {
+                writeRespawn(s, entry);
+                count++;
+            }
+            section.end(data, SECTION_RESPAWNS, count);
+        }
+        section.advance();
+    }
+
+    // Entry encoders. Each writes one collection entry, map key first; the save journal
+    // uses them as well so its deltas are byte-for-byte the same as the sections.
+
+    static void writeTree(DataOutput out, String key, TreeState tree) throws IOException {
+        writeKey(out, key);
+        writeId(out, key, tree.getTreeId());
+        writeEnum(out, tree.getType());
+        out.writeFloat(tree.getX());
+        out.writeFloat(tree.getY());
+        out.writeFloat(tree.getHealth());
+        out.writeBoolean(tree.isExists());
+    }
+
+    static void writeStone(DataOutput out, String key, StoneState stone) throws IOException {
+        writeKey(out, key);
+        writeId(out, key, stone.getStoneId());
+        out.writeFloat(stone.getX());
+        out.writeFloat(stone.getY());
+        out.writeFloat(stone.getHealth());
+    }
+
+    static void writeItem(DataOutput out, String key, ItemState item) throws IOException {
+        writeKey(out, key);
+        writeId(out, key, item.getItemId());
+        writeEnum(out, item.getType());
+        out.writeFloat(item.getX());
+        out.writeFloat(item.getY());
+        out.writeBoolean(item.isCollected());
+    }
+
+    static void writePlantedTree(DataOutput out, String key, PlantedTreeState planted) throws IOException {
+        writeKey(out, key);
+        writeId(out, key, planted.getPlantedTreeId());
+        out.writeFloat(planted.getX());
+        out.writeFloat(planted.getY());
+        out.writeFloat(planted.getGrowthTimer());
+    }
+
+    static void writePlantedBamboo(DataOutput out, String key, PlantedBambooState planted) throws IOException {
+        writeKey(out, key);
+        writeId(out, key, planted.getPlantedBambooId());
+        out.writeFloat(planted.getX());
+        out.writeFloat(planted.getY());
+        out.writeFloat(planted.getGrowthTimer());
+    }
+
+    static void writeRainZone(DataOutput out, RainZone zone) throws IOException {
+        writeKey(out, zone.getZoneId());
+        out.writeFloat(zone.getCenterX());
+        out.writeFloat(zone.getCenterY());
+        out.writeFloat(zone.getRadius());
+        out.writeFloat(zone.getFadeDistance());
+        out.writeFloat(zone.getIntensity());
+    }
+
+    static void writeRespawn(DataOutput out, RespawnEntry entry) throws IOException {
+        writeKey(out, entry.getResourceId());
+        writeEnum(out, entry.getResourceType());
+        out.writeFloat(entry.getX());
+        out.writeFloat(entry.getY());
+        out.writeLong(entry.getDestructionTimestamp());
+        out.writeLong(entry.getRespawnDuration());
+        writeEnum(out, entry.getTreeType());
+    }
+
+    /**
+     * Reads a save body in any supported format.
+     *
+     * @param in The stream positioned at the start of the body (after the header)
+     * @return The save data
+     * @throws IOException If the body is damaged or from a newer format version
+     * @throws ClassNotFoundException If a Java-serialized body refers to an unknown class
+     */
+    public static WorldSaveData read(InputStream in) throws IOException, ClassNotFoundException {
+        InputStream buffered = in instanceof BufferedInputStream ? in : new BufferedInputStream(in);
+        buffered.mark(4);
+        DataInputStream data = new DataInputStream(buffered);
+        int magic = data.readInt();
+
+        if (magic == SERIALIZED_STREAM_MAGIC) {
+            // Format version 1: the whole body is a serialized WorldSaveData
+            buffered.reset();
+            ObjectInputStream ois = new ObjectInputStream(buffered);
+            Object obj = ois.readObject();
+            if (!(obj instanceof WorldSaveData)) {
+                throw new StreamCorruptedException("Save file contains invalid data type");
+            }
+            return (WorldSaveData) obj;
+        }
+        if (magic != BODY_MAGIC) {
+            throw new StreamCorruptedException("Unrecognised save body: 0x" + Integer.toHexString(magic));
+        }
+
+        int version = data.readInt();
+        if (version > WorldSaveData.SAVE_FORMAT_VERSION) {
+            throw new IOException("Save format version " + version + " is newer than supported version "
+                + WorldSaveData.SAVE_FORMAT_VERSION);
+        }
+        return readBinary(data, version);
+    }
+
+    /**
+     * Reads the binary layout, one section at a time.
+     */
+    private static WorldSaveData readBinary(DataInputStream data, int version) throws IOException {
+        WorldSaveData saveData = new WorldSaveData();
+        saveData.setSaveFormatVersion(version);
+        saveData.setWorldSeed(data.readLong());
+        saveData.setSaveTimestamp(data.readLong());
+        saveData.setSaveName(data.readUTF());
+        saveData.setGameMode(data.readUTF());
+        saveData.setPlayerX(data.readFloat());
+        saveData.setPlayerY(data.readFloat());
+        saveData.setPlayerHealth(data.readFloat());
+        saveData.setAppleCount(data.readInt());
+        saveData.setBananaCount(data.readInt());
+        saveData.setBabyBambooCount(data.readInt());
+        saveData.setBambooStackCount(data.readInt());
+        saveData.setBabyTreeCount(data.readInt());
+        saveData.setWoodStackCount(data.readInt());
+        saveData.setPebbleCount(data.readInt());
+
+        int sectionId;
+        while ((sectionId = data.readUnsignedByte()) != SECTION_END) {
+            int count = readCount(data);
+            DataInputStream s = readSection(data);
+            // Sections added by a later version are ignored; their bytes were already consumed
+            readEntries(s, sectionId, count, saveData);
+        }
+        return saveData;
+    }
+
+    /**
+     * Reads entries of one section into the save data. Map and set entries are merged
+     * into the existing collection (created if absent); list sections replace the list.
+     * Unknown section ids are ignored.
+     *
+     * @param in The stream positioned at the first entry
+     * @param sectionId The section the entries belong to
+     * @param count The number of entries to read
+     * @param saveData The save data to update
+     * @throws IOException If an entry is damaged
+     */
+    static void readEntries(DataInput in, int sectionId, int count, WorldSaveData saveData) throws IOException {
+        switch (sectionId) {
+            case SECTION_TREES: {
+                Map<String, TreeState> trees = saveData.getTrees();
+                if (trees == null) {
+                    trees = new HashMap<>(capacity(count));
+                    saveData.setTrees(trees);
+                }
+                for (int i = 0; i < count; i++) {
+                    String key = readKey(in);
+                    String id = readId(in, key);
+                    TreeType type = readEnum(in, TREE_TYPES);
+                    trees.put(key, new TreeState(id, type, in.readFloat(), in.readFloat(),
+                                                 in.readFloat(), in.readBoolean()));
+                }
+                break;
+            }
+            case SECTION_STONES: {
+                Map<String, StoneState> stones = saveData.getStones();
+                if (stones == null) {
+                    stones = new HashMap<>(capacity(count));
+                    saveData.setStones(stones);
+                }
+                for (int i = 0; i < count; i++) {
+                    String key = readKey(in);
+                    String id = readId(in, key);
+                    stones.put(key, new StoneState(id, in.readFloat(), in.readFloat(), in.readFloat()));
+                }
+                break;
+            }
+            case SECTION_ITEMS: {
+                Map<String, ItemState> items = saveData.getItems();
+                if (items == null) {
+                    items = new HashMap<>(capacity(count));
+                    saveData.setItems(items);
+                }
+                for (int i = 0; i < count; i++) {
+                    String key = readKey(in);
+                    String id = readId(in, key);
+                    ItemType type = readEnum(in, ITEM_TYPES);
+                    items.put(key, new ItemState(id, type, in.readFloat(), in.readFloat(), in.readBoolean()));
+                }
+                break;
+            }
+            case SECTION_PLANTED_TREES: {
+                Map<String, PlantedTreeState> planted = saveData.getPlantedTrees();
+                if (planted == null) {
+                    planted = new HashMap<>(capacity(count));
+                    saveData.setPlantedTrees(planted);
+                }
+                for (int i = 0; i < count; i++) {
+                    String key = readKey(in);
+                    String id = readId(in, key);
+                    planted.put(key, new PlantedTreeState(id, in.readFloat(), in.readFloat(), in.readFloat()));
+                }
+                break;
+            }
+            case SECTION_PLANTED_BAMBOOS: {
+                Map<String, PlantedBambooState> planted = saveData.getPlantedBamboos();
+                if (planted == null) {
+                    planted = new HashMap<>(capacity(count));
+                    saveData.setPlantedBamboos(planted);
+                }
+                for (int i = 0; i < count; i++) {
+                    String key = readKey(in);
+                    String id = readId(in, key);
+                    planted.put(key, new PlantedBambooState(id, in.readFloat(), in.readFloat(), in.readFloat()));
+                }
+                break;
+            }
+            case SECTION_CLEARED: {
+                Set<String> cleared = saveData.getClearedPositions();
+                if (cleared == null) {
+                    cleared = new HashSet<>(capacity(count));
+                    saveData.setClearedPositions(cleared);
+                }
+                for (int i = 0; i < count; i++) {
+                    cleared.add(readKey(in));
+                }
+                break;
+            }
+            case SECTION_RAIN_ZONES: {
+                List<RainZone> zones = new ArrayList<>(Math.min(count, MAX_PRESIZE));
+                for (int i = 0; i < count; i++) {
+                    zones.add(new RainZone(readKey(in), in.readFloat(), in.readFloat(),
+                                           in.readFloat(), in.readFloat(), in.readFloat()));
+                }
+                saveData.setRainZones(zones);
+                break;
+            }
+            case SECTION_RESPAWNS: {
+                List<RespawnEntry> respawns = new ArrayList<>(Math.min(count, MAX_PRESIZE));
+                for (int i = 0; i < count; i++) {
+                    String id = readKey(in);
+                    ResourceType type = readEnum(in, RESOURCE_TYPES);
+                    float x = in.readFloat();
+                    float y = in.readFloat();
+                    long destroyedAt = in.readLong();
+                    long duration = in.readLong();
+                    respawns.add(new RespawnEntry(id, type, x, y, destroyedAt, duration,
+                                                  readEnum(in, TREE_TYPES)));
+                }
+                saveData.setPendingRespawns(respawns);
+                break;
+            }
+            default:
+                break;
+        }
+    }
+
+    /**
+     * Removes one entry from a map or set section. Does nothing for list sections.
+     *
+     * @param saveData The save data to update
+     * @param sectionId The section holding the entry
+     * @param key The map key or cleared position
+     */
+    static void removeEntry(WorldSaveData saveData, int sectionId, String key) {
+        Collection<?> keys = null;
+        switch (sectionId) {
+            case SECTION_TREES:
+                keys = saveData.getTrees() != null ? saveData.getTrees().keySet() : null;
+                break;
+            case SECTION_STONES:
+                keys = saveData.getStones() != null ? saveData.getStones().keySet() : null;
+                break;
+            case SECTION_ITEMS:
+                keys = saveData.getItems() != null ? saveData.getItems().keySet() : null;
+                break;
+            case SECTION_PLANTED_TREES:
+                keys = saveData.getPlantedTrees() != null ? saveData.getPlantedTrees().keySet() : null;
+                break;
+            case SECTION_PLANTED_BAMBOOS:
+                keys = saveData.getPlantedBamboos() != null ? saveData.getPlantedBamboos().keySet() : null;
+                break;
+            case SECTION_CLEARED:
+                keys = saveData.getClearedPositions();
+                break;
+            default:
+                break;
+        }
+        if (keys != null) {
+            keys.remove(key);
+        }
+    }
+
+    /**
+     * Sets a section's collection to null, as if the save never had it.
+     *
+     * @param saveData The save data to update
+     * @param sectionId The section to drop
+     */
+    static void dropSection(WorldSaveData saveData, int sectionId) {
+        switch (sectionId) {
+            case SECTION_TREES:
+                saveData.setTrees(null);
+                break;
+            case SECTION_STONES:
+                saveData.setStones(null);
+                break;
+            case SECTION_ITEMS:
+                saveData.setItems(null);
+                break;
+            case SECTION_PLANTED_TREES:
+                saveData.setPlantedTrees(null);
+                break;
+            case SECTION_PLANTED_BAMBOOS:
+                saveData.setPlantedBamboos(null);
+                break;
+            case SECTION_CLEARED:
+                saveData.setClearedPositions(null);
+                break;
+            case SECTION_RAIN_ZONES:
+                saveData.setRainZones(null);
+                break;
+            case SECTION_RESPAWNS:
+                saveData.setPendingRespawns(null);
+                break;
+            default:
+                break;
+        }
+    }
+
+    /**
+     * Collects one section in memory so it can be length-prefixed and compressed.
+     * The entry count is written by {@link #end} from the entries actually written.
+     * The save data is a detached copy (see WorldSaveManager.createSaveData), so it
+     * cannot change while a save is in progress.
+     * The buffer and deflater are reused across the sections of one save.
+     */
+    private static final class SectionWriter {
+        private final ByteArrayOutputStream raw = new ByteArrayOutputStream(64 * 1024);
+        private final DataOutputStream rawData = new DataOutputStream(raw);
+        private final Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        private final IntConsumer onSection;
+        private byte[] compressed = new byte[0];
+        private int sectionsDone;
+
+        SectionWriter(IntConsumer onSection) {
+            this.onSection = onSection;
+        }
+
+        DataOutputStream begin() {
+            raw.reset();
+            return rawData;
+        }
+
+        void end(DataOutputStream out, int sectionId, int count) throws IOException {
+            rawData.flush();
+            byte[] bytes = raw.toByteArray();
+
+            int compressedLength = -1;
+            if (bytes.length >= MIN_COMPRESS_BYTES) {
+                if (compressed.length < bytes.length) {
+                    compressed = new byte[bytes.length];
+                }
+                deflater.reset();
+                deflater.setInput(bytes);
+                deflater.finish();
+                int length = deflater.deflate(compressed);
+                // Only keep the compressed form if it finished within the raw size
+                if (deflater.finished() && length < bytes.length) {
+                    compressedLength = length;
+                }
+            }
+
+            out.writeByte(sectionId);
+            out.writeInt(count);
+            if (compressedLength >= 0) {
+                out.writeByte(FLAG_DEFLATE);
+                out.writeInt(bytes.length);
+                out.writeInt(compressedLength);
+                out.write(compressed, 0, compressedLength);
+            } else {
+                out.writeByte(0);
+                out.writeInt(bytes.length);
+                out.writeInt(bytes.length);
+                out.write(bytes);
+            }
+        }
+
+        void advance() {
+            sectionsDone++;
+            if (onSection != null) {
+                onSection.accept(sectionsDone);
+            }
+        }
+
+        void close() {
+            deflater.end();
+        }
+    }
+
+    /**
+     * Reads a section's framing and returns a stream over its (decompressed) bytes.
+     */
+    private static DataInputStream readSection(DataInputStream in) throws IOException {
+        int flags = in.readUnsignedByte();
+        int rawLength = in.readInt();
+        int storedLength = in.readInt();
+        if (rawLength < 0 || rawLength > MAX_SECTION_BYTES || storedLength < 0 || storedLength > MAX_SECTION_BYTES) {
+            throw new StreamCorruptedException("Corrupt save section length: " + rawLength + "/" + storedLength);
+        }
+
+        byte[] stored = new byte[storedLength];
+        in.readFully(stored);
+        if ((flags & FLAG_DEFLATE) == 0) {
+            return new DataInputStream(new ByteArrayInputStream(stored));
+        }
+
+        byte[] raw = new byte[rawLength];
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(stored);
+            int length = inflater.inflate(raw);
+            if (length != rawLength || !inflater.finished()) {
+                throw new StreamCorruptedException("Compressed save section is truncated");
+            }
+        } catch (DataFormatException e) {
+            throw new StreamCorruptedException("Compressed save section is corrupt: " + e.getMessage());
+        } finally {
+            inflater.end();
+        }
+        return new DataInputStream(new ByteArrayInputStream(raw));
+    }
+
+    static int readCount(DataInput in) throws IOException {
+        int count = in.readInt();
+        if (count < 0) {
+            throw new StreamCorruptedException("Negative entry count: " + count);
+        }
+        return count;
+    }
+
+    /**
+     * Initial map capacity for a count read from the file. Capped, so a damaged count
+     * fails on the section's end of data rather than on a huge allocation.
+     */
+    private static int capacity(int count) {
+        return Math.min(count, MAX_PRESIZE) * 4 / 3 + 1;
+    }
+
+    /**
+     * Writes a map key or position string, packing canonical "x,y" grid keys as two varints.
+     */
+    static void writeKey(DataOutput out, String key) throws IOException {
+        if (key == null) {
+            out.writeByte(KEY_NULL);
+            return;
+        }
+        int comma = key.indexOf(',');
+        if (comma > 0) {
+            try {
+                int x = Integer.parseInt(key, 0, comma, 10);
+                int y = Integer.parseInt(key, comma + 1, key.length(), 10);
+                // Only pack keys that print back identically ("+1,01" stays a string)
+                if (key.equals(x + "," + y)) {
+                    out.writeByte(KEY_GRID);
+                    writeVarInt(out, zigZag(x));
+                    writeVarInt(out, zigZag(y));
+                    return;
+                }
+            } catch (NumberFormatException e) {
+                // Not a grid key
+            }
+        }
+        out.writeByte(KEY_STRING);
+        out.writeUTF(key);
+    }
+
+    static String readKey(DataInput in) throws IOException {
+        int tag = in.readUnsignedByte();
+        switch (tag) {
+            case KEY_NULL:
+                return null;
+            case KEY_GRID:
+                return unZigZag(readVarInt(in)) + "," + unZigZag(readVarInt(in));
+            case KEY_STRING:
+                return in.readUTF();
+            default:
+                throw new StreamCorruptedException("Unknown key tag: " + tag);
+        }
+    }
+
+    /**
+     * Writes an entity ID, as a single flag when it equals the map key (the usual case).
+     */
+    private static void writeId(DataOutput out, String key, String id) throws IOException {
+        boolean sameAsKey = id != null && id.equals(key);
+        out.writeBoolean(sameAsKey);
+        if (!sameAsKey) {
+            writeKey(out, id);
+        }
+    }
+
+    private static String readId(DataInput in, String key) throws IOException {
+        return in.readBoolean() ? key : readKey(in);
+    }
+
+    private static void writeEnum(DataOutput out, Enum<?> value) throws IOException {
+        // 0 encodes null, so ordinals are shifted by one
+        out.writeByte(value == null ? 0 : value.ordinal() + 1);
+    }
+
+    private static <E extends Enum<E>> E readEnum(DataInput in, E[] values) throws IOException {
+        int ordinal = in.readUnsignedByte();
+        if (ordinal == 0) {
+            return null;
+        }
+        if (ordinal > values.length) {
+            throw new StreamCorruptedException("Invalid enum ordinal: " + (ordinal - 1));
+        }
+        return values[ordinal - 1];
+    }
+
+    private static void writeVarInt(DataOutput out, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    private static int readVarInt(DataInput in) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new StreamCorruptedException("Malformed varint");
+    }
+
+    private static int zigZag(int value) {
+        return (value << 1) ^ (value >> 31);
+    }
+
+    private static int unZigZag(int value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+}
@@ -21,8 +21,11 @@ import java.util.List;
 public class WorldSaveData implements Serializable {
     private static final long serialVersionUID = 2L;
     
-    // Version for save format compatibility
-    private static final int SAVE_FORMAT_VERSION = 1;
+    /**
+     * Current save format version.
+     * 1: Java-serialized WorldSaveData. 2: sectioned binary body written by {@link WorldSaveCodec}.
+     */
+    public static final int SAVE_FORMAT_VERSION = 2;
     
     // Core world data
     private long worldSeed;
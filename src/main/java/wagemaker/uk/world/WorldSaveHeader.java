@@ -0,0 +1,172 @@
+package wagemaker.uk.world;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Small fixed-layout header written at the front of every save file.
+ *
+ * The header carries the fields shown in the load and manage dialogs, so listing
+ * saves reads a few hundred bytes per file instead of deserializing every tree,
+ * stone and item. Layout (big-endian):
+ * <pre>
+ *   int   magic ("WLDH")
+ *   short header version
+ *   int   length of the fields below in bytes
+ *   UTF   save name, long timestamp, UTF game mode, long world seed,
+ *   int   tree count, int item count, int cleared position count,
+ *   float player x, float player y, float player health, int save format version
+ * </pre>
+ * The save body follows immediately after. Newer header versions may append fields;
+ * readers skip to the end using the recorded length. Files written before the header
+ * existed start directly with the body and are still accepted.
+ */
+public final class WorldSaveHeader {
+
+    /** Marks a file that starts with a header ("WLDH"). */
+    public static final int MAGIC = 0x574C4448;
+
+    /** Version of the header layout written by this build. */
+    public static final short HEADER_VERSION = 1;
+
+    // Upper bound on a header's field block, so a damaged length cannot cause a huge skip
+    private static final int MAX_HEADER_BYTES = 4096;
+
+    private WorldSaveHeader() {
+    }
+
+    /**
+     * Writes the header for a save.
+     *
+     * @param out The stream the save file is written to, positioned at the start
+     * @param saveData The data about to be written after the header
+     * @throws IOException If writing fails
+     */
+    public static void write(OutputStream out, WorldSaveData saveData) throws IOException {
+        ByteArrayOutputStream fieldBytes = new ByteArrayOutputStream(128);
+        DataOutputStream fields = new DataOutputStream(fieldBytes);
+        writeFields(fields, saveData);
+        fields.flush();
+
+        DataOutputStream data = new DataOutputStream(out);
+        data.writeInt(MAGIC);
+        data.writeShort(HEADER_VERSION);
+        data.writeInt(fieldBytes.size());
+        fieldBytes.writeTo(data);
+        data.flush();
+    }
+
+    /**
+     * Reads the header of a save file without touching the body.
+     *
+     * @param saveFile The save file
+     * @return The save's metadata, or null if the file has no header (older save)
+     * @throws IOException If the file cannot be read or the header is damaged
+     */
+    public static WorldSaveInfo read(File saveFile) throws IOException {
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(new FileInputStream(saveFile), 512))) {
+            if (!readMagic(in)) {
+                return null;
+            }
+            in.readShort(); // header version; every version starts with these fields
+            readLength(in);
+
+            WorldSaveInfo info = readFields(in);
+            info.setFileSizeBytes(saveFile.length());
+            return info;
+        }
+    }
+
+    /**
+     * Writes the listing fields. The save journal repeats them in every record so a
+     * listing reflects the latest incremental save.
+     */
+    static void writeFields(DataOutput fields, WorldSaveData saveData) throws IOException {
+        fields.writeUTF(saveData.getSaveName());
+        fields.writeLong(saveData.getSaveTimestamp());
+        fields.writeUTF(saveData.getGameMode());
+        fields.writeLong(saveData.getWorldSeed());
+        fields.writeInt(saveData.getExistingTreeCount());
+        fields.writeInt(saveData.getUncollectedItemCount());
+        fields.writeInt(saveData.getClearedPositions() != null ? saveData.getClearedPositions().size() : 0);
+        fields.writeFloat(saveData.getPlayerX());
+        fields.writeFloat(saveData.getPlayerY());
+        fields.writeFloat(saveData.getPlayerHealth());
+        fields.writeInt(saveData.getSaveFormatVersion());
+    }
+
+    /**
+     * Reads the listing fields written by {@link #writeFields}. The file size is left unset.
+     */
+    static WorldSaveInfo readFields(DataInput in) throws IOException {
+        WorldSaveInfo info = new WorldSaveInfo();
+        info.setSaveName(in.readUTF());
+        info.setSaveTimestamp(in.readLong());
+        info.setGameMode(in.readUTF());
+        info.setWorldSeed(in.readLong());
+        info.setTreeCount(in.readInt());
+        info.setItemCount(in.readInt());
+        info.setClearedPositionCount(in.readInt());
+        info.setPlayerX(in.readFloat());
+        info.setPlayerY(in.readFloat());
+        info.setPlayerHealth(in.readFloat());
+        info.setSaveFormatVersion(in.readInt());
+        return info;
+    }
+
+    /**
+     * Opens a save file positioned at the start of its body, skipping the header if present.
+     *
+     * @param saveFile The save file
+     * @return A buffered stream over the save body; the caller closes it
+     * @throws IOException If the file cannot be opened or the header is damaged
+     */
+    public static InputStream openBody(File saveFile) throws IOException {
+        BufferedInputStream in = new BufferedInputStream(new FileInputStream(saveFile));
+        try {
+            in.mark(4);
+            DataInputStream data = new DataInputStream(in);
+            if (!readMagic(data)) {
+                in.reset();
+                return in;
+            }
+            data.readShort();
+            int length = readLength(data);
+            data.skipNBytes(length);
+            return in;
+        } catch (IOException e) {
+            in.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Reads the magic number, returning false for a file written without a header.
+     */
+    private static boolean readMagic(DataInputStream in) throws IOException {
+        try {
+            return in.readInt() == MAGIC;
+        } catch (EOFException e) {
+            return false;
+        }
+    }
+
+    private static int readLength(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0 || length > MAX_HEADER_BYTES) {
+            throw new IOException("Corrupt save header length: " + length);
+        }
+        return length;
+    }
+}
@@ -0,0 +1,639 @@
+package wagemaker.uk.world;
+
+import wagemaker.uk.network.ItemState;
+import wagemaker.uk.network.PlantedBambooState;
+import wagemaker.uk.network.PlantedTreeState;
+import wagemaker.uk.network.StoneState;
+import wagemaker.uk.network.TreeState;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.StreamCorruptedException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only journal of the changes made to a world since its last full save.
+ *
+ * A save is a base snapshot ({@code <name>.wld}) plus this journal
+ * ({@code <name>.wld.journal}). After a base has been written, later saves of the same
+ * world compare the new snapshot with what is already on disk and append only the
+ * difference as one record: entries added or changed (a tree damaged or felled, an item
+ * spawned or picked up, a sapling planted or grown, a position cleared), entries removed,
+ * and the player and inventory fields. Saving after chopping three trees writes a few
+ * hundred bytes instead of the whole world. Layout (big-endian):
+ * <pre>
+ *   int magic ("WLDJ"), int journal version, long base timestamp, long base world seed
+ *   records: int payload length, int CRC-32 of the payload, payload
+ *   payload: header fields (see {@link WorldSaveHeader}), 7 inventory ints, then operations
+ *            (byte section id, byte op, op data) terminated by a section id of 0
+ * </pre>
+ * Operations are PUT (one entry encoded exactly as in the base), REMOVE (the key),
+ * REPLACE (entry count and entries; used for the list sections and when a collection
+ * first appears) and DROP (the collection becomes null).
+ *
+ * Loading replays the records over the base in order. A record that is cut short or fails
+ * its checksum (the game died part way through an append) ends the replay, so the world
+ * loads as of the last complete save. The base is only ever replaced by an atomic rename,
+ * so there is no separate backup copy. A journal whose base timestamp or seed does not
+ * match the base it sits next to (a compaction that stopped before deleting it) is ignored.
+ *
+ * Once the journal outgrows half the base, the next save writes a fresh base and starts
+ * an empty journal (compaction), which keeps load time bounded.
+ *
+ * An instance holds the encoded bytes of every saved entry so it can tell what changed;
+ * WorldSaveManager keeps one per recently written save and uses it under its write lock.
+ * Instances are not thread safe.
+ */
+public final class WorldSaveJournal {
+
+    /** Marks a save journal ("WLDJ"). */
+    public static final int MAGIC = 0x574C444A;
+
+    /** Version of the journal layout written by this build. */
+    public static final int JOURNAL_VERSION = 1;
+
+    /** Appended to the save file name to name its journal. */
+    public static final String JOURNAL_SUFFIX = ".journal";
+
+    /** Journals smaller than this are never compacted, whatever the size of the base. */
+    static final long MIN_COMPACT_BYTES = 64 * 1024;
+
+    private static final int OP_PUT = 1;
+    private static final int OP_REMOVE = 2;
+    private static final int OP_REPLACE = 3;
+    private static final int OP_DROP = 4;
+
+    private static final int FILE_HEADER_BYTES = 24;
+
+    /** Upper bound for a record, so a damaged length cannot exhaust memory (256MB). */
+    private static final int MAX_RECORD_BYTES = 256 * 1024 * 1024;
+
+    private final File baseFile;
+    private final File journalFile;
+    private final long baseTimestamp;
+    private final long baseSeed;
+    private final long baseLength;
+    private final long baseModified;
+
+    // Saved entries per section id; null where the collection is absent
+    private final SectionImage[] sections = new SectionImage[WorldSaveCodec.SECTION_COUNT + 1];
+    private final EntryBuffer entry = new EntryBuffer();
+    private final DataOutputStream entryData = new DataOutputStream(entry);
+    private final ByteArrayOutputStream record = new ByteArrayOutputStream(4096);
+
+    // Length of the journal up to the end of its last complete record (0 = not created yet)
+    private long journalLength;
+    private long journalModified;
+
+    private WorldSaveJournal(File baseFile, WorldSaveData base) {
+        this.baseFile = baseFile;
+        this.journalFile = journalFileFor(baseFile);
+        this.baseTimestamp = base.getSaveTimestamp();
+        this.baseSeed = base.getWorldSeed();
+        this.baseLength = baseFile.length();
+        this.baseModified = baseFile.lastModified();
+    }
+
+    /**
+     * Gets the journal file that belongs to a save file.
+     * @param saveFile The base save file
+     * @return The journal file next to it
+     */
+    public static File journalFileFor(File saveFile) {
+        return new File(saveFile.getPath() + JOURNAL_SUFFIX);
+    }
+
+    /**
+     * Starts a new, empty journal after a full save has been written, deleting the
+     * previous journal whose changes the new base already contains.
+     *
+     * @param baseFile The save file that was just written
+     * @param base The data that was written to it
+     * @return A journal ready for incremental saves on top of that base
+     * @throws IOException If the base cannot be indexed
+     */
+    static WorldSaveJournal startAfterBase(File baseFile, WorldSaveData base) throws IOException {
+        WorldSaveJournal journal = new WorldSaveJournal(baseFile, base);
+        if (journal.journalFile.exists() && !journal.journalFile.delete()) {
+            // Harmless: its base timestamp no longer matches, so loading ignores it
+            System.err.println("Failed to delete old save journal: " + journal.journalFile.getAbsolutePath());
+        }
+        journal.writeChanges(new DataOutputStream(OutputStream.nullOutputStream()), base);
+        return journal;
+    }
+
+    /**
+     * Checks that the files on disk are still the ones this journal wrote, so appending
+     * is safe. Fails if anything else replaced or changed the save since.
+     * @return true if the next save may be appended
+     */
+    boolean isCurrent() {
+        if (baseFile.length() != baseLength || baseFile.lastModified() != baseModified) {
+            return false;
+        }
+        return journalLength == 0
+            || (journalFile.length() == journalLength && journalFile.lastModified() == journalModified);
+    }
+
+    /**
+     * Checks whether the journal has grown enough that a full save should replace it.
+     * @return true if the next save should be a full save
+     */
+    boolean needsCompaction() {
+        return journalLength > Math.max(MIN_COMPACT_BYTES, baseLength / 2);
+    }
+
+    /**
+     * Gets the world seed of the base save. Records never change the seed, so a save
+     * of another world must be written in full.
+     * @return The seed the base was saved with
+     */
+    long getBaseSeed() {
+        return baseSeed;
+    }
+
+    /**
+     * Gets the length of the journal file.
+     * @return The journal length in bytes, 0 if no incremental save has been made yet
+     */
+    long getJournalLength() {
+        return journalLength;
+    }
+
+    /**
+     * Appends the difference between the saved state and a new snapshot, and syncs it.
+     * If this throws, the journal no longer matches the disk and must be discarded; the
+     * caller then writes a full save.
+     *
+     * @param saveData The new snapshot
+     * @return The number of entry changes written
+     * @throws IOException If writing fails
+     */
+    int append(WorldSaveData saveData) throws IOException {
+        record.reset();
+        DataOutputStream payload = new DataOutputStream(record);
+        WorldSaveHeader.writeFields(payload, saveData);
+        payload.writeInt(saveData.getAppleCount());
+        payload.writeInt(saveData.getBananaCount());
+        payload.writeInt(saveData.getBabyBambooCount());
+        payload.writeInt(saveData.getBambooStackCount());
+        payload.writeInt(saveData.getBabyTreeCount());
+        payload.writeInt(saveData.getWoodStackCount());
+        payload.writeInt(saveData.getPebbleCount());
+        int changes = writeChanges(payload, saveData);
+        payload.writeByte(WorldSaveCodec.SECTION_END);
+        payload.flush();
+
+        byte[] bytes = record.toByteArray();
+        CRC32 crc = new CRC32();
+        crc.update(bytes);
+
+        boolean newFile = journalLength == 0;
+        ByteBuffer buffer = ByteBuffer.allocate((newFile ? FILE_HEADER_BYTES : 0) + 8 + bytes.length);
+        if (newFile) {
+            buffer.putInt(MAGIC);
+            buffer.putInt(JOURNAL_VERSION);
+            buffer.putLong(baseTimestamp);
+            buffer.putLong(baseSeed);
+        }
+        buffer.putInt(bytes.length);
+        buffer.putInt((int) crc.getValue());
+        buffer.put(bytes);
+        buffer.flip();
+
+        try (FileChannel channel = FileChannel.open(journalFile.toPath(),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            // Drops a stale journal, or anything after the last complete record
+            channel.truncate(journalLength);
+            channel.position(journalLength);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(false);
+        }
+        journalLength += buffer.limit();
+        journalModified = journalFile.lastModified();
+        return changes;
+    }
+
+    /**
+     * Writes an operation for every section entry that differs from the saved image,
+     * updating the image as it goes.
+     */
+    private int writeChanges(DataOutputStream out, WorldSaveData saveData) throws IOException {
+        int changes = 0;
+
+        Map<String, TreeState> trees = saveData.getTrees();
+        changes += writeKeyedChanges(out, WorldSaveCodec.SECTION_TREES, trees == null ? null : trees.keySet(),
+            (o, key) -> WorldSaveCodec.writeTree(o, key, trees.get(key)));
+
+        Map<String, StoneState> stones = saveData.getStones();
+        changes += writeKeyedChanges(out, WorldSaveCodec.SECTION_STONES, stones == null ? null : stones.keySet(),
+            (o, key) -> WorldSaveCodec.writeStone(o, key, stones.get(key)));
+
+        Map<String, ItemState> items = saveData.getItems();
+        changes += writeKeyedChanges(out, WorldSaveCodec.SECTION_ITEMS, items == null ? null : items.keySet(),
+            (o, key) -> WorldSaveCodec.writeItem(o, key, items.get(key)));
+
+        Map<String, PlantedTreeState> plantedTrees = saveData.getPlantedTrees();
+        changes += writeKeyedChanges(out, WorldSaveCodec.SECTION_PLANTED_TREES,
+            plantedTrees == null ? null : plantedTrees.keySet(),
+            (o, key) -> WorldSaveCodec.writePlantedTree(o, key, plantedTrees.get(key)));
+
+        Map<String, PlantedBambooState> plantedBamboos = saveData.getPlantedBamboos();
+        changes += writeKeyedChanges(out, WorldSaveCodec.SECTION_PLANTED_BAMBOOS,
+            plantedBamboos == null ? null : plantedBamboos.keySet(),
+            (o, key) -> WorldSaveCodec.writePlantedBamboo(o, key, plantedBamboos.get(key)));
+
+        changes += writeKeyedChanges(out, WorldSaveCodec.SECTION_CLEARED, saveData.getClearedPositions(),
+            WorldSaveCodec::writeKey);
+
+        changes += writeListChanges(out, WorldSaveCodec.SECTION_RAIN_ZONES, saveData.getRainZones(),
+            WorldSaveCodec::writeRainZone);
+        changes += writeListChanges(out, WorldSaveCodec.SECTION_RESPAWNS, saveData.getPendingRespawns(),
+            WorldSaveCodec::writeRespawn);
+        return changes;
+    }
+
+    /**
+     * Diffs a map or set section entry by entry: PUT for new or changed entries, REMOVE
+     * for keys that are gone.
+     */
+    private int writeKeyedChanges(DataOutputStream out, int sectionId, Set<String> keys,
+                                  KeyEncoder encoder) throws IOException {
+        SectionImage section = sections[sectionId];
+        if (keys == null) {
+            if (section == null) {
+                return 0;
+            }
+            sections[sectionId] = null;
+            out.writeByte(sectionId);
+            out.writeByte(OP_DROP);
+            return 1;
+        }
+
+        int changes = 0;
+        if (section == null) {
+            // The collection is new: create it empty, then every entry is a PUT
+            section = new SectionImage(new HashMap<>(keys.size() * 4 / 3 + 1));
+            sections[sectionId] = section;
+            out.writeByte(sectionId);
+            out.writeByte(OP_REPLACE);
+            out.writeInt(0);
+            changes++;
+        }
+
+        Map<String, byte[]> saved = section.entries;
+        for (String key : keys) {
+            entry.reset();
+            encoder.write(entryData, key);
+            byte[] previous = saved.get(key);
+            if (previous == null || !entry.contentEquals(previous)) {
+                saved.put(key, entry.toByteArray());
+                out.writeByte(sectionId);
+                out.writeByte(OP_PUT);
+                entry.writeTo(out);
+                changes++;
+            }
+        }
+
+        // Every current key is now saved, so extra saved keys are the removed ones
+        if (saved.size() > keys.size()) {
+            Iterator<String> iterator = saved.keySet().iterator();
+            while (iterator.hasNext()) {
+                String key = iterator.next();
+                if (!keys.contains(key)) {
+                    iterator.remove();
+                    out.writeByte(sectionId);
+                    out.writeByte(OP_REMOVE);
+                    WorldSaveCodec.writeKey(out, key);
+                    changes++;
+                }
+            }
+        }
+        return changes;
+    }
+
+    /**
+     * Rewrites a list section whole when any part of it changed. The lists (rain zones,
+     * pending respawns) are short and have no stable key.
+     */
+    private <V> int writeListChanges(DataOutputStream out, int sectionId, List<V> values,
+                                     ValueEncoder<V> encoder) throws IOException {
+        SectionImage section = sections[sectionId];
+        if (values == null) {
+            if (section == null) {
+                return 0;
+            }
+            sections[sectionId] = null;
+            out.writeByte(sectionId);
+            out.writeByte(OP_DROP);
+            return 1;
+        }
+
+        entry.reset();
+        int count = 0;
+        for (V value : values) {
+            encoder.write(entryData, value);
+            count++;
+        }
+        if (section != null && section.listCount == count && entry.contentEquals(section.list)) {
+            return 0;
+        }
+
+        sections[sectionId] = new SectionImage(entry.toByteArray(), count);
+        out.writeByte(sectionId);
+        out.writeByte(OP_REPLACE);
+        out.writeInt(count);
+        entry.writeTo(out);
+        return 1;
+    }
+
+    /**
+     * Applies a journal to save data loaded from its base.
+     *
+     * @param journalFile The journal file (may not exist)
+     * @param saveData The data read from the base file; updated in place
+     * @return The number of records applied
+     * @throws IOException If the journal is from a newer version or a complete record is invalid
+     */
+    public static int replay(File journalFile, WorldSaveData saveData) throws IOException {
+        if (!journalFile.exists()) {
+            return 0;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(journalFile)))) {
+            if (!readFileHeader(in, journalFile, saveData.getSaveTimestamp(), saveData.getWorldSeed())) {
+                return 0;
+            }
+            CRC32 crc = new CRC32();
+            int applied = 0;
+            byte[] payload;
+            while ((payload = readRecord(in, crc, journalFile)) != null) {
+                applyRecord(payload, saveData);
+                applied++;
+            }
+            return applied;
+        }
+    }
+
+    /**
+     * Gets listing metadata that reflects the latest incremental save.
+     *
+     * Only the record length prefixes are read on the way to the last complete record,
+     * and only that record is checksummed and decoded, so listing a world costs the same
+     * however many saves its journal holds.
+     *
+     * @param journalFile The journal file (may not exist)
+     * @param baseInfo The metadata from the base file's header
+     * @return The metadata of the last complete journal record, or baseInfo if there is none
+     * @throws IOException If the journal cannot be read
+     */
+    public static WorldSaveInfo readLatestInfo(File journalFile, WorldSaveInfo baseInfo) throws IOException {
+        if (!journalFile.exists()) {
+            return baseInfo;
+        }
+        byte[] latest;
+        try (FileChannel channel = FileChannel.open(journalFile.toPath(), StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(FILE_HEADER_BYTES);
+            readFully(channel, header, 0);
+            DataInputStream headerIn = new DataInputStream(
+                new ByteArrayInputStream(header.array(), 0, header.position()));
+            if (!readFileHeader(headerIn, journalFile, baseInfo.getSaveTimestamp(), baseInfo.getWorldSeed())) {
+                return baseInfo;
+            }
+
+            long size = channel.size();
+            long position = FILE_HEADER_BYTES;
+            long lastRecord = -1;
+            ByteBuffer prefix = ByteBuffer.allocate(8);
+            while (position + 8 <= size) {
+                prefix.clear();
+                readFully(channel, prefix, position);
+                int length = prefix.getInt(0);
+                if (length <= 0 || length > MAX_RECORD_BYTES || position + 8 + length > size) {
+                    break;
+                }
+                lastRecord = position;
+                position += 8 + length;
+            }
+            if (lastRecord < 0) {
+                return baseInfo;
+            }
+
+            prefix.clear();
+            readFully(channel, prefix, lastRecord);
+            latest = new byte[prefix.getInt(0)];
+            readFully(channel, ByteBuffer.wrap(latest), lastRecord + 8);
+            CRC32 crc = new CRC32();
+            crc.update(latest);
+            if ((int) crc.getValue() != prefix.getInt(4)) {
+                // Torn last record: the full scan stops at the last record that checks out
+                latest = scanLatestRecord(journalFile, baseInfo);
+            }
+        }
+        if (latest == null) {
+            return baseInfo;
+        }
+        WorldSaveInfo info = WorldSaveHeader.readFields(new DataInputStream(new ByteArrayInputStream(latest)));
+        info.setFileSizeBytes(baseInfo.getFileSizeBytes() + journalFile.length());
+        return info;
+    }
+
+    /**
+     * Reads every record in order, as {@link #replay} does.
+     * @return The payload of the last complete record, or null if there is none
+     */
+    private static byte[] scanLatestRecord(File journalFile, WorldSaveInfo baseInfo) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(journalFile)))) {
+            if (!readFileHeader(in, journalFile, baseInfo.getSaveTimestamp(), baseInfo.getWorldSeed())) {
+                return null;
+            }
+            CRC32 crc = new CRC32();
+            byte[] latest = null;
+            byte[] payload;
+            while ((payload = readRecord(in, crc, journalFile)) != null) {
+                latest = payload;
+            }
+            return latest;
+        }
+    }
+
+    /**
+     * Fills a buffer from a channel starting at a position, stopping early at the end of the file.
+     */
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Reads the journal's file header.
+     * @return false if the journal is empty or belongs to a different base
+     */
+    private static boolean readFileHeader(DataInputStream in, File journalFile,
+                                          long baseTimestamp, long baseSeed) throws IOException {
+        int magic;
+        int version;
+        long timestamp;
+        long seed;
+        try {
+            magic = in.readInt();
+            version = in.readInt();
+            timestamp = in.readLong();
+            seed = in.readLong();
+        } catch (EOFException e) {
+            return false;
+        }
+        if (magic != MAGIC) {
+            throw new StreamCorruptedException("Not a save journal: " + journalFile.getName());
+        }
+        if (version > JOURNAL_VERSION) {
+            throw new IOException("Save journal version " + version + " is newer than supported version "
+                + JOURNAL_VERSION);
+        }
+        if (timestamp != baseTimestamp || seed != baseSeed) {
+            System.out.println("Ignoring save journal left from an earlier save: " + journalFile.getName());
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Reads the next record's payload.
+     * @return The payload, or null at the end of the journal or at an incomplete last record
+     */
+    private static byte[] readRecord(DataInputStream in, CRC32 crc, File journalFile) throws IOException {
+        int length;
+        try {
+            length = in.readInt();
+        } catch (EOFException e) {
+            return null;
+        }
+        try {
+            int checksum = in.readInt();
+            if (length <= 0 || length > MAX_RECORD_BYTES) {
+                throw new EOFException("record length " + length);
+            }
+            byte[] payload = new byte[length];
+            in.readFully(payload);
+            crc.reset();
+            crc.update(payload);
+            if ((int) crc.getValue() != checksum) {
+                throw new EOFException("checksum mismatch");
+            }
+            return payload;
+        } catch (EOFException e) {
+            System.err.println("Save journal " + journalFile.getName()
+                + " ends with an incomplete record, ignoring it (" + e.getMessage() + ")");
+            return null;
+        }
+    }
+
+    /**
+     * Applies one record's fields and operations.
+     */
+    private static void applyRecord(byte[] payload, WorldSaveData saveData) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload));
+        WorldSaveInfo fields = WorldSaveHeader.readFields(in);
+        saveData.setSaveName(fields.getSaveName());
+        saveData.setSaveTimestamp(fields.getSaveTimestamp());
+        saveData.setGameMode(fields.getGameMode());
+        saveData.setPlayerX(fields.getPlayerX());
+        saveData.setPlayerY(fields.getPlayerY());
+        saveData.setPlayerHealth(fields.getPlayerHealth());
+        saveData.setAppleCount(in.readInt());
+        saveData.setBananaCount(in.readInt());
+        saveData.setBabyBambooCount(in.readInt());
+        saveData.setBambooStackCount(in.readInt());
+        saveData.setBabyTreeCount(in.readInt());
+        saveData.setWoodStackCount(in.readInt());
+        saveData.setPebbleCount(in.readInt());
+
+        int sectionId;
+        while ((sectionId = in.readUnsignedByte()) != WorldSaveCodec.SECTION_END) {
+            int op = in.readUnsignedByte();
+            switch (op) {
+                case OP_PUT:
+                    WorldSaveCodec.readEntries(in, sectionId, 1, saveData);
+                    break;
+                case OP_REMOVE:
+                    WorldSaveCodec.removeEntry(saveData, sectionId, WorldSaveCodec.readKey(in));
+                    break;
+                case OP_REPLACE:
+                    WorldSaveCodec.dropSection(saveData, sectionId);
+                    WorldSaveCodec.readEntries(in, sectionId, WorldSaveCodec.readCount(in), saveData);
+                    break;
+                case OP_DROP:
+                    WorldSaveCodec.dropSection(saveData, sectionId);
+                    break;
+                default:
+                    throw new StreamCorruptedException("Unknown save journal operation: " + op);
+            }
+        }
+    }
+
+    /**
+     * Encoded entries of one saved section: per key for maps and sets, whole for lists.
+     */
+    private static final class SectionImage {
+        final Map<String, byte[]> entries;
+        final byte[] list;
+        final int listCount;
+
+        SectionImage(Map<String, byte[]> entries) {
+            this.entries = entries;
+            this.list = null;
+            this.listCount = 0;
+        }
+
+        SectionImage(byte[] list, int listCount) {
+            this.entries = null;
+            this.list = list;
+            this.listCount = listCount;
+        }
+    }
+
+    /**
+     * Reusable entry buffer that compares its contents without copying them.
+     */
+    private static final class EntryBuffer extends ByteArrayOutputStream {
+        EntryBuffer() {
+            super(256);
+        }
+
+        boolean contentEquals(byte[] other) {
+            return Arrays.equals(buf, 0, count, other, 0, other.length);
+        }
+    }
+
+    @FunctionalInterface
+    private interface KeyEncoder {
+        void write(DataOutput out, String key) throws IOException;
+    }
+
+    @FunctionalInterface
+    private interface ValueEncoder<V> {
+        void write(DataOutput out, V value) throws IOException;
+    }
+}
@@ -6,10 +6,16 @@ import wagemaker.uk.respawn.RespawnEntry;
 import wagemaker.uk.respawn.RespawnManager;
 
 import java.io.*;
+import java.nio.file.AtomicMoveNotSupportedException;
 import java.nio.file.Files;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.DoubleConsumer;
 import java.util.regex.Pattern;
 
 /**
@@ -23,10 +29,27 @@ public class WorldSaveManager {
     private static final String MULTIPLAYER_DIR = "multiplayer";
     private static final String SAVE_FILE_EXTENSION = ".wld";
     private static final String BACKUP_SUFFIX = ".backup";
+    private static final String TEMP_SUFFIX = ".tmp";
+    private static final int WRITE_BUFFER_SIZE = 64 * 1024;
     
     // Save name validation pattern - alphanumeric, spaces, hyphens, underscores only
     private static final Pattern VALID_SAVE_NAME_PATTERN = Pattern.compile("^[a-zA-Z0-9\\s\\-_]{1,50}$");
     
+    // Held while a save is written, so concurrent saves of the same world cannot interleave
+    private static final Object WRITE_LOCK = new Object();
+    
+    // Journals of saves written in this session are kept for this many worlds
+    private static final int MAX_OPEN_JOURNALS = 4;
+    
+    // Journal per save file path, least recently written first; guarded by WRITE_LOCK
+    private static final Map<String, WorldSaveJournal> JOURNALS =
+        new LinkedHashMap<String, WorldSaveJournal>(8, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, WorldSaveJournal> eldest) {
+                return size() > MAX_OPEN_JOURNALS;
+            }
+        };
+    
     /**
      * Gets the configuration directory based on the operating system.
      * Uses the same directory structure as PlayerConfig for consistency.
@@ -125,7 +148,7 @@ public class WorldSaveManager {
     
     /**
      * Saves the current world state to a file (without inventory or respawn data).
-     * Creates a backup of existing save before overwriting.
+     * Replaces any existing save with the same name.
      * This is a backward-compatible overload for old code.
      * 
      * @param saveName The name for the save file
@@ -145,7 +168,7 @@ public class WorldSaveManager {
     
     /**
      * Saves the current world state to a file (without respawn data).
-     * Creates a backup of existing save before overwriting.
+     * Replaces any existing save with the same name.
      * This is a backward-compatible overload that doesn't include respawn data.
      * 
      * @param saveName The name for the save file
@@ -167,7 +190,8 @@ public class WorldSaveManager {
     
     /**
      * Saves the current world state to a file.
-     * Creates a backup of existing save before overwriting.
+     * Saving a world already saved in this session appends only the changes to its journal.
+     * Runs synchronously; the game uses {@link AsyncWorldSaver} so the frame is not blocked.
      * 
      * @param saveName The name for the save file
      * @param worldState The current world state to save
@@ -184,57 +208,98 @@ public class WorldSaveManager {
                                   wagemaker.uk.inventory.Inventory inventory,
                                   boolean isMultiplayer,
                                   RespawnManager respawnManager) {
+        WorldSaveData saveData = createSaveData(saveName, worldState, playerX, playerY, playerHealth,
+                                                inventory, isMultiplayer, respawnManager);
+        return saveData != null && writeSaveData(saveData, isMultiplayer, null);
+    }
+    
+    /**
+     * Builds the data for a save without touching the disk.
+     * This is the part of saving that must run on the thread that owns the world. The
+     * result is a deep copy (see {@link WorldState#createSaveSnapshot}), so the world
+     * state may keep changing while the data is written on another thread.
+     * 
+     * @param saveName The name for the save file
+     * @param worldState The world state to save
+     * @param playerX Player X position at save time
+     * @param playerY Player Y position at save time
+     * @param playerHealth Player health at save time
+     * @param inventory Player inventory at save time (can be null)
+     * @param isMultiplayer true if this is a multiplayer save, false for singleplayer
+     * @param respawnManager The respawn manager containing pending respawn data (can be null)
+     * @return The validated save data, or null if it cannot be saved
+     */
+    public static WorldSaveData createSaveData(String saveName, WorldState worldState,
+                                               float playerX, float playerY, float playerHealth,
+                                               wagemaker.uk.inventory.Inventory inventory,
+                                               boolean isMultiplayer,
+                                               RespawnManager respawnManager) {
+        return createSaveData(saveName, worldState, playerX, playerY, playerHealth,
+                              inventory, isMultiplayer, respawnManager, false);
+    }
+    
+    /**
+     * Builds the data for a save without touching the disk, optionally taking over the
+     * world state's collections instead of copying them.
+     * Pass detached = true only for a state nothing else holds, such as the one returned
+     * by MyGdxGame.extractCurrentWorldState; it must not be used after this call. The
+     * client save then costs one copy of the world on the render thread instead of two.
+     * 
+     * @param saveName The name for the save file
+     * @param worldState The world state to save
+     * @param playerX Player X position at save time
+     * @param playerY Player Y position at save time
+     * @param playerHealth Player health at save time
+     * @param inventory Player inventory at save time (can be null)
+     * @param isMultiplayer true if this is a multiplayer save, false for singleplayer
+     * @param respawnManager The respawn manager containing pending respawn data (can be null)
+     * @param detached true if the save may keep the world state's collections
+     * @return The validated save data, or null if it cannot be saved
+     */
+    public static WorldSaveData createSaveData(String saveName, WorldState worldState,
+                                               float playerX, float playerY, float playerHealth,
+                                               wagemaker.uk.inventory.Inventory inventory,
+                                               boolean isMultiplayer,
+                                               RespawnManager respawnManager,
+                                               boolean detached) {
         try {
             // Validate save name
             if (!isValidSaveName(saveName)) {
                 System.err.println("Invalid save name: " + saveName);
-                return false;
+                return null;
             }
             
             // Validate world state
             if (worldState == null) {
                 System.err.println("Cannot save null world state");
-                return false;
-            }
-            
-            // Create save directory if it doesn't exist
-            File saveDir = getSaveDirectory(isMultiplayer);
-            if (!saveDir.exists()) {
-                if (!saveDir.mkdirs()) {
-                    System.err.println("Failed to create save directory: " + saveDir.getAbsolutePath());
-                    return false;
-                }
+                return null;
             }
             
-            File saveFile = getSaveFile(saveName, isMultiplayer);
-            File backupFile = getBackupFile(saveName, isMultiplayer);
-            
-            // Create backup of existing save
-            if (saveFile.exists()) {
-                try {
-                    Files.copy(saveFile.toPath(), backupFile.toPath(), 
-                              java.nio.file.StandardCopyOption.REPLACE_EXISTING);
-                    System.out.println("Created backup: " + backupFile.getAbsolutePath());
-                } catch (IOException e) {
-                    System.err.println("Failed to create backup, continuing anyway: " + e.getMessage());
-                }
+            String gameMode = isMultiplayer ? "multiplayer" : "singleplayer";
+            WorldSaveData saveData;
+            if (detached) {
+                saveData = new WorldSaveData(
+                    worldState.getWorldSeed(),
+                    worldState.getTrees(),
+                    worldState.getStones(),
+                    worldState.getItems(),
+                    worldState.getClearedPositions(),
+                    worldState.getRainZones(),
+                    playerX,
+                    playerY,
+                    playerHealth,
+                    saveName,
+                    gameMode
+                );
+                saveData.setPlantedTrees(worldState.getPlantedTrees() != null ?
+                                         worldState.getPlantedTrees() : new HashMap<>());
+                saveData.setPlantedBamboos(worldState.getPlantedBamboos() != null ?
+                                           worldState.getPlantedBamboos() : new HashMap<>());
+            } else {
+                // Copy the world so the save shares no mutable state with it
+                saveData = worldState.createSaveSnapshot(playerX, playerY, playerHealth, saveName, gameMode);
             }
             
-            // Create WorldSaveData from current state
-            WorldSaveData saveData = new WorldSaveData(
-                worldState.getWorldSeed(),
-                worldState.getTrees(),
-                worldState.getStones(),
-                worldState.getItems(),
-                worldState.getClearedPositions(),
-                worldState.getRainZones(),
-                playerX,
-                playerY,
-                playerHealth,
-                saveName,
-                isMultiplayer ? "multiplayer" : "singleplayer"
-            );
-            
             // Set inventory data if provided
             if (inventory != null) {
                 saveData.setAppleCount(inventory.getAppleCount());
@@ -246,16 +311,8 @@ public class WorldSaveManager {
                 saveData.setPebbleCount(inventory.getPebbleCount());
             }
             
-            // Set planted trees and bamboos from world state
-            if (worldState.getPlantedTrees() != null) {
-                saveData.setPlantedTrees(worldState.getPlantedTrees());
-                System.out.println("Saved " + worldState.getPlantedTrees().size() + " planted trees");
-            }
-            
-            if (worldState.getPlantedBamboos() != null) {
-                saveData.setPlantedBamboos(worldState.getPlantedBamboos());
-                System.out.println("Saved " + worldState.getPlantedBamboos().size() + " planted bamboos");
-            }
+            System.out.println("Saved " + saveData.getPlantedTrees().size() + " planted trees");
+            System.out.println("Saved " + saveData.getPlantedBamboos().size() + " planted bamboos");
             
             // Set respawn data if provided
             if (respawnManager != null) {
@@ -277,30 +334,124 @@ public class WorldSaveManager {
             // Validate save data before writing
             if (!saveData.isValid()) {
                 System.err.println("Save data validation failed");
-                return false;
-            }
-            
-            // Write save data to file
-            try (FileOutputStream fos = new FileOutputStream(saveFile);
-                 ObjectOutputStream oos = new ObjectOutputStream(fos)) {
-                
-                oos.writeObject(saveData);
-                oos.flush();
+                return null;
             }
             
-            System.out.println("World saved successfully: " + saveFile.getAbsolutePath());
-            System.out.println("Save contains " + saveData.getExistingTreeCount() + " trees, " + 
-                             saveData.getExistingStoneCount() + " stones, and " + 
-                             saveData.getUncollectedItemCount() + " items");
-            
-            return true;
+            return saveData;
             
-        } catch (IOException e) {
-            System.err.println("Failed to save world: " + e.getMessage());
-            return false;
         } catch (Exception e) {
-            System.err.println("Unexpected error saving world: " + e.getMessage());
-            return false;
+            System.err.println("Unexpected error preparing world save: " + e.getMessage());
+            return null;
+        }
+    }
+    
+    /**
+     * Writes prepared save data to disk. Safe to call from a background thread.
+     * 
+     * If this world was already saved in this session with the same seed and the files
+     * are unchanged, only the difference is appended to the save's journal (see {@link WorldSaveJournal}).
+     * Otherwise, or once the journal has grown too large, a full save is written: to a
+     * temporary file that is synced first and then renamed over the save, after which
+     * the journal starts empty. A crash or full disk part way through never leaves a
+     * half-written save behind. Writes are serialized, so two saves cannot interleave.
+     * 
+     * @param saveData The data to write, typically from {@link #createSaveData}
+     * @param isMultiplayer true if this is a multiplayer save, false for singleplayer
+     * @param progress Receives progress from 0 to 1 as the save is written (can be null)
+     * @return true if save was successful, false otherwise
+     */
+    public static boolean writeSaveData(WorldSaveData saveData, boolean isMultiplayer, DoubleConsumer progress) {
+        synchronized (WRITE_LOCK) {
+            File tempFile = null;
+            try {
+                String saveName = saveData.getSaveName();
+                if (!isValidSaveName(saveName)) {
+                    System.err.println("Invalid save name: " + saveName);
+                    return false;
+                }
+                
+                // Create save directory if it doesn't exist
+                File saveDir = getSaveDirectory(isMultiplayer);
+                if (!saveDir.exists()) {
+                    if (!saveDir.mkdirs()) {
+                        System.err.println("Failed to create save directory: " + saveDir.getAbsolutePath());
+                        return false;
+                    }
+                }
+                
+                File saveFile = getSaveFile(saveName, isMultiplayer);
+                String journalKey = saveFile.getAbsolutePath();
+                
+                // Append the changes when the previous save of this world is still on disk
+                WorldSaveJournal journal = JOURNALS.remove(journalKey);
+                if (journal != null && journal.getBaseSeed() == saveData.getWorldSeed() &&
+                    journal.isCurrent() && !journal.needsCompaction()) {
+                    try {
+                        int changes = journal.append(saveData);
+                        JOURNALS.put(journalKey, journal);
+                        
+                        if (progress != null) {
+                            progress.accept(1.0);
+                        }
+                        
+                        System.out.println("World saved incrementally: " + saveFile.getAbsolutePath() + 
+                                         " (" + changes + " changes, journal " + journal.getJournalLength() + " bytes)");
+                        return true;
+                    } catch (IOException e) {
+                        System.err.println("Failed to append to save journal, writing a full save: " + e.getMessage());
+                    }
+                }
+                
+                tempFile = new File(saveDir, saveName + SAVE_FILE_EXTENSION + TEMP_SUFFIX);
+                
+                // Write header (for fast listing) followed by the save data
+                try (FileOutputStream fos = new FileOutputStream(tempFile);
+                     BufferedOutputStream bos = new BufferedOutputStream(fos, WRITE_BUFFER_SIZE)) {
+                    WorldSaveHeader.write(bos, saveData);
+                    WorldSaveCodec.write(bos, saveData, progress == null ? null :
+                        sections -> progress.accept(sections / (WorldSaveCodec.SECTION_COUNT + 1.0)));
+                    bos.flush();
+                    fos.getFD().sync();
+                }
+                
+                // Replace the save in one step
+                try {
+                    Files.move(tempFile.toPath(), saveFile.toPath(),
+                               StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+                } catch (AtomicMoveNotSupportedException e) {
+                    Files.move(tempFile.toPath(), saveFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+                }
+                tempFile = null;
+                
+                // The new base contains everything in the old journal
+                try {
+                    JOURNALS.put(journalKey, WorldSaveJournal.startAfterBase(saveFile, saveData));
+                } catch (IOException e) {
+                    System.err.println("Failed to start save journal, next save will be a full save: " + e.getMessage());
+                }
+                
+                if (progress != null) {
+                    progress.accept(1.0);
+                }
+                
+                System.out.println("World saved successfully: " + saveFile.getAbsolutePath());
+                System.out.println("Save contains " + saveData.getExistingTreeCount() + " trees, " + 
+                                 saveData.getExistingStoneCount() + " stones, and " + 
+                                 saveData.getUncollectedItemCount() + " items");
+                
+                return true;
+                
+            } catch (IOException e) {
+                System.err.println("Failed to save world: " + e.getMessage());
+                return false;
+            } catch (Exception e) {
+                System.err.println("Unexpected error saving world: " + e.getMessage());
+                return false;
+            } finally {
+                if (tempFile != null && tempFile.exists() && !tempFile.delete()) {
+                    System.err.println("Failed to remove temporary save file: " + tempFile.getAbsolutePath());
+                }
+            }
         }
     }
     
@@ -334,18 +485,11 @@ public class WorldSaveManager {
                 return null;
             }
             
-            // Load save data from file
-            WorldSaveData saveData;
-            try (FileInputStream fis = new FileInputStream(saveFile);
-                 ObjectInputStream ois = new ObjectInputStream(fis)) {
-                
-                Object obj = ois.readObject();
-                if (!(obj instanceof WorldSaveData)) {
-                    System.err.println("Save file contains invalid data type");
-                    return null;
-                }
-                
-                saveData = (WorldSaveData) obj;
+            // Load the base snapshot, then apply the changes saved since
+            WorldSaveData saveData = readSaveFile(saveFile);
+            int journalRecords = WorldSaveJournal.replay(WorldSaveJournal.journalFileFor(saveFile), saveData);
+            if (journalRecords > 0) {
+                System.out.println("Applied " + journalRecords + " incremental saves from journal");
             }
             
             // Validate loaded save data
@@ -480,9 +624,24 @@ public class WorldSaveManager {
         return saves;
     }
     
+    /**
+     * Reads the save data stored in a file, in whichever format it was written.
+     * 
+     * @param file The save or backup file
+     * @return The save data
+     * @throws IOException If the file is unreadable, damaged or from a newer version
+     * @throws ClassNotFoundException If an older serialized save refers to an unknown class
+     */
+    private static WorldSaveData readSaveFile(File file) throws IOException, ClassNotFoundException {
+        try (InputStream body = WorldSaveHeader.openBody(file)) {
+            return WorldSaveCodec.read(body);
+        }
+    }
+    
     /**
      * Loads save metadata without loading the full save data.
-     * This is more efficient for listing saves.
+     * Reads only the header at the front of the file; saves written before the
+     * header existed fall back to a full load.
      * 
      * @param saveName The name of the save
      * @param isMultiplayer true for multiplayer saves, false for singleplayer
@@ -497,8 +656,13 @@ public class WorldSaveManager {
                 return null;
             }
             
-            // Load the full save data to extract metadata
-            // In a more optimized implementation, we could store metadata separately
+            WorldSaveInfo headerInfo = WorldSaveHeader.read(saveFile);
+            if (headerInfo != null) {
+                // Incremental saves since the base carry their own copy of these fields
+                return WorldSaveJournal.readLatestInfo(WorldSaveJournal.journalFileFor(saveFile), headerInfo);
+            }
+            
+            // Older save without a header: load the full save data to extract metadata
             WorldSaveData saveData = loadWorld(saveName, isMultiplayer);
             
             if (saveData == null) {
@@ -514,7 +678,7 @@ public class WorldSaveManager {
     }
     
     /**
-     * Deletes a save file and its backup.
+     * Deletes a save file, its journal and its backup.
      * Performs proper cleanup of all associated files.
      * 
      * @param saveName The name of the save to delete
@@ -554,6 +718,26 @@ public class WorldSaveManager {
                 }
             }
             
+            // Delete the journal of incremental saves
+            synchronized (WRITE_LOCK) {
+                JOURNALS.remove(saveFile.getAbsolutePath());
+            }
+            File journalFile = WorldSaveJournal.journalFileFor(saveFile);
+            if (journalFile.exists()) {
+                if (journalFile.delete()) {
+                    System.out.println("Deleted save journal: " + journalFile.getAbsolutePath());
+                } else {
+                    // Harmless: a later save with this name writes a new base the journal won't match
+                    System.err.println("Failed to delete save journal: " + journalFile.getAbsolutePath());
+                }
+            }
+            
+            // Remove a temporary file left by an interrupted save
+            File tempFile = new File(saveFile.getPath() + TEMP_SUFFIX);
+            if (tempFile.exists() && !tempFile.delete()) {
+                System.err.println("Failed to delete temporary save file: " + tempFile.getAbsolutePath());
+            }
+            
             return success;
             
         } catch (Exception e) {
@@ -675,18 +859,8 @@ public class WorldSaveManager {
             }
             
             // Try to read the file header to validate it's a proper serialized object
-            try (FileInputStream fis = new FileInputStream(saveFile);
-                 ObjectInputStream ois = new ObjectInputStream(fis)) {
-                
-                // Try to read the object without fully deserializing
-                Object obj = ois.readObject();
-                
-                if (!(obj instanceof WorldSaveData)) {
-                    System.err.println("Save file does not contain WorldSaveData: " + saveFile.getAbsolutePath());
-                    return false;
-                }
-                
-                WorldSaveData saveData = (WorldSaveData) obj;
+            try {
+                WorldSaveData saveData = readSaveFile(saveFile);
                 
                 // Perform basic validation
                 if (!saveData.isValid()) {
@@ -712,7 +886,9 @@ public class WorldSaveManager {
     
     /**
      * Attempts to restore a save file from its backup.
-     * Used when the main save file is corrupted but a backup exists.
+     * Used when the main save file is corrupted but a backup exists. Only saves written
+     * by older versions have a backup; current saves are replaced atomically and recover
+     * from their journal instead.
      * 
      * @param saveName The name of the save to restore
      * @param isMultiplayer true for multiplayer saves, false for singleplayer
@@ -768,17 +944,8 @@ public class WorldSaveManager {
             }
             
             // Try to read the backup file
-            try (FileInputStream fis = new FileInputStream(backupFile);
-                 ObjectInputStream ois = new ObjectInputStream(fis)) {
-                
-                Object obj = ois.readObject();
-                
-                if (!(obj instanceof WorldSaveData)) {
-                    return false;
-                }
-                
-                WorldSaveData saveData = (WorldSaveData) obj;
-                return saveData.isValid();
+            try {
+                return readSaveFile(backupFile).isValid();
                 
             } catch (Exception e) {
                 return false;
@@ -0,0 +1,41 @@
+package wagemaker.uk.assets;
+
+import org.junit.jupiter.api.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the sprite regions cut from the shared sprite sheet.
+ */
+public class SpriteTypeTest {
+    
+    @Test
+    public void testRegionsStartInsideSheet() throws IOException {
+        BufferedImage sheet = ImageIO.read(new File("assets/" + SpriteAtlas.SHEET_PATH));
+        assertNotNull(sheet, "Sprite sheet should be readable");
+        
+        for (SpriteType type : SpriteType.values()) {
+            assertTrue(type.getX() >= 0 && type.getX() < sheet.getWidth(), type + " starts outside the sheet");
+            assertTrue(type.getY() >= 0 && type.getY() < sheet.getHeight(), type + " starts outside the sheet");
+        }
+    }
+    
+    @Test
+    public void testRegionsDoNotOverlap() {
+        SpriteType[] types = SpriteType.values();
+        for (int i = 0; i < types.length; i++) {
+            for (int j = i + 1; j < types.length; j++) {
+                SpriteType a = types[i];
+                SpriteType b = types[j];
+                boolean overlap = a.getX() < b.getX() + b.getWidth() && b.getX() < a.getX() + a.getWidth()
+                               && a.getY() < b.getY() + b.getHeight() && b.getY() < a.getY() + a.getHeight();
+                assertFalse(overlap, a + " overlaps " + b);
+            }
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package wagemaker.uk.biome;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for BiomeTileCache lookups and eviction.
+ * 
+ * Requirements: 2.1 (performance), 4.2 (deterministic)
+ */
+public class BiomeTileCacheTest {
+    
+    private static final BiomeSampler SAMPLER = NoiseBiomeSampler.INSTANCE;
+    private static final int CHUNK_PIXELS = BiomeTileCache.CHUNK_TILES * BiomeTileCache.TILE_SIZE;
+    
+    /**
+     * Sampler that counts how often it is asked.
+     */
+    private static class CountingSampler implements BiomeSampler {
+        int calls;
+        
+        @Override
+        public BiomeType getBiomeAtPosition(float worldX, float worldY) {
+            calls++;
+            return SAMPLER.getBiomeAtPosition(worldX, worldY);
+        }
+    }
+    
+    @Test
+    public void testTileLookupsMatchSampler() {
+        BiomeTileCache cache = new BiomeTileCache(SAMPLER);
+        for (int x = -12800; x <= 12800; x += 64) {
+            for (int y = -6400; y <= 6400; y += 320) {
+                assertEquals(SAMPLER.getBiomeAtPosition(x, y), cache.getBiomeAtPosition(x, y),
+                    "Cached biome differs at (" + x + ", " + y + ")");
+            }
+        }
+    }
+    
+    @Test
+    public void testOffGridPositionsBypassCache() {
+        CountingSampler counting = new CountingSampler();
+        BiomeTileCache cache = new BiomeTileCache(counting);
+        
+        for (int i = 0; i < 10; i++) {
+            cache.getBiomeAtPosition(5000.5f, 3000);
+            cache.getBiomeAtPosition(5010, 3000);
+        }
+        assertEquals(20, counting.calls);
+        assertEquals(0, cache.getCachedChunkCount());
+    }
+    
+    @Test
+    public void testChunkIsSampledOnce() {
+        CountingSampler counting = new CountingSampler();
+        BiomeTileCache cache = new BiomeTileCache(counting);
+        
+        for (int x = 0; x < CHUNK_PIXELS; x += 64) {
+            for (int y = 0; y < CHUNK_PIXELS; y += 64) {
+                cache.getBiomeAtPosition(x, y);
+                cache.getBiomeAtPosition(x, y);
+            }
+        }
+        assertEquals(BiomeTileCache.CHUNK_TILES * BiomeTileCache.CHUNK_TILES, counting.calls);
+        assertEquals(1, cache.getChunksFilled());
+    }
+    
+    @Test
+    public void testNegativeTilesUseFloorChunks() {
+        BiomeTileCache cache = new BiomeTileCache(SAMPLER);
+        cache.getBiomeAtPosition(-64, -64);
+        cache.getBiomeAtPosition(-CHUNK_PIXELS, -CHUNK_PIXELS);
+        assertEquals(1, cache.getChunksFilled(), "Both tiles belong to chunk (-1, -1)");
+        
+        cache.getBiomeAtPosition(0, -64);
+        assertEquals(2, cache.getChunksFilled());
+    }
+    
+    @Test
+    public void testLeastRecentlyUsedChunkIsEvicted() {
+        BiomeTileCache cache = new BiomeTileCache(SAMPLER, 4);
+        for (int chunk = 0; chunk < 4; chunk++) {
+            cache.getBiomeAtPosition(chunk * CHUNK_PIXELS, 0);
+        }
+        // Touch chunk 0 so chunk 1 becomes the eldest
+        cache.getBiomeAtPosition(0, 0);
+        cache.getBiomeAtPosition(4 * CHUNK_PIXELS, 0);
+        assertEquals(4, cache.getCachedChunkCount());
+        assertEquals(5, cache.getChunksFilled());
+        
+        cache.getBiomeAtPosition(0, 0);
+        assertEquals(5, cache.getChunksFilled(), "Recently used chunk stays cached");
+        cache.getBiomeAtPosition(CHUNK_PIXELS, 0);
+        assertEquals(6, cache.getChunksFilled(), "Evicted chunk is sampled again");
+    }
+    
+    @Test
+    public void testChunkInUseIsNeverEvicted() {
+        BiomeTileCache cache = new BiomeTileCache(SAMPLER, 4);
+        
+        // Long runs in one hot chunk, each followed by a visit to a chunk never seen before
+        for (int i = 1; i <= 100; i++) {
+            for (int tile = 0; tile < 10; tile++) {
+                cache.getBiomeAtPosition(tile * 64, 0);
+            }
+            cache.getBiomeAtPosition(i * CHUNK_PIXELS, 5 * CHUNK_PIXELS);
+        }
+        
+        assertEquals(101, cache.getChunksFilled(), "Hot chunk should be sampled only once");
+        assertEquals(4, cache.getCachedChunkCount());
+    }
+    
+    @Test
+    public void testLongWalkStaysBounded() {
+        BiomeTileCache cache = new BiomeTileCache(SAMPLER);
+        for (int x = 0; x < 400 * CHUNK_PIXELS; x += 64) {
+            assertEquals(SAMPLER.getBiomeAtPosition(x, 2048), cache.getBiomeAtPosition(x, 2048));
+        }
+        assertEquals(BiomeTileCache.DEFAULT_MAX_CHUNKS, cache.getCachedChunkCount());
+    }
+}
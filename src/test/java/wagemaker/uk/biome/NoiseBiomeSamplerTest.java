@@ -0,0 +1,88 @@
+package wagemaker.uk.biome;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the shared headless NoiseBiomeSampler.
+ * 
+ * Requirements: 4.1 (coordinate-based), 4.2 (deterministic)
+ */
+public class NoiseBiomeSamplerTest {
+    
+    private static final BiomeSampler SAMPLER = NoiseBiomeSampler.INSTANCE;
+    
+    @Test
+    public void testSpawnAreaIsGrass() {
+        assertEquals(BiomeType.GRASS, SAMPLER.getBiomeAtPosition(0, 0));
+        assertEquals(BiomeType.GRASS, SAMPLER.getBiomeAtPosition(999, 0));
+        assertEquals(BiomeType.GRASS, SAMPLER.getBiomeAtPosition(-500, 700));
+    }
+    
+    @Test
+    public void testWorldContainsBothBiomes() {
+        int sand = 0;
+        int grass = 0;
+        for (int x = -20000; x <= 20000; x += 500) {
+            for (int y = -20000; y <= 20000; y += 500) {
+                if (SAMPLER.getBiomeAtPosition(x, y) == BiomeType.SAND) {
+                    sand++;
+                } else {
+                    grass++;
+                }
+            }
+        }
+        assertTrue(sand > 0, "Sand patches should exist away from spawn");
+        assertTrue(grass > 0, "Grass should exist away from spawn");
+    }
+    
+    @Test
+    public void testBiomeManagerAgreesWithSampler() {
+        BiomeManager biomeManager = new BiomeManager();
+        for (int x = -15000; x <= 15000; x += 730) {
+            for (int y = -15000; y <= 15000; y += 610) {
+                assertEquals(SAMPLER.getBiomeAtPosition(x, y), biomeManager.getBiomeAtPosition(x, y),
+                    "BiomeManager should return the shared sampler's biome at (" + x + ", " + y + ")");
+            }
+        }
+    }
+    
+    @Test
+    public void testConcurrentSamplingIsDeterministic() throws Exception {
+        int size = 200;
+        BiomeType[] expected = new BiomeType[size * size];
+        for (int i = 0; i < expected.length; i++) {
+            expected[i] = SAMPLER.getBiomeAtPosition((i % size) * 97f - 9000f, (i / size) * 89f - 9000f);
+        }
+        
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Callable<Integer>> tasks = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                tasks.add(() -> {
+                    int mismatches = 0;
+                    for (int i = 0; i < expected.length; i++) {
+                        BiomeType biome = SAMPLER.getBiomeAtPosition((i % size) * 97f - 9000f, (i / size) * 89f - 9000f);
+                        if (biome != expected[i]) {
+                            mismatches++;
+                        }
+                    }
+                    return mismatches;
+                });
+            }
+            for (Future<Integer> result : executor.invokeAll(tasks)) {
+                assertEquals(0, result.get(), "Sampling from several threads should give identical results");
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
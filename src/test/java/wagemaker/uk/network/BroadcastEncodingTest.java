@@ -0,0 +1,95 @@
+package wagemaker.uk.network;
+
+import org.junit.jupiter.api.*;
+
+import java.io.*;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests that GameServer encodes a broadcast once and queues the same frame bytes
+ * for every recipient.
+ */
+public class BroadcastEncodingTest {
+
+    private static final int TEST_PORT = 25574; // Use unique port to avoid conflicts
+    private static final int CLIENT_COUNT = 8;
+
+    private GameServer server;
+    private final List<Socket> sockets = new ArrayList<>();
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        server = new GameServer(TEST_PORT, CLIENT_COUNT + 2);
+        server.start();
+
+        for (int i = 0; i < CLIENT_COUNT; i++) {
+            Socket socket = new Socket("localhost", TEST_PORT);
+            socket.setSoTimeout(5000);
+            sockets.add(socket);
+            DataOutputStream out = new DataOutputStream(socket.getOutputStream());
+            DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            ByteBuffer handshake = MessageCodec.encodeHandshake(MessageCodec.PROTOCOL_VERSION);
+            out.write(handshake.array(), 0, handshake.limit());
+            out.flush();
+            assertEquals(MessageCodec.PROTOCOL_VERSION, MessageCodec.readHandshake(in));
+            while (MessageCodec.readFrame(in, MessageCodec.MAX_FRAME_SIZE).getType() != MessageType.WORLD_STATE) {
+                // Skip anything sent before the world state
+            }
+        }
+        assertEquals(CLIENT_COUNT, server.getConnectedClientCount());
+    }
+
+    @AfterEach
+    public void tearDown() throws Exception {
+        for (Socket socket : sockets) {
+            socket.close();
+        }
+        sockets.clear();
+        if (server != null && server.isRunning()) {
+            server.stop();
+        }
+        Thread.sleep(500);
+    }
+
+    @Test
+    public void testBroadcastSharesOneEncodedFrame() throws Exception {
+        PongMessage message = new PongMessage("server", 42L);
+
+        // Broadcast and take the queued frames within one tick, before the deferred flush sends them
+        CompletableFuture<List<ByteBuffer>> queued = new CompletableFuture<>();
+        server.submitCommand(() -> {
+            server.broadcastToAll(message);
+            List<ByteBuffer> frames = new ArrayList<>();
+            for (ClientConnection connection : server.getAllClients()) {
+                List<ByteBuffer> batch = new ArrayList<>();
+                connection.drainOutbound(batch);
+                if (!batch.isEmpty()) {
+                    frames.add(batch.get(batch.size() - 1));
+                }
+            }
+            queued.complete(frames);
+        });
+        List<ByteBuffer> frames = queued.get(5, TimeUnit.SECONDS);
+        assertEquals(CLIENT_COUNT, frames.size(), "Every client should have the broadcast queued");
+
+        byte[] encoded = frames.get(0).array();
+        assertArrayEquals(MessageCodec.encodeFrame(message).array(), encoded);
+        for (ByteBuffer frame : frames) {
+            assertSame(encoded, frame.array(), "Recipients should share the bytes of a single encode");
+        }
+
+        // Each recipient has its own view, so writing to one client does not consume the others
+        ByteBuffer first = frames.get(0);
+        first.position(first.limit());
+        for (int i = 1; i < frames.size(); i++) {
+            assertEquals(encoded.length, frames.get(i).remaining());
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package wagemaker.uk.network;
+
+import org.junit.jupiter.api.*;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for ChunkResidencyTracker incremental cell generation.
+ */
+public class ChunkResidencyTrackerTest {
+
+    private static final int WINDOW = 2 * ChunkResidencyTracker.WINDOW_RADIUS + 1; // 31 cells
+
+    private ChunkResidencyTracker tracker;
+    private Set<Long> generated;
+    private int generateCalls;
+
+    @BeforeEach
+    public void setUp() {
+        tracker = new ChunkResidencyTracker();
+        generated = new HashSet<>();
+        generateCalls = 0;
+    }
+
+    /**
+     * Helper method to move a player and record the cells handed to the generator.
+     */
+    private boolean move(String playerId, float x, float y) {
+        return tracker.updatePlayer(playerId, x, y, (cellX, cellY) -> {
+            generateCalls++;
+            assertTrue(generated.add(ChunkResidencyTracker.pack(cellX, cellY)),
+                       "Cell (" + cellX + ", " + cellY + ") generated twice");
+        });
+    }
+
+    @Test
+    public void testFirstPositionGeneratesWholeWindow() {
+        assertTrue(move("p1", 100, 100));
+        assertEquals(WINDOW * WINDOW, generateCalls);
+        assertTrue(tracker.isGenerated(1 + ChunkResidencyTracker.WINDOW_RADIUS, 1));
+        assertFalse(tracker.isGenerated(2 + ChunkResidencyTracker.WINDOW_RADIUS, 1));
+    }
+
+    @Test
+    public void testMovingWithinCellGeneratesNothing() {
+        move("p1", 100, 100);
+        generateCalls = 0;
+
+        for (int i = 0; i < 20; i++) {
+            assertFalse(move("p1", 70 + i, 120 - i), "Position stays inside cell (1, 1)");
+        }
+        assertEquals(0, generateCalls);
+    }
+
+    @Test
+    public void testCrossingOneCellGeneratesOnlyTheNewRing() {
+        move("p1", 100, 100);
+        generateCalls = 0;
+
+        assertTrue(move("p1", 130, 100));
+        assertEquals(WINDOW, generateCalls, "Crossing one cell east adds one column");
+
+        generateCalls = 0;
+        move("p1", 200, 150);
+        assertEquals(2 * WINDOW - 1, generateCalls, "Diagonal step adds one column and one row");
+    }
+
+    @Test
+    public void testCellsAreGeneratedOnceEver() {
+        move("p1", 100, 100);
+        move("p1", 1000, 100);
+        generateCalls = 0;
+
+        // Walking back over generated ground generates nothing
+        move("p1", 100, 100);
+        assertEquals(0, generateCalls);
+
+        // A second player in the same area generates nothing either
+        move("p2", 120, 80);
+        assertEquals(0, generateCalls);
+    }
+
+    @Test
+    public void testNegativeCoordinatesUseFloorCells() {
+        assertEquals(-1, tracker.toCell(-10));
+        assertEquals(0, tracker.toCell(10));
+        assertEquals(-2, tracker.toCell(-64.5f));
+
+        move("p1", -10, -10);
+        assertTrue(tracker.isGenerated(-1 - ChunkResidencyTracker.WINDOW_RADIUS, -1));
+        assertFalse(tracker.isGenerated(ChunkResidencyTracker.WINDOW_RADIUS, 0));
+    }
+
+    @Test
+    public void testRemovedPlayerStartsFresh() {
+        move("p1", 100, 100);
+        tracker.removePlayer("p1");
+
+        assertTrue(move("p1", 100, 100), "Re-added player should count as entering a cell");
+        assertEquals(WINDOW * WINDOW, tracker.getGeneratedCellCount());
+    }
+}
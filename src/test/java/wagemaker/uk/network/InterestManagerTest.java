@@ -0,0 +1,119 @@
+package wagemaker.uk.network;
+
+import org.junit.jupiter.api.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for InterestManager subscriptions and visibility changes.
+ */
+public class InterestManagerTest {
+
+    private static final int CELL = InterestManager.CELL_SIZE;
+    private static final int WINDOW = 2 * InterestManager.VIEW_RADIUS + 1;
+
+    private InterestManager interest;
+    private RecordingListener listener;
+
+    /**
+     * Listener that records every callback as a short string.
+     */
+    private static class RecordingListener implements InterestManager.Listener {
+        final List<String> events = new ArrayList<>();
+        int subscribedCells;
+
+        @Override
+        public void onCellSubscribed(String clientId, int cellX, int cellY) {
+            subscribedCells++;
+        }
+
+        @Override
+        public void onPlayerVisible(String observerId, String playerId) {
+            events.add(observerId + " sees " + playerId);
+        }
+
+        @Override
+        public void onPlayerHidden(String observerId, String playerId) {
+            events.add(observerId + " loses " + playerId);
+        }
+    }
+
+    @BeforeEach
+    public void setUp() {
+        interest = new InterestManager();
+        listener = new RecordingListener();
+    }
+
+    @Test
+    public void testSubscribersCoverViewRadiusOnly() {
+        interest.update("a", 100, 100, listener);
+
+        assertTrue(interest.canSee("a", 100 + CELL * InterestManager.VIEW_RADIUS, 100));
+        assertFalse(interest.canSee("a", 100 + CELL * (InterestManager.VIEW_RADIUS + 1), 100));
+        assertTrue(interest.getSubscribers(100000, 100000).isEmpty());
+    }
+
+    @Test
+    public void testViewCoversChunkGenerationWindow() {
+        int generationReach = ChunkResidencyTracker.CELL_SIZE * (ChunkResidencyTracker.WINDOW_RADIUS + 1);
+        assertTrue(CELL * InterestManager.VIEW_RADIUS >= generationReach,
+                   "Players must see every cell generated around them");
+    }
+
+    @Test
+    public void testPlayersSeeEachOtherWhenNear() {
+        interest.update("a", 0, 0, listener);
+        interest.update("b", 300, 300, listener);
+
+        assertTrue(listener.events.contains("a sees b"));
+        assertTrue(listener.events.contains("b sees a"));
+        assertEquals(0, listener.subscribedCells, "First subscription is covered by the join snapshot");
+    }
+
+    @Test
+    public void testDistantPlayersAreNotVisible() {
+        interest.update("a", 0, 0, listener);
+        interest.update("b", CELL * 10, 0, listener);
+
+        assertTrue(listener.events.isEmpty());
+        assertFalse(interest.getSubscribers(CELL * 10, 0).contains("a"));
+    }
+
+    @Test
+    public void testWalkingAwayHidesBothPlayers() {
+        interest.update("a", 0, 0, listener);
+        interest.update("b", 10, 10, listener);
+        listener.events.clear();
+
+        for (int x = 0; x <= CELL * 10; x += 64) {
+            interest.update("b", x, 10, listener);
+        }
+
+        assertTrue(listener.events.contains("a loses b"));
+        assertTrue(listener.events.contains("b loses a"));
+        assertFalse(interest.canSee("a", CELL * 10, 10));
+    }
+
+    @Test
+    public void testCrossingOneCellSubscribesOneColumn() {
+        interest.update("a", 10, 10, listener);
+
+        interest.update("a", 20, 10, listener);
+        assertEquals(0, listener.subscribedCells, "Moving inside a cell changes nothing");
+
+        interest.update("a", CELL + 10, 10, listener);
+        assertEquals(WINDOW, listener.subscribedCells);
+    }
+
+    @Test
+    public void testRemoveUnsubscribes() {
+        interest.update("a", 0, 0, listener);
+        interest.remove("a");
+
+        assertFalse(interest.isTracked("a"));
+        assertTrue(interest.getSubscribers(0, 0).isEmpty());
+    }
+}
@@ -0,0 +1,126 @@
+package wagemaker.uk.network;
+
+import org.junit.jupiter.api.*;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Benchmark comparing the binary wire codec with the previous Java serialization path.
+ * Reports bytes per message and encode/decode ns/op for typical high-frequency messages.
+ */
+public class MessageCodecPerformanceTest {
+
+    private static final int WARMUP_ITERATIONS = 20000;
+    private static final int MEASURED_ITERATIONS = 100000;
+
+    private static final String PLAYER_ID = UUID.randomUUID().toString();
+
+    /**
+     * Encodes a message the way the server used to: writeObject on a long-lived
+     * ObjectOutputStream followed by reset(), so class descriptors are resent each time.
+     */
+    private static final class LegacyEncoder {
+        private final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        private final ObjectOutputStream out;
+
+        LegacyEncoder() throws IOException {
+            out = new ObjectOutputStream(baos);
+            out.flush();
+            baos.reset();
+        }
+
+        byte[] encode(NetworkMessage message) throws IOException {
+            out.writeObject(message);
+            out.reset();
+            out.flush();
+            byte[] bytes = baos.toByteArray();
+            baos.reset();
+            return bytes;
+        }
+    }
+
+    @Test
+    public void testPlayerMovementBenchmark() throws Exception {
+        runBenchmark("PlayerMovementMessage",
+                     new PlayerMovementMessage(PLAYER_ID, 1024.5f, -512.25f, Direction.RIGHT, true));
+    }
+
+    @Test
+    public void testTreeHealthUpdateBenchmark() throws Exception {
+        runBenchmark("TreeHealthUpdateMessage",
+                     new TreeHealthUpdateMessage("server", "1280,-640", 75f));
+    }
+
+    @Test
+    public void testTreeCreatedBenchmark() throws Exception {
+        runBenchmark("TreeCreatedMessage",
+                     new TreeCreatedMessage("server", "1280,-640", TreeType.APPLE, 1280f, -640f, 100f));
+    }
+
+    private void runBenchmark(String name, NetworkMessage message) throws Exception {
+        System.out.println("\n=== Codec Benchmark: " + name + " ===");
+
+        LegacyEncoder legacy = new LegacyEncoder();
+        byte[] legacyBytes = legacy.encode(message);
+        ByteBuffer frame = MessageCodec.encodeFrame(message);
+        int binarySize = frame.limit();
+
+        // Warm up both paths
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            legacy.encode(message);
+            MessageCodec.encodeFrame(message);
+            decodeLegacy(legacyBytes);
+            MessageCodec.decodePayload(frame.array(), MessageCodec.LENGTH_PREFIX_SIZE, binarySize - MessageCodec.LENGTH_PREFIX_SIZE);
+        }
+
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            legacy.encode(message);
+        }
+        long legacyEncodeNs = (System.nanoTime() - start) / MEASURED_ITERATIONS;
+
+        start = System.nanoTime();
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            MessageCodec.encodeFrame(message);
+        }
+        long binaryEncodeNs = (System.nanoTime() - start) / MEASURED_ITERATIONS;
+
+        start = System.nanoTime();
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            decodeLegacy(legacyBytes);
+        }
+        long legacyDecodeNs = (System.nanoTime() - start) / MEASURED_ITERATIONS;
+
+        start = System.nanoTime();
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            MessageCodec.decodePayload(frame.array(), MessageCodec.LENGTH_PREFIX_SIZE, binarySize - MessageCodec.LENGTH_PREFIX_SIZE);
+        }
+        long binaryDecodeNs = (System.nanoTime() - start) / MEASURED_ITERATIONS;
+
+        System.out.println("  Serialization: " + legacyBytes.length + " bytes/msg, encode " +
+                           legacyEncodeNs + " ns/op, decode " + legacyDecodeNs + " ns/op");
+        System.out.println("  Binary codec:  " + binarySize + " bytes/msg, encode " +
+                           binaryEncodeNs + " ns/op, decode " + binaryDecodeNs + " ns/op");
+
+        assertTrue(binarySize * 4 < legacyBytes.length,
+                   "Binary frame should be less than a quarter of the serialized size");
+    }
+
+    /**
+     * Decodes bytes produced by LegacyEncoder, which omit the stream header.
+     */
+    private static Object decodeLegacy(byte[] body) throws IOException, ClassNotFoundException {
+        ByteArrayOutputStream header = new ByteArrayOutputStream();
+        new ObjectOutputStream(header).flush();
+        byte[] stream = new byte[header.size() + body.length];
+        System.arraycopy(header.toByteArray(), 0, stream, 0, header.size());
+        System.arraycopy(body, 0, stream, header.size(), body.length);
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(stream))) {
+            return in.readObject();
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package wagemaker.uk.network;
+
+import org.junit.jupiter.api.*;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for MessageCodec framing and the binary message encodings.
+ * Every binary-encoded message must round-trip with all fields intact.
+ */
+public class MessageCodecTest {
+
+    private static final String PLAYER_ID = UUID.randomUUID().toString();
+
+    /**
+     * Helper method to encode a message as a frame and decode it again.
+     */
+    @SuppressWarnings("unchecked")
+    private <T extends NetworkMessage> T roundTrip(T message) throws Exception {
+        ByteBuffer frame = MessageCodec.encodeFrame(message);
+        int length = frame.getInt(0);
+        assertEquals(frame.limit() - MessageCodec.LENGTH_PREFIX_SIZE, length,
+                     "Length prefix should match payload size");
+
+        NetworkMessage decoded = MessageCodec.decodePayload(frame.array(), MessageCodec.LENGTH_PREFIX_SIZE, length);
+        assertEquals(message.getType(), decoded.getType(), "Message type should survive round trip");
+        assertEquals(message.getSenderId(), decoded.getSenderId(), "Sender ID should survive round trip");
+        assertEquals(message.getTimestamp(), decoded.getTimestamp(), "Timestamp should survive round trip");
+        return (T) decoded;
+    }
+
+    @Test
+    public void testPlayerMovementRoundTrip() throws Exception {
+        PlayerMovementMessage decoded = roundTrip(
+            new PlayerMovementMessage(PLAYER_ID, 123.5f, -64.25f, Direction.LEFT, true));
+
+        assertEquals(123.5f, decoded.getX());
+        assertEquals(-64.25f, decoded.getY());
+        assertEquals(Direction.LEFT, decoded.getDirection());
+        assertTrue(decoded.isMoving());
+    }
+
+    @Test
+    public void testPlayerMovementIsCompact() throws Exception {
+        ByteBuffer frame = MessageCodec.encodeFrame(
+            new PlayerMovementMessage(PLAYER_ID, 1.0f, 2.0f, Direction.UP, false));
+
+        // length(4) + tag(1) + uuid(17) + timestamp(8) + x,y(8) + direction(1) + moving(1)
+        assertEquals(40, frame.limit(), "Movement frame should use the packed layout");
+    }
+
+    @Test
+    public void testPongPreservesPingTimestamp() throws Exception {
+        PongMessage decoded = roundTrip(new PongMessage("server", 987654321L));
+
+        assertEquals(987654321L, decoded.getPingTimestamp());
+    }
+
+    @Test
+    public void testTreeCreatedWithGridIdRoundTrip() throws Exception {
+        TreeCreatedMessage decoded = roundTrip(
+            new TreeCreatedMessage("server", "-1280,640", TreeType.BAMBOO, -1280f, 640f, 100f));
+
+        assertEquals("-1280,640", decoded.getTreeId());
+        assertEquals(TreeType.BAMBOO, decoded.getTreeType());
+        assertEquals(-1280f, decoded.getX());
+        assertEquals(640f, decoded.getY());
+        assertEquals(100f, decoded.getHealth());
+    }
+
+    @Test
+    public void testNonCanonicalIdsRoundTripAsStrings() throws Exception {
+        String[] ids = { "planted-tree-1", "01,2", "-0,5", "1,2,3", "ABCDEF00-0000-0000-0000-000000000000", "" };
+        for (String id : ids) {
+            TreeHealthUpdateMessage decoded = roundTrip(new TreeHealthUpdateMessage(PLAYER_ID, id, 42f));
+            assertEquals(id, decoded.getTreeId(), "ID should round-trip exactly: " + id);
+        }
+    }
+
+    @Test
+    public void testNullFieldsRoundTrip() throws Exception {
+        PositionCorrectionMessage decoded = roundTrip(
+            new PositionCorrectionMessage(null, PLAYER_ID, 5f, 6f, null, null));
+
+        assertNull(decoded.getSenderId());
+        assertNull(decoded.getCorrectedDirection());
+        assertNull(decoded.getReason());
+        assertEquals(PLAYER_ID, decoded.getPlayerId());
+    }
+
+    @Test
+    public void testItemMessagesRoundTrip() throws Exception {
+        String itemId = UUID.randomUUID().toString();
+        ItemSpawnMessage spawn = roundTrip(new ItemSpawnMessage("server", itemId, ItemType.APPLE, 10f, 20f));
+        assertEquals(itemId, spawn.getItemId());
+        assertEquals(ItemType.APPLE, spawn.getItemType());
+
+        ItemPickupMessage pickup = roundTrip(new ItemPickupMessage(PLAYER_ID, itemId, PLAYER_ID));
+        assertEquals(itemId, pickup.getItemId());
+        assertEquals(PLAYER_ID, pickup.getPlayerId());
+    }
+
+    @Test
+    public void testUnsupportedTypeFallsBackToSerialization() throws Exception {
+        TreeRemovalMessage decoded = roundTrip(new TreeRemovalMessage("server", "64,128", "ghost tree"));
+
+        assertEquals("64,128", decoded.getTreeId());
+        assertEquals("ghost tree", decoded.getReason());
+    }
+
+    @Test
+    public void testUnknownTagIsRejected() {
+        byte[] payload = { (byte) 0xFF, 0, 0, 0 };
+
+        assertThrows(StreamCorruptedException.class,
+                     () -> MessageCodec.decodePayload(payload, 0, payload.length));
+    }
+
+    @Test
+    public void testTrailingBytesAreRejected() throws Exception {
+        byte[] payload = MessageCodec.encodePayload(new HeartbeatMessage(PLAYER_ID));
+        byte[] padded = new byte[payload.length + 1];
+        System.arraycopy(payload, 0, padded, 0, payload.length);
+
+        assertThrows(StreamCorruptedException.class,
+                     () -> MessageCodec.decodePayload(padded, 0, padded.length));
+    }
+
+    @Test
+    public void testBlockingStreamRoundTrip() throws Exception {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(baos);
+        MessageCodec.writeFrame(out, new HeartbeatMessage(PLAYER_ID));
+        MessageCodec.writeFrame(out, new PingMessage(PLAYER_ID));
+        out.flush();
+
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(baos.toByteArray()));
+        assertEquals(MessageType.HEARTBEAT, MessageCodec.readFrame(in, MessageCodec.MAX_FRAME_SIZE).getType());
+        assertEquals(MessageType.PING, MessageCodec.readFrame(in, MessageCodec.MAX_FRAME_SIZE).getType());
+    }
+
+    @Test
+    public void testHandshakeRoundTrip() throws Exception {
+        ByteBuffer handshake = MessageCodec.encodeHandshake(MessageCodec.PROTOCOL_VERSION);
+        assertEquals(MessageCodec.HANDSHAKE_SIZE, handshake.remaining());
+
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(handshake.array()));
+        assertEquals(MessageCodec.PROTOCOL_VERSION, MessageCodec.readHandshake(in));
+    }
+
+    @Test
+    public void testHandshakeNegotiation() {
+        assertEquals(MessageCodec.PROTOCOL_VERSION, MessageCodec.negotiateVersion(MessageCodec.PROTOCOL_VERSION));
+        assertEquals(0, MessageCodec.negotiateVersion(MessageCodec.PROTOCOL_VERSION + 1),
+                     "Unknown versions should be refused");
+        assertTrue(MessageCodec.HANDSHAKE_MAGIC > MessageCodec.MAX_FRAME_SIZE,
+                   "Handshake magic must not be mistaken for a frame length");
+    }
+}
@@ -0,0 +1,95 @@
+package wagemaker.uk.network;
+
+import org.junit.jupiter.api.*;
+
+import java.io.*;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Integration tests for inbound message size enforcement.
+ * Oversized frames are rejected from their length prefix, before deserialization,
+ * and the connection keeps processing the frames that follow.
+ */
+public class MessageSizeLimitIntegrationTest {
+
+    private static final int TEST_PORT = 25571; // Use unique port to avoid conflicts
+
+    private GameServer server;
+    private Socket socket;
+    private DataOutputStream out;
+    private DataInputStream in;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        server = new GameServer(TEST_PORT, 10);
+        server.start();
+
+        socket = new Socket("localhost", TEST_PORT);
+        socket.setSoTimeout(5000);
+        out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+        in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+
+        ByteBuffer handshake = MessageCodec.encodeHandshake(MessageCodec.PROTOCOL_VERSION);
+        out.write(handshake.array(), 0, handshake.limit());
+        out.flush();
+        assertEquals(MessageCodec.PROTOCOL_VERSION, MessageCodec.readHandshake(in));
+    }
+
+    @AfterEach
+    public void tearDown() throws Exception {
+        if (socket != null) {
+            socket.close();
+        }
+        if (server != null && server.isRunning()) {
+            server.stop();
+        }
+        Thread.sleep(500);
+    }
+
+    /**
+     * Reads frames until one of the given type arrives.
+     */
+    private NetworkMessage readUntil(MessageType type) throws Exception {
+        while (true) {
+            NetworkMessage message = MessageCodec.readFrame(in, MessageCodec.MAX_FRAME_SIZE);
+            if (message.getType() == type) {
+                return message;
+            }
+        }
+    }
+
+    @Test
+    public void testOversizedFrameIsSkippedAndConnectionContinues() throws Exception {
+        readUntil(MessageType.WORLD_STATE);
+
+        // A frame just over the limit, filled with bytes that would not deserialize
+        int oversized = MessageCodec.MAX_INBOUND_MESSAGE_SIZE + 1;
+        out.writeInt(oversized);
+        out.write(new byte[oversized]);
+
+        // A valid ping right behind it must still be answered
+        PingMessage ping = new PingMessage("client");
+        MessageCodec.writeFrame(out, ping);
+        out.flush();
+
+        PongMessage pong = (PongMessage) readUntil(MessageType.PONG);
+        assertEquals(ping.getTimestamp(), pong.getPingTimestamp(),
+                     "Ping after an oversized frame should be answered");
+        assertEquals(1, server.getConnectedClientCount(),
+                     "Client should remain connected after an oversized frame");
+    }
+
+    @Test
+    public void testInvalidFrameLengthClosesConnection() throws Exception {
+        readUntil(MessageType.WORLD_STATE);
+
+        out.writeInt(-1);
+        out.flush();
+
+        assertThrows(IOException.class, () -> readUntil(MessageType.PONG),
+                     "Server should close the connection on a negative frame length");
+    }
+}
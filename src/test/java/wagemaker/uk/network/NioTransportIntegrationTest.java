@@ -0,0 +1,168 @@
+package wagemaker.uk.network;
+
+import org.junit.jupiter.api.*;
+
+import java.io.*;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Integration tests for the selector transport (NioEventLoop and NioConnection).
+ * Covers more clients than the old fixed thread pool could serve, frames split
+ * across reads, oversized frames and a large batch of queued frames written with
+ * gathering writes.
+ */
+public class NioTransportIntegrationTest {
+
+    private static final int TEST_PORT = 25573; // Use unique port to avoid conflicts
+    private static final int CLIENT_COUNT = 16;
+
+    private GameServer server;
+    private final List<TestClient> clients = new ArrayList<>();
+
+    /**
+     * A raw protocol client on a blocking socket.
+     */
+    private static final class TestClient {
+        final Socket socket;
+        final DataOutputStream out;
+        final DataInputStream in;
+
+        TestClient(int port) throws IOException {
+            socket = new Socket("localhost", port);
+            socket.setSoTimeout(5000);
+            out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+            in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+        }
+
+        void handshake() throws IOException {
+            ByteBuffer handshake = MessageCodec.encodeHandshake(MessageCodec.PROTOCOL_VERSION);
+            out.write(handshake.array(), 0, handshake.limit());
+            out.flush();
+            assertEquals(MessageCodec.PROTOCOL_VERSION, MessageCodec.readHandshake(in),
+                         "Server should answer the handshake");
+        }
+
+        NetworkMessage readUntil(MessageType type) throws Exception {
+            while (true) {
+                NetworkMessage message = MessageCodec.readFrame(in, MessageCodec.MAX_FRAME_SIZE);
+                if (message.getType() == type) {
+                    return message;
+                }
+            }
+        }
+
+        void writeSlowly(byte[] bytes, int... cuts) throws Exception {
+            int start = 0;
+            for (int cut : cuts) {
+                out.write(bytes, start, cut - start);
+                out.flush();
+                Thread.sleep(100);
+                start = cut;
+            }
+            out.write(bytes, start, bytes.length - start);
+            out.flush();
+        }
+    }
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        server = new GameServer(TEST_PORT, CLIENT_COUNT + 4);
+        assertFalse(server.getConfig().isVirtualThreads(), "These tests cover the selector transport");
+        server.start();
+    }
+
+    @AfterEach
+    public void tearDown() throws Exception {
+        for (TestClient client : clients) {
+            client.socket.close();
+        }
+        clients.clear();
+        if (server != null && server.isRunning()) {
+            server.stop();
+        }
+        Thread.sleep(500);
+    }
+
+    private TestClient connect() throws Exception {
+        TestClient client = new TestClient(TEST_PORT);
+        clients.add(client);
+        client.handshake();
+        client.readUntil(MessageType.WORLD_STATE);
+        return client;
+    }
+
+    private void assertPingAnswered(TestClient client) throws Exception {
+        PingMessage ping = new PingMessage("client");
+        MessageCodec.writeFrame(client.out, ping);
+        client.out.flush();
+        PongMessage pong = (PongMessage) client.readUntil(MessageType.PONG);
+        assertEquals(ping.getTimestamp(), pong.getPingTimestamp(), "Ping should be answered");
+    }
+
+    @Test
+    public void testEveryClientBeyondTenIsServed() throws Exception {
+        // All connections stay open at once, so a per-connection thread pool of ten would starve the rest
+        for (int i = 0; i < CLIENT_COUNT; i++) {
+            connect();
+        }
+        assertEquals(CLIENT_COUNT, server.getConnectedClientCount());
+
+        for (TestClient client : clients) {
+            assertPingAnswered(client);
+        }
+    }
+
+    @Test
+    public void testFrameSplitAcrossReadsIsReassembled() throws Exception {
+        TestClient client = connect();
+
+        ByteBuffer frame = MessageCodec.encodeFrame(new PingMessage("client"));
+        byte[] bytes = new byte[frame.remaining()];
+        frame.get(bytes);
+
+        // Cut inside the length prefix and again inside the payload
+        client.writeSlowly(bytes, 2, bytes.length / 2);
+        assertNotNull(client.readUntil(MessageType.PONG), "Reassembled ping should be answered");
+        assertPingAnswered(client);
+    }
+
+    @Test
+    public void testOversizedFrameIsDiscardedAcrossReads() throws Exception {
+        TestClient client = connect();
+
+        // Larger than the read buffer, so the discard carries over several reads
+        int oversized = MessageCodec.MAX_INBOUND_MESSAGE_SIZE + 1;
+        ByteBuffer bytes = ByteBuffer.allocate(MessageCodec.LENGTH_PREFIX_SIZE + oversized);
+        bytes.putInt(oversized);
+        client.writeSlowly(bytes.array(), 3, 20000, 50000);
+
+        assertPingAnswered(client);
+        assertEquals(1, server.getConnectedClientCount(),
+                     "Client should remain connected after an oversized frame");
+    }
+
+    @Test
+    public void testManyQueuedFramesAreWrittenInOrder() throws Exception {
+        TestClient client = connect();
+        ClientConnection connection = server.getAllClients().iterator().next();
+
+        // Queued in one tick, so they go out as one flush of more frames than one gathering write takes
+        int frames = 600;
+        server.submitCommand(() -> {
+            for (int i = 0; i < frames; i++) {
+                connection.sendMessage(new PongMessage("server", i));
+            }
+        });
+
+        for (int i = 0; i < frames; i++) {
+            PongMessage pong = (PongMessage) client.readUntil(MessageType.PONG);
+            assertEquals(i, pong.getPingTimestamp(), "Frames should arrive complete and in order");
+        }
+        assertPingAnswered(client);
+    }
+}
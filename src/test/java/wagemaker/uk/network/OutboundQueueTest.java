@@ -0,0 +1,120 @@
+package wagemaker.uk.network;
+
+import org.junit.jupiter.api.*;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for OutboundQueue bounding, batching and coalescing.
+ */
+public class OutboundQueueTest {
+
+    /**
+     * Helper method to offer a message with a one-byte marker frame.
+     */
+    private OutboundQueue.OfferResult offer(OutboundQueue queue, NetworkMessage message, int marker) {
+        return queue.offer(message, ByteBuffer.wrap(new byte[] { (byte) marker }));
+    }
+
+    /**
+     * Helper method to drain the queue and return the frame markers in order.
+     */
+    private List<Integer> drainMarkers(OutboundQueue queue) {
+        List<ByteBuffer> batch = new ArrayList<>();
+        queue.drainTo(batch);
+        List<Integer> markers = new ArrayList<>();
+        for (ByteBuffer frame : batch) {
+            markers.add((int) frame.get(0));
+        }
+        return markers;
+    }
+
+    @Test
+    public void testFirstOfferWakesWriter() {
+        OutboundQueue queue = new OutboundQueue(10, true);
+
+        assertEquals(OutboundQueue.OfferResult.QUEUED_FIRST, offer(queue, new HeartbeatMessage("a"), 1));
+        assertEquals(OutboundQueue.OfferResult.QUEUED, offer(queue, new HeartbeatMessage("a"), 2));
+
+        assertEquals(List.of(1, 2), drainMarkers(queue));
+        assertEquals(OutboundQueue.OfferResult.QUEUED_FIRST, offer(queue, new HeartbeatMessage("a"), 3),
+                     "First offer after a drain should wake the writer again");
+    }
+
+    @Test
+    public void testQueueIsBounded() {
+        OutboundQueue queue = new OutboundQueue(2, true);
+
+        offer(queue, new TreeDestroyedMessage("server", "0,0", 0, 0), 1);
+        offer(queue, new TreeDestroyedMessage("server", "64,0", 64, 0), 2);
+
+        assertEquals(OutboundQueue.OfferResult.FULL,
+                     offer(queue, new TreeDestroyedMessage("server", "128,0", 128, 0), 3));
+        assertEquals(2, queue.size());
+    }
+
+    @Test
+    public void testNewestMovementPerPlayerIsKept() {
+        OutboundQueue queue = new OutboundQueue(10, true);
+
+        offer(queue, new PlayerMovementMessage("p1", 0, 0, Direction.UP, true), 1);
+        offer(queue, new PlayerMovementMessage("p2", 0, 0, Direction.UP, true), 2);
+        offer(queue, new TreeDestroyedMessage("server", "0,0", 0, 0), 3);
+        offer(queue, new PlayerMovementMessage("p1", 5, 5, Direction.UP, true), 4);
+
+        assertEquals(List.of(2, 3, 4), drainMarkers(queue),
+                     "Superseded movement should be skipped and the newest one sent in its place");
+        assertEquals(1, queue.getCoalescedCount());
+    }
+
+    @Test
+    public void testCoalescingDoesNotCountAgainstLimit() {
+        OutboundQueue queue = new OutboundQueue(1, true);
+
+        offer(queue, new PlayerMovementMessage("p1", 0, 0, Direction.UP, true), 1);
+        for (int i = 2; i < 50; i++) {
+            assertNotEquals(OutboundQueue.OfferResult.FULL,
+                            offer(queue, new PlayerMovementMessage("p1", i, i, Direction.UP, true), i),
+                            "Replacing a queued update should never overflow");
+        }
+
+        assertEquals(List.of(49), drainMarkers(queue));
+    }
+
+    @Test
+    public void testCoalescingDisabledKeepsEveryMessage() {
+        OutboundQueue queue = new OutboundQueue(10, false);
+
+        offer(queue, new TreeHealthUpdateMessage("server", "0,0", 90), 1);
+        offer(queue, new TreeHealthUpdateMessage("server", "0,0", 80), 2);
+
+        assertEquals(List.of(1, 2), drainMarkers(queue));
+    }
+
+    @Test
+    public void testHealthUpdatesCoalescePerTarget() {
+        OutboundQueue queue = new OutboundQueue(10, true);
+
+        offer(queue, new TreeHealthUpdateMessage("server", "0,0", 90), 1);
+        offer(queue, new TreeHealthUpdateMessage("server", "64,0", 90), 2);
+        offer(queue, new TreeHealthUpdateMessage("server", "0,0", 80), 3);
+        offer(queue, new PlayerHealthUpdateMessage("server", "p1", 50), 4);
+
+        assertEquals(List.of(2, 3, 4), drainMarkers(queue));
+    }
+
+    @Test
+    public void testClearDiscardsPendingFrames() {
+        OutboundQueue queue = new OutboundQueue(10, true);
+        offer(queue, new HeartbeatMessage("a"), 1);
+
+        queue.clear();
+
+        assertEquals(0, queue.size());
+        assertTrue(drainMarkers(queue).isEmpty());
+    }
+}
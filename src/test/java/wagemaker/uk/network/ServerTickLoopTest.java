@@ -0,0 +1,119 @@
+package wagemaker.uk.network;
+
+import org.junit.jupiter.api.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for ServerTickLoop command ordering, systems and lifecycle.
+ */
+public class ServerTickLoopTest {
+
+    private ServerTickLoop loop;
+
+    @BeforeEach
+    public void setUp() {
+        loop = new ServerTickLoop(50);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        loop.stop();
+    }
+
+    @Test
+    public void testCommandsRunInOrderOnTickThread() throws Exception {
+        List<Integer> applied = Collections.synchronizedList(new ArrayList<>());
+        AtomicBoolean onTickThread = new AtomicBoolean(true);
+        CountDownLatch done = new CountDownLatch(1);
+        loop.start();
+
+        for (int i = 0; i < 1000; i++) {
+            int value = i;
+            loop.submit(() -> {
+                if (!loop.inTickThread()) {
+                    onTickThread.set(false);
+                }
+                applied.add(value);
+            });
+        }
+        loop.submit(done::countDown);
+
+        assertTrue(done.await(2, TimeUnit.SECONDS), "Commands should be applied within a few ticks");
+        assertTrue(onTickThread.get(), "Commands should run on the tick thread");
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(i, applied.get(i), "Commands should be applied in submission order");
+        }
+    }
+
+    @Test
+    public void testSystemsRunAtConfiguredRate() throws Exception {
+        AtomicInteger updates = new AtomicInteger();
+        List<Float> deltas = Collections.synchronizedList(new ArrayList<>());
+        loop.addSystem(deltaTime -> {
+            updates.incrementAndGet();
+            deltas.add(deltaTime);
+        });
+
+        loop.start();
+        Thread.sleep(500);
+        loop.stop();
+
+        // 50 Hz for half a second, with generous slack for a busy machine
+        assertTrue(updates.get() >= 15 && updates.get() <= 30,
+                   "Expected about 25 ticks, got " + updates.get());
+        for (int i = 1; i < deltas.size(); i++) {
+            assertTrue(deltas.get(i) > 0 && deltas.get(i) < 0.5f, "Delta should be the time between ticks");
+        }
+    }
+
+    @Test
+    public void testFailingCommandDoesNotStopLoop() throws Exception {
+        CountDownLatch done = new CountDownLatch(1);
+        loop.start();
+
+        loop.submit(() -> {
+            throw new IllegalStateException("boom");
+        });
+        loop.submit(done::countDown);
+
+        assertTrue(done.await(2, TimeUnit.SECONDS), "Commands after a failure should still run");
+        assertTrue(loop.isRunning());
+    }
+
+    @Test
+    public void testSubmitRunsInlineWhenStopped() {
+        AtomicBoolean ran = new AtomicBoolean(false);
+
+        loop.submit(() -> ran.set(true));
+
+        assertTrue(ran.get(), "Commands should apply immediately when the loop is not running");
+    }
+
+    @Test
+    public void testStopReleasesAwaitTermination() throws Exception {
+        loop.start();
+        Thread waiter = new Thread(() -> {
+            try {
+                loop.awaitTermination();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        waiter.start();
+
+        loop.stop();
+        waiter.join(2000);
+
+        assertFalse(waiter.isAlive(), "awaitTermination should return once the loop stops");
+        assertFalse(loop.isRunning());
+    }
+}
@@ -0,0 +1,125 @@
+package wagemaker.uk.network;
+
+import org.junit.jupiter.api.*;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for SpatialGrid proximity queries and WorldState index upkeep.
+ */
+public class SpatialGridTest {
+
+    private SpatialGrid<String> grid;
+
+    @BeforeEach
+    public void setUp() {
+        grid = new SpatialGrid<>();
+    }
+
+    @Test
+    public void testAnyWithinUsesStrictDistance() {
+        grid.put("a", 100, 100, "a");
+
+        assertTrue(grid.anyWithin(100, 150, 51, v -> true));
+        assertFalse(grid.anyWithin(100, 150, 50, v -> true), "Exactly at the radius is not within it");
+        assertFalse(grid.anyWithin(100, 100, 10, v -> false), "Filter should exclude entries");
+    }
+
+    @Test
+    public void testQueriesCrossCellBoundaries() {
+        grid.put("west", -1, 0, "west");
+        grid.put("east", 1, 0, "east");
+
+        assertEquals(2, grid.findWithin(0, 0, 5).size());
+        assertTrue(grid.anyWithin(SpatialGrid.DEFAULT_CELL_SIZE - 1, 0, 300, v -> v.equals("west")));
+    }
+
+    @Test
+    public void testMatchesBruteForce() {
+        Random random = new Random(42);
+        Map<String, float[]> positions = new HashMap<>();
+        for (int i = 0; i < 2000; i++) {
+            float x = (random.nextFloat() - 0.5f) * 10000;
+            float y = (random.nextFloat() - 0.5f) * 10000;
+            positions.put("e" + i, new float[] {x, y});
+            grid.put("e" + i, x, y, "e" + i);
+        }
+
+        for (int q = 0; q < 200; q++) {
+            float x = (random.nextFloat() - 0.5f) * 10000;
+            float y = (random.nextFloat() - 0.5f) * 10000;
+            float radius = 50 + random.nextFloat() * 400;
+
+            int expected = 0;
+            for (float[] p : positions.values()) {
+                float dx = p[0] - x;
+                float dy = p[1] - y;
+                if (dx * dx + dy * dy < radius * radius) {
+                    expected++;
+                }
+            }
+            assertEquals(expected, grid.findWithin(x, y, radius).size());
+            assertEquals(expected > 0, grid.anyWithin(x, y, radius, v -> true));
+        }
+    }
+
+    @Test
+    public void testMoveAndRemove() {
+        grid.put("a", 0, 0, "a");
+        grid.put("a", 2000, 2000, "a");
+
+        assertTrue(grid.findWithin(0, 0, 10).isEmpty(), "Old position should be forgotten");
+        assertEquals(1, grid.findWithin(2000, 2000, 10).size());
+
+        grid.remove("a");
+        assertEquals(0, grid.size());
+        assertTrue(grid.findWithin(2000, 2000, 10).isEmpty());
+    }
+
+    @Test
+    public void testWorldStateIndexFollowsMutators() {
+        WorldState state = new WorldState();
+        state.addOrUpdateTree(new TreeState("t1", TreeType.SMALL, 500, 500, 100.0f, true));
+        state.addOrUpdateItem(new ItemState("i1", ItemType.APPLE, 510, 500, false));
+
+        assertEquals(1, state.getTreesNear(520, 520, 100).size());
+        assertEquals(1, state.getItemsNear(500, 500, 20).size());
+
+        state.removeTree("t1");
+        state.removeItem("i1");
+        assertTrue(state.getTreesNear(520, 520, 100).isEmpty(), "Destroyed trees should not be found");
+        assertTrue(state.getItemsNear(500, 500, 20).isEmpty());
+
+        // Replacing a map wholesale rebuilds the index
+        Map<String, TreeState> trees = new ConcurrentHashMap<>();
+        trees.put("t2", new TreeState("t2", TreeType.APPLE, -300, 40, 100.0f, true));
+        state.setTrees(trees);
+        List<TreeState> near = state.getTreesNear(-300, 0, 64);
+        assertEquals(1, near.size());
+        assertEquals("t2", near.get(0).getTreeId());
+    }
+
+    @Test
+    public void testDestroyedTreeIsIndexedTheSameAfterRebuild() {
+        WorldState state = new WorldState();
+        state.addOrUpdateTree(new TreeState("640,640", TreeType.APPLE, 640, 640, 100.0f, true));
+        state.removeTree("640,640");
+
+        // The destroyed tree stays on its tile, so generation returns it instead of a new tree
+        TreeState destroyed = state.generateTreeAt(640, 640);
+        assertNotNull(destroyed);
+        assertFalse(destroyed.isExists());
+        assertTrue(state.getTreesNear(640, 640, 100).isEmpty());
+
+        // Rebuilding the index from the map gives the same answers
+        state.setTrees(new ConcurrentHashMap<>(state.getTrees()));
+        assertSame(destroyed, state.generateTreeAt(640, 640));
+        assertTrue(state.getTreesNear(640, 640, 100).isEmpty());
+    }
+}
@@ -0,0 +1,76 @@
+package wagemaker.uk.network;
+
+import org.junit.jupiter.api.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for GameServer's deferred stone generation.
+ * A stone whose cell is generated next to a player is held back until every
+ * player is outside the stone clearance. The server is never started.
+ */
+public class StoneDeferralTest {
+
+    private static final long SEED = 20240601L;
+    private static final int TEST_PORT = 25591;
+    private static final int CELL = ChunkResidencyTracker.CELL_SIZE;
+
+    private GameServer server;
+    private int stoneX;
+    private int stoneY;
+
+    @BeforeEach
+    public void setUp() {
+        server = new GameServer(TEST_PORT, 10, SEED);
+
+        // Find a cell that spawns a stone in this world, away from the spawn point
+        WorldState probe = new WorldState(SEED);
+        for (int ring = 20; ring < 2000; ring++) {
+            for (int i = -ring; i <= ring; i++) {
+                int x = i * CELL;
+                int y = ring * CELL;
+                if (probe.generateStoneAt(x, y, -1e9f, -1e9f) != null) {
+                    stoneX = x;
+                    stoneY = y;
+                    return;
+                }
+            }
+        }
+        fail("No stone cell found for the test seed");
+    }
+
+    private void move(String playerId, float x, float y) {
+        server.getWorldState().addOrUpdatePlayer(
+            new PlayerState(playerId, playerId, x, y, Direction.DOWN, 100, true));
+        server.updateChunkResidency(playerId, x, y);
+    }
+
+    private boolean stoneGenerated() {
+        return server.getWorldState().getStones().containsKey(stoneX + "," + stoneY);
+    }
+
+    @Test
+    public void testStoneNextToPlayerIsDeferred() {
+        move("a", stoneX, stoneY);
+        assertFalse(stoneGenerated(), "Stone must not spawn beside the player");
+
+        // Walking away far enough lets the stone spawn
+        move("a", stoneX + 20 * CELL, stoneY);
+        assertTrue(stoneGenerated(), "Deferred stone should spawn once the player has left");
+    }
+
+    @Test
+    public void testOtherPlayerMovingDoesNotReleaseStone() {
+        move("a", stoneX, stoneY);
+        move("b", stoneX + 100 * CELL, stoneY + 100 * CELL);
+
+        // Player b crosses cell boundaries far away while player a stays put
+        for (int i = 1; i <= 5; i++) {
+            move("b", stoneX + (100 + i) * CELL, stoneY + 100 * CELL);
+        }
+        assertFalse(stoneGenerated(), "Stone must stay deferred while another player is beside it");
+
+        move("a", stoneX - 20 * CELL, stoneY);
+        assertTrue(stoneGenerated(), "Stone should spawn once no player is near it");
+    }
+}
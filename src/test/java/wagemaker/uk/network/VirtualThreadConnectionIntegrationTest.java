@@ -0,0 +1,156 @@
+package wagemaker.uk.network;
+
+import org.junit.jupiter.api.*;
+
+import java.io.*;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Integration tests for the virtual-thread transport (server.virtual-threads=true).
+ * Runs a handshake, message exchange, oversized frame and disconnect over a real
+ * socket, the same round trips the NIO transport is tested with.
+ */
+public class VirtualThreadConnectionIntegrationTest {
+
+    private static final int TEST_PORT = 25572; // Use unique port to avoid conflicts
+    private static final String SERVER_CONFIG_FILE = "server.properties";
+    private static final String BACKUP_CONFIG_FILE = "server.properties.vt-backup";
+
+    private GameServer server;
+    private Socket socket;
+    private DataOutputStream out;
+    private DataInputStream in;
+    private boolean hadConfig;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        // The server reads server.properties from the working directory
+        File serverConfig = new File(SERVER_CONFIG_FILE);
+        hadConfig = serverConfig.exists();
+        if (hadConfig) {
+            Files.copy(serverConfig.toPath(), new File(BACKUP_CONFIG_FILE).toPath(),
+                       StandardCopyOption.REPLACE_EXISTING);
+        }
+        try (FileWriter writer = new FileWriter(serverConfig)) {
+            writer.write("# Test Server Configuration\n");
+            writer.write("server.port=" + TEST_PORT + "\n");
+            writer.write("server.virtual-threads=true\n");
+        }
+
+        server = new GameServer(TEST_PORT, 10);
+        server.start();
+        connect();
+    }
+
+    @AfterEach
+    public void tearDown() throws Exception {
+        if (socket != null) {
+            socket.close();
+        }
+        if (server != null && server.isRunning()) {
+            server.stop();
+        }
+
+        File serverConfig = new File(SERVER_CONFIG_FILE);
+        File backupConfig = new File(BACKUP_CONFIG_FILE);
+        if (hadConfig) {
+            Files.copy(backupConfig.toPath(), serverConfig.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            backupConfig.delete();
+        } else {
+            serverConfig.delete();
+        }
+        Thread.sleep(500);
+    }
+
+    /**
+     * Opens a socket and completes the protocol handshake.
+     */
+    private void connect() throws Exception {
+        socket = new Socket("localhost", TEST_PORT);
+        socket.setSoTimeout(5000);
+        out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+        in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+
+        ByteBuffer handshake = MessageCodec.encodeHandshake(MessageCodec.PROTOCOL_VERSION);
+        out.write(handshake.array(), 0, handshake.limit());
+        out.flush();
+        assertEquals(MessageCodec.PROTOCOL_VERSION, MessageCodec.readHandshake(in),
+                     "Server should answer the handshake");
+    }
+
+    /**
+     * Reads frames until one of the given type arrives.
+     */
+    private NetworkMessage readUntil(MessageType type) throws Exception {
+        while (true) {
+            NetworkMessage message = MessageCodec.readFrame(in, MessageCodec.MAX_FRAME_SIZE);
+            if (message.getType() == type) {
+                return message;
+            }
+        }
+    }
+
+    /**
+     * Waits for the server's connected client count to reach a value.
+     */
+    private void waitForClientCount(int expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (server.getConnectedClientCount() != expected && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertEquals(expected, server.getConnectedClientCount());
+    }
+
+    @Test
+    public void testHandshakeAndMessageExchange() throws Exception {
+        readUntil(MessageType.WORLD_STATE);
+        waitForClientCount(1);
+
+        PingMessage ping = new PingMessage("client");
+        MessageCodec.writeFrame(out, ping);
+        out.flush();
+
+        PongMessage pong = (PongMessage) readUntil(MessageType.PONG);
+        assertEquals(ping.getTimestamp(), pong.getPingTimestamp(), "Ping should be answered");
+    }
+
+    @Test
+    public void testOversizedFrameIsSkippedAndConnectionContinues() throws Exception {
+        readUntil(MessageType.WORLD_STATE);
+
+        // Skipped with skipNBytes from the length prefix, never buffered
+        int oversized = MessageCodec.MAX_INBOUND_MESSAGE_SIZE + 1;
+        out.writeInt(oversized);
+        out.write(new byte[oversized]);
+
+        PingMessage ping = new PingMessage("client");
+        MessageCodec.writeFrame(out, ping);
+        out.flush();
+
+        PongMessage pong = (PongMessage) readUntil(MessageType.PONG);
+        assertEquals(ping.getTimestamp(), pong.getPingTimestamp(),
+                     "Ping after an oversized frame should be answered");
+        assertEquals(1, server.getConnectedClientCount(),
+                     "Client should remain connected after an oversized frame");
+    }
+
+    @Test
+    public void testDisconnectRemovesClient() throws Exception {
+        readUntil(MessageType.WORLD_STATE);
+        waitForClientCount(1);
+
+        socket.close();
+        socket = null;
+        waitForClientCount(0);
+
+        // The server keeps accepting new sessions afterwards
+        connect();
+        readUntil(MessageType.WORLD_STATE);
+        waitForClientCount(1);
+    }
+}
@@ -9,6 +9,7 @@ import java.util.Properties;
 
 import org.junit.jupiter.api.AfterEach;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -278,4 +279,103 @@ public class ServerConfigTest {
         assertTrue(errorOutput.contains("Using default value: 512"), 
                    "Error output should indicate default is being used");
     }
+    
+    @Test
+    public void testVirtualThreadsDisabledByDefault() throws IOException {
+        // Test that the NIO transport stays the default when the property is absent
+        createConfigFile("512");
+        
+        ServerConfig config = ServerConfig.load(testConfigFile.getAbsolutePath());
+        
+        assertFalse(config.isVirtualThreads(), 
+                    "Virtual threads should be disabled when property is missing");
+    }
+    
+    @Test
+    public void testLoadVirtualThreadsEnabled() throws IOException {
+        // Test that server.virtual-threads=true switches the server mode
+        createConfigFile("512");
+        try (FileWriter writer = new FileWriter(testConfigFile, true)) {
+            writer.write("server.virtual-threads=true\n");
+        }
+        
+        ServerConfig config = ServerConfig.load(testConfigFile.getAbsolutePath());
+        
+        assertTrue(config.isVirtualThreads(), 
+                   "Virtual threads should be enabled when property is true");
+    }
+    
+    @Test
+    public void testTickRateDefaultsAndBounds() throws IOException {
+        // Test that the tick rate defaults to 20 Hz and rejects out-of-range values
+        createConfigFile("512");
+        assertEquals(20, ServerConfig.load(testConfigFile.getAbsolutePath()).getTickRate(),
+                     "Tick rate should default to 20 when property is missing");
+        
+        try (FileWriter writer = new FileWriter(testConfigFile, true)) {
+            writer.write("server.tick-rate=500\n");
+        }
+        assertEquals(20, ServerConfig.load(testConfigFile.getAbsolutePath()).getTickRate(),
+                     "Out-of-range tick rate should fall back to the default");
+    }
+    
+    @Test
+    public void testLoadTickRate() throws IOException {
+        // Test that server.tick-rate sets the simulation rate
+        createConfigFile("512");
+        try (FileWriter writer = new FileWriter(testConfigFile, true)) {
+            writer.write("server.tick-rate=30\n");
+        }
+        
+        ServerConfig config = ServerConfig.load(testConfigFile.getAbsolutePath());
+        
+        assertEquals(30, config.getTickRate(), "Tick rate should be loaded from the property");
+    }
+    
+    @Test
+    public void testWorldSaveDefaults() throws IOException {
+        // Test that the server saves "server-world" every 5 minutes by default
+        createConfigFile("512");
+        
+        ServerConfig config = ServerConfig.load(testConfigFile.getAbsolutePath());
+        
+        assertEquals("server-world", config.getWorldName(), "World name should default to server-world");
+        assertEquals(300, config.getAutosaveInterval(), "Autosave interval should default to 300 seconds");
+    }
+    
+    @Test
+    public void testLoadWorldSaveSettings() throws IOException {
+        // Test that world.name and world.autosave-interval are loaded, and empty disables saving
+        createConfigFile("512");
+        try (FileWriter writer = new FileWriter(testConfigFile, true)) {
+            writer.write("world.name=island\n");
+            writer.write("world.autosave-interval=60\n");
+        }
+        
+        ServerConfig config = ServerConfig.load(testConfigFile.getAbsolutePath());
+        assertEquals("island", config.getWorldName(), "World name should be loaded from the property");
+        assertEquals(60, config.getAutosaveInterval(), "Autosave interval should be loaded from the property");
+        
+        createConfigFile("512");
+        try (FileWriter writer = new FileWriter(testConfigFile, true)) {
+            writer.write("world.name=\n");
+        }
+        assertEquals("", ServerConfig.load(testConfigFile.getAbsolutePath()).getWorldName(),
+                     "Empty world name should disable world saving");
+    }
+    
+    @Test
+    public void testInvalidWorldSaveSettingsFallBack() throws IOException {
+        // Test that unusable names and out-of-range intervals fall back to the defaults
+        createConfigFile("512");
+        try (FileWriter writer = new FileWriter(testConfigFile, true)) {
+            writer.write("world.name=../etc/passwd\n");
+            writer.write("world.autosave-interval=-5\n");
+        }
+        
+        ServerConfig config = ServerConfig.load(testConfigFile.getAbsolutePath());
+        
+        assertEquals("server-world", config.getWorldName(), "Invalid world name should fall back to the default");
+        assertEquals(300, config.getAutosaveInterval(), "Negative interval should fall back to the default");
+    }
 }
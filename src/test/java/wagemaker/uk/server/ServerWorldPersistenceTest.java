@@ -0,0 +1,167 @@
+package wagemaker.uk.server;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import wagemaker.uk.network.BambooPlantMessage;
+import wagemaker.uk.network.GameServer;
+import wagemaker.uk.network.MessageCodec;
+import wagemaker.uk.network.MessageType;
+import wagemaker.uk.network.NetworkMessage;
+import wagemaker.uk.network.PlantedBambooState;
+import wagemaker.uk.network.PlantedTreeState;
+import wagemaker.uk.network.TreePlantMessage;
+import wagemaker.uk.network.TreeState;
+import wagemaker.uk.network.TreeType;
+import wagemaker.uk.network.WorldState;
+import wagemaker.uk.respawn.ResourceType;
+import wagemaker.uk.respawn.RespawnEntry;
+import wagemaker.uk.world.WorldSaveData;
+import wagemaker.uk.world.WorldSaveManager;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Unit tests for ServerWorldPersistence.
+ * Servers are mostly created but never started; the autosave test runs the server's
+ * tick loop on its own, and the join test starts a restarted server and connects to it.
+ */
+public class ServerWorldPersistenceTest {
+
+    private static final String TEST_SAVE_NAME = "server-persistence-test";
+    private static final int TEST_PORT = 25590;
+
+    @AfterEach
+    public void tearDown() {
+        WorldSaveManager.deleteSave(TEST_SAVE_NAME, true);
+    }
+
+    @Test
+    public void testShutdownSaveIsLoadedOnRestart() {
+        GameServer server = new GameServer(TEST_PORT, 10, 13579L);
+        WorldState world = server.getWorldState();
+        world.addOrUpdateTree(new TreeState("64,64", TreeType.APPLE, 64, 64, 100, true));
+        world.addOrUpdateTree(new TreeState("128,128", TreeType.BANANA, 128, 128, 100, true));
+        world.removeTree("64,64");
+        world.addOrUpdatePlantedBamboo(new PlantedBambooState("bamboo-1", 192, 192, 30));
+
+        ServerWorldPersistence persistence = new ServerWorldPersistence(server, TEST_SAVE_NAME, 0);
+        assertFalse(persistence.loadWorld(), "There should be no save before the first run");
+        assertTrue(persistence.flush(10000), "Shutdown save should be written");
+        assertTrue(WorldSaveManager.saveExists(TEST_SAVE_NAME, true));
+
+        // A restarted server with a different configured seed picks up the saved world
+        GameServer restarted = new GameServer(TEST_PORT, 10, 24680L);
+        ServerWorldPersistence reloaded = new ServerWorldPersistence(restarted, TEST_SAVE_NAME, 0);
+        assertTrue(reloaded.loadWorld(), "Saved world should be loaded");
+
+        WorldState restored = restarted.getWorldState();
+        assertEquals(13579L, restored.getWorldSeed(), "Saved seed should replace the configured one");
+        assertFalse(restored.getTrees().get("64,64").isExists(), "Chopped tree should stay chopped");
+        assertTrue(restored.getClearedPositions().contains("64,64"), "Chopped tile should stay cleared");
+        assertTrue(restored.getTrees().containsKey("128,128"));
+        assertTrue(restored.getPlantedBamboos().containsKey("bamboo-1"), "Planted bamboo should be saved");
+        assertEquals(30, restored.getPlantedBamboos().get("bamboo-1").getGrowthTimer(), 0.001f);
+        reloaded.flush(10000);
+    }
+
+    @Test
+    public void testClientJoiningAfterRestartSeesPlantedSaplings() throws Exception {
+        GameServer server = new GameServer(TEST_PORT, 10, 13579L);
+        server.getWorldState().addOrUpdatePlantedBamboo(new PlantedBambooState("bamboo-1", 192, 192, 30));
+        server.getWorldState().addOrUpdatePlantedTree(new PlantedTreeState("sapling-1", 256, 320, 45));
+        assertTrue(new ServerWorldPersistence(server, TEST_SAVE_NAME, 0).flush(10000));
+
+        GameServer restarted = new GameServer(TEST_PORT, 10, 24680L);
+        assertTrue(new ServerWorldPersistence(restarted, TEST_SAVE_NAME, 0).loadWorld());
+        restarted.start();
+        try (Socket socket = new Socket("localhost", TEST_PORT)) {
+            socket.setSoTimeout(5000);
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+            DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            ByteBuffer handshake = MessageCodec.encodeHandshake(MessageCodec.PROTOCOL_VERSION);
+            out.write(handshake.array(), 0, handshake.limit());
+            out.flush();
+            assertEquals(MessageCodec.PROTOCOL_VERSION, MessageCodec.readHandshake(in));
+
+            // The saplings follow the world state, before the session settles into updates
+            Map<MessageType, NetworkMessage> received = new HashMap<>();
+            while (!received.containsKey(MessageType.BAMBOO_PLANT) || !received.containsKey(MessageType.TREE_PLANT)) {
+                NetworkMessage message = MessageCodec.readFrame(in, MessageCodec.MAX_FRAME_SIZE);
+                received.put(message.getType(), message);
+            }
+
+            BambooPlantMessage bamboo = (BambooPlantMessage) received.get(MessageType.BAMBOO_PLANT);
+            assertEquals("bamboo-1", bamboo.getPlantedBambooId());
+            assertEquals(192, bamboo.getX(), 0.001f);
+            assertEquals(192, bamboo.getY(), 0.001f);
+            TreePlantMessage tree = (TreePlantMessage) received.get(MessageType.TREE_PLANT);
+            assertEquals("sapling-1", tree.getPlantedTreeId());
+            assertEquals(256, tree.getX(), 0.001f);
+            assertEquals(320, tree.getY(), 0.001f);
+        } finally {
+            restarted.stop();
+        }
+    }
+
+    @Test
+    public void testRespawnTimersAreCarriedForward() {
+        WorldState world = new WorldState(11111L);
+        WorldSaveData saveData = WorldSaveManager.createSaveData(TEST_SAVE_NAME, world, 0, 0, 100, null, true, null);
+        List<RespawnEntry> respawns = new ArrayList<>();
+        respawns.add(new RespawnEntry("tree-1", ResourceType.TREE, 10, 20,
+                                      System.currentTimeMillis(), 15 * 60 * 1000, TreeType.APPLE));
+        saveData.setPendingRespawns(respawns);
+        assertTrue(WorldSaveManager.writeSaveData(saveData, true, null));
+
+        // No respawn manager is attached, so the loaded timers must survive the next save
+        GameServer server = new GameServer(TEST_PORT, 10, 0);
+        ServerWorldPersistence persistence = new ServerWorldPersistence(server, TEST_SAVE_NAME, 0);
+        assertTrue(persistence.loadWorld());
+        assertTrue(persistence.flush(10000));
+
+        WorldSaveData loaded = WorldSaveManager.loadWorld(TEST_SAVE_NAME, true);
+        assertNotNull(loaded);
+        assertEquals(1, loaded.getPendingRespawns().size(), "Respawn timers should still be saved");
+        assertEquals("tree-1", loaded.getPendingRespawns().get(0).getResourceId());
+    }
+
+    @Test
+    public void testAutosaveRunsOnTickLoop() throws Exception {
+        GameServer server = new GameServer(TEST_PORT, 10, 97531L);
+        ServerWorldPersistence persistence = new ServerWorldPersistence(server, TEST_SAVE_NAME, 1);
+        persistence.start();
+
+        server.getTickLoop().start();
+        try {
+            long deadline = System.currentTimeMillis() + 5000;
+            while (!WorldSaveManager.saveExists(TEST_SAVE_NAME, true) && System.currentTimeMillis() < deadline) {
+                Thread.sleep(50);
+            }
+        } finally {
+            server.getTickLoop().stop();
+        }
+        assertTrue(WorldSaveManager.saveExists(TEST_SAVE_NAME, true), "Autosave should have written the world");
+        assertTrue(persistence.flush(10000));
+
+        WorldSaveData loaded = WorldSaveManager.loadWorld(TEST_SAVE_NAME, true);
+        assertNotNull(loaded);
+        assertEquals(97531L, loaded.getWorldSeed());
+    }
+
+    @Test
+    public void testInvalidSaveNameIsRejected() {
+        GameServer server = new GameServer(TEST_PORT, 10, 1L);
+        assertThrows(IllegalArgumentException.class, () -> new ServerWorldPersistence(server, "../escape", 60));
+    }
+}
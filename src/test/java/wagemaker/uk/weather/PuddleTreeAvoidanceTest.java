@@ -0,0 +1,62 @@
+package wagemaker.uk.weather;
+
+import com.badlogic.gdx.graphics.OrthographicCamera;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for puddle tree avoidance through PuddleRenderer.TreeLocator.
+ */
+public class PuddleTreeAvoidanceTest {
+    
+    private PuddleRenderer puddleRenderer;
+    private OrthographicCamera camera;
+    
+    @BeforeEach
+    public void setUp() {
+        puddleRenderer = new PuddleRenderer(null); // spawning never draws
+        puddleRenderer.initialize();
+        camera = new OrthographicCamera(800, 600);
+        camera.position.set(1000, 2000, 0);
+        camera.update();
+    }
+    
+    @Test
+    public void testLocatorIsQueriedOnlyInsideViewportWithTreeOffset() {
+        List<float[]> queries = new ArrayList<>();
+        puddleRenderer.setTreeLocator((x, y, radius) -> {
+            queries.add(new float[] {x, y, radius});
+            return false;
+        });
+        
+        puddleRenderer.spawnPuddles(camera, 5);
+        
+        assertFalse(queries.isEmpty());
+        for (float[] query : queries) {
+            // Queries are shifted by the tree center offset (32, 64) from the puddle position
+            assertTrue(query[0] + 32 >= 600 && query[0] + 32 <= 1400, "x outside viewport: " + query[0]);
+            assertTrue(query[1] + 64 >= 1700 && query[1] + 64 <= 2300, "y outside viewport: " + query[1]);
+            assertEquals(PuddleConfig.MIN_TREE_DISTANCE, query[2], 0.001f);
+        }
+        assertTrue(puddleRenderer.getActivePuddleCount() > 0);
+    }
+    
+    @Test
+    public void testNoPuddlesNearTrees() {
+        puddleRenderer.setTreeLocator((x, y, radius) -> true);
+        puddleRenderer.spawnPuddles(camera, 5);
+        assertEquals(0, puddleRenderer.getActivePuddleCount());
+    }
+    
+    @Test
+    public void testNoLocatorIgnoresTrees() {
+        puddleRenderer.setTreeLocator(null);
+        puddleRenderer.spawnPuddles(camera, 1);
+        assertEquals(1, puddleRenderer.getActivePuddleCount());
+    }
+}
@@ -0,0 +1,146 @@
+package wagemaker.uk.world;
+
+import org.junit.jupiter.api.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+import wagemaker.uk.network.TreeState;
+import wagemaker.uk.network.TreeType;
+import wagemaker.uk.network.WorldState;
+
+import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Unit tests for AsyncWorldSaver.
+ * Callbacks run directly on the saver thread so the tests can wait on them.
+ */
+public class AsyncWorldSaverTest {
+
+    private static final String TEST_SAVE_NAME = "async-save-test";
+    private static final String SECOND_SAVE_NAME = "async-save-test-2";
+
+    private AsyncWorldSaver saver;
+
+    @BeforeEach
+    public void setUp() {
+        saver = new AsyncWorldSaver(Runnable::run);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        saver.shutdown(5000);
+        WorldSaveManager.deleteSave(TEST_SAVE_NAME, false);
+        WorldSaveManager.deleteSave(SECOND_SAVE_NAME, false);
+    }
+
+    private WorldSaveData createSnapshot(String saveName, int treeCount) {
+        WorldState worldState = new WorldState();
+        worldState.setWorldSeed(777L);
+        for (int i = 0; i < treeCount; i++) {
+            String key = (i * 64) + "," + (i * 128);
+            worldState.addOrUpdateTree(new TreeState(key, TreeType.APPLE, i * 64, i * 128, 100, true));
+        }
+        return WorldSaveManager.createSaveData(saveName, worldState, 10, 20, 90, null, false, null);
+    }
+
+    @Test
+    public void testBackgroundSaveIsLoadable() throws Exception {
+        WorldSaveData snapshot = createSnapshot(TEST_SAVE_NAME, 50);
+        assertNotNull(snapshot, "Snapshot should be created");
+
+        List<Float> progress = new CopyOnWriteArrayList<>();
+        boolean[] result = new boolean[1];
+        CountDownLatch done = new CountDownLatch(1);
+
+        assertTrue(saver.submit(snapshot, false, new AsyncWorldSaver.Listener() {
+            @Override
+            public void onSaveProgress(String saveName, float value) {
+                progress.add(value);
+            }
+
+            @Override
+            public void onSaveComplete(String saveName, boolean success) {
+                result[0] = success;
+                done.countDown();
+            }
+        }));
+
+        assertTrue(done.await(10, TimeUnit.SECONDS), "Save should complete");
+        assertTrue(result[0], "Save should succeed");
+        assertFalse(saver.isSaving(), "No saves should be outstanding");
+
+        assertFalse(progress.isEmpty(), "Progress should be reported");
+        for (int i = 1; i < progress.size(); i++) {
+            assertTrue(progress.get(i) >= progress.get(i - 1), "Progress should never go backwards");
+        }
+        assertEquals(1.0f, progress.get(progress.size() - 1), 0.0001f);
+
+        WorldSaveData loaded = WorldSaveManager.loadWorld(TEST_SAVE_NAME, false);
+        assertNotNull(loaded, "Background save should be loadable");
+        assertEquals(777L, loaded.getWorldSeed());
+        assertEquals(50, loaded.getTrees().size());
+        assertEquals(10.0f, loaded.getPlayerX(), 0.001f);
+    }
+
+    @Test
+    public void testSaveDataIsDetachedFromWorld() {
+        WorldState worldState = new WorldState();
+        worldState.setWorldSeed(777L);
+        worldState.addOrUpdateTree(new TreeState("64,64", TreeType.APPLE, 64, 64, 100, true));
+        WorldSaveData saveData = WorldSaveManager.createSaveData(TEST_SAVE_NAME, worldState, 0, 0, 100, null, false, null);
+        assertNotNull(saveData);
+
+        // The world keeps changing on its own thread while the save is written
+        worldState.getTrees().get("64,64").setHealth(10);
+        worldState.addOrUpdateTree(new TreeState("128,128", TreeType.BANANA, 128, 128, 100, true));
+        worldState.removeTree("64,64");
+
+        assertEquals(1, saveData.getTrees().size(), "Trees added after the snapshot should not be saved");
+        assertEquals(100, saveData.getTrees().get("64,64").getHealth(), 0.001f);
+        assertTrue(saveData.getTrees().get("64,64").isExists());
+        assertTrue(saveData.getClearedPositions().isEmpty(), "Later clears should not be saved");
+    }
+
+    @Test
+    public void testDetachedWorldIsTakenOverWithoutCopying() {
+        WorldState worldState = new WorldState();
+        worldState.setWorldSeed(777L);
+        worldState.addOrUpdateTree(new TreeState("64,64", TreeType.APPLE, 64, 64, 100, true));
+        WorldSaveData saveData = WorldSaveManager.createSaveData(TEST_SAVE_NAME, worldState, 0, 0, 100,
+                                                                 null, false, null, true);
+        assertNotNull(saveData);
+        assertSame(worldState.getTrees(), saveData.getTrees(), "A detached state should not be copied again");
+        assertSame(worldState.getTrees().get("64,64"), saveData.getTrees().get("64,64"));
+    }
+
+    @Test
+    public void testSavesCompleteInSubmissionOrder() throws Exception {
+        List<String> completed = new CopyOnWriteArrayList<>();
+        CountDownLatch done = new CountDownLatch(2);
+        AsyncWorldSaver.Listener listener = (saveName, success) -> {
+            assertTrue(success, "Save should succeed: " + saveName);
+            completed.add(saveName);
+            done.countDown();
+        };
+
+        assertTrue(saver.submit(createSnapshot(TEST_SAVE_NAME, 2000), false, listener));
+        assertTrue(saver.submit(createSnapshot(SECOND_SAVE_NAME, 1), false, listener));
+
+        assertTrue(done.await(10, TimeUnit.SECONDS), "Both saves should complete");
+        assertEquals(Arrays.asList(TEST_SAVE_NAME, SECOND_SAVE_NAME), completed);
+    }
+
+    @Test
+    public void testShutdownFlushesAndRejectsNewSaves() {
+        assertTrue(saver.submit(createSnapshot(TEST_SAVE_NAME, 10), false, null));
+
+        assertTrue(saver.shutdown(10000), "Queued save should finish during shutdown");
+        assertTrue(WorldSaveManager.saveExists(TEST_SAVE_NAME, false), "Queued save should be on disk");
+
+        assertFalse(saver.submit(createSnapshot(SECOND_SAVE_NAME, 1), false, null),
+                    "Saves after shutdown should be rejected");
+        assertFalse(WorldSaveManager.saveExists(SECOND_SAVE_NAME, false));
+    }
+}
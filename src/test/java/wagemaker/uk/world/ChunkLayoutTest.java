@@ -0,0 +1,104 @@
+package wagemaker.uk.world;
+
+import org.junit.jupiter.api.Test;
+import wagemaker.uk.biome.BiomeType;
+import wagemaker.uk.biome.NoiseBiomeSampler;
+import wagemaker.uk.network.TreeType;
+
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for ChunkLayout seeded generation and the background ChunkGenerator.
+ */
+public class ChunkLayoutTest {
+    
+    private static final long SEED = 123456789L;
+    
+    @Test
+    public void testSameSeedGivesSameLayout() {
+        for (int chunk = -3; chunk <= 3; chunk++) {
+            ChunkLayout first = ChunkLayout.generate(SEED, chunk, -chunk, NoiseBiomeSampler.INSTANCE);
+            ChunkLayout second = ChunkLayout.generate(SEED, chunk, -chunk, NoiseBiomeSampler.INSTANCE);
+            
+            assertEquals(first.getTrees().size(), second.getTrees().size());
+            for (int i = 0; i < first.getTrees().size(); i++) {
+                ChunkLayout.TreeCandidate a = first.getTrees().get(i);
+                ChunkLayout.TreeCandidate b = second.getTrees().get(i);
+                assertEquals(a.getTileX(), b.getTileX());
+                assertEquals(a.getTileY(), b.getTileY());
+                for (int attempt = 0; attempt < ChunkLayout.MAX_TREE_ATTEMPTS; attempt++) {
+                    assertEquals(a.getX(attempt), b.getX(attempt));
+                    assertEquals(a.getType(attempt), b.getType(attempt));
+                }
+            }
+            assertEquals(first.getStones().size(), second.getStones().size());
+        }
+    }
+    
+    @Test
+    public void testCandidatesMatchReplayedRolls() {
+        Random random = new Random();
+        float[] position = new float[2];
+        int trees = 0;
+        for (int chunk = 0; chunk < 8; chunk++) {
+            ChunkLayout layout = ChunkLayout.generate(SEED, chunk, 1, NoiseBiomeSampler.INSTANCE);
+            for (ChunkLayout.TreeCandidate candidate : layout.getTrees()) {
+                trees++;
+                for (int attempt = 0; attempt < ChunkLayout.MAX_TREE_ATTEMPTS; attempt++) {
+                    TreeType type = ChunkLayout.rollTree(random, SEED, NoiseBiomeSampler.INSTANCE,
+                        candidate.getTileX(), candidate.getTileY(), attempt, position);
+                    assertEquals(candidate.getType(attempt), type);
+                    assertEquals(candidate.getX(attempt), position[0]);
+                    assertEquals(candidate.getY(attempt), position[1]);
+                    assertTrue(Math.abs(position[0] - candidate.getTileX()) <= 32);
+                }
+            }
+            for (ChunkLayout.StoneCandidate candidate : layout.getStones()) {
+                assertTrue(ChunkLayout.rollStone(random, SEED, candidate.getTileX(), candidate.getTileY(), position));
+                assertEquals(candidate.getX(), position[0]);
+                assertEquals(BiomeType.SAND, NoiseBiomeSampler.INSTANCE.getBiomeAtPosition(position[0], position[1]));
+            }
+        }
+        assertTrue(trees > 0, "Eight chunks should roll at least one tree");
+    }
+    
+    @Test
+    public void testCandidatesStayInsideChunkTiles() {
+        ChunkLayout layout = ChunkLayout.generate(SEED, -2, 5, NoiseBiomeSampler.INSTANCE);
+        for (ChunkLayout.TreeCandidate candidate : layout.getTrees()) {
+            assertEquals(-2, ChunkStreamer.toChunk(candidate.getTileX()));
+            assertEquals(5, ChunkStreamer.toChunk(candidate.getTileY()));
+            assertEquals(0, Math.floorMod(candidate.getTileX(), ChunkStreamer.TILE_SIZE));
+        }
+    }
+    
+    @Test
+    public void testGeneratorDeliversOffThread() throws InterruptedException {
+        ChunkGenerator generator = new ChunkGenerator(NoiseBiomeSampler.INSTANCE, 1);
+        try {
+            CountDownLatch done = new CountDownLatch(1);
+            AtomicReference<ChunkLayout> result = new AtomicReference<>();
+            AtomicReference<Thread> worker = new AtomicReference<>();
+            
+            assertTrue(generator.submit(SEED, 3, 4, layout -> {
+                result.set(layout);
+                worker.set(Thread.currentThread());
+                done.countDown();
+            }));
+            
+            assertTrue(done.await(5, TimeUnit.SECONDS));
+            assertEquals(3, result.get().getChunkX());
+            assertEquals(4, result.get().getChunkY());
+            assertEquals(SEED, result.get().getSeed());
+            assertNotSame(Thread.currentThread(), worker.get());
+        } finally {
+            generator.shutdown();
+        }
+        assertFalse(generator.submit(SEED, 0, 0, layout -> fail("Generator was shut down")));
+    }
+}
@@ -0,0 +1,156 @@
+package wagemaker.uk.world;
+
+import org.junit.jupiter.api.*;
+import wagemaker.uk.network.TreeState;
+import wagemaker.uk.network.TreeType;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for ChunkStreamer load windows and ChunkDelta records.
+ */
+public class ChunkStreamerTest {
+    
+    private static final int CHUNK = ChunkStreamer.CHUNK_SIZE;
+    
+    private ChunkStreamer streamer;
+    private RecordingHost host;
+    
+    /**
+     * Host that tracks loaded chunks and hands out one record per unloaded chunk.
+     */
+    private static class RecordingHost implements ChunkStreamer.Host {
+        final Set<Long> loaded = new HashSet<>();
+        final Map<Long, ChunkDelta> issued = new HashMap<>();
+        final Map<Long, ChunkDelta> received = new HashMap<>();
+        int firstVisits;
+        
+        @Override
+        public void loadChunk(int chunkX, int chunkY, ChunkDelta delta) {
+            long chunk = TileKey.pack(chunkX, chunkY);
+            assertTrue(loaded.add(chunk), "Chunk (" + chunkX + ", " + chunkY + ") loaded twice");
+            if (delta == null) {
+                firstVisits++;
+            } else {
+                received.put(chunk, delta);
+            }
+        }
+        
+        @Override
+        public ChunkDelta unloadChunk(int chunkX, int chunkY) {
+            long chunk = TileKey.pack(chunkX, chunkY);
+            assertTrue(loaded.remove(chunk), "Chunk (" + chunkX + ", " + chunkY + ") was not loaded");
+            ChunkDelta delta = new ChunkDelta();
+            issued.put(chunk, delta);
+            return delta;
+        }
+    }
+    
+    @BeforeEach
+    public void setUp() {
+        streamer = new ChunkStreamer();
+        host = new RecordingHost();
+    }
+    
+    @Test
+    public void testLoadsChunksCoveringReach() {
+        assertTrue(streamer.update(100, 100, 1000, 500, host));
+        // x from -900 to 1100 spans chunks -1..1, y from -400 to 600 spans chunks -1..0
+        assertEquals(6, streamer.getLoadedChunkCount());
+        assertTrue(streamer.isLoaded(1, 0));
+        assertFalse(streamer.isLoaded(0, 1));
+        assertEquals(6, host.firstVisits);
+        
+        assertFalse(streamer.update(110, 90, 1000, 500, host), "Same window changes nothing");
+    }
+    
+    @Test
+    public void testChunksUnloadOnlyBeyondMargin() {
+        streamer.update(CHUNK / 2, CHUNK / 2, 10, 10, host);
+        
+        // Walking away within the margin keeps the first chunk loaded
+        streamer.update(CHUNK / 2 + CHUNK * ChunkStreamer.UNLOAD_MARGIN, CHUNK / 2, 10, 10, host);
+        assertTrue(streamer.isLoaded(0, 0));
+        assertEquals(0, streamer.getUnloadedChunkCount());
+        
+        streamer.update(CHUNK / 2 + CHUNK * (ChunkStreamer.UNLOAD_MARGIN + 1), CHUNK / 2, 10, 10, host);
+        assertFalse(streamer.isLoaded(0, 0));
+        assertEquals(1, streamer.getUnloadedChunkCount());
+        assertEquals(host.loaded.size(), streamer.getLoadedChunkCount());
+    }
+    
+    @Test
+    public void testRevisitGetsRecordBack() {
+        streamer.update(CHUNK / 2, CHUNK / 2, 10, 10, host);
+        streamer.update(CHUNK * 10, CHUNK / 2, 10, 10, host);
+        ChunkDelta delta = host.issued.get(TileKey.pack(0, 0));
+        assertNotNull(delta);
+        
+        int firstVisits = host.firstVisits;
+        streamer.update(CHUNK / 2, CHUNK / 2, 10, 10, host);
+        assertSame(delta, host.received.get(TileKey.pack(0, 0)));
+        assertEquals(firstVisits, host.firstVisits, "Revisited chunk must not generate again");
+        assertFalse(streamer.isLoaded(10, 0));
+    }
+    
+    @Test
+    public void testResetForgetsEverything() {
+        streamer.update(0, 0, 10, 10, host);
+        streamer.update(CHUNK * 10, 0, 10, 10, host);
+        streamer.reset();
+        host = new RecordingHost(); // the world was replaced along with the records
+        
+        assertEquals(0, streamer.getLoadedChunkCount());
+        assertEquals(0, streamer.getUnloadedChunkCount());
+        assertTrue(streamer.update(CHUNK * 10, 0, 10, 10, host));
+    }
+    
+    @Test
+    public void testChunkOfUsesTileKeyThenPosition() {
+        // A tree generated from the last tile of chunk 0 may stand just inside chunk 1
+        assertEquals(TileKey.pack(0, 0), ChunkStreamer.chunkOf("960,0", 985.5f, 10f));
+        assertEquals(TileKey.pack(-1, 0), ChunkStreamer.chunkOf("-64,0", -40f, 10f));
+        assertEquals(TileKey.pack(1, -1), ChunkStreamer.chunkOf("planted-tree-1", 1030f, -5f));
+    }
+    
+    @Test
+    public void testSpawnPackingRoundTrips() {
+        for (int x = 0; x < ChunkStreamer.CHUNK_TILES; x++) {
+            for (int y = 0; y < ChunkStreamer.CHUNK_TILES; y++) {
+                for (int attempt = 0; attempt < 5; attempt++) {
+                    short spawn = ChunkDelta.packSpawn(x, y, attempt);
+                    assertTrue(spawn >= 0);
+                    assertEquals(x, ChunkDelta.spawnLocalX(spawn));
+                    assertEquals(y, ChunkDelta.spawnLocalY(spawn));
+                    assertEquals(attempt, ChunkDelta.spawnAttempt(spawn));
+                }
+            }
+        }
+    }
+    
+    @Test
+    public void testDeltaRecordsSpawnsAndExtras() {
+        ChunkDelta delta = new ChunkDelta();
+        assertTrue(delta.isEmpty());
+        
+        for (int i = 0; i < 10; i++) {
+            delta.addTreeSpawn(ChunkDelta.packSpawn(i, i, 1), 100 - i);
+        }
+        delta.addStoneSpawn(ChunkDelta.packSpawn(3, 4, 0), 25);
+        delta.addExtraTree(new TreeState("planted-tree-1", TreeType.SMALL, 10, 20, 100, true));
+        
+        assertFalse(delta.isEmpty());
+        assertEquals(10, delta.getTreeSpawnCount());
+        assertEquals(91, delta.getTreeHealth(9), 0.001f);
+        assertEquals(9, ChunkDelta.spawnLocalX(delta.getTreeSpawn(9)));
+        assertEquals(1, delta.getStoneSpawnCount());
+        assertEquals(25, delta.getStoneHealth(0), 0.001f);
+        assertTrue(delta.getExtraTrees().containsKey("planted-tree-1"));
+        assertTrue(delta.getExtraStones().isEmpty());
+    }
+}
@@ -0,0 +1,97 @@
+package wagemaker.uk.world;
+
+import org.junit.jupiter.api.Test;
+import wagemaker.uk.objects.Stone;
+import wagemaker.uk.trees.BananaTree;
+import wagemaker.uk.trees.Cactus;
+import wagemaker.uk.trees.CoconutTree;
+import wagemaker.uk.trees.SmallTree;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for DestructibleObject health rules and the shared WorldObjectType geometry.
+ */
+public class DestructibleObjectTest {
+    
+    @Test
+    public void testAttackAndRegeneration() {
+        SmallTree tree = new SmallTree(0, 0);
+        for (int i = 0; i < 9; i++) {
+            assertFalse(tree.attack());
+        }
+        assertEquals(10, tree.getHealth(), 0.001f);
+        assertTrue(tree.shouldShowHealthBar());
+        
+        // No regeneration until the object has been left alone for the delay
+        tree.update(WorldObjectType.REGEN_DELAY - 1);
+        assertEquals(10, tree.getHealth(), 0.001f);
+        tree.update(2);
+        assertEquals(12, tree.getHealth(), 0.001f);
+        
+        assertFalse(tree.attack());
+        assertTrue(tree.attack());
+    }
+    
+    @Test
+    public void testCactusTakesHalfDamageWithDoubleHealth() {
+        Cactus cactus = new Cactus(0, 0);
+        assertEquals(200, cactus.getHealth(), 0.001f);
+        cactus.attack();
+        assertEquals(195, cactus.getHealth(), 0.001f);
+        assertEquals(0.975f, cactus.getHealthPercentage(), 0.0001f);
+    }
+    
+    @Test
+    public void testInstancesShareTheirType() {
+        assertSame(new Stone(0, 0).getType(), new Stone(500, 500).getType());
+        assertSame(SmallTree.TYPE, new SmallTree(64, 64).getType());
+    }
+    
+    @Test
+    public void testAttackRangesMatchPerClassRules() {
+        Random random = new Random(7);
+        for (int i = 0; i < 5000; i++) {
+            float x = random.nextInt(2000) - 1000;
+            float y = random.nextInt(2000) - 1000;
+            float px = x + random.nextInt(400) - 200;
+            float py = y + random.nextInt(400) - 200;
+            
+            // Small tree: 64px left/right, 96px up/down from (x+32, y+64)
+            float dx = Math.abs((x + 32) - (px + 32));
+            float dy = (y + 64) - (py + 32);
+            assertEquals(dx <= 64 && dy >= -96 && dy <= 96, new SmallTree(x, y).isInAttackRange(px, py));
+            
+            // Coconut tree: centered at (x+64, y+64)
+            dx = Math.abs((x + 64) - (px + 32));
+            dy = (y + 64) - (py + 32);
+            assertEquals(dx <= 64 && dy >= -96 && dy <= 96, new CoconutTree(x, y).isInAttackRange(px, py));
+            
+            // Banana tree: asymmetric, player centered at +28
+            dx = (px + 28) - (x + 32);
+            dy = Math.abs((y + 64) - (py + 28));
+            assertEquals(dx >= -96 && dx <= 32 && dy <= 128, new BananaTree(x, y).isInAttackRange(px, py));
+            
+            // Stone: 80px circle between centers, player sprite is 100x100
+            float sx = (x + 32) - (px + 50);
+            float sy = (y + 32) - (py + 50);
+            assertEquals((float) Math.sqrt(sx * sx + sy * sy) <= 80, new Stone(x, y).isInAttackRange(px, py));
+        }
+    }
+    
+    @Test
+    public void testCollisionBoxes() {
+        Cactus cactus = new Cactus(100, 100);
+        // Box spans x 116..148, y 124..204
+        assertTrue(cactus.collidesWith(140, 190, 10, 10));
+        assertFalse(cactus.collidesWith(148, 150, 10, 10));
+        assertFalse(cactus.collidesWith(120, 114, 10, 10));
+        
+        BananaTree banana = new BananaTree(0, 0);
+        // Box starts 16px below the anchor
+        assertTrue(banana.collidesWith(20, -10, 4, 4));
+        assertFalse(banana.collidesWith(32, -10, 4, 4));
+    }
+}
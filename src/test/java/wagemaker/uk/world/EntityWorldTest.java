@@ -0,0 +1,117 @@
+package wagemaker.uk.world;
+
+import org.junit.jupiter.api.Test;
+import wagemaker.uk.objects.Stone;
+import wagemaker.uk.trees.AppleTree;
+import wagemaker.uk.trees.SmallTree;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for EntityWorld storage and its per-frame passes.
+ */
+public class EntityWorldTest {
+    
+    @Test
+    public void testRemoveKeepsOtherObjects() {
+        EntityWorld world = new EntityWorld();
+        List<SmallTree> trees = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            SmallTree tree = new SmallTree(i * 64, 0);
+            trees.add(tree);
+            world.add(tree);
+        }
+        world.add(trees.get(0));
+        assertEquals(1000, world.size(), "Adding twice should not duplicate");
+        
+        for (int i = 0; i < 1000; i += 2) {
+            assertTrue(world.remove(trees.get(i)));
+        }
+        assertFalse(world.remove(trees.get(0)));
+        assertEquals(500, world.size());
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(i % 2 == 1, world.contains(trees.get(i)));
+        }
+    }
+    
+    @Test
+    public void testUpdateAndDamagedPasses() {
+        EntityWorld world = new EntityWorld();
+        SmallTree tree = new SmallTree(0, 0);
+        Stone stone = new Stone(100, 0);
+        AppleTree appleTree = new AppleTree(200, 0);
+        world.add(tree);
+        world.add(stone);
+        world.add(appleTree);
+        
+        tree.attack();
+        stone.attack();
+        List<WorldObjectType> damaged = new ArrayList<>();
+        List<Float> xs = new ArrayList<>();
+        world.forEachDamaged((type, x, y, healthPercentage) -> {
+            damaged.add(type);
+            xs.add(x);
+            assertTrue(healthPercentage < 1.0f);
+        });
+        assertEquals(2, damaged.size());
+        assertFalse(damaged.contains(appleTree.getType()));
+        assertTrue(xs.contains(100f), "The stone's position should come from its slot");
+        
+        world.update(WorldObjectType.REGEN_DELAY + 1);
+        assertTrue(tree.getHealth() > 90);
+        assertTrue(stone.getHealth() > 40);
+    }
+    
+    @Test
+    public void testHealthFollowsObjectInAndOutOfWorld() {
+        EntityWorld world = new EntityWorld();
+        SmallTree tree = new SmallTree(0, 0);
+        SmallTree other = new SmallTree(64, 0);
+        tree.attack();
+        world.add(tree);
+        world.add(other);
+        assertEquals(90, tree.getHealth(), 0.001f, "Health should be carried into the world");
+        
+        // Damage while stored goes to the slot and survives another object moving into it
+        tree.attack();
+        other.attack();
+        world.remove(tree);
+        assertEquals(80, tree.getHealth(), 0.001f, "Health should be carried out of the world");
+        assertEquals(90, other.getHealth(), 0.001f);
+        
+        // The regeneration timer moves with the object too
+        tree.update(WorldObjectType.REGEN_DELAY - 1);
+        world.add(tree);
+        world.update(2);
+        assertEquals(82, tree.getHealth(), 0.001f);
+        
+        world.clear();
+        assertFalse(world.contains(other));
+        assertEquals(90, other.getHealth(), 0.001f);
+    }
+    
+    @Test
+    public void testMapsFeedEntityWorld() {
+        SpatialIndex<WorldObject> index = new SpatialIndex<>();
+        EntityWorld world = new EntityWorld();
+        IndexedWorldMap<SmallTree> trees = new IndexedWorldMap<>(index, world);
+        IndexedWorldMap<Stone> stones = new IndexedWorldMap<>(index, world);
+        
+        SmallTree first = new SmallTree(0, 0);
+        trees.put("0,0", first);
+        stones.put("64,0", new Stone(64, 0));
+        assertEquals(2, world.size());
+        
+        SmallTree replacement = new SmallTree(0, 0);
+        trees.put("0,0", replacement);
+        assertFalse(world.contains(first));
+        assertTrue(world.contains(replacement));
+        
+        trees.remove("0,0");
+        stones.clear();
+        assertEquals(0, world.size());
+    }
+}
@@ -0,0 +1,143 @@
+package wagemaker.uk.world;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for SpatialIndex queries and IndexedWorldMap bookkeeping.
+ */
+public class SpatialIndexTest {
+    
+    private SpatialIndex<WorldObject> index;
+    
+    /**
+     * Minimal world object with a 32x32 collision box at its anchor.
+     */
+    private static class Box implements WorldObject {
+        private final float x, y;
+        
+        Box(float x, float y) {
+            this.x = x;
+            this.y = y;
+        }
+        
+        public float getX() {
+            return x;
+        }
+        
+        public float getY() {
+            return y;
+        }
+        
+        public boolean collidesWith(float px, float py, float width, float height) {
+            return px < x + 32 && px + width > x && py < y + 32 && py + height > y;
+        }
+    }
+    
+    @BeforeEach
+    public void setUp() {
+        index = new SpatialIndex<>();
+    }
+    
+    private static void insert(SpatialIndex<WorldObject> index, Box box) {
+        index.insert(box, box.getX(), box.getY(), box.getX(), box.getY(), box.getX() + 32, box.getY() + 32);
+    }
+    
+    @Test
+    public void testIntersectingQueriesCoverChunkEdges() {
+        Box edge = new Box(SpatialIndex.DEFAULT_CHUNK_SIZE - 16, -16);
+        insert(index, edge);
+        
+        assertTrue(index.anyIntersecting(SpatialIndex.DEFAULT_CHUNK_SIZE + 1, 1, SpatialIndex.DEFAULT_CHUNK_SIZE + 2, 2, o -> true),
+                   "Boxes spanning chunks should be found from every chunk they overlap");
+        assertFalse(index.anyIntersecting(1000, 1000, 1100, 1100, o -> true));
+    }
+    
+    @Test
+    public void testForEachReportsSpanningObjectsOnce() {
+        Box spanning = new Box(-16, -16);
+        insert(index, spanning);
+        
+        List<WorldObject> seen = new ArrayList<>();
+        index.forEachIntersecting(-500, -500, 500, 500, seen::add);
+        assertEquals(1, seen.size());
+    }
+    
+    @Test
+    public void testMatchesBruteForce() {
+        Random random = new Random(7);
+        List<Box> boxes = new ArrayList<>();
+        for (int i = 0; i < 3000; i++) {
+            Box box = new Box((random.nextFloat() - 0.5f) * 20000, (random.nextFloat() - 0.5f) * 20000);
+            boxes.add(box);
+            insert(index, box);
+        }
+        
+        for (int q = 0; q < 300; q++) {
+            float x = (random.nextFloat() - 0.5f) * 20000;
+            float y = (random.nextFloat() - 0.5f) * 20000;
+            float radius = 20 + random.nextFloat() * 300;
+            
+            int expectedNear = 0;
+            int expectedColliding = 0;
+            for (Box box : boxes) {
+                float dx = box.getX() - x;
+                float dy = box.getY() - y;
+                if (dx * dx + dy * dy < radius * radius) {
+                    expectedNear++;
+                }
+                if (box.collidesWith(x, y, 64, 64)) {
+                    expectedColliding++;
+                }
+            }
+            assertEquals(expectedNear > 0, index.anyWithin(x, y, radius, o -> true));
+            assertEquals(expectedColliding > 0, index.anyIntersecting(x, y, x + 64, y + 64, o -> o.collidesWith(x, y, 64, 64)));
+            
+            int[] visited = new int[1];
+            index.forEachIntersecting(x - radius, y - radius, x + radius, y + radius, o -> visited[0]++);
+            int expectedInBox = 0;
+            for (Box box : boxes) {
+                if (box.getX() <= x + radius && box.getX() + 32 >= x - radius
+                        && box.getY() <= y + radius && box.getY() + 32 >= y - radius) {
+                    expectedInBox++;
+                }
+            }
+            assertEquals(expectedInBox, visited[0]);
+        }
+    }
+    
+    @Test
+    public void testAnchorOutsideBoundsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> index.insert(new Box(0, 0), 50, 50, 0, 0, 10, 10));
+    }
+    
+    @Test
+    public void testIndexedMapKeepsIndexInStep() {
+        Map<String, Box> boxes = new IndexedWorldMap<>(index);
+        Box a = new Box(100, 100);
+        Box b = new Box(5000, 5000);
+        
+        boxes.put("a", a);
+        boxes.put("b", b);
+        assertEquals(2, index.size());
+        assertTrue(index.anyWithin(100, 110, 20, o -> o == a));
+        
+        boxes.put("a", new Box(-3000, 0));
+        assertFalse(index.contains(a), "Replaced objects should leave the index");
+        
+        boxes.remove("b");
+        assertFalse(index.anyWithin(5000, 5000, 10, o -> true));
+        
+        boxes.clear();
+        assertEquals(0, index.size());
+        assertThrows(UnsupportedOperationException.class, () -> boxes.values().clear(),
+                     "Views must not bypass the index");
+    }
+}
@@ -0,0 +1,156 @@
+package wagemaker.uk.world;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for TileKey packing, the primitive long maps and TileKeyedMap mirroring.
+ */
+public class TileKeyTest {
+    
+    @Test
+    public void testPackRoundTripsNegativeCoordinates() {
+        int[][] points = { {0, 0}, {64, -128}, {-64, 128}, {-1, -1},
+                           {Integer.MAX_VALUE, Integer.MIN_VALUE} };
+        for (int[] point : points) {
+            long key = TileKey.pack(point[0], point[1]);
+            assertEquals(point[0], TileKey.unpackX(key));
+            assertEquals(point[1], TileKey.unpackY(key));
+        }
+        assertNotEquals(TileKey.pack(1, -1), TileKey.pack(-1, 1));
+    }
+    
+    @Test
+    public void testParseMatchesProtocolStrings() {
+        assertEquals(TileKey.pack(-640, 1280), TileKey.parse("-640,1280"));
+        assertEquals("-640,1280", TileKey.format(TileKey.parse("-640,1280")));
+        
+        assertEquals(TileKey.NONE, TileKey.parse(null));
+        assertEquals(TileKey.NONE, TileKey.parse("planted-bamboo-64-128"));
+        assertEquals(TileKey.NONE, TileKey.parse("64,"));
+        assertEquals(TileKey.NONE, TileKey.parse(",64"));
+        assertEquals(TileKey.NONE, TileKey.parse("1,2,3"));
+        assertEquals(TileKey.NONE, TileKey.parse("-,5"));
+        assertEquals(TileKey.NONE, TileKey.parse("99999999999,0"));
+    }
+    
+    @Test
+    public void testLongObjectHashMapMatchesHashMap() {
+        LongObjectHashMap<Integer> map = new LongObjectHashMap<>();
+        Map<Long, Integer> expected = new HashMap<>();
+        Random random = new Random(42);
+        
+        // A small key range forces collisions, growth and backward-shift deletes
+        for (int i = 0; i < 20000; i++) {
+            long key = TileKey.pack(random.nextInt(40) - 20, random.nextInt(40) - 20);
+            if (random.nextInt(3) == 0) {
+                assertEquals(expected.remove(key), map.remove(key));
+            } else {
+                assertEquals(expected.put(key, i), map.put(key, i));
+            }
+            assertEquals(expected.size(), map.size());
+        }
+        for (Map.Entry<Long, Integer> entry : expected.entrySet()) {
+            assertEquals(entry.getValue(), map.get(entry.getKey()));
+        }
+        
+        int[] visited = new int[1];
+        map.forEach((key, value) -> {
+            assertEquals(expected.get(key), value);
+            visited[0]++;
+        });
+        assertEquals(expected.size(), visited[0]);
+        
+        map.clear();
+        assertTrue(map.isEmpty());
+        assertNull(map.get(TileKey.pack(0, 0)));
+    }
+    
+    @Test
+    public void testLongHashSet() {
+        LongHashSet set = new LongHashSet();
+        assertTrue(set.add(TileKey.pack(0, 0)));
+        assertFalse(set.add(TileKey.pack(0, 0)));
+        assertTrue(set.add(TileKey.pack(-64, 64)));
+        
+        assertTrue(set.contains(TileKey.pack(-64, 64)));
+        assertFalse(set.contains(TileKey.pack(64, -64)));
+        assertTrue(set.remove(TileKey.pack(0, 0)));
+        assertFalse(set.remove(TileKey.pack(0, 0)));
+        assertEquals(1, set.size());
+    }
+    
+    @Test
+    public void testRemoveIfTestsEachEntryOnce() {
+        // Dense keys make long probe runs, including runs that wrap round the table
+        LongObjectHashMap<Integer> map = new LongObjectHashMap<>();
+        Map<Long, Integer> reference = new HashMap<>();
+        Random random = new Random(7);
+        for (int i = 0; i < 2000; i++) {
+            long key = TileKey.pack(random.nextInt(64), random.nextInt(64));
+            map.put(key, i);
+            reference.put(key, i);
+        }
+        
+        int before = map.size();
+        Map<Long, Integer> tested = new HashMap<>();
+        assertTrue(map.removeIf((key, value) -> {
+            tested.merge(key, 1, Integer::sum);
+            return value % 3 == 0;
+        }));
+        reference.values().removeIf(value -> value % 3 == 0);
+        
+        assertEquals(before, tested.size(), "Every entry should be tested");
+        assertTrue(tested.values().stream().allMatch(count -> count == 1), "Every entry should be tested once");
+        assertEquals(reference.size(), map.size());
+        for (Map.Entry<Long, Integer> entry : reference.entrySet()) {
+            assertEquals(entry.getValue(), map.get(entry.getKey()));
+        }
+        
+        LongHashSet set = new LongHashSet();
+        set.add(1);
+        set.add(2);
+        assertTrue(set.removeIf(key -> key == 2));
+        assertFalse(set.removeIf(key -> key == 2));
+        assertTrue(set.contains(1));
+        assertFalse(set.contains(2));
+    }
+    
+    @Test
+    public void testTileKeyedMapMirrorsCoordinateKeys() {
+        TileKeyedMap<Boolean> cleared = new TileKeyedMap<>();
+        cleared.put("-128,64", true);
+        cleared.put("planted-tree-1", true);
+        
+        assertTrue(cleared.containsTile(-128, 64));
+        assertFalse(cleared.containsTile(64, -128));
+        assertEquals(2, cleared.size());
+        
+        cleared.remove("-128,64");
+        assertFalse(cleared.containsTile(-128, 64));
+        
+        cleared.putAll(Map.of("0,0", true, "64,64", true));
+        cleared.computeIfPresent("64,64", (key, value) -> null);
+        assertTrue(cleared.containsTile(0, 0));
+        assertFalse(cleared.containsTile(64, 64));
+        
+        cleared.clear();
+        assertFalse(cleared.containsTile(0, 0));
+        assertThrows(UnsupportedOperationException.class, () -> cleared.keySet().remove("0,0"));
+    }
+    
+    @Test
+    public void testToCellRoundsDown() {
+        assertEquals(0, TileKey.toCell(0f, 256));
+        assertEquals(0, TileKey.toCell(255.9f, 256));
+        assertEquals(1, TileKey.toCell(256f, 256));
+        assertEquals(-1, TileKey.toCell(-0.5f, 256));
+        assertEquals(-1, TileKey.toCell(-256f, 256));
+        assertEquals(-2, TileKey.toCell(-256.5f, 256));
+    }
+}
@@ -0,0 +1,190 @@
+package wagemaker.uk.world;
+
+import org.junit.jupiter.api.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+import wagemaker.uk.network.ItemState;
+import wagemaker.uk.network.ItemType;
+import wagemaker.uk.network.PlantedBambooState;
+import wagemaker.uk.network.PlantedTreeState;
+import wagemaker.uk.network.StoneState;
+import wagemaker.uk.network.TreeState;
+import wagemaker.uk.network.TreeType;
+import wagemaker.uk.respawn.RespawnEntry;
+import wagemaker.uk.respawn.ResourceType;
+import wagemaker.uk.weather.RainZone;
+
+import java.io.*;
+import java.util.*;
+
+/**
+ * Unit tests for the binary WorldSaveCodec and its compatibility with serialized saves.
+ */
+public class WorldSaveCodecTest {
+    
+    /**
+     * Helper method to build save data that fills every section.
+     */
+    private WorldSaveData createFullSaveData() {
+        Map<String, TreeState> trees = new HashMap<>();
+        trees.put("128,-64", new TreeState("128,-64", TreeType.APPLE, 140.5f, -60.25f, 80, true));
+        trees.put("-2048,4096", new TreeState("-2048,4096", TreeType.BAMBOO, -2040, 4100, 0, false));
+        trees.put("planted-tree-1", new TreeState("planted-tree-1", TreeType.SMALL, 10, 20, 100, true));
+        trees.put("64,64", new TreeState("other-id", TreeType.COCONUT, 70, 70, 55, true));
+        
+        Map<String, StoneState> stones = new HashMap<>();
+        stones.put("3000,3000", new StoneState("3000,3000", 3010, 3005, 50));
+        
+        Map<String, ItemState> items = new HashMap<>();
+        items.put("item-7", new ItemState("item-7", ItemType.BANANA, 5, 6, false));
+        items.put("item-8", new ItemState("item-8", ItemType.APPLE, 7, 8, true));
+        
+        Set<String> cleared = new HashSet<>(Arrays.asList("0,0", "64,128", "+1,01", "odd key"));
+        List<RainZone> rain = new ArrayList<>();
+        rain.add(new RainZone("spawn", 0, 0, 640, 100, 0.8f));
+        
+        WorldSaveData saveData = new WorldSaveData(42L, trees, stones, items, cleared, rain,
+                                                   12.5f, -99.75f, 66.0f, "codec-test", "multiplayer");
+        Map<String, PlantedTreeState> plantedTrees = new HashMap<>();
+        plantedTrees.put("p1", new PlantedTreeState("p1", 1, 2, 33.5f));
+        saveData.setPlantedTrees(plantedTrees);
+        Map<String, PlantedBambooState> plantedBamboos = new HashMap<>();
+        plantedBamboos.put("256,256", new PlantedBambooState("256,256", 256, 256, 4.0f));
+        saveData.setPlantedBamboos(plantedBamboos);
+        saveData.setPendingRespawns(new ArrayList<>(Arrays.asList(
+            new RespawnEntry("tree-a", ResourceType.TREE, 1, 2, 1000L, 900000L, TreeType.BANANA),
+            new RespawnEntry("stone-b", ResourceType.STONE, 3, 4, 2000L, 600000L, null))));
+        saveData.setAppleCount(3);
+        saveData.setPebbleCount(9);
+        saveData.setBabyTreeCount(2);
+        return saveData;
+    }
+    
+    private byte[] encode(WorldSaveData saveData) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        WorldSaveCodec.write(out, saveData);
+        return out.toByteArray();
+    }
+    
+    private WorldSaveData decode(byte[] bytes) throws Exception {
+        return WorldSaveCodec.read(new ByteArrayInputStream(bytes));
+    }
+    
+    @Test
+    public void testEverySectionRoundTrips() throws Exception {
+        WorldSaveData original = createFullSaveData();
+        WorldSaveData loaded = decode(encode(original));
+        
+        assertEquals(WorldSaveData.SAVE_FORMAT_VERSION, loaded.getSaveFormatVersion());
+        assertEquals(42L, loaded.getWorldSeed());
+        assertEquals("codec-test", loaded.getSaveName());
+        assertEquals("multiplayer", loaded.getGameMode());
+        assertEquals(original.getSaveTimestamp(), loaded.getSaveTimestamp());
+        assertEquals(12.5f, loaded.getPlayerX());
+        assertEquals(-99.75f, loaded.getPlayerY());
+        assertEquals(66.0f, loaded.getPlayerHealth());
+        assertEquals(3, loaded.getAppleCount());
+        assertEquals(9, loaded.getPebbleCount());
+        assertEquals(2, loaded.getBabyTreeCount());
+        
+        assertEquals(original.getTrees().keySet(), loaded.getTrees().keySet());
+        for (String key : original.getTrees().keySet()) {
+            TreeState a = original.getTrees().get(key);
+            TreeState b = loaded.getTrees().get(key);
+            assertEquals(a.getTreeId(), b.getTreeId());
+            assertEquals(a.getType(), b.getType());
+            assertEquals(a.getX(), b.getX());
+            assertEquals(a.getY(), b.getY());
+            assertEquals(a.getHealth(), b.getHealth());
+            assertEquals(a.isExists(), b.isExists());
+        }
+        assertEquals("other-id", loaded.getTrees().get("64,64").getTreeId());
+        
+        assertEquals(3010f, loaded.getStones().get("3000,3000").getX());
+        assertEquals(ItemType.BANANA, loaded.getItems().get("item-7").getType());
+        assertTrue(loaded.getItems().get("item-8").isCollected());
+        assertEquals(original.getClearedPositions(), loaded.getClearedPositions());
+        assertEquals(0.8f, loaded.getRainZones().get(0).getIntensity());
+        assertEquals(33.5f, loaded.getPlantedTrees().get("p1").getGrowthTimer());
+        assertEquals(4.0f, loaded.getPlantedBamboos().get("256,256").getGrowthTimer());
+        
+        List<RespawnEntry> respawns = loaded.getPendingRespawns();
+        assertEquals(2, respawns.size());
+        assertEquals(TreeType.BANANA, respawns.get(0).getTreeType());
+        assertEquals(900000L, respawns.get(0).getRespawnDuration());
+        assertEquals(ResourceType.STONE, respawns.get(1).getResourceType());
+        assertNull(respawns.get(1).getTreeType());
+        assertTrue(loaded.isValid());
+    }
+    
+    @Test
+    public void testMissingCollectionsStayNull() throws Exception {
+        WorldSaveData original = createFullSaveData();
+        original.setPlantedTrees(null);
+        original.setPendingRespawns(null);
+        
+        WorldSaveData loaded = decode(encode(original));
+        assertNull(loaded.getPlantedTrees());
+        assertNull(loaded.getPendingRespawns());
+        assertNotNull(loaded.getPlantedBamboos());
+    }
+    
+    @Test
+    public void testLargeWorldIsSmallerThanSerialized() throws Exception {
+        Map<String, TreeState> trees = new HashMap<>();
+        Set<String> cleared = new HashSet<>();
+        Random random = new Random(7);
+        for (int i = 0; i < 20000; i++) {
+            int x = (random.nextInt(2000) - 1000) * 64;
+            int y = (random.nextInt(2000) - 1000) * 64;
+            String key = x + "," + y;
+            trees.put(key, new TreeState(key, TreeType.values()[i % TreeType.values().length],
+                                         x + random.nextInt(64), y + random.nextInt(64), 100, true));
+            if (i % 3 == 0) {
+                cleared.add((x + 64) + "," + y);
+            }
+        }
+        WorldSaveData saveData = new WorldSaveData(1L, trees, new HashMap<>(), new HashMap<>(), cleared,
+                                                   new ArrayList<>(), 0, 0, 100, "large", "singleplayer");
+        
+        ByteArrayOutputStream serialized = new ByteArrayOutputStream();
+        try (ObjectOutputStream oos = new ObjectOutputStream(serialized)) {
+            oos.writeObject(saveData);
+        }
+        byte[] binary = encode(saveData);
+        
+        assertTrue(binary.length * 2 < serialized.size(),
+                   "Binary save (" + binary.length + " B) should be well under serialized (" + serialized.size() + " B)");
+        assertEquals(trees.size(), decode(binary).getTrees().size());
+    }
+    
+    @Test
+    public void testSerializedBodyIsStillReadable() throws Exception {
+        WorldSaveData original = createFullSaveData();
+        original.setSaveFormatVersion(1);
+        ByteArrayOutputStream serialized = new ByteArrayOutputStream();
+        try (ObjectOutputStream oos = new ObjectOutputStream(serialized)) {
+            oos.writeObject(original);
+        }
+        
+        WorldSaveData loaded = decode(serialized.toByteArray());
+        assertEquals(1, loaded.getSaveFormatVersion());
+        assertEquals(original.getTrees().size(), loaded.getTrees().size());
+        assertEquals("codec-test", loaded.getSaveName());
+    }
+    
+    @Test
+    public void testNewerVersionIsRejected() throws Exception {
+        byte[] bytes = encode(createFullSaveData());
+        // Format version follows the 4-byte magic
+        bytes[7] = (byte) (WorldSaveData.SAVE_FORMAT_VERSION + 1);
+        assertThrows(IOException.class, () -> decode(bytes));
+    }
+    
+    @Test
+    public void testTruncatedBodyIsRejected() throws Exception {
+        byte[] bytes = encode(createFullSaveData());
+        assertThrows(IOException.class, () -> decode(Arrays.copyOf(bytes, bytes.length / 2)));
+        assertThrows(IOException.class, () -> decode(new byte[] {1, 2, 3, 4, 5, 6, 7, 8}));
+    }
+}
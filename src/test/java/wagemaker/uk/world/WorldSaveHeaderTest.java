@@ -0,0 +1,130 @@
+package wagemaker.uk.world;
+
+import org.junit.jupiter.api.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+import wagemaker.uk.network.ItemState;
+import wagemaker.uk.network.ItemType;
+import wagemaker.uk.network.TreeState;
+import wagemaker.uk.network.TreeType;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.util.*;
+
+/**
+ * Unit tests for the WorldSaveHeader read by the save listing.
+ */
+public class WorldSaveHeaderTest {
+    
+    private File tempDir;
+    
+    @BeforeEach
+    public void setUp() throws IOException {
+        tempDir = Files.createTempDirectory("worldsave-header-test").toFile();
+    }
+    
+    @AfterEach
+    public void tearDown() {
+        File[] files = tempDir.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+        tempDir.delete();
+    }
+    
+    /**
+     * Helper method to build save data with a couple of trees and items.
+     */
+    private WorldSaveData createSaveData() {
+        Map<String, TreeState> trees = new HashMap<>();
+        trees.put("t1", new TreeState("t1", TreeType.APPLE, 100, 100, 80, true));
+        trees.put("t2", new TreeState("t2", TreeType.SMALL, 200, 100, 0, false));
+        Map<String, ItemState> items = new HashMap<>();
+        items.put("i1", new ItemState("i1", ItemType.APPLE, 10, 10, false));
+        Set<String> cleared = new HashSet<>(Arrays.asList("64,64", "128,64", "192,64"));
+        
+        return new WorldSaveData(987L, trees, new HashMap<>(), items, cleared, new ArrayList<>(),
+                                 320.5f, -48.0f, 75.0f, "header-test", "singleplayer");
+    }
+    
+    @Test
+    public void testHeaderRoundTripsListingFields() throws IOException {
+        WorldSaveData saveData = createSaveData();
+        File file = new File(tempDir, "header-test.wld");
+        try (BufferedOutputStream out = new BufferedOutputStream(new FileOutputStream(file))) {
+            WorldSaveHeader.write(out, saveData);
+            ObjectOutputStream oos = new ObjectOutputStream(out);
+            oos.writeObject(saveData);
+            oos.flush();
+        }
+        
+        WorldSaveInfo info = WorldSaveHeader.read(file);
+        assertNotNull(info, "File with header should produce save info");
+        assertEquals("header-test", info.getSaveName());
+        assertEquals("singleplayer", info.getGameMode());
+        assertEquals(saveData.getSaveTimestamp(), info.getSaveTimestamp());
+        assertEquals(987L, info.getWorldSeed());
+        assertEquals(1, info.getTreeCount(), "Only existing trees are counted");
+        assertEquals(1, info.getItemCount());
+        assertEquals(3, info.getClearedPositionCount());
+        assertEquals(320.5f, info.getPlayerX());
+        assertEquals(-48.0f, info.getPlayerY());
+        assertEquals(75.0f, info.getPlayerHealth());
+        assertEquals(saveData.getSaveFormatVersion(), info.getSaveFormatVersion());
+        assertEquals(file.length(), info.getFileSizeBytes());
+        assertTrue(info.isValid());
+    }
+    
+    @Test
+    public void testBodyFollowsHeader() throws Exception {
+        WorldSaveData saveData = createSaveData();
+        File file = new File(tempDir, "body-test.wld");
+        try (FileOutputStream out = new FileOutputStream(file)) {
+            WorldSaveHeader.write(out, saveData);
+            ObjectOutputStream oos = new ObjectOutputStream(out);
+            oos.writeObject(saveData);
+            oos.flush();
+        }
+        
+        try (ObjectInputStream in = new ObjectInputStream(WorldSaveHeader.openBody(file))) {
+            WorldSaveData loaded = (WorldSaveData) in.readObject();
+            assertEquals(987L, loaded.getWorldSeed());
+            assertEquals(2, loaded.getTrees().size());
+        }
+    }
+    
+    @Test
+    public void testFileWithoutHeaderIsStillReadable() throws Exception {
+        File file = new File(tempDir, "legacy.wld");
+        try (ObjectOutputStream oos = new ObjectOutputStream(new FileOutputStream(file))) {
+            oos.writeObject(createSaveData());
+        }
+        
+        assertNull(WorldSaveHeader.read(file), "Older saves have no header");
+        try (ObjectInputStream in = new ObjectInputStream(WorldSaveHeader.openBody(file))) {
+            assertEquals("header-test", ((WorldSaveData) in.readObject()).getSaveName());
+        }
+    }
+    
+    @Test
+    public void testTinyFileHasNoHeader() throws IOException {
+        File file = new File(tempDir, "tiny.wld");
+        Files.write(file.toPath(), new byte[] {1, 2});
+        assertNull(WorldSaveHeader.read(file));
+    }
+    
+    @Test
+    public void testCorruptLengthIsRejected() throws IOException {
+        File file = new File(tempDir, "corrupt.wld");
+        try (DataOutputStream out = new DataOutputStream(new FileOutputStream(file))) {
+            out.writeInt(WorldSaveHeader.MAGIC);
+            out.writeShort(WorldSaveHeader.HEADER_VERSION);
+            out.writeInt(Integer.MAX_VALUE);
+        }
+        assertThrows(IOException.class, () -> WorldSaveHeader.read(file));
+        assertThrows(IOException.class, () -> WorldSaveHeader.openBody(file).close());
+    }
+}
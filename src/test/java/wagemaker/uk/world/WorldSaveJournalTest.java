@@ -0,0 +1,231 @@
+package wagemaker.uk.world;
+
+import org.junit.jupiter.api.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+import wagemaker.uk.network.ItemState;
+import wagemaker.uk.network.ItemType;
+import wagemaker.uk.network.TreeState;
+import wagemaker.uk.network.TreeType;
+import wagemaker.uk.network.WorldState;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.util.*;
+
+/**
+ * Unit tests for incremental saves through WorldSaveJournal.
+ * Tests that repeat saves append changes, that loading replays them, that damaged
+ * journal tails are ignored and that large journals are compacted.
+ */
+public class WorldSaveJournalTest {
+
+    private static final String TEST_SAVE_NAME = "journal-test";
+
+    @AfterEach
+    public void tearDown() {
+        WorldSaveManager.deleteSave(TEST_SAVE_NAME, false);
+    }
+
+    /**
+     * Same location WorldSaveManager uses for singleplayer saves.
+     */
+    private File getSaveFile() {
+        String os = System.getProperty("os.name").toLowerCase();
+        String userHome = System.getProperty("user.home");
+        File configDir;
+
+        if (os.contains("win")) {
+            String appData = System.getenv("APPDATA");
+            configDir = appData != null ? new File(appData, "Woodlanders") : new File(userHome, "AppData/Roaming/Woodlanders");
+        } else if (os.contains("mac")) {
+            configDir = new File(userHome, "Library/Application Support/Woodlanders");
+        } else {
+            configDir = new File(userHome, ".config/woodlanders");
+        }
+
+        File saveDir = new File(new File(configDir, "world-saves"), "singleplayer");
+        return new File(saveDir, TEST_SAVE_NAME + ".wld");
+    }
+
+    private WorldState createWorld(int treeCount) {
+        WorldState worldState = new WorldState();
+        worldState.setWorldSeed(4242L);
+        for (int i = 0; i < treeCount; i++) {
+            String key = (i * 64) + "," + (i * 64);
+            worldState.addOrUpdateTree(new TreeState(key, TreeType.APPLE, i * 64, i * 64, 100, true));
+        }
+        return worldState;
+    }
+
+    private boolean save(WorldState worldState, float playerX) {
+        return WorldSaveManager.saveWorld(TEST_SAVE_NAME, worldState, playerX, 0, 100, false);
+    }
+
+    private WorldSaveInfo listedInfo() {
+        return WorldSaveManager.listAvailableSaves(false).stream()
+            .filter(save -> TEST_SAVE_NAME.equals(save.getSaveName()))
+            .findFirst()
+            .orElse(null);
+    }
+
+    @Test
+    public void testRepeatSaveAppendsOnlyChanges() throws IOException {
+        WorldState world = createWorld(500);
+        assertTrue(save(world, 10), "Initial save should succeed");
+
+        File saveFile = getSaveFile();
+        File journalFile = WorldSaveJournal.journalFileFor(saveFile);
+        byte[] base = Files.readAllBytes(saveFile.toPath());
+        assertFalse(journalFile.exists(), "A full save should not leave a journal");
+
+        // Chop one tree, damage another, drop an item and clear a position
+        world.getTrees().remove("0,0");
+        world.addOrUpdateTree(new TreeState("64,64", TreeType.APPLE, 64, 64, 40, true));
+        world.getItems().put("item-1", new ItemState("item-1", ItemType.APPLE, 64, 64, false));
+        world.getClearedPositions().add("0,0");
+        assertTrue(save(world, 20), "Incremental save should succeed");
+
+        assertArrayEquals(base, Files.readAllBytes(saveFile.toPath()), "Base snapshot should not be rewritten");
+        assertTrue(journalFile.exists(), "Changes should go to the journal");
+        assertTrue(journalFile.length() < 300, "Journal should only hold the changes, was " + journalFile.length());
+
+        WorldSaveData loaded = WorldSaveManager.loadWorld(TEST_SAVE_NAME, false);
+        assertNotNull(loaded, "Save with journal should load");
+        assertEquals(499, loaded.getTrees().size());
+        assertFalse(loaded.getTrees().containsKey("0,0"));
+        assertEquals(40.0f, loaded.getTrees().get("64,64").getHealth(), 0.001f);
+        assertEquals(ItemType.APPLE, loaded.getItems().get("item-1").getType());
+        assertTrue(loaded.getClearedPositions().contains("0,0"));
+        assertEquals(20.0f, loaded.getPlayerX(), 0.001f);
+
+        // Listings show the latest save, not the base
+        WorldSaveInfo info = listedInfo();
+        assertNotNull(info, "Save should be listed");
+        assertEquals(loaded.getSaveTimestamp(), info.getSaveTimestamp());
+        assertEquals(20.0f, info.getPlayerX(), 0.001f);
+    }
+
+    @Test
+    public void testTornLastRecordIsIgnored() throws IOException {
+        WorldState world = createWorld(10);
+        assertTrue(save(world, 10));
+        assertTrue(save(world, 20));
+        File journalFile = WorldSaveJournal.journalFileFor(getSaveFile());
+        long firstRecordEnd = journalFile.length();
+
+        world.getTrees().clear();
+        assertTrue(save(world, 30));
+
+        // Simulate a crash part way through the last append
+        try (RandomAccessFile file = new RandomAccessFile(journalFile, "rw")) {
+            file.setLength(file.length() - 5);
+        }
+        WorldSaveData loaded = WorldSaveManager.loadWorld(TEST_SAVE_NAME, false);
+        assertNotNull(loaded, "Save should load up to the last complete record");
+        assertEquals(20.0f, loaded.getPlayerX(), 0.001f);
+        assertEquals(10, loaded.getTrees().size());
+        assertEquals(20.0f, listedInfo().getPlayerX(), 0.001f, "Listing should skip the torn record too");
+
+        // A damaged checksum is treated the same way
+        try (RandomAccessFile file = new RandomAccessFile(journalFile, "rw")) {
+            file.seek(firstRecordEnd - 1);
+            int last = file.read();
+            file.seek(firstRecordEnd - 1);
+            file.write(last ^ 0xFF);
+        }
+        loaded = WorldSaveManager.loadWorld(TEST_SAVE_NAME, false);
+        assertNotNull(loaded);
+        assertEquals(10.0f, loaded.getPlayerX(), 0.001f, "Should fall back to the base snapshot");
+
+        // The next save no longer trusts the journal and writes a full save
+        assertTrue(save(world, 40));
+        assertFalse(journalFile.exists(), "Full save should replace the damaged journal");
+        loaded = WorldSaveManager.loadWorld(TEST_SAVE_NAME, false);
+        assertEquals(40.0f, loaded.getPlayerX(), 0.001f);
+        assertTrue(loaded.getTrees().isEmpty());
+    }
+
+    @Test
+    public void testListingShowsLastOfManyRecords() throws IOException {
+        WorldState world = createWorld(10);
+        assertTrue(save(world, 0));
+        for (int i = 1; i <= 50; i++) {
+            world.addOrUpdateTree(new TreeState("0,0", TreeType.APPLE, 0, 0, 100 - i, true));
+            assertTrue(save(world, i));
+        }
+        assertEquals(50.0f, listedInfo().getPlayerX(), 0.001f);
+
+        // A damaged checksum on the last record falls back to the one before it
+        File journalFile = WorldSaveJournal.journalFileFor(getSaveFile());
+        try (RandomAccessFile file = new RandomAccessFile(journalFile, "rw")) {
+            file.seek(file.length() - 1);
+            int last = file.read();
+            file.seek(file.length() - 1);
+            file.write(last ^ 0xFF);
+        }
+        assertEquals(49.0f, listedInfo().getPlayerX(), 0.001f);
+        assertEquals(49.0f, WorldSaveManager.loadWorld(TEST_SAVE_NAME, false).getPlayerX(), 0.001f);
+    }
+
+    @Test
+    public void testJournalForAnotherBaseIsIgnored() throws IOException {
+        WorldState world = createWorld(5);
+        assertTrue(save(world, 10));
+        assertTrue(save(world, 20));
+
+        WorldSaveData otherBase = new WorldSaveData();
+        otherBase.setWorldSeed(4242L);
+        otherBase.setSaveTimestamp(1L);
+        assertEquals(0, WorldSaveJournal.replay(WorldSaveJournal.journalFileFor(getSaveFile()), otherBase));
+        assertEquals(0.0f, otherBase.getPlayerX(), 0.001f);
+    }
+
+    @Test
+    public void testSaveOfAnotherSeedWritesFullSave() throws IOException {
+        WorldState world = createWorld(5);
+        assertTrue(save(world, 10));
+        assertTrue(save(world, 20));
+        File journalFile = WorldSaveJournal.journalFileFor(getSaveFile());
+        assertTrue(journalFile.exists());
+
+        // A new world saved under the same name replaces the old one
+        WorldState other = createWorld(2);
+        other.setWorldSeed(9999L);
+        assertTrue(save(other, 30));
+        assertFalse(journalFile.exists(), "A different seed should be written as a full save");
+
+        WorldSaveData loaded = WorldSaveManager.loadWorld(TEST_SAVE_NAME, false);
+        assertNotNull(loaded);
+        assertEquals(9999L, loaded.getWorldSeed(), "Reloaded save should have the new seed");
+        assertEquals(2, loaded.getTrees().size());
+        assertEquals(30.0f, loaded.getPlayerX(), 0.001f);
+    }
+
+    @Test
+    public void testLargeJournalIsCompacted() throws IOException {
+        WorldState world = createWorld(3000);
+        assertTrue(save(world, 0));
+        File saveFile = getSaveFile();
+        File journalFile = WorldSaveJournal.journalFileFor(saveFile);
+
+        // Every save damages every tree, so the journal grows quickly
+        boolean compacted = false;
+        for (int round = 1; round <= 10 && !compacted; round++) {
+            for (TreeState tree : new ArrayList<>(world.getTrees().values())) {
+                world.addOrUpdateTree(new TreeState(tree.getTreeId(), tree.getType(), tree.getX(), tree.getY(),
+                                                    100 - round, true));
+            }
+            assertTrue(save(world, round));
+            compacted = !journalFile.exists();
+        }
+        assertTrue(compacted, "Journal should have been folded into a new base");
+
+        WorldSaveData loaded = WorldSaveManager.loadWorld(TEST_SAVE_NAME, false);
+        assertNotNull(loaded);
+        float expectedHealth = 100 - loaded.getPlayerX();
+        assertEquals(expectedHealth, loaded.getTrees().get("64,64").getHealth(), 0.001f);
+    }
+}